@@ -0,0 +1,717 @@
+package com.kickboard.benchmark;
+
+import com.kickboard.domain.payment.CreditCardMethod;
+import com.kickboard.domain.payment.KakaoPayMethod;
+import com.kickboard.domain.payment.PaymentFactoryManager;
+import com.kickboard.domain.payment.PaymentGateway;
+import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.payment.Wallet;
+import com.kickboard.domain.pricing.BaseFee;
+import com.kickboard.domain.pricing.FareMeter;
+import com.kickboard.domain.pricing.discount.CardDiscountDecorator;
+import com.kickboard.domain.pricing.discount.CouponDiscountDecorator;
+import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.pricing.discount.DiscountPipeline;
+import com.kickboard.domain.pricing.discount.DistanceDiscountDecorator;
+import com.kickboard.domain.pricing.discount.PromotionDecorator;
+import com.kickboard.domain.pricing.strategy.DistanceFeeStrategy;
+import com.kickboard.domain.pricing.strategy.FeeStrategy;
+import com.kickboard.domain.pricing.strategy.TimeFeeStrategy;
+import com.kickboard.domain.pricing.tariff.TariffRegistry;
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Vehicle;
+import com.kickboard.domain.vehicle.VehicleStatus;
+import com.kickboard.exception.PaymentGatewayException;
+import com.kickboard.metrics.MetricsRegistry;
+import com.kickboard.repository.AppState;
+import com.kickboard.repository.CsvExporter;
+import com.kickboard.repository.RentalRepository;
+import com.kickboard.repository.StateStore;
+import com.kickboard.repository.VehicleRepository;
+import com.kickboard.service.KickboardRentalService;
+import com.kickboard.service.PaymentPipeline;
+import com.kickboard.service.PaymentVelocity;
+import com.kickboard.service.Session;
+import com.kickboard.service.UserService;
+import com.kickboard.simulator.PaymentGatewaySimulator;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * HotPathBenchmarks.java : 대여/요금/조회/저장 경로의 성능 측정 (커밋 간 비교용)
+ *                          - Rental.calculateFinalFee (프로모션 0/1/3/6개, 할인 파이프라인과 데코레이터 겹쳐 감싸기 비교)
+ *                          - 반납 요금 계산 (예전 BigDecimal 연쇄 계산 vs Money, 호출당 할당량 포함)
+ *                          - 주행 중 요금 조회 (전략마다 다시 계산 vs FareMeter.quote)
+ *                          - 요금표 조회 + 요금 계산 (고정 요율 전략 vs 모델/구역/시간대 요금표)
+ *                          - 반납 결제 처리량 (요청 스레드가 결제사 응답을 기다리는 방식 vs 결제 파이프라인, 결제사 하나가 멈춘 경우 포함)
+ *                          - 결제수단 잔액 차감 처리량 (잠금 vs CAS, 스레드 1/4/16개, 결제수단 1/16개)
+ *                          - 결제 한도 검사 (카드 1천/10만 개, 한도 안/초과, 스레드 1/4/16개 처리량)
+ *                          - 대여 경합 (라이더 스레드 4/16/64개가 킥보드 1/16대를 두고 대여/반납, 중복 대여가 없는지 확인)
+ *                          - 가까운 킥보드 찾기 (격자 인덱스 vs 전체 훑기, 킥보드 1만/10만 대, 운영 구역 안/먼 곳 질의)
+ *                          - UserService.findUserById (사용자 1만/10만/100만 명)
+ *                          - StateStore.save / loadOrCreate / loadSnapshot(섹션 동시 해석), CsvExporter.exportToCsv (실사용 규모 상태)
+ *                          - KickboardRentalService.rentKickboard (시뮬레이터는 프로세스 내 엔진으로 대체)
+ *                          결과는 JMH JSON과 같은 구조로 저장된다.
+ *
+ * 실행 : 빈 디렉터리에서 (상태 파일을 data/ 아래에 만들고 지운다)
+ *        java -cp <classes> com.kickboard.benchmark.HotPathBenchmarks [결과.json] [이름 필터]
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class HotPathBenchmarks {
+
+    private static final Path DATA_DIR = Paths.get("data");
+
+    private HotPathBenchmarks() {}
+
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get(args.length > 0 ? args[0] : "benchmark-result.json");
+        String filter = args.length > 1 ? args[1] : "";
+        if (Files.exists(StateStore.stateFilePath())) {
+            System.err.println("오류: " + StateStore.stateFilePath().toAbsolutePath()
+                    + " 가 이미 있습니다. 기존 데이터를 덮어쓰지 않도록 빈 디렉터리에서 실행하세요.");
+            return;
+        }
+
+        MicroBenchmark bench = new MicroBenchmark(3, 5, 1_000);
+        if ("calculateFinalFee".contains(filter)) benchmarkFinalFee(bench);
+        if ("Pricing.return".contains(filter)) benchmarkReturnPricing(bench);
+        if ("FareMeter.quote".contains(filter)) benchmarkFareQuote(bench);
+        if ("Tariff.fee".contains(filter)) benchmarkTariff(bench);
+        if ("Payment.return".contains(filter)) benchmarkPaymentThroughput(bench);
+        if ("Wallet.debit".contains(filter)) benchmarkWalletDebit(bench);
+        if ("PaymentVelocity.check".contains(filter)) benchmarkPaymentVelocity(bench);
+        if ("Repository.rentContention".contains(filter)) benchmarkRentContention(bench);
+        if ("Vehicle.nearest".contains(filter)) benchmarkNearest(bench);
+        if ("findUserById".contains(filter)) benchmarkFindUser(bench);
+        if ("StateStore".contains(filter) || "exportToCsv".contains(filter)) benchmarkStateStore(bench);
+        if ("rentKickboard".contains(filter)) benchmarkRent(bench); // 서비스 싱글톤을 만들므로 마지막에 실행
+        bench.writeJson(output);
+        System.out.println("결과 저장: " + output.toAbsolutePath());
+        System.exit(0); // 서비스의 백그라운드 스레드 정리
+    }
+
+    // 결과 파일에서 순서가 바뀌지 않도록 입력 순서를 유지
+    private static Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) params.put(keyValues[i], keyValues[i + 1]);
+        return params;
+    }
+
+    // ===== Rental.calculateFinalFee =====
+
+    private static void benchmarkFinalFee(MicroBenchmark bench) throws Exception {
+        Rental rental = new Rental("RNT-BENCH", new User("bench", "pw"), new Vehicle("KB-BENCH", "Model S", 0, 0, 100),
+                LocalDateTime.now().minusMinutes(37));
+        rental.complete(2_400.0);
+        FeeStrategy strategy = new TimeFeeStrategy();
+
+        List<PromotionDecorator> all = List.of(
+                new CardDiscountDecorator(null, "Hyundai", new BigDecimal("0.10")),
+                new CouponDiscountDecorator(null, "쿠폰(WELCOME)", "WELCOME", new BigDecimal("0.15")),
+                new DistanceDiscountDecorator(null, 1.5, new BigDecimal("0.05")),
+                new DistanceDiscountDecorator(null, 2.0, new BigDecimal("0.10")),
+                new CouponDiscountDecorator(null, "쿠폰(SPRING)", "SPRING", new BigDecimal("0.05")),
+                new CardDiscountDecorator(null, "Samsung", new BigDecimal("0.05")));
+
+        for (int depth : new int[] { 0, 1, 3, 6 }) {
+            List<Integer> selected = new ArrayList<>();
+            for (int i = 0; i < depth; i++) selected.add(i);
+            Map<String, String> params = params("promotions", String.valueOf(depth));
+            bench.measure("Rental.calculateFinalFee", params,
+                    () -> rental.calculateFinalFee(strategy, all, selected).getFinalCost());
+            DiscountPipeline pipeline = DiscountPipeline.compile(all, selected);
+            bench.measure("Rental.calculateFinalFee.precompiled", params,
+                    () -> rental.calculateFinalFee(strategy, pipeline).getFinalCost());
+            bench.measure("PromotionDecorator.chain", params,
+                    () -> stackDecorators(new BaseFee(strategy.calculateFee(rental)), all, selected, false).getFinalCost());
+            bench.measure("PromotionDecorator.chain.reflective", params,
+                    () -> stackDecorators(new BaseFee(strategy.calculateFee(rental)), all, selected, true).getFinalCost());
+        }
+    }
+
+    // ===== 반납 요금 계산 (거리 요금 + 할인 단계) =====
+
+    private static void benchmarkReturnPricing(MicroBenchmark bench) throws Exception {
+        BigDecimal[] rates = { new BigDecimal("0.10"), new BigDecimal("0.15"), new BigDecimal("0.05"),
+                new BigDecimal("0.10"), new BigDecimal("0.05"), new BigDecimal("0.05") };
+        List<PromotionDecorator> all = List.of(
+                new CardDiscountDecorator(null, "Hyundai", rates[0]),
+                new CouponDiscountDecorator(null, "쿠폰(WELCOME)", "WELCOME", rates[1]),
+                new DistanceDiscountDecorator(null, 1.5, rates[2]),
+                new DistanceDiscountDecorator(null, 2.0, rates[3]),
+                new CouponDiscountDecorator(null, "쿠폰(SPRING)", "SPRING", rates[4]),
+                new CardDiscountDecorator(null, "Samsung", rates[5]));
+        FeeStrategy strategy = new DistanceFeeStrategy();
+        double[] distances = new double[1024];
+        for (int i = 0; i < distances.length; i++) distances[i] = ThreadLocalRandom.current().nextDouble(0, 8_000);
+
+        for (int depth : new int[] { 0, 3, 6 }) {
+            List<Integer> selected = new ArrayList<>();
+            for (int i = 0; i < depth; i++) selected.add(i);
+            DiscountPipeline pipeline = DiscountPipeline.compile(all, selected);
+            Map<String, String> params = params("promotions", String.valueOf(depth));
+            int[] next = { 0 };
+            bench.measure("Pricing.return.bigDecimal", params, () -> {
+                double distance = distances[next[0]++ & (distances.length - 1)];
+                BigDecimal cost = LEGACY_RATE_PER_KM.multiply(BigDecimal.valueOf(distance));
+                for (int i = 0; i < depth; i++) cost = cost.subtract(cost.multiply(rates[i]));
+                return cost;
+            });
+            bench.measure("Pricing.return.money", params, () -> {
+                double distance = distances[next[0]++ & (distances.length - 1)];
+                return pipeline.apply(strategy.calculateFee(0, distance));
+            });
+        }
+    }
+
+    private static final BigDecimal LEGACY_RATE_PER_KM = new BigDecimal("200"); // Money 도입 전 DistanceFeeStrategy
+
+    // ===== 주행 중 요금 조회 (showDrivingStatus) =====
+
+    private static void benchmarkFareQuote(MicroBenchmark bench) throws Exception {
+        Rental rental = new Rental("RNT-BENCH", new User("bench", "pw"), new Vehicle("KB-BENCH", "Model S", 0, 0, 100),
+                LocalDateTime.now().minusMinutes(12));
+        rental.updateTraveledDistance(1_350.0);
+        List<FeeStrategy> strategies = List.of(new TimeFeeStrategy(), new DistanceFeeStrategy());
+        FareMeter meter = new FareMeter(rental, strategies);
+
+        bench.measure("FeeStrategy.calculateFee.live", params("strategies", String.valueOf(strategies.size())), () -> {
+            Money last = null;
+            for (FeeStrategy strategy : strategies) last = strategy.calculateFee(rental);
+            return last;
+        });
+        bench.measure("FareMeter.quote", params("strategies", String.valueOf(strategies.size())), () -> {
+            Money last = null;
+            for (int i = 0; i < meter.size(); i++) last = meter.quote(i);
+            return last;
+        });
+    }
+
+    // ===== 요금표 조회 (반납 시 calculateFee(rental)) =====
+
+    private static void benchmarkTariff(MicroBenchmark bench) throws Exception {
+        Path file = DATA_DIR.resolve("tariffs-bench.csv");
+        Files.createDirectories(DATA_DIR);
+        Rental rental = new Rental("RNT-BENCH", new User("bench", "pw"), new Vehicle("KB-BENCH", "Model T", 35, 35, 100),
+                LocalDateTime.now().minusMinutes(23));
+        rental.complete(2_400.0);
+        FeeStrategy fixed = new DistanceFeeStrategy();
+        bench.measure("Tariff.fee.fixed", params("zones", "0"), () -> fixed.calculateFee(rental));
+
+        // 모델 8종, 구역 n개 (킥보드는 마지막 구역에 있다), 시간대 3개
+        for (int zones : new int[] { 1, 16, 64 }) {
+            StringBuilder table = new StringBuilder();
+            for (int z = 0; z < zones; z++) {
+                int x = (z == zones - 1) ? 30 : 100 + z * 10;
+                table.append("zone,Z").append(z).append(',').append(x).append(",30,").append(x + 9).append(",39\n");
+            }
+            table.append("rate,Time-based,*,*,*,0,200,0\nrate,Distance-based,*,*,*,0,0,200\n");
+            for (int m = 0; m < 8; m++) {
+                String model = (m == 7) ? "Model T" : "Model " + m;
+                table.append("rate,Distance-based,").append(model).append(",*,*,100,0,").append(150 + m * 10).append('\n');
+                table.append("rate,Distance-based,").append(model).append(",*,7-9,100,0,").append(250 + m * 10).append('\n');
+                table.append("rate,Distance-based,").append(model).append(",*,22-5,300,0,").append(200 + m * 10).append('\n');
+            }
+            table.append("rate,Distance-based,*,Z").append(zones - 1).append(",*,0,0,180\n");
+            Files.writeString(file, table);
+            try (TariffRegistry registry = new TariffRegistry(file, 0)) {
+                FeeStrategy tariff = registry.getStrategies().get(1);
+                bench.measure("Tariff.fee.table", params("zones", String.valueOf(zones)), () -> tariff.calculateFee(rental));
+            }
+        }
+        Files.deleteIfExists(file);
+    }
+
+    // ===== 반납 결제 처리량 (결제사 응답 80ms 안팎) =====
+
+    private static final int PAYMENT_USERS = 32;               // 동시에 결제하는 사용자 수 (절반은 카드, 절반은 카카오페이)
+    private static final int PAYMENT_REQUEST_THREADS = 8;      // 요청을 처리하는 스레드 수
+    private static final long PAYMENT_USER_RETRY_MILLIS = 100; // 결제 오류를 본 사용자가 다시 시도하기까지
+    private static final AtomicLong PAYMENT_IDS = new AtomicLong();
+
+    private static void benchmarkPaymentThroughput(MicroBenchmark bench) throws Exception {
+        PaymentGatewaySimulator.Options normal = PaymentGatewaySimulator.Options.defaults().withLatency(80, 0.5);
+        PaymentGatewaySimulator card = new PaymentGatewaySimulator("CREDIT_CARD", normal);
+        PaymentGatewaySimulator kakao = new PaymentGatewaySimulator("KAKAO_PAY", normal);
+        Map<PaymentMethodType, PaymentGateway> gateways = new EnumMap<>(PaymentMethodType.class);
+        gateways.put(PaymentMethodType.CREDIT_CARD, card);
+        gateways.put(PaymentMethodType.KAKAO_PAY, kakao);
+        PaymentMethod[] methods = { new CreditCardMethod("4000-0000", "000", "bench", "Hyundai"),
+                new KakaoPayMethod("010-0000", "0000", "bench", "Kakao") };
+        for (PaymentMethod m : methods) m.restoreBalance(Money.ofWon(1_000_000_000_000L));
+        PaymentPipeline.Options options = PaymentPipeline.Options.defaults().withTimeout(500).withCircuitBreaker(5, 1_000);
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(PAYMENT_REQUEST_THREADS);
+        ScheduledExecutorService users = Executors.newSingleThreadScheduledExecutor();
+        try (PaymentPipeline pipeline = new PaymentPipeline(gateways, options, new MetricsRegistry())) {
+            // 예전 방식: 요청 스레드가 결제사 응답까지 기다린다. (시간 제한 없음)
+            Function<Payment, CompletableFuture<Boolean>> callerThread = payment -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return gateways.get(payment.getPaymentMethod().getType()).charge(payment, payment.getPaymentId());
+                } catch (PaymentGatewayException e) {
+                    throw new CompletionException(e);
+                }
+            }, requestThreads);
+            // 파이프라인: 요청 스레드는 결제사별 실행기에 맡기고 바로 돌아간다.
+            Function<Payment, CompletableFuture<Boolean>> viaPipeline = payment -> pipeline.charge(payment, payment.getPaymentId());
+
+            for (String scenario : new String[] { "normal", "kakaoStall" }) {
+                // kakaoStall : 카카오페이 요청의 30%가 5초 동안 응답하지 않는다
+                kakao.setOptions("normal".equals(scenario) ? normal : normal.withStalls(0.3, 5_000));
+                Map<String, String> params = params("gateway", scenario);
+                bench.measureThroughput("Payment.return.callerThread", params,
+                        millis -> runPaymentUsers(callerThread, users, methods, millis));
+                bench.measureThroughput("Payment.return.pipeline", params,
+                        millis -> runPaymentUsers(viaPipeline, users, methods, millis));
+            }
+        } finally {
+            requestThreads.shutdownNow();
+            users.shutdownNow();
+        }
+    }
+
+    // 사용자마다 결제가 끝나면 다음 결제를 요청하고, 시간 안에 승인된 건수를 센다.
+    private static long runPaymentUsers(Function<Payment, CompletableFuture<Boolean>> charge,
+                                        ScheduledExecutorService users, PaymentMethod[] methods, long millis)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        AtomicLong approved = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(PAYMENT_USERS);
+        for (int u = 0; u < PAYMENT_USERS; u++) {
+            payLoop(charge, users, methods[u % methods.length], deadline, approved, done);
+        }
+        done.await();
+        return approved.get();
+    }
+
+    private static void payLoop(Function<Payment, CompletableFuture<Boolean>> charge, ScheduledExecutorService users,
+                                PaymentMethod method, long deadline, AtomicLong approved, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        charge.apply(newPayment(method, PAYMENT_IDS.incrementAndGet())).whenComplete((ok, error) -> {
+            if (error == null && ok && System.nanoTime() < deadline) approved.incrementAndGet();
+            users.schedule(() -> payLoop(charge, users, method, deadline, approved, done),
+                    error == null ? 0 : PAYMENT_USER_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private static Payment newPayment(PaymentMethod method, long id) {
+        Payment payment = PaymentFactoryManager.getFactory(method.getType())
+                .createPayment(method, Money.ofWon(1_500), "RNT-BENCH-" + id);
+        payment.setAmount(Money.ofWon(1_500));
+        return payment;
+    }
+
+    // 파이프라인 도입 전 방식: 결제마다 데코레이터를 복제해 겹쳐 감싸고, getFinalCost가 체인을 재귀로 따라간다.
+    // reflective면 예전 decorate()처럼 복제 생성자를 리플렉션으로 찾아 호출한다.
+    private static Fee stackDecorators(Fee fee, List<PromotionDecorator> all, List<Integer> selected, boolean reflective)
+            throws ReflectiveOperationException {
+        for (int idx : selected) {
+            PromotionDecorator d = all.get(idx);
+            fee = reflective
+                    ? d.getClass().getConstructor(Fee.class, d.getClass()).newInstance(fee, d)
+                    : d.decorate(fee);
+        }
+        return fee;
+    }
+
+    // ===== 결제수단 잔액 차감 (같은 결제수단에 결제가 몰리는 경우) =====
+
+    // 예전 PaymentMethod 방식: 결제수단 잠금을 잡고 잔액 확인 후 차감 (거래 내역 없음)
+    private static final class LockedBalance {
+        private long balanceMinor;
+
+        LockedBalance(long balanceMinor) {
+            this.balanceMinor = balanceMinor;
+        }
+
+        synchronized boolean tryDebit(long minor) {
+            if (balanceMinor < minor) return false;
+            balanceMinor -= minor;
+            return true;
+        }
+    }
+
+    // 스레드 번호와 반복 번호로 결제수단을 골라 차감한다.
+    private interface DebitOp {
+        boolean debit(int thread, long i);
+    }
+
+    private static void benchmarkWalletDebit(MicroBenchmark bench) throws Exception {
+        Money fare = Money.ofWon(1_500);
+        Money start = Money.ofWon(1_000_000_000_000L);
+        for (int threads : new int[] { 1, 4, 16 }) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                for (int wallets : new int[] { 1, 16 }) { // 1이면 모든 결제가 한 결제수단으로
+                    Map<String, String> params = params("threads", String.valueOf(threads), "wallets", String.valueOf(wallets));
+                    bench.measureThroughput("Wallet.debit.locked", params, millis -> {
+                        LockedBalance[] w = new LockedBalance[wallets];
+                        for (int i = 0; i < wallets; i++) w[i] = new LockedBalance(start.minorUnits());
+                        return runDebits(pool, threads, millis, (t, i) -> w[(int) ((t + i) % wallets)].tryDebit(fare.minorUnits()));
+                    });
+                    bench.measureThroughput("Wallet.debit.cas", params, millis -> {
+                        Wallet[] w = new Wallet[wallets];
+                        for (int i = 0; i < wallets; i++) w[i] = new Wallet(start);
+                        long debits = runDebits(pool, threads, millis, (t, i) -> w[(int) ((t + i) % wallets)].tryDebit(fare, null));
+                        long remaining = 0;
+                        for (Wallet wallet : w) remaining += wallet.getBalance().minorUnits();
+                        if (remaining != start.minorUnits() * wallets - debits * fare.minorUnits()) { // 차감이 빠지거나 겹치지 않았는지
+                            throw new IllegalStateException("잔액 불일치: " + remaining);
+                        }
+                        return debits;
+                    });
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static long runDebits(ExecutorService pool, int threads, long millis, DebitOp op) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        List<Future<Long>> counts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            counts.add(pool.submit(() -> {
+                long debits = 0;
+                for (long i = 0; (i & 255) != 0 || System.nanoTime() < deadline; i++) {
+                    if (op.debit(thread, i)) debits++;
+                }
+                return debits;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> count : counts) total += count.get();
+        return total;
+    }
+
+    // ===== 결제 한도 검사 (결제마다 한 번) =====
+
+    private static void benchmarkPaymentVelocity(MicroBenchmark bench) throws Exception {
+        Money fare = Money.ofWon(1_500);
+        // 1초 창(0.1초 칸 10개)이라 측정 중에도 칸이 계속 바뀐다
+        PaymentVelocity.Options window = PaymentVelocity.Options.defaults().withWindow(1, 10);
+        PaymentVelocity.Options pass = window.withCardLimit(Long.MAX_VALUE / 2, Money.ofWon(Long.MAX_VALUE / 1_000))
+                .withUserLimit(Long.MAX_VALUE / 2, Money.ofWon(Long.MAX_VALUE / 1_000));
+        PaymentVelocity.Options block = window.withCardLimit(1, Money.ofWon(1_000)); // 모든 결제가 막힌다 (더한 뒤 되돌림)
+        for (int cards : new int[] { 1_000, 100_000 }) {
+            PaymentMethod[] methods = new PaymentMethod[cards];
+            String[] userIds = new String[cards];
+            for (int i = 0; i < cards; i++) {
+                methods[i] = new CreditCardMethod("4000-" + i, "000", "bench", "Hyundai");
+                userIds[i] = "user" + (i / 2); // 사용자마다 카드 2장
+            }
+            for (String limit : new String[] { "pass", "block" }) {
+                try (PaymentVelocity velocity = new PaymentVelocity("pass".equals(limit) ? pass : block, new MetricsRegistry())) {
+                    bench.measure("PaymentVelocity.check", params("cards", String.valueOf(cards), "limit", limit), () -> {
+                        int i = ThreadLocalRandom.current().nextInt(cards);
+                        return velocity.tryRecord(userIds[i], methods[i], fare);
+                    });
+                }
+            }
+            try (PaymentVelocity velocity = new PaymentVelocity(pass, new MetricsRegistry())) {
+                for (int threads : new int[] { 1, 4, 16 }) {
+                    ExecutorService pool = Executors.newFixedThreadPool(threads);
+                    try {
+                        bench.measureThroughput("PaymentVelocity.check.throughput",
+                                params("cards", String.valueOf(cards), "threads", String.valueOf(threads)),
+                                millis -> runDebits(pool, threads, millis, (t, i) -> {
+                                    int c = ThreadLocalRandom.current().nextInt(cards);
+                                    return velocity.tryRecord(userIds[c], methods[c], fare).isAllowed();
+                                }));
+                    } finally {
+                        pool.shutdownNow();
+                    }
+                }
+            }
+        }
+    }
+
+    // ===== 대여 경합 (킥보드보다 라이더가 많은 경우) =====
+
+    // 서비스의 대여 순서 그대로 저장소만 사용한다: unlock() 선점 -> saveIfNoActive() -> 반납 시 complete/lock
+    private static void benchmarkRentContention(MicroBenchmark bench) throws Exception {
+        for (int threads : new int[] { 4, 16, 64 }) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                for (int vehicles : new int[] { 1, 16 }) {
+                    Map<String, String> params = params("threads", String.valueOf(threads), "vehicles", String.valueOf(vehicles));
+                    bench.measureThroughput("Repository.rentContention", params,
+                            millis -> runRentContention(pool, threads, vehicles, millis));
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 스레드들이 킥보드와 사용자(두 스레드가 한 사용자를 나눠 쓴다)를 돌아가며 골라 대여하고 바로 반납한다.
+     * 대여 중에는 킥보드별/사용자별 대여 수를 올려 두어, 한 킥보드나 한 사용자가 동시에 두 번 대여되면 실패한다.
+     * @return 성공한 대여 수
+     */
+    private static long runRentContention(ExecutorService pool, int threads, int vehicleCount, long millis) throws Exception {
+        VehicleRepository kickboards = new VehicleRepository();
+        RentalRepository rentals = new RentalRepository();
+        Vehicle[] vehicles = new Vehicle[vehicleCount];
+        for (int v = 0; v < vehicleCount; v++) {
+            vehicles[v] = new Vehicle("KB-C" + v, "Model S", v, v, 100);
+            kickboards.save(vehicles[v]);
+        }
+        User[] users = new User[Math.max(1, threads / 2)];
+        for (int u = 0; u < users.length; u++) users[u] = new User("rider" + u, "pw");
+        AtomicIntegerArray vehicleRiders = new AtomicIntegerArray(vehicleCount);
+        AtomicIntegerArray userRentals = new AtomicIntegerArray(users.length);
+        AtomicLong rentalIds = new AtomicLong();
+        AtomicLong violations = new AtomicLong();
+
+        long rents = runDebits(pool, threads, millis, (t, i) -> {
+            int v = (int) ((t + i) % vehicleCount);
+            int u = (int) ((t + i) % users.length);
+            Vehicle vehicle = vehicles[v];
+            if (!vehicle.unlock()) { // 다른 라이더가 타는 중이면 가까운 킥보드를 찾아본다
+                kickboards.findNearest(VehicleStatus.AVAILABLE, v, v, 3, 0);
+                return false;
+            }
+            Rental rental = new Rental("RNT-C" + rentalIds.incrementAndGet(), users[u], vehicle, LocalDateTime.now());
+            if (!rentals.saveIfNoActive(rental)) {
+                vehicle.lock(); // 선점 취소
+                return false;
+            }
+            kickboards.refresh(vehicle);
+            if (vehicleRiders.incrementAndGet(v) != 1 || userRentals.incrementAndGet(u) != 1
+                    || rentals.findActiveByUser(users[u].getUserId()) != rental) {
+                violations.incrementAndGet();
+            }
+            vehicleRiders.decrementAndGet(v);
+            userRentals.decrementAndGet(u);
+            rental.complete(0);
+            rentals.refresh(rental);
+            rentals.remove(rental); // 끝난 대여가 측정 중 쌓이지 않도록
+            vehicle.lock();
+            kickboards.refresh(vehicle);
+            return true;
+        });
+        if (violations.get() > 0) throw new IllegalStateException("중복 대여 " + violations.get() + "건");
+        if (kickboards.countByStatus(VehicleStatus.AVAILABLE) != vehicleCount) { // 선점이 새거나 인덱스가 어긋나지 않았는지
+            throw new IllegalStateException("대여 가능 킥보드 수 불일치: " + kickboards.countByStatus(VehicleStatus.AVAILABLE));
+        }
+        return rents;
+    }
+
+    // ===== 가까운 킥보드 찾기 =====
+
+    private static final int AREA = 5_000; // 운영 구역 한 변 (좌표 단위)
+
+    private static void benchmarkNearest(MicroBenchmark bench) throws Exception {
+        int k = 5, minBattery = 20;
+        for (int size : new int[] { 10_000, 100_000 }) {
+            VehicleRepository kickboards = new VehicleRepository();
+            Vehicle[] fleet = new Vehicle[size];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < size; i++) {
+                fleet[i] = new Vehicle("KB-N" + i, "Model S", random.nextInt(AREA), random.nextInt(AREA), random.nextInt(101));
+                if (i % 4 == 0) fleet[i].unlock(); // 4대 중 1대는 대여 중
+                kickboards.save(fleet[i]);
+            }
+            // inside : 구역 안 임의 지점, far : 구역에서 멀리 떨어진 지점 (사용자가 임의 좌표를 넣은 경우)
+            for (String query : new String[] { "inside", "far" }) {
+                Map<String, String> params = params("vehicles", String.valueOf(size), "query", query);
+                int offset = "far".equals(query) ? 1_000_000 : 0;
+                bench.measure("Vehicle.nearest.grid", params, () -> {
+                    int x = offset + ThreadLocalRandom.current().nextInt(AREA), y = offset + ThreadLocalRandom.current().nextInt(AREA);
+                    return kickboards.findNearest(VehicleStatus.AVAILABLE, x, y, k, minBattery);
+                });
+                bench.measure("Vehicle.nearest.fullScan", params, () -> {
+                    int x = offset + ThreadLocalRandom.current().nextInt(AREA), y = offset + ThreadLocalRandom.current().nextInt(AREA);
+                    return scanNearest(fleet, x, y, k, minBattery);
+                });
+            }
+        }
+    }
+
+    // 인덱스 없이 모든 킥보드를 훑어 가까운 k대를 고른다. (크기 k의 힙)
+    private static List<Vehicle> scanNearest(Vehicle[] fleet, int x, int y, int k, int minBattery) {
+        Comparator<Vehicle> byDistance = Comparator.comparingLong(v -> v.getLocation().distanceSq(x, y));
+        PriorityQueue<Vehicle> best = new PriorityQueue<>(k, byDistance.reversed());
+        for (Vehicle v : fleet) {
+            if (v.getStatus() != VehicleStatus.AVAILABLE || v.getBatteryLevel() < minBattery) continue;
+            if (best.size() < k) {
+                best.add(v);
+            } else if (byDistance.compare(v, best.peek()) < 0) {
+                best.poll();
+                best.add(v);
+            }
+        }
+        List<Vehicle> result = new ArrayList<>(best);
+        result.sort(byDistance);
+        return result;
+    }
+
+    // ===== UserService.findUserById =====
+
+    private static void benchmarkFindUser(MicroBenchmark bench) throws Exception {
+        for (int size : new int[] { 10_000, 100_000, 1_000_000 }) {
+            List<User> users = new ArrayList<>(size);
+            String[] ids = new String[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = "user" + i;
+                users.add(new User(ids[i], "pw"));
+            }
+            UserService service = new UserService();
+            service.loadUsers(users);
+            bench.measure("UserService.findUserById", params("users", String.valueOf(size)),
+                    () -> service.findUserById(ids[ThreadLocalRandom.current().nextInt(size)]));
+        }
+    }
+
+    // ===== StateStore / CsvExporter =====
+
+    private static void benchmarkStateStore(MicroBenchmark bench) throws Exception {
+        AppState state = realisticState(10_000, 1_000, 20_000);
+        Map<String, String> params = params("users", "10000", "vehicles", "1000", "rentals", "20000");
+        bench.measureTimed("StateStore.save", params, () -> {
+            long start = System.nanoTime();
+            StateStore.save(state);
+            return System.nanoTime() - start;
+        });
+        bench.measureTimed("StateStore.loadOrCreate", params, () -> {
+            long start = System.nanoTime();
+            AppState loaded = StateStore.loadOrCreate();
+            long elapsed = System.nanoTime() - start;
+            if (loaded.getRentals().size() != state.getRentals().size()) throw new IllegalStateException("상태 복원 결과가 다릅니다.");
+            return elapsed;
+        });
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Map<String, String> parallelParams = new LinkedHashMap<>(params);
+        parallelParams.put("threads", String.valueOf(threads));
+        bench.measureTimed("StateStore.loadSnapshot.parallel", parallelParams, () -> {
+            long start = System.nanoTime();
+            AppState loaded = StateStore.loadSnapshot(pool); // 시작 시와 같이 섹션별로 동시에 해석
+            long elapsed = System.nanoTime() - start;
+            if (loaded.getRentals().size() != state.getRentals().size()) throw new IllegalStateException("상태 복원 결과가 다릅니다.");
+            return elapsed;
+        });
+        pool.shutdown();
+        bench.measureTimed("CsvExporter.exportToCsv", params, () -> {
+            long start = System.nanoTime();
+            CsvExporter.exportToCsv(state);
+            return System.nanoTime() - start;
+        });
+        CsvExporter.Options[] variants = {
+                CsvExporter.Options.defaults().withSplitSections(true).withGzip(true),
+                CsvExporter.Options.defaults().withIncremental(true) }; // 첫 번째 이후에는 새 대여가 없어 덧붙일 행이 없다
+        for (CsvExporter.Options options : variants) {
+            Map<String, String> variantParams = new LinkedHashMap<>(params);
+            variantParams.put("options", options.toString());
+            bench.measureTimed("CsvExporter.exportToCsv", variantParams, () -> {
+                long start = System.nanoTime();
+                CsvExporter.exportToCsv(state, options);
+                return System.nanoTime() - start;
+            });
+        }
+        Files.deleteIfExists(StateStore.stateFilePath());
+        Files.deleteIfExists(DATA_DIR.resolve("kickboard.csv"));
+        try (var files = Files.list(DATA_DIR.resolve("export"))) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+        }
+        Files.deleteIfExists(DATA_DIR.resolve("export"));
+    }
+
+    private static AppState realisticState(int userCount, int vehicleCount, int rentalCount) {
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            User u = new User("user" + i, "pw" + i);
+            if (i % 3 == 0) u.addCoupon("WELCOME", new BigDecimal("0.10"));
+            users.add(u);
+        }
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int i = 0; i < vehicleCount; i++) {
+            vehicles.add(new Vehicle(String.format("KB%05d", i), "Model S", i % 100, i / 100, 15 + i % 86));
+        }
+        List<Rental> rentals = new ArrayList<>(rentalCount);
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < rentalCount; i++) {
+            Rental r = new Rental(String.format("RNT-%08d", i), users.get(i % userCount), vehicles.get(i % vehicleCount),
+                    base.plusMinutes(i));
+            r.complete(3.0 * (i % 500));
+            r.confirmPayment();
+            r.getRentalInfo().setFinalCost(BigDecimal.valueOf(1_000 + i % 5_000));
+            rentals.add(r);
+        }
+        AppState state = new AppState();
+        state.setUsers(users);
+        state.setVehicles(vehicles);
+        state.setRentals(rentals);
+        return state;
+    }
+
+    // ===== KickboardRentalService.rentKickboard =====
+
+    // 라이더마다 대여 -> (측정 제외) 반납/결제를 반복한다.
+    private static void benchmarkRent(MicroBenchmark bench) throws Exception {
+        System.setProperty("kickboard.telemetry", "inprocess");      // 터미널/JVM 대신 프로세스 내 주행 엔진
+        System.setProperty("kickboard.fleet.tickMillis", "3600000"); // 측정 중 이동 없음
+        System.setProperty("kickboard.payment.velocity.enabled", "false"); // 같은 라이더가 계속 결제한다
+        KickboardRentalService service = KickboardRentalService.getInstance();
+
+        int riders = 64;
+        Session[] sessions = new Session[riders];
+        PaymentMethod[] cards = new PaymentMethod[riders];
+        for (int i = 0; i < riders; i++) {
+            String id = "bench" + i;
+            service.register(id, "pw", String.format("%012d", i));
+            service.addKickboard(new Vehicle("BENCH" + i, "Model S", i, i, 100));
+            sessions[i] = service.login(id, "pw");
+            service.addPaymentMethod(sessions[i], PaymentMethodType.CREDIT_CARD, "4000-0000-0000-" + i, "000", "bench", "Hyundai");
+            cards[i] = service.getSessionUser(sessions[i]).getPaymentMethods().get(0);
+        }
+
+        int[] next = { 0 };
+        BaseFee free = new BaseFee(Money.ZERO);
+        bench.measureTimed("KickboardRentalService.rentKickboard", params("riders", String.valueOf(riders)), () -> {
+            int i = next[0]++ % riders;
+            long start = System.nanoTime();
+            Rental rental = service.rentKickboard(sessions[i], "BENCH" + i);
+            long elapsed = System.nanoTime() - start;
+
+            rental = service.stopSimulatorAndUpdateRental(sessions[i], rental);
+            rental.complete(rental.getRentalInfo().getTraveledDistance());
+            service.processPaymentAndFinalize(sessions[i], rental, free, cards[i]);
+            return elapsed;
+        });
+        service.shutdown();
+    }
+}
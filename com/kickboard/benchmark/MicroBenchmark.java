@@ -0,0 +1,194 @@
+package com.kickboard.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MicroBenchmark.java : 외부 라이브러리 없이 동작하는 작은 벤치마크 실행기.
+ *                       워밍업 반복 후 측정 반복마다 평균 시간(ns/op)을 구하고,
+ *                       결과를 JMH JSON과 같은 구조(benchmark/mode/params/primaryMetric)로 저장한다.
+ *                       호출을 묶어 재는 측정은 호출당 할당량(B/op)도 함께 남긴다. (JMH -prof gc의 gc.alloc.rate.norm)
+ *                       여러 스레드가 함께 처리하는 작업은 처리량(ops/s, JMH thrpt 모드)으로 잰다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+final class MicroBenchmark {
+
+    // 한 번 호출되는 측정 대상. 반환값은 JIT가 호출을 없애지 못하도록 sink에 모은다.
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    // 준비/정리 시간을 빼고 측정 구간의 시간(ns)만 돌려주는 측정 대상 (호출당 수 µs 이상인 작업용)
+    interface TimedOp {
+        long runNanos() throws Exception;
+    }
+
+    // 주어진 시간 동안 작업을 돌리고 끝낸 작업 수를 돌려주는 측정 대상 (처리량용)
+    interface ThroughputOp {
+        long runFor(long millis) throws Exception;
+    }
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+    private final List<Map<String, Object>> results = new ArrayList<>();
+    private volatile Object sink;
+    private double lastAllocPerOp = -1; // 마지막 반복의 호출당 할당 바이트 (잴 수 없으면 -1)
+
+    MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    void measure(String name, Map<String, String> params, Op op) throws Exception {
+        measureTimed(name, params, null, op);
+    }
+
+    void measureTimed(String name, Map<String, String> params, TimedOp op) throws Exception {
+        measureTimed(name, params, op, null);
+    }
+
+    // batch가 있으면 호출 여러 번을 묶어 한 번에 시간을 재고 (타이머 비용 제외), 없으면 호출마다 잰다.
+    private void measureTimed(String name, Map<String, String> params, TimedOp op, Op batch) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) runIteration(op, batch);
+        double[] scores = new double[measurementIterations];
+        double[] allocs = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            scores[i] = runIteration(op, batch);
+            allocs[i] = lastAllocPerOp;
+        }
+        record(name, params, "avgt", "ns/op", scores, allocs);
+    }
+
+    void measureThroughput(String name, Map<String, String> params, ThroughputOp op) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) op.runFor(iterationMillis);
+        double[] scores = new double[measurementIterations];
+        double[] allocs = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            scores[i] = op.runFor(iterationMillis) * 1_000.0 / iterationMillis;
+            allocs[i] = -1;
+        }
+        record(name, params, "thrpt", "ops/s", scores, allocs);
+    }
+
+    private double runIteration(TimedOp op, Op batch) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        long ops = 0, nanos = 0;
+        lastAllocPerOp = -1;
+        if (batch != null) {
+            long allocStart = allocatedBytes();
+            int chunk = 1;
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                for (int i = 0; i < chunk; i++) sink = batch.run();
+                nanos += System.nanoTime() - start;
+                ops += chunk;
+                if (chunk < 1 << 16) chunk <<= 1;
+            }
+            if (allocStart >= 0) lastAllocPerOp = (double) (allocatedBytes() - allocStart) / ops;
+        } else {
+            do {
+                nanos += op.runNanos();
+                ops++;
+            } while (System.nanoTime() < deadline);
+        }
+        return (double) nanos / ops;
+    }
+
+    // 현재 스레드가 지금까지 할당한 바이트 (JVM이 지원하지 않으면 -1)
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private void record(String name, Map<String, String> params, String mode, String unit, double[] scores, double[] allocs) {
+        double mean = 0;
+        for (double s : scores) mean += s;
+        mean /= scores.length;
+        double var = 0;
+        for (double s : scores) var += (s - mean) * (s - mean);
+        double error = scores.length > 1 ? 2.576 * Math.sqrt(var / (scores.length - 1)) / Math.sqrt(scores.length) : 0; // 99% 신뢰구간
+
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("score", mean);
+        metric.put("scoreError", error);
+        metric.put("scoreUnit", unit);
+        metric.put("rawData", scores);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", name);
+        result.put("mode", mode);
+        result.put("warmupIterations", warmupIterations);
+        result.put("measurementIterations", measurementIterations);
+        result.put("params", params);
+        result.put("primaryMetric", metric);
+        double alloc = 0;
+        for (double a : allocs) alloc = (alloc < 0 || a < 0) ? -1 : alloc + a;
+        if (alloc >= 0) {
+            alloc /= allocs.length;
+            Map<String, Object> allocMetric = new LinkedHashMap<>();
+            allocMetric.put("score", alloc);
+            allocMetric.put("scoreUnit", "B/op");
+            allocMetric.put("rawData", allocs);
+            result.put("secondaryMetrics", Map.of("·gc.alloc.rate.norm", allocMetric));
+        }
+        results.add(result);
+
+        System.out.printf("%-45s %-22s %14.1f ± %.1f %s%s%n", name, params.isEmpty() ? "" : params, mean, error, unit,
+                alloc >= 0 ? String.format("  %8.1f B/op", alloc) : "");
+    }
+
+    void writeJson(Path file) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            sb.append("  ");
+            appendJson(sb, results.get(i));
+            sb.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("]\n");
+        try {
+            Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("벤치마크 결과 저장 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static void appendJson(StringBuilder sb, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!first) sb.append(", ");
+                first = false;
+                appendJson(sb, String.valueOf(e.getKey()));
+                sb.append(": ");
+                appendJson(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof double[] scores) {
+            sb.append("[[");
+            for (int i = 0; i < scores.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(scores[i]);
+            }
+            sb.append("]]");
+        } else if (value instanceof Number) {
+            sb.append(value);
+        } else {
+            sb.append('"').append(String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.kickboard.benchmark;
+
+import com.kickboard.domain.pricing.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MoneyExactnessCheck.java : Money의 long 연산이 BigDecimal로 계산한 값과 항상 같은지 확인한다. (커밋 간 회귀 확인용)
+ *                            - multiply : double 빠른 경로가 반올림 경계(.5, 정수) 근처에서도 BigDecimal과 같은지
+ *                            - applyRate : 128비트 곱(multiplyHigh)과 BigDecimal 경로, 모든 반올림 방식
+ *                            - toWon : 음수 포함 모든 반올림 방식
+ *                            - 범위를 넘는 연산은 조용히 넘치지 않고 ArithmeticException을 던지는지
+ *                            실패하면 처음 20건을 출력하고 종료 코드 1로 끝난다.
+ *
+ * 실행 : java -cp <classes> com.kickboard.benchmark.MoneyExactnessCheck [무작위 반복 수]
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class MoneyExactnessCheck {
+
+    private static final RoundingMode[] MODES = {
+            RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+            RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN };
+    private static final int MAX_REPORTED = 20;
+
+    private final List<String> failures = new ArrayList<>();
+    private long checks;
+
+    private MoneyExactnessCheck() {}
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        MoneyExactnessCheck check = new MoneyExactnessCheck();
+        check.multiplyBoundaries();
+        check.multiplyRandom(iterations, new SplittableRandom(20261018));
+        check.applyRate(iterations, new SplittableRandom(7));
+        check.toWon();
+        check.overflowGuards();
+
+        System.out.println("검사 " + check.checks + "건, 실패 " + check.failures.size() + "건");
+        for (int i = 0; i < Math.min(MAX_REPORTED, check.failures.size()); i++) System.out.println("  " + check.failures.get(i));
+        if (!check.failures.isEmpty()) System.exit(1);
+    }
+
+    // ===== multiply (금액 × 실수) =====
+
+    // 곱이 정확히 .5나 정수에 떨어지거나 double로는 그 바로 옆이 되는 값 (빠른 경로가 BigDecimal로 넘겨야 하는 곳)
+    private void multiplyBoundaries() {
+        long[] amounts = { 1, 3, 7, 10, 20, 25, 100, 150, 333, 1_000, 12_345, 99_999, 1_000_000, 123_456_789, -1, -10, -150, -12_345 };
+        double[] quantities = { 0.5, 1.5, 2.5, 0.05, 0.15, 0.25, 0.35, 0.45, 0.005, 0.015, 1.005, 2.675, 0.1, 0.2, 0.3,
+                0.7, 1.1, 3.3, 4.35, 8.345, 1.0E-7, 0.49999999999, 0.50000000001, 12.5, 1234.5, -0.5, -2.5, -0.15, 0.0 };
+        for (long minor : amounts) {
+            for (double q : quantities) {
+                for (RoundingMode mode : MODES) expectMultiply(minor, q, mode);
+            }
+        }
+        // 빠른 경로의 상한 근처 (2^50)
+        for (long minor : new long[] { (1L << 50) - 1, 1L << 50, (1L << 49) + 1, -(1L << 50) + 1 }) {
+            for (double q : new double[] { 0.5, 0.999, 1.0, 1.5 }) {
+                for (RoundingMode mode : MODES) expectMultiply(minor, q, mode);
+            }
+        }
+    }
+
+    // 요금표의 km당 요금 × 주행 거리처럼 소수 자리가 몇 개인 값들
+    private void multiplyRandom(int iterations, SplittableRandom random) {
+        for (int i = 0; i < iterations; i++) {
+            long minor = random.nextLong(-10_000_000_000L, 10_000_000_000L);
+            int digits = random.nextInt(0, 7);
+            double q = BigDecimal.valueOf(random.nextLong(0, 10_000_000_000L), digits).doubleValue();
+            if (random.nextBoolean()) q = -q;
+            expectMultiply(minor, q, MODES[random.nextInt(MODES.length)]);
+        }
+    }
+
+    private void expectMultiply(long minor, double q, RoundingMode mode) {
+        checks++;
+        BigDecimal exact = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(q)).setScale(0, mode);
+        long actual;
+        try {
+            actual = Money.multiply(minor, q, mode);
+        } catch (ArithmeticException e) {
+            if (fitsLong(exact)) fail("multiply(" + minor + ", " + q + ", " + mode + ") 예외: " + e.getMessage());
+            return;
+        }
+        if (!fitsLong(exact) || actual != exact.longValue()) {
+            fail("multiply(" + minor + ", " + q + ", " + mode + ") = " + actual + ", 기대 " + exact.toPlainString());
+        }
+    }
+
+    // ===== applyRate (금액 × 백만분율) =====
+
+    private void applyRate(int iterations, SplittableRandom random) {
+        long[] edges = { 0, 1, -1, 5, 50, 500_000, 1_999_999, Long.MAX_VALUE / 1_000_000, Long.MAX_VALUE / 1_000, -Long.MAX_VALUE / 1_000 };
+        long[] rates = { 0, 1, 100_000, 500_000, 1_000_000, 1_500_000, 999_999, 333_333, 50 };
+        for (long minor : edges) {
+            for (long rate : rates) {
+                for (RoundingMode mode : MODES) expectRate(minor, rate, mode);
+            }
+        }
+        for (int i = 0; i < iterations; i++) {
+            long minor = random.nextBoolean() ? random.nextLong(-1_000_000_000L, 1_000_000_000L) : random.nextLong();
+            long rate = random.nextLong(0, 2_000_001);
+            expectRate(minor, rate, MODES[random.nextInt(MODES.length)]);
+        }
+        // 비율 변환 (소수 여섯째 자리 아래 반올림)
+        checks++;
+        if (Money.rateMicros(new BigDecimal("0.1234565"), RoundingMode.HALF_EVEN) != 123_456) fail("rateMicros HALF_EVEN");
+        checks++;
+        if (Money.rateMicros(new BigDecimal("0.1234565"), RoundingMode.HALF_UP) != 123_457) fail("rateMicros HALF_UP");
+    }
+
+    private void expectRate(long minor, long rate, RoundingMode mode) {
+        checks++;
+        BigDecimal exact = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(rate, 6)).setScale(0, mode);
+        long actual;
+        try {
+            actual = Money.applyRate(minor, rate, mode);
+        } catch (ArithmeticException e) {
+            if (fitsLong(exact)) fail("applyRate(" + minor + ", " + rate + ", " + mode + ") 예외: " + e.getMessage());
+            return;
+        }
+        if (!fitsLong(exact) || actual != exact.longValue()) {
+            fail("applyRate(" + minor + ", " + rate + ", " + mode + ") = " + actual + ", 기대 " + exact.toPlainString());
+        }
+    }
+
+    // ===== toWon (최소 단위 -> 원) =====
+
+    private void toWon() {
+        long[] values = { 0, 1, 49, 50, 51, 99, 100, 150, 250, 12_345, -1, -49, -50, -51, -150, -250, Long.MAX_VALUE, Long.MIN_VALUE + 1 };
+        for (long minor : values) {
+            for (RoundingMode mode : MODES) {
+                checks++;
+                long expected = BigDecimal.valueOf(minor, 2).setScale(0, mode).longValueExact();
+                long actual = Money.ofMinor(minor).toWon(mode);
+                if (actual != expected) fail("toWon(" + minor + ", " + mode + ") = " + actual + ", 기대 " + expected);
+            }
+        }
+        checks++;
+        try {
+            Money.ofMinor(150).toWon(RoundingMode.UNNECESSARY);
+            fail("toWon(150, UNNECESSARY)가 예외 없이 끝났습니다.");
+        } catch (ArithmeticException expected) {
+            // 반올림이 필요한 값
+        }
+    }
+
+    // ===== 범위 초과 =====
+
+    private void overflowGuards() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        Money min = Money.ofMinor(Long.MIN_VALUE);
+        expectOverflow("ofWon(Long.MAX_VALUE / 10)", () -> Money.ofWon(Long.MAX_VALUE / 10));
+        expectOverflow("MAX + 1", () -> max.plus(Money.ofMinor(1)));
+        expectOverflow("MIN - 1", () -> min.minus(Money.ofMinor(1)));
+        expectOverflow("MAX × 2", () -> max.times(2));
+        expectOverflow("MAX × 1.5", () -> max.times(1.5, RoundingMode.HALF_UP));
+        expectOverflow("MAX × 200%", () -> max.timesRate(2_000_000, RoundingMode.HALF_UP));
+        expectOverflow("1원 × NaN", () -> Money.ofWon(1).times(Double.NaN, RoundingMode.HALF_UP));
+        expectOverflow("1원 × ∞", () -> Money.ofWon(1).times(Double.POSITIVE_INFINITY, RoundingMode.HALF_UP));
+        expectOverflow("of(1e30)", () -> Money.of(new BigDecimal("1e30"), RoundingMode.HALF_UP));
+
+        // 경계 바로 안쪽은 넘치지 않아야 한다
+        checks++;
+        try {
+            if (max.minus(Money.ofMinor(1)).plus(Money.ofMinor(1)).minorUnits() != Long.MAX_VALUE) fail("MAX - 1 + 1");
+            if (max.timesRate(1_000_000, RoundingMode.HALF_UP).minorUnits() != Long.MAX_VALUE) fail("MAX × 100%");
+            if (Money.ofWon(Long.MAX_VALUE / 100).minorUnits() != Long.MAX_VALUE / 100 * 100) fail("ofWon(MAX / 100)");
+        } catch (ArithmeticException e) {
+            fail("경계 안쪽 연산이 예외를 던졌습니다: " + e.getMessage());
+        }
+    }
+
+    private void expectOverflow(String name, Runnable op) {
+        checks++;
+        try {
+            op.run();
+            fail(name + "가 예외 없이 끝났습니다.");
+        } catch (ArithmeticException expected) {
+            // 넘치지 않고 거부함
+        }
+    }
+
+    // 정수로 반올림된 값이 long 범위인지
+    private static boolean fitsLong(BigDecimal value) {
+        return value.toBigInteger().bitLength() < 64;
+    }
+
+    private void fail(String message) {
+        failures.add(message);
+    }
+}
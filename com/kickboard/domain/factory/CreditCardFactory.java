@@ -5,7 +5,7 @@ import com.kickboard.domain.payment.CreditCardPayment;
 import com.kickboard.domain.rental.Payment;
 import com.kickboard.domain.payment.PaymentMethod;
 
-import java.math.BigDecimal;
+import com.kickboard.domain.pricing.Money;
 
 public class CreditCardFactory implements PaymentFactory {
 
@@ -17,7 +17,7 @@ public class CreditCardFactory implements PaymentFactory {
 
     @Override
     // rentalId를 이용해 고유한 결제 ID 생성 (신용카드 결제 - "PAY-C-")
-    public Payment createPayment(PaymentMethod method, BigDecimal amount, String rentalId) {
+    public Payment createPayment(PaymentMethod method, Money amount, String rentalId) {
         // 카드 결제 처리를 담당하는 CreditCardPayment 생성
         // 안전장치: 만약 method가 CreditCardMethod가 아니면 에러 발생
         if (!(method instanceof CreditCardMethod)) {
@@ -4,7 +4,7 @@ import com.kickboard.domain.payment.*;
 import com.kickboard.domain.rental.Payment;
 import com.kickboard.domain.payment.PaymentMethod;
 
-import java.math.BigDecimal;
+import com.kickboard.domain.pricing.Money;
 
 public class KakaoPayFactory implements PaymentFactory {
 
@@ -15,7 +15,7 @@ public class KakaoPayFactory implements PaymentFactory {
 
     @Override
     // rentalId를 이용해 고유한 결제 ID 생성 (카카오페이 결제 - "PAY-K-")
-    public Payment createPayment(PaymentMethod method, BigDecimal amount, String rentalId) {
+    public Payment createPayment(PaymentMethod method, Money amount, String rentalId) {
         if (!(method instanceof KakaoPayMethod)) {
             throw new IllegalArgumentException("카카오페이 결제에는 카카오페이 정보가 필요합니다.");
         }
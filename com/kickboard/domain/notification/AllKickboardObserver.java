@@ -24,6 +24,11 @@ public class AllKickboardObserver implements StatusObserver {
                     event.getUser().getUserId(),
                     event.getEventTime());
                 break;
+            case FLEET_UPDATED:
+                System.out.printf("[이벤트 로그] 킥보드 일괄 변경 | %d대, 시간: %s\n",
+                    event.getVehicles().size(),
+                    event.getEventTime());
+                break;
         }
     }
 }
\ No newline at end of file
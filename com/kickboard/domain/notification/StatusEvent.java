@@ -5,21 +5,40 @@ import com.kickboard.domain.user.User;
 import com.kickboard.domain.vehicle.Vehicle;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 public class StatusEvent {
 
     public enum EventType {
         RENTAL_STARTED,
-        RENTAL_ENDED
+        RENTAL_ENDED,
+        FLEET_UPDATED // 운영 일괄 작업 (킥보드 여러 대, 대여 없음)
     }
 
     private final EventType type;
     private final Rental rental;
+    private final List<Vehicle> vehicles; // FLEET_UPDATED일 때 바뀐 킥보드들
     private final LocalDateTime eventTime;
 
     public StatusEvent(EventType type, Rental rental) {
         this.type = type;
         this.rental = rental;
+        this.vehicles = List.of(rental.getVehicle());
+        this.eventTime = LocalDateTime.now();
+    }
+
+    /**
+     * 일괄 작업으로 바뀐 킥보드들을 이벤트 하나로 묶는다.
+     */
+    public static StatusEvent fleetUpdated(List<Vehicle> vehicles) {
+        return new StatusEvent(vehicles);
+    }
+
+    private StatusEvent(List<Vehicle> vehicles) {
+        this.type = EventType.FLEET_UPDATED;
+        this.rental = null;
+        this.vehicles = Collections.unmodifiableList(vehicles);
         this.eventTime = LocalDateTime.now();
     }
 
@@ -31,12 +50,18 @@ public class StatusEvent {
         return rental;
     }
 
+    // 대여 이벤트가 아니면 null
     public User getUser() {
-        return rental.getUser();
+        return rental == null ? null : rental.getUser();
     }
 
+    // 대여 이벤트가 아니면 null (일괄 작업은 getVehicles())
     public Vehicle getVehicle() {
-        return rental.getVehicle();
+        return rental == null ? null : rental.getVehicle();
+    }
+
+    public List<Vehicle> getVehicles() {
+        return vehicles;
     }
 
     public LocalDateTime getEventTime() {
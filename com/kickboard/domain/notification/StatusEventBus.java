@@ -0,0 +1,271 @@
+package com.kickboard.domain.notification;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StatusEventBus.java : StatusEvent를 옵저버들에게 비동기로 전달하는 이벤트 버스.
+ *                       옵저버마다 크기가 제한된 큐와 전용 전달 스레드를 두므로,
+ *                       느린 옵저버가 있어도 publish()를 호출한 대여/반납 요청은 기다리지 않는다.
+ *                       큐가 가득 찼을 때의 동작은 구독마다 Backpressure로 정한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public class StatusEventBus implements Closeable {
+
+    /**
+     * 큐가 가득 찼을 때의 동작
+     */
+    public enum Backpressure {
+        DROP,     // 새 이벤트를 버린다.
+        BLOCK,    // 자리가 날 때까지 publish()가 기다린다.
+        COALESCE  // 같은 킥보드의 마지막 대기 이벤트가 같은 종류이면 최신 이벤트로 교체한다. (그 밖에는 추가하며, 가득 차 있으면 가장 오래된 이벤트를 버림)
+    }
+
+    public static final int DEFAULT_CAPACITY = 1_024;
+    private static final long CLOSE_TIMEOUT_MILLIS = 2_000; // 종료 시 남은 이벤트를 전달할 최대 시간
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * 옵저버를 등록한다. (기본 크기 큐, 가득 차면 버림)
+     */
+    public Subscription subscribe(StatusObserver observer) {
+        return subscribe(observer, DEFAULT_CAPACITY, Backpressure.DROP);
+    }
+
+    public Subscription subscribe(StatusObserver observer, int capacity, Backpressure backpressure) {
+        Subscription s = new Subscription(observer, capacity, backpressure);
+        subscriptions.add(s);
+        s.start();
+        return s;
+    }
+
+    /**
+     * 모든 구독의 큐에 이벤트를 넣는다. 옵저버 호출은 각 구독의 전달 스레드에서 일어난다.
+     */
+    public void publish(StatusEvent event) {
+        Objects.requireNonNull(event, "event");
+        for (Subscription s : subscriptions) {
+            s.offer(event);
+        }
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    /**
+     * 구독을 모두 해지한다. 이미 큐에 있는 이벤트는 잠시 기다려 전달한다.
+     */
+    @Override
+    public void close() {
+        for (Subscription s : subscriptions) s.cancel();
+        for (Subscription s : subscriptions) s.awaitTermination(CLOSE_TIMEOUT_MILLIS);
+        subscriptions.clear();
+    }
+
+    /**
+     * 옵저버 하나의 큐와 전달 스레드, 지표
+     */
+    public final class Subscription {
+
+        // 큐에 들어간 이벤트와 들어간 시각 (전달 지연 측정용)
+        private final class Envelope {
+            StatusEvent event;
+            final long enqueuedNanos = System.nanoTime();
+            Envelope(StatusEvent event) { this.event = event; }
+        }
+
+        private final StatusObserver observer;
+        private final int capacity;
+        private final Backpressure backpressure;
+        private final Thread dispatcher;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<Envelope> queue = new ArrayDeque<>();
+        private final Map<String, Envelope> pendingByVehicle = new HashMap<>(); // COALESCE 전용 (킥보드별 마지막 대기 이벤트)
+        private boolean cancelled;
+
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong lastLagNanos = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+
+        private Subscription(StatusObserver observer, int capacity, Backpressure backpressure) {
+            if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+            this.observer = Objects.requireNonNull(observer, "observer");
+            this.capacity = capacity;
+            this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
+            this.dispatcher = new Thread(this::dispatchLoop, "event-" + observer.getClass().getSimpleName());
+            this.dispatcher.setDaemon(true);
+        }
+
+        private void start() {
+            dispatcher.start();
+        }
+
+        /**
+         * 구독을 해지한다. 큐에 남은 이벤트는 전달 스레드가 마저 처리한 뒤 종료한다.
+         */
+        public void unsubscribe() {
+            subscriptions.remove(this);
+            cancel();
+        }
+
+        private void offer(StatusEvent event) {
+            published.incrementAndGet();
+            lock.lock();
+            try {
+                if (cancelled) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                if (backpressure == Backpressure.COALESCE) {
+                    String key = coalesceKey(event);
+                    Envelope pending = (key == null) ? null : pendingByVehicle.get(key);
+                    // 종류가 다르면 합치지 않는다. (대여 시작 뒤의 종료가 시작을 지우면 옵저버는 시작 없는 종료를 본다)
+                    if (pending != null && pending.event.getType() == event.getType()) {
+                        pending.event = event; // 대기 중인 자리를 최신 이벤트로 교체
+                        coalesced.incrementAndGet();
+                        return;
+                    }
+                    if (queue.size() >= capacity) {
+                        Envelope oldest = queue.poll();
+                        forget(oldest);
+                        dropped.incrementAndGet();
+                    }
+                    Envelope e = new Envelope(event);
+                    queue.add(e);
+                    if (key != null) pendingByVehicle.put(key, e);
+                } else {
+                    while (queue.size() >= capacity) {
+                        if (backpressure == Backpressure.DROP) {
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        if (cancelled) {
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                    }
+                    queue.add(new Envelope(event));
+                }
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dispatchLoop() {
+            while (true) {
+                Envelope e;
+                lock.lock();
+                try {
+                    while (queue.isEmpty()) {
+                        if (cancelled) return;
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    e = queue.poll();
+                    if (backpressure == Backpressure.COALESCE) forget(e);
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                long lag = System.nanoTime() - e.enqueuedNanos;
+                lastLagNanos.set(lag);
+                maxLagNanos.accumulateAndGet(lag, Math::max);
+                try {
+                    observer.onEvent(e.event);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException ex) { // 옵저버 오류가 전달 스레드를 멈추지 않도록
+                    failed.incrementAndGet();
+                    System.err.println("[경고] 이벤트 처리 실패 (" + observer.getClass().getSimpleName() + "): " + ex.getMessage());
+                }
+            }
+        }
+
+        // 킥보드 한 대에 대한 이벤트만 합친다. 일괄 이벤트는 여러 대를 담고 있으므로 합치지 않는다. (null)
+        private String coalesceKey(StatusEvent event) {
+            return event.getVehicle() == null ? null : event.getVehicle().getVehicleId();
+        }
+
+        private void forget(Envelope e) {
+            String key = coalesceKey(e.event);
+            if (key != null) pendingByVehicle.remove(key, e);
+        }
+
+        private void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitTermination(long timeoutMillis) {
+            try {
+                dispatcher.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // ===== 지표 =====
+
+        public StatusObserver getObserver() { return observer; }
+        public Backpressure getBackpressure() { return backpressure; }
+        public int getCapacity() { return capacity; }
+
+        public int getQueueDepth() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long getPublishedCount() { return published.get(); }
+        public long getDeliveredCount() { return delivered.get(); }
+        public long getDroppedCount() { return dropped.get(); }
+        public long getCoalescedCount() { return coalesced.get(); }
+        public long getFailedCount() { return failed.get(); }
+        // 이벤트가 큐에 들어간 뒤 옵저버 호출이 시작될 때까지 걸린 시간
+        public long getLastLagMillis() { return TimeUnit.NANOSECONDS.toMillis(lastLagNanos.get()); }
+        public long getMaxLagMillis() { return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()); }
+
+        @Override
+        public String toString() {
+            return String.format("%s[%s] depth=%d/%d published=%d delivered=%d dropped=%d coalesced=%d failed=%d lag=%dms(max %dms)",
+                    observer.getClass().getSimpleName(), backpressure, getQueueDepth(), capacity,
+                    getPublishedCount(), getDeliveredCount(), getDroppedCount(), getCoalescedCount(),
+                    getFailedCount(), getLastLagMillis(), getMaxLagMillis());
+        }
+    }
+}
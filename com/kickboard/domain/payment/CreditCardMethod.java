@@ -4,6 +4,7 @@ package com.kickboard.domain.payment;
 
 // 신용카드 결제 수단 정보 클래스 - Concrete PaymentMethod
 public class CreditCardMethod extends PaymentMethod {
+    private static final long serialVersionUID = 3406637096543854970L; // 기존 상태 파일 호환을 위해 고정
     public CreditCardMethod(String cardNumber, String cvc, String alias, String companyName) { 
         super(cardNumber, cvc, alias, PaymentMethodType.CREDIT_CARD, companyName); 
     }
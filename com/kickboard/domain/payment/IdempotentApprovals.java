@@ -0,0 +1,59 @@
+package com.kickboard.domain.payment;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * IdempotentApprovals.java : 게이트웨이가 멱등 키별로 승인한 요청을 기억해 같은 요청을 두 번 처리하지 않는다.
+ *                            - 승인(true)만 기억한다. 거절은 기억하지 않으므로 잔액을 채운 뒤 같은 키로 다시 요청할 수 있다.
+ *                            - 같은 키의 요청이 동시에 오면 하나씩 처리한다. (앞선 요청이 승인되면 뒤의 요청은 처리하지 않는다)
+ *                            - 요청 종류(charge/authorize/capture/release)마다 키 공간이 따로이다.
+ *                            - capacity건을 넘으면 가장 먼저 승인된 키부터 잊는다.
+ *                            처리는 키가 든 해시 칸을 잡은 채로 하므로 결제수단 잔액 변경처럼 짧은 작업만 넘긴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class IdempotentApprovals {
+
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Boolean> approved = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>(); // 승인된 순서 (오래된 것부터 잊는다)
+
+    public IdempotentApprovals(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("잘못된 멱등 키 보관 수: " + capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * operation 종류의 idempotencyKey가 이미 승인되었으면 처리하지 않고 true, 아니면 request를 처리한다.
+     * @return 승인이면 true
+     */
+    public boolean apply(String operation, String idempotencyKey, BooleanSupplier request) {
+        String key = operation + ":" + idempotencyKey;
+        boolean[] processed = new boolean[1];
+        Boolean result = approved.compute(key, (k, previous) -> {
+            if (previous != null) return previous;
+            processed[0] = true;
+            return request.getAsBoolean() ? Boolean.TRUE : null; // 거절이면 남기지 않는다
+        });
+        if (result == null) return false;
+        if (processed[0]) {
+            order.add(key);
+            while (approved.size() > capacity) {
+                String oldest = order.poll();
+                if (oldest == null) break;
+                approved.remove(oldest);
+            }
+        }
+        return true;
+    }
+
+    // 기억하고 있는 승인 수
+    public int size() {
+        return approved.size();
+    }
+}
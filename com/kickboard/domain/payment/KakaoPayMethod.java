@@ -4,6 +4,7 @@ package com.kickboard.domain.payment;
 /* KakaoPayMethod.java on 25/11/20, by BeomYeon Choi, cby9017@gmail.com*/
 // 카카오페이 결제 수단 정보 클래스 - Concrete PaymentMethod
 public class KakaoPayMethod extends PaymentMethod {
+    private static final long serialVersionUID = 612352801117029950L; // 기존 상태 파일 호환을 위해 고정
     // 카카오페이 결제 수단 정보 (이름과 간편비밀번호)
     public KakaoPayMethod(String cardNumber, String cvc, String alias, String companyName) {
         super(cardNumber, cvc, alias, PaymentMethodType.KAKAO_PAY, companyName); 
@@ -2,8 +2,6 @@ package com.kickboard.domain.payment;
 
 import com.kickboard.domain.rental.Payment;
 
-import java.math.BigDecimal;
-
 /* KakaoPayment.java on 25/11/20, by BeomYeon Choi, cby9017@gmail.com*/
 // 카카오페이 결제 클래스 - Concrete Product
 public class KakaoPayment extends Payment {
@@ -0,0 +1,66 @@
+package com.kickboard.domain.payment;
+
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.exception.PaymentGatewayException;
+
+/**
+ * PaymentGateway.java : 결제사(카드사, 카카오페이) 승인 요청 창구.
+ *                       바로 결제(charge) 외에 보류(authorize) → 확정(capture)/해제(release)의 두 단계 결제를 지원한다.
+ *                       호출한 스레드를 결제사 응답까지 붙잡는 블로킹 호출로 보고,
+ *                       시간 제한/재시도/차단은 호출하는 쪽(PaymentPipeline)이 맡는다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+@FunctionalInterface
+public interface PaymentGateway {
+
+    /**
+     * 승인을 요청한다. 같은 idempotencyKey의 요청은 결제사가 한 번만 처리하고 같은 결과를 돌려준다.
+     * @return 승인이면 true, 거절(잔액 부족 등)이면 false
+     * @throws PaymentGatewayException 결과를 받지 못함 (통신 오류, 결제사 장애)
+     */
+    boolean charge(Payment payment, String idempotencyKey) throws PaymentGatewayException;
+
+    /**
+     * 결제 금액만큼 결제수단에 보류를 건다. (잔액은 그대로, 사용 가능 금액만 줄어든다)
+     * @return 보류했으면 true, 거절(사용 가능 금액 부족)이면 false
+     */
+    default boolean authorize(Payment hold, String idempotencyKey) throws PaymentGatewayException {
+        return hold.authorizeCheck();
+    }
+
+    /**
+     * 보류를 payment 금액의 결제로 바꾼다. 금액이 보류보다 크면 차액을 더 승인받는다.
+     * @return 승인이면 true, 차액을 낼 수 없으면 false (보류는 그대로 남는다)
+     */
+    default boolean capture(Payment hold, Payment payment, String idempotencyKey) throws PaymentGatewayException {
+        return payment.captureCheck(hold);
+    }
+
+    // 보류를 푼다. 이미 풀렸거나 결제로 바뀐 보류면 아무것도 하지 않는다. (항상 true)
+    default boolean release(Payment hold, String idempotencyKey) throws PaymentGatewayException {
+        hold.releaseHold();
+        return true;
+    }
+
+    // 결제사 없이 프로세스 안에서 바로 처리한다. (기존 동작: 결제수단 잔액에서 차감, 승인된 멱등 키는 다시 처리하지 않는다)
+    static PaymentGateway local() {
+        IdempotentApprovals approvals = new IdempotentApprovals(IdempotentApprovals.DEFAULT_CAPACITY);
+        return new PaymentGateway() {
+            @Override
+            public boolean charge(Payment payment, String idempotencyKey) {
+                return approvals.apply("charge", idempotencyKey, payment::processPaymentCheck);
+            }
+
+            @Override
+            public boolean authorize(Payment hold, String idempotencyKey) {
+                return approvals.apply("authorize", idempotencyKey, hold::authorizeCheck);
+            }
+
+            @Override
+            public boolean capture(Payment hold, Payment payment, String idempotencyKey) {
+                return approvals.apply("capture", idempotencyKey, () -> payment.captureCheck(hold));
+            }
+        };
+    }
+}
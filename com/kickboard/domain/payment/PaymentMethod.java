@@ -1,7 +1,14 @@
 package com.kickboard.domain.payment;
 
+import com.kickboard.domain.pricing.Money;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal; 
+import java.math.RoundingMode;
+import java.util.List;
 import java.util.Random; 
 
 /**
@@ -14,12 +21,14 @@ import java.util.Random;
  */
 
 public abstract class PaymentMethod implements Serializable{ // implements Seriallizable 추가
+    private static final long serialVersionUID = -9046373750671264232L; // 기존 상태 파일 호환을 위해 고정
     private final String identifier; // 범용적인 사용을 위해 결제수단의 식별자로 변경 (카드번호, 휴대폰번호 등)
     private String password; // 결제수단의 비밀번호 (CVC, 간편비밀번호 등, 필요에 따라 null 가능)
     private String alias; // 결제수단 별칭 추가
     // 결제수단 타입 추가 (0-신용카드, 1-카카오페이)
     private PaymentMethodType type;
-    private BigDecimal balance; // 결제수단 잔액
+    private transient Wallet wallet; // 결제수단 잔액 (최소 단위 1/100원, 잠금 없는 차감, 최근 거래 내역)
+    private BigDecimal balance; // 이전 직렬화 형식 호환용. 직렬화할 때만 채우고 평소에는 null이다.
     private String companyName; // 결제수단 회사
 
     protected PaymentMethod(String id, String password, String alias, PaymentMethodType type, String companyName) { 
@@ -27,13 +36,46 @@ public abstract class PaymentMethod implements Serializable{ // implements Seria
         this.password = password;
         this.alias = alias;
         this.type = type;
-        this.balance = BigDecimal.valueOf(new Random().nextInt(16) + 5)
-                            .multiply(BigDecimal.valueOf(1000)); // 5000~20000 사이 임의의 잔액 설정
+        this.wallet = new Wallet(Money.ofWon((new Random().nextInt(16) + 5) * 1000L)); // 5000~20000 사이 임의의 잔액 설정
         this.companyName = companyName; 
     }
 
-    public void deductBalance(BigDecimal amount) {
-        this.balance = this.balance.subtract(amount);
+    // 상태 복원용 (생성자는 임의의 잔액을 정하므로 저장된 잔액으로 되돌린다)
+    public void restoreBalance(Money balance) {
+        wallet.reset(balance);
+    }
+
+    /**
+     * 사용 가능 금액(잔액 - 보류 금액)이 충분하면 차감한다. 확인과 차감이 한 번에 일어나므로 동시에 결제해도 초과 인출이 없다.
+     * @return 모자라면 false
+     */
+    public boolean tryDebit(Money amount, String reference) {
+        return wallet.tryDebit(amount, reference);
+    }
+
+    public void topUp(Money amount) {
+        wallet.topUp(amount);
+    }
+
+    public void refund(Money amount, String reference) {
+        wallet.refund(amount, reference);
+    }
+
+    // 사용 가능 금액이 충분하면 보류를 건다.
+    public boolean placeHold(Money amount, String reference) {
+        return wallet.placeHold(amount, reference);
+    }
+
+    public void releaseHold(Money amount, String reference) {
+        wallet.releaseHold(amount, reference);
+    }
+
+    /**
+     * 보류를 풀고 그 자리에서 amount를 차감한다. amount가 보류 금액보다 크면 나머지를 사용 가능 금액에서 낸다.
+     * @return 사용 가능 금액이 모자라면 false (보류는 그대로 둔다)
+     */
+    public boolean captureHold(Money held, Money amount, String reference) {
+        return wallet.captureHold(held, amount, reference);
     }
 
     public String getAlias() {
@@ -56,11 +98,47 @@ public abstract class PaymentMethod implements Serializable{ // implements Seria
         return type;
     }
 
-    public BigDecimal getBalance() {
-        return this.balance;
+    // 결제 원장과 결제사 멱등 키에 남기는 결제수단 구분값 (식별자를 그대로 남기지 않는다)
+    public String getReference() {
+        return type + "-" + Integer.toHexString(String.valueOf(identifier).hashCode());
+    }
+
+    public Money getBalance() {
+        return wallet.getBalance();
+    }
+
+    // 새 결제에 쓸 수 있는 금액 (보류 중인 금액 제외)
+    public Money getAvailableBalance() {
+        return wallet.getAvailable();
+    }
+
+    public Money getHeldAmount() {
+        return wallet.getHeld();
+    }
+
+    // 최근 거래 내역 (오래된 것부터, 재시작하면 비어 있다)
+    public List<Wallet.Transaction> getTransactions() {
+        return wallet.getHistory();
     }
 
     public String getCompanyName() {
         return companyName;
     }
+
+    // 직렬화 형식은 그대로 BigDecimal 잔액을 쓴다. (저널의 사용자 레코드, 이전 상태 파일 호환)
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        balance = wallet.getBalance().toBigDecimal();
+        try {
+            out.defaultWriteObject();
+        } finally {
+            balance = null;
+        }
+    }
+
+    // 이전 형식은 소수 자릿수 제한 없이 저장했으므로 최소 단위로 반올림한다.
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        wallet = new Wallet((balance == null) ? Money.ZERO : Money.of(balance, RoundingMode.HALF_UP));
+        balance = null;
+    }
 }
@@ -0,0 +1,217 @@
+package com.kickboard.domain.payment;
+
+import com.kickboard.domain.pricing.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Wallet.java : 결제수단 하나의 잔액. 잠금 없이 CAS로 차감/충전/환불한다.
+ *               - 사용 가능 금액(available)과 보류 금액(held)을 최소 단위(1/100원) long으로 둔다. 잔액 = available + held
+ *               - 두 값은 불변 객체 하나로 묶어 CAS로 함께 바꾸며, 사용 가능 금액이 모자라면 바꾸지 않고 실패한다.
+ *                 같은 카드/카카오페이에 결제가 동시에 몰려도 잔액 확인과 차감 사이에 다른 결제가 끼어들 수 없고,
+ *                 보류를 걸거나 푸는 중에 getBalance()를 읽어도 (저장할 때도) 보류 금액이 빠지지 않는다.
+ *               - 최근 거래 HISTORY_SIZE건을 잠금 없는 고리 버퍼에 남긴다. (메모리에만 있다, 영구 기록은 결제 원장)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class Wallet {
+
+    public static final int HISTORY_SIZE = 64;
+
+    public enum Type {
+        DEBIT("결제"), TOP_UP("충전"), REFUND("환불"), HOLD("보류"), RELEASE("보류 해제"), CAPTURE("보류 결제"), RESET("잔액 복원");
+
+        private final String displayName;
+
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 거래 한 건. availableAfter는 이 거래 직후의 사용 가능 금액이다.
+     */
+    public static final class Transaction {
+        private final long sequence;
+        private final Type type;
+        private final long amountMinor;
+        private final long availableAfterMinor;
+        private final String reference; // 결제 ID 등 (없으면 null)
+        private final long recordedAt;  // epoch ms
+
+        private Transaction(long sequence, Type type, long amountMinor, long availableAfterMinor, String reference) {
+            this.sequence = sequence;
+            this.type = type;
+            this.amountMinor = amountMinor;
+            this.availableAfterMinor = availableAfterMinor;
+            this.reference = reference;
+            this.recordedAt = System.currentTimeMillis();
+        }
+
+        public long getSequence() { return sequence; }
+        public Type getType() { return type; }
+        public Money getAmount() { return Money.ofMinor(amountMinor); }
+        public Money getAvailableAfter() { return Money.ofMinor(availableAfterMinor); }
+        public String getReference() { return reference; }
+        public long getRecordedAt() { return recordedAt; }
+
+        @Override
+        public String toString() {
+            return type.getDisplayName() + " " + getAmount().toPlainString() + "원 (사용 가능 " + getAvailableAfter().toPlainString()
+                    + "원" + (reference != null ? ", " + reference : "") + ")";
+        }
+    }
+
+    // 사용 가능 금액과 보류 금액. 두 값을 한 객체로 묶어 한 번의 CAS로 바꾸므로 언제 읽어도 서로 맞는다.
+    private static final class Balance {
+        private final long available;
+        private final long held;
+
+        private Balance(long available, long held) {
+            this.available = available;
+            this.held = held;
+        }
+    }
+
+    private final AtomicReference<Balance> balance;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<Transaction> history = new AtomicReferenceArray<>(HISTORY_SIZE);
+
+    public Wallet(Money balance) {
+        this.balance = new AtomicReference<>(new Balance(balance.minorUnits(), 0));
+    }
+
+    /**
+     * 사용 가능 금액이 충분하면 차감한다.
+     * @return 모자라면 false (잔액은 그대로)
+     */
+    public boolean tryDebit(Money amount, String reference) {
+        long minor = requireNonNegative(amount);
+        Balance current, next;
+        do {
+            current = balance.get();
+            if (current.available < minor) return false;
+            next = new Balance(current.available - minor, current.held);
+        } while (!balance.compareAndSet(current, next));
+        log(Type.DEBIT, minor, next.available, reference);
+        return true;
+    }
+
+    public void topUp(Money amount) {
+        long minor = requireNonNegative(amount);
+        log(Type.TOP_UP, minor, addAvailable(minor), null);
+    }
+
+    // 결제 취소 등으로 돌려준다.
+    public void refund(Money amount, String reference) {
+        long minor = requireNonNegative(amount);
+        log(Type.REFUND, minor, addAvailable(minor), reference);
+    }
+
+    // 사용 가능 금액에서 보류 금액으로 옮긴다. 모자라면 false
+    public boolean placeHold(Money amount, String reference) {
+        long minor = requireNonNegative(amount);
+        Balance current, next;
+        do {
+            current = balance.get();
+            if (current.available < minor) return false;
+            next = new Balance(current.available - minor, current.held + minor);
+        } while (!balance.compareAndSet(current, next));
+        log(Type.HOLD, minor, next.available, reference);
+        return true;
+    }
+
+    // 보류 금액에서 최대 amount만큼 사용 가능 금액으로 돌려놓는다.
+    public void releaseHold(Money amount, String reference) {
+        long minor = requireNonNegative(amount);
+        Balance current, next;
+        long released;
+        do {
+            current = balance.get();
+            released = Math.min(current.held, minor);
+            next = new Balance(current.available + released, current.held - released);
+        } while (!balance.compareAndSet(current, next));
+        log(Type.RELEASE, released, next.available, reference);
+    }
+
+    /**
+     * 보류 금액을 풀어 amount를 낸다. amount가 보류보다 크면 나머지는 사용 가능 금액에서 낸다.
+     * @return 사용 가능 금액이 모자라면 false (보류는 그대로 둔다)
+     */
+    public boolean captureHold(Money heldAmount, Money amount, String reference) {
+        long minor = requireNonNegative(amount);
+        long heldMinor = requireNonNegative(heldAmount);
+        Balance current, next;
+        do {
+            current = balance.get();
+            long released = Math.min(current.held, heldMinor);
+            long available = current.available + released - minor;
+            if (available < 0) return false;
+            next = new Balance(available, current.held - released);
+        } while (!balance.compareAndSet(current, next));
+        log(Type.CAPTURE, minor, next.available, reference);
+        return true;
+    }
+
+    // 상태 복원용 (보류는 저장하지 않으므로 모두 사용 가능 금액이 된다)
+    public void reset(Money balance) {
+        this.balance.set(new Balance(balance.minorUnits(), 0));
+        log(Type.RESET, balance.minorUnits(), balance.minorUnits(), null);
+    }
+
+    // 사용 가능 금액에 더한다. (바뀐 뒤의 사용 가능 금액)
+    private long addAvailable(long minor) {
+        Balance current, next;
+        do {
+            current = balance.get();
+            next = new Balance(current.available + minor, current.held);
+        } while (!balance.compareAndSet(current, next));
+        return next.available;
+    }
+
+    private static long requireNonNegative(Money amount) {
+        if (amount.signum() < 0) throw new IllegalArgumentException("금액은 음수일 수 없습니다: " + amount.toPlainString());
+        return amount.minorUnits();
+    }
+
+    private void log(Type type, long amountMinor, long availableAfterMinor, String reference) {
+        long seq = sequence.getAndIncrement();
+        // 읽는 쪽은 칸의 sequence로 확인하므로 느슨한 쓰기로 충분하다
+        history.lazySet((int) (seq % HISTORY_SIZE), new Transaction(seq, type, amountMinor, availableAfterMinor, reference));
+    }
+
+    // 잔액 = 사용 가능 금액 + 보류 금액 (같은 순간의 두 값)
+    public Money getBalance() {
+        Balance b = balance.get();
+        return Money.ofMinor(b.available + b.held);
+    }
+
+    public Money getAvailable() {
+        return Money.ofMinor(balance.get().available);
+    }
+
+    public Money getHeld() {
+        return Money.ofMinor(balance.get().held);
+    }
+
+    /**
+     * 최근 거래 (오래된 것부터, 최대 HISTORY_SIZE건). 기록 중이거나 덮어쓴 칸은 빠진다.
+     */
+    public List<Transaction> getHistory() {
+        long end = sequence.get();
+        List<Transaction> list = new ArrayList<>(HISTORY_SIZE);
+        for (long seq = Math.max(0, end - HISTORY_SIZE); seq < end; seq++) {
+            Transaction t = history.get((int) (seq % HISTORY_SIZE));
+            if (t != null && t.sequence == seq) list.add(t);
+        }
+        return list;
+    }
+}
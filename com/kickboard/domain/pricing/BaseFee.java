@@ -1,7 +1,5 @@
 package com.kickboard.domain.pricing;
 
-import java.math.BigDecimal;
-
 /**
  * BaseFee.java		: 기본 요금을 나타내는 클래스. Fee 인터페이스의 기본 구현.
  * @author		: Gemini
@@ -10,9 +8,9 @@ import java.math.BigDecimal;
  */
 public class BaseFee implements Fee {
 
-    private final BigDecimal amount;
+    private final Money amount;
 
-    public BaseFee(BigDecimal amount) {
+    public BaseFee(Money amount) {
         if (amount == null || amount.signum() < 0) {
             throw new IllegalArgumentException("Amount cannot be null or negative");
         }
@@ -20,7 +18,7 @@ public class BaseFee implements Fee {
     }
 
     @Override
-    public BigDecimal getFinalCost() {
+    public Money getFinalCost() {
         return this.amount;
     }
 
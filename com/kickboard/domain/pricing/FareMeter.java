@@ -0,0 +1,130 @@
+package com.kickboard.domain.pricing;
+
+import com.kickboard.domain.pricing.strategy.FareFormula;
+import com.kickboard.domain.pricing.strategy.FeeStrategy;
+import com.kickboard.domain.rental.Rental;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * FareMeter.java : 대여 한 건의 실시간 요금기.
+ *                  - 요금은 이용 시간(분)과 주행 거리, 대여 조건에 맞는 요금 식으로 정해지므로
+ *                    셋 중 하나가 바뀔 때만 전략별 요금을 다시 계산해 둔다.
+ *                    (주행 정보가 들어올 때 refresh(), 분이 넘어간 뒤 첫 조회 때, 요금표가 바뀌었거나 다른 구역에 들어갔을 때)
+ *                  - 그 사이의 quote()는 미리 계산해 둔 값을 돌려주기만 하므로 객체를 만들지 않는다.
+ *                  - 반납으로 종료 시각이 정해지면 그 시각 기준으로 고정되며,
+ *                    FeeStrategy.calculateFee(rental)와 같은 식, 같은 입력을 쓰므로 결과가 항상 같다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class FareMeter {
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    // 계산 시점의 입력과 전략별 요금 (바꾸지 않고 통째로 교체한다)
+    private static final class Reading {
+        final long minutes;
+        final double distance;
+        final LocalDateTime endTime;
+        final FareFormula[] formulas;
+        final Money[] fares;
+
+        Reading(long minutes, double distance, LocalDateTime endTime, FareFormula[] formulas, Money[] fares) {
+            this.minutes = minutes;
+            this.distance = distance;
+            this.endTime = endTime;
+            this.formulas = formulas;
+            this.fares = fares;
+        }
+    }
+
+    private final Rental rental;
+    private final FeeStrategy[] strategies;
+    private final long startEpochMillis; // 진행 중일 때 분 계산용 (LocalDateTime.now() 대신 현재 시각 밀리초와 비교)
+    private volatile Reading reading;
+
+    public FareMeter(Rental rental, List<FeeStrategy> strategies) {
+        this.rental = rental;
+        this.strategies = strategies.toArray(new FeeStrategy[0]);
+        this.startEpochMillis = rental.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.reading = compute();
+    }
+
+    /**
+     * 주행 정보가 반영된 뒤 호출한다. 거리나 분이 바뀌었으면 요금을 다시 계산해 둔다.
+     */
+    public void refresh() {
+        current();
+    }
+
+    /**
+     * @param index 생성 시 넘긴 전략 목록에서의 순서
+     * @return 지금 기준 요금 (반납 후에는 반납 시각 기준)
+     */
+    public Money quote(int index) {
+        return current().fares[index];
+    }
+
+    public Money quote(FeeStrategy strategy) {
+        for (int i = 0; i < strategies.length; i++) {
+            if (strategies[i] == strategy) return quote(i);
+        }
+        return strategy.calculateFee(rental); // 요금기에 없는 전략
+    }
+
+    public int size() {
+        return strategies.length;
+    }
+
+    public FeeStrategy getStrategy(int index) {
+        return strategies[index];
+    }
+
+    public Rental getRental() {
+        return rental;
+    }
+
+    // 이용 시간(분)
+    public long getMinutes() {
+        return current().minutes;
+    }
+
+    private Reading current() {
+        Reading r = reading;
+        LocalDateTime end = rental.getEndTime();
+        if (end == r.endTime && (end != null || elapsedMinutes() == r.minutes)
+                && rental.getRentalInfo().getTraveledDistance() == r.distance && sameFormulas(r)) {
+            return r;
+        }
+        r = compute();
+        reading = r; // 동시에 다시 계산해도 입력이 같으면 결과가 같으므로 마지막 것이 남아도 된다
+        return r;
+    }
+
+    private Reading compute() {
+        LocalDateTime end = rental.getEndTime();
+        long minutes = (end != null) ? FeeStrategy.usedMinutes(rental) : elapsedMinutes();
+        double distance = rental.getRentalInfo().getTraveledDistance();
+        FareFormula[] formulas = new FareFormula[strategies.length];
+        Money[] fares = new Money[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            formulas[i] = strategies[i].formulaFor(rental);
+            fares[i] = formulas[i].calculateFee(minutes, distance);
+        }
+        return new Reading(minutes, distance, end, formulas, fares);
+    }
+
+    // 요금 식은 요금표 안에 미리 만들어 둔 객체이므로 같은 조건이면 같은 객체가 나온다.
+    private boolean sameFormulas(Reading r) {
+        for (int i = 0; i < strategies.length; i++) {
+            if (strategies[i].formulaFor(rental) != r.formulas[i]) return false;
+        }
+        return true;
+    }
+
+    private long elapsedMinutes() {
+        return Math.max(0, System.currentTimeMillis() - startEpochMillis) / MILLIS_PER_MINUTE;
+    }
+}
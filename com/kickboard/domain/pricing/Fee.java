@@ -1,7 +1,5 @@
 package com.kickboard.domain.pricing;
 
-import java.math.BigDecimal;
-
 /**
  * Fee.java			: 할인, 추가 요금 등이 모두 반영된최종 결제 금액을 반환
  * @author			: Mingwan Kim
@@ -12,7 +10,7 @@ import java.math.BigDecimal;
 public interface Fee {
 
 	//최종 결제 금액을 반환
-    BigDecimal getFinalCost();
+    Money getFinalCost();
 	// 정보 출력 시 사용
 	String getDisplayName();
 }
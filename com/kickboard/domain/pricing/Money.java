@@ -0,0 +1,192 @@
+package com.kickboard.domain.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money.java : 금액 값 객체. 최소 단위(1/100원) 개수를 long 하나로 가진다.
+ *              - 덧셈/뺄셈/정수배는 long 연산 그대로이므로 오차가 없다.
+ *              - 소수가 끼는 연산(거리 요금, 할인율)은 결과를 최소 단위로 맞출 때의 반올림 방식을 호출하는 쪽이 정한다.
+ *              - 할인율 등 비율은 백만분율(long)로 미리 바꿔 두고 쓴다. (rateMicros)
+ *              - 범위를 넘으면 ArithmeticException (조용히 넘치지 않는다)
+ *              요금 계산 경로에서 BigDecimal을 단계마다 만들지 않기 위해 쓴다.
+ *              저장 형식과 화면 출력에는 toBigDecimal()/toPlainString()으로 바꿔 넘긴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;                // 최소 단위 = 1/100원
+    private static final long UNIT = 100;             // 1원 = 100 최소 단위
+    private static final long RATE_ONE = 1_000_000;   // 비율 1.0 = 백만분율 1,000,000
+    private static final int RATE_SCALE = 6;
+    private static final double FAST_PATH_LIMIT = 1L << 50; // double 곱의 정수부가 정확한 범위
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money ofWon(long won) {
+        return ofMinor(Math.multiplyExact(won, UNIT));
+    }
+
+    /**
+     * @param mode 최소 단위보다 자리가 많을 때의 반올림 방식
+     */
+    public static Money of(BigDecimal amount, RoundingMode mode) {
+        return ofMinor(amount.setScale(SCALE, mode).unscaledValue().longValueExact());
+    }
+
+    /**
+     * 비율(예: 0.10)을 백만분율로 바꾼다.
+     * @param mode 소수 여섯째 자리보다 자리가 많을 때의 반올림 방식
+     */
+    public static long rateMicros(BigDecimal rate, RoundingMode mode) {
+        return rate.setScale(RATE_SCALE, mode).unscaledValue().longValueExact();
+    }
+
+    public long minorUnits() {
+        return minor;
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minor, quantity));
+    }
+
+    /**
+     * 금액 × 실수 (예: km당 요금 × 주행 거리).
+     * 실수는 BigDecimal.valueOf(quantity)와 같은 십진수로 보고 곱한 뒤 한 번만 반올림한다.
+     */
+    public Money times(double quantity, RoundingMode mode) {
+        return ofMinor(multiply(minor, quantity, mode));
+    }
+
+    /**
+     * 금액 × 비율
+     * @param rateMicros 백만분율 (rateMicros(BigDecimal, RoundingMode)로 만든 값)
+     */
+    public Money timesRate(long rateMicros, RoundingMode mode) {
+        return ofMinor(applyRate(minor, rateMicros, mode));
+    }
+
+    /**
+     * 최소 단위 금액 × 비율. 객체를 만들지 않고 계산할 때 쓴다. (할인 파이프라인)
+     */
+    public static long applyRate(long minorUnits, long rateMicros, RoundingMode mode) {
+        long high = Math.multiplyHigh(minorUnits, rateMicros);
+        long low = minorUnits * rateMicros;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divide(low, RATE_ONE, mode);
+        }
+        return BigDecimal.valueOf(minorUnits).multiply(BigDecimal.valueOf(rateMicros, RATE_SCALE))
+                .setScale(0, mode).longValueExact();
+    }
+
+    /**
+     * 최소 단위 금액 × 실수. 반올림 경계에서 충분히 떨어져 있으면 double 곱으로 끝내고,
+     * 경계에 가까우면 BigDecimal로 정확히 계산한다. (어느 쪽이든 결과는 같다)
+     */
+    public static long multiply(long minorUnits, double quantity, RoundingMode mode) {
+        if (Double.isNaN(quantity) || Double.isInfinite(quantity)) {
+            throw new ArithmeticException("금액에 곱할 수 없는 값: " + quantity);
+        }
+        double product = minorUnits * quantity;
+        if (Math.abs(product) < FAST_PATH_LIMIT && Math.abs(minorUnits) < FAST_PATH_LIMIT && isHalfMode(mode)) {
+            double floor = Math.floor(product);
+            double fraction = product - floor;
+            double guard = Math.max(1e-6, Math.abs(product) * 1e-12);
+            if (Math.abs(fraction - 0.5) > guard && fraction > guard && fraction < 1 - guard) {
+                return (long) floor + (fraction > 0.5 ? 1 : 0);
+            }
+        }
+        return BigDecimal.valueOf(minorUnits).multiply(BigDecimal.valueOf(quantity))
+                .setScale(0, mode).longValueExact();
+    }
+
+    public Money max(Money other) {
+        return minor >= other.minor ? this : other;
+    }
+
+    /**
+     * 원 단위 금액 (화면 표시용)
+     */
+    public long toWon(RoundingMode mode) {
+        return divide(minor, UNIT, mode);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // 소수 둘째 자리까지 (예: 1234.50)
+    public String toPlainString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money m && m.minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+
+    // ===== Helpers =====
+
+    private static boolean isHalfMode(RoundingMode mode) {
+        return mode == RoundingMode.HALF_UP || mode == RoundingMode.HALF_EVEN || mode == RoundingMode.HALF_DOWN;
+    }
+
+    // value / divisor 를 mode로 반올림 (divisor > 0)
+    private static long divide(long value, long divisor, RoundingMode mode) {
+        long q = value / divisor;
+        long r = value % divisor;
+        if (r == 0) return q;
+        int sign = value < 0 ? -1 : 1;
+        long twice = Math.abs(r) * 2; // divisor가 작으므로 넘치지 않는다
+        boolean up; // 0에서 멀어지는 쪽으로 올릴지
+        switch (mode) {
+            case UP: up = true; break;
+            case DOWN: up = false; break;
+            case CEILING: up = sign > 0; break;
+            case FLOOR: up = sign < 0; break;
+            case HALF_UP: up = twice >= divisor; break;
+            case HALF_DOWN: up = twice > divisor; break;
+            case HALF_EVEN: up = twice > divisor || (twice == divisor && (q & 1) != 0); break;
+            default: throw new ArithmeticException("반올림이 필요합니다: " + value + "/" + divisor);
+        }
+        return up ? q + sign : q;
+    }
+}
@@ -17,6 +17,7 @@ public class CardDiscountDecorator extends PromotionDecorator {
     private final String cardCompany;
     //@param discountRate - 할인율
     private final BigDecimal discountRate;
+    private final long rateMicros; // 할인율 (백만분율)
 
     /**
      * 생성자
@@ -26,6 +27,7 @@ public class CardDiscountDecorator extends PromotionDecorator {
         super(decoratedFee);  //부모(PromotionDecorator)의 생성자 호출
         this.cardCompany = cardCompany;
         this.discountRate = discountRate;
+        this.rateMicros = toRateMicros(discountRate);
     }
 
     // 복제 생성자 (decorator 과정에 필요)
@@ -34,15 +36,18 @@ public class CardDiscountDecorator extends PromotionDecorator {
     }
 	
     /**
-     * 최종 결제 금액 반환
-     * 기본 요금에서 할인율을 적용한 금액을 반환
-     * @return BigDecimal - 할인 적용 후 최종 금액
+     * 할인 한 단계 적용
+     * 앞 단계까지의 금액(original)에서 할인율을 적용한 금액을 반환
+     * @return 할인 적용 후 금액 (최소 단위)
      */
     @Override
-    public BigDecimal getFinalCost() {
-        BigDecimal original = decoratedFee.getFinalCost();
-        BigDecimal discount = original.multiply(discountRate);
-        return original.subtract(discount);
+    public long applyTo(long original) {
+        return discountByRate(original, rateMicros);
+    }
+
+    @Override
+    protected PromotionDecorator copyWith(Fee fee) {
+        return new CardDiscountDecorator(fee, this);
     }
 
     @Override // getCardCompany -> 상위(fee)에서 정의된 getDisplayName으로 대체
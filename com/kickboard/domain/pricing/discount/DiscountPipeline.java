@@ -0,0 +1,115 @@
+package com.kickboard.domain.pricing.discount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import com.kickboard.domain.pricing.BaseFee;
+import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
+
+/**
+ * DiscountPipeline.java : 선택된 프로모션을 적용 순서대로 한 번만 정리해 둔 할인 파이프라인.
+ *                         데코레이터를 결제마다 복제해 감싸지 않고, 기본 요금에서 시작해
+ *                         각 할인 단계(PromotionDecorator.applyTo)를 한 번씩 차례로 적용한다.
+ *                         결과는 데코레이터를 같은 순서로 겹쳐 감싼 것과 같다.
+ *                         생성 후 바뀌지 않으므로 여러 스레드가 함께 사용해도 된다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class DiscountPipeline {
+
+    public static final DiscountPipeline EMPTY = new DiscountPipeline(List.of());
+
+    private final PromotionDecorator[] rules;
+    private final List<PromotionDecorator> view;
+    private volatile String displayName; // 가장 바깥 데코레이터의 이름 (처음 필요할 때 한 번만 조립)
+
+    private DiscountPipeline(List<PromotionDecorator> rules) {
+        this.rules = rules.toArray(new PromotionDecorator[0]);
+        this.view = Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * promotions 중 selectedIndexes가 가리키는 할인을 그 순서대로 묶는다. (범위를 벗어난 번호는 무시)
+     */
+    public static DiscountPipeline compile(List<PromotionDecorator> promotions, List<Integer> selectedIndexes) {
+        List<PromotionDecorator> chosen = new ArrayList<>(selectedIndexes.size());
+        for (int idx : selectedIndexes) {
+            if (idx >= 0 && idx < promotions.size()) {
+                chosen.add(promotions.get(idx));
+            }
+        }
+        return chosen.isEmpty() ? EMPTY : new DiscountPipeline(chosen);
+    }
+
+    /**
+     * 기본 요금에 모든 할인 단계를 차례로 적용한 금액. 단계 사이에는 최소 단위 long으로만 넘긴다.
+     */
+    public Money apply(Money base) {
+        long cost = base.minorUnits();
+        for (PromotionDecorator rule : rules) {
+            cost = rule.applyTo(cost);
+        }
+        return Money.ofMinor(cost);
+    }
+
+    /**
+     * 할인이 적용된 최종 요금. 금액은 여기서 한 번만 계산되고,
+     * 표시 이름은 가장 바깥 데코레이터와 같다. (할인이 없으면 기본 요금)
+     */
+    public Fee price(Money base) {
+        if (rules.length == 0) return new BaseFee(base);
+        return new AppliedFee(apply(base));
+    }
+
+    // 표시 이름은 금액 계산에 필요 없으므로 화면에 출력할 때 만든다.
+    private String displayName() {
+        String name = displayName;
+        if (name == null) {
+            name = rules[rules.length - 1].getDisplayName();
+            displayName = name;
+        }
+        return name;
+    }
+
+    public List<PromotionDecorator> getRules() {
+        return view;
+    }
+
+    /**
+     * fee에 적용된 할인 단계. 파이프라인이 만든 요금이면 그 단계들, 데코레이터로 감싼 요금이면 바깥 단계부터.
+     */
+    public static List<PromotionDecorator> rulesOf(Fee fee) {
+        if (fee instanceof DiscountPipeline.AppliedFee applied) return applied.rules();
+        List<PromotionDecorator> chain = new ArrayList<>();
+        for (Fee f = fee; f instanceof PromotionDecorator d; f = d.decoratedFee) chain.add(d);
+        return chain;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    // 계산이 끝난 요금 (getFinalCost가 다시 계산하지 않음)
+    private final class AppliedFee implements Fee {
+        private final Money finalCost;
+
+        private AppliedFee(Money finalCost) {
+            this.finalCost = finalCost;
+        }
+
+        @Override
+        public Money getFinalCost() {
+            return finalCost;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName();
+        }
+
+        private List<PromotionDecorator> rules() {
+            return view;
+        }
+    }
+}
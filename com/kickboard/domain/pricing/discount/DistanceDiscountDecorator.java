@@ -15,6 +15,7 @@ public class DistanceDiscountDecorator extends PromotionDecorator {
 
     //@param discountRate - 할인율
     private final BigDecimal discountRate; 
+    private final long rateMicros; // 할인율 (백만분율)
     //thresholdKm - 거리
     private final double thresholdKm;      
 
@@ -28,6 +29,7 @@ public class DistanceDiscountDecorator extends PromotionDecorator {
         super(decoratedFee);
         this.thresholdKm = thresholdKm;
         this.discountRate = discountRate;
+        this.rateMicros = toRateMicros(discountRate);
     }
 
     // 복제 생성자 (Promotion 적용 시 필요)
@@ -36,15 +38,18 @@ public class DistanceDiscountDecorator extends PromotionDecorator {
     }
 
     /**
-     * 최종 결제 금액 반환
-     * 기본 요금에서 할인율을 적용한 금액을 반환
-     * @return BigDecimal - 할인 적용 후 최종 금액
+     * 할인 한 단계 적용
+     * 앞 단계까지의 금액(original)에서 할인율을 적용한 금액을 반환
+     * @return 할인 적용 후 금액 (최소 단위)
      */
     @Override
-    public BigDecimal getFinalCost() {
-        BigDecimal original = decoratedFee.getFinalCost();
-        BigDecimal discount = original.multiply(discountRate);
-        return original.subtract(discount);
+    public long applyTo(long original) {
+        return discountByRate(original, rateMicros);
+    }
+
+    @Override
+    protected PromotionDecorator copyWith(Fee fee) {
+        return new DistanceDiscountDecorator(fee, this);
     }
 
     @Override // 거리 할인 정보 자동 출력
@@ -1,7 +1,9 @@
 package com.kickboard.domain.pricing.discount;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
 
 /**
  * PromotionDecorator.java	: 요금 할인 및 프로모션 적용을 위한 추상 데코레이터
@@ -12,6 +14,9 @@ import com.kickboard.domain.pricing.Fee;
  */
 public abstract class PromotionDecorator implements Fee {
 
+    // 할인액을 최소 단위(1/100원)로 맞출 때의 반올림 방식
+    protected static final RoundingMode DISCOUNT_ROUNDING = RoundingMode.HALF_UP;
+
     // 데코레이션 대상 요금 객체
     protected final Fee decoratedFee;
 
@@ -24,14 +29,38 @@ public abstract class PromotionDecorator implements Fee {
     }
 
     /**
-     * 최종 결제 금액 반환 (기본적으로 내부 Fee의 금액 그대로 반환)
-     * 서브클래스에서 오버라이드하여 할인 로직 구현
+     * 최종 결제 금액 반환 (내부 Fee의 금액에 이 할인 한 단계를 적용)
      *
-     * @return 최종 결제 금액 (BigDecimal)
+     * @return 최종 결제 금액
      */
     @Override
-    public BigDecimal getFinalCost() {
-        return decoratedFee.getFinalCost();
+    public Money getFinalCost() {
+        return applyTo(decoratedFee.getFinalCost());
+    }
+
+    /**
+     * 주어진 금액에 이 할인 한 단계만 적용한다.
+     */
+    public final Money applyTo(Money cost) {
+        return Money.ofMinor(applyTo(cost.minorUnits()));
+    }
+
+    /**
+     * 최소 단위 금액에 이 할인 한 단계만 적용한다. (DiscountPipeline이 체인 없이, 객체 없이 순서대로 호출)
+     * 서브클래스에서 오버라이드하여 할인 로직 구현
+     */
+    public long applyTo(long minorUnits) {
+        return minorUnits;
+    }
+
+    // 비율 할인: 금액 - 금액 × 할인율 (할인액은 최소 단위로 반올림)
+    protected static long discountByRate(long minorUnits, long rateMicros) {
+        return minorUnits - Money.applyRate(minorUnits, rateMicros, DISCOUNT_ROUNDING);
+    }
+
+    // 할인율을 백만분율로 (생성할 때 한 번만)
+    protected static long toRateMicros(BigDecimal discountRate) {
+        return Money.rateMicros(discountRate, DISCOUNT_ROUNDING);
     }
 
     @Override // 할인 정보 출력
@@ -40,15 +69,12 @@ public abstract class PromotionDecorator implements Fee {
     }
 
     /**
-     * 객체를 감싸기 위한 decorate 메서드
+     * 객체를 감싸기 위한 decorate 메서드 (복제 생성자를 직접 호출, 리플렉션 없음)
      */
     public Fee decorate(Fee fee) {
-        try {
-            return this.getClass()
-                       .getConstructor(Fee.class, this.getClass())
-                       .newInstance(fee, this);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to decorate fee", e);
-        }
+        return copyWith(fee);
     }
+
+    // 같은 할인 조건으로 fee를 감싼 새 데코레이터
+    protected abstract PromotionDecorator copyWith(Fee fee);
 }
@@ -1,7 +1,7 @@
 package com.kickboard.domain.pricing.strategy;
 
-import com.kickboard.domain.rental.Rental;
-import java.math.BigDecimal;
+import com.kickboard.domain.pricing.Money;
+import java.math.RoundingMode;
 
 /**
  * DistanceFeeStrategy.java : 거리 기반 요금 계산 전략 (1km당 ???원)
@@ -13,19 +13,17 @@ import java.math.BigDecimal;
 public class DistanceFeeStrategy implements FeeStrategy {
 
     // Km당 요금 - 200원 가정
-    private static final BigDecimal ratePerKilometer = new BigDecimal("200");
+    private static final Money ratePerKilometer = Money.ofWon(200);
 
     /**
      * 거리 기반 요금 계산 (Km당 요금 × 거리)
-     * @param rental 대여 정보 객체
-     * @return 총 요금 (BigDecimal)
+     * @param minutes 사용하지 않음
+     * @param distanceKm 누적 주행 거리
+     * @return 총 요금 (1/100원 미만은 반올림)
      */
     @Override
-    public BigDecimal calculateFee(Rental rental) {
-        // Rental 객체에서 RentalInfo를 가져와야 합니다.
-        // Rental 클래스에 getRentalInfo() 메서드가 필요합니다.
-        double distanceKm = rental.getRentalInfo().getTraveledDistance();
-        return ratePerKilometer.multiply(BigDecimal.valueOf(distanceKm));
+    public Money calculateFee(long minutes, double distanceKm) {
+        return ratePerKilometer.times(distanceKm, RoundingMode.HALF_UP);
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.kickboard.domain.pricing.strategy;
+
+import com.kickboard.domain.pricing.Money;
+
+/**
+ * FareFormula.java : 이용 시간(분)과 주행 거리로 요금을 내는 식 하나.
+ *                    요금표를 쓰는 전략은 대여 조건(모델/구역/시간대)마다 다른 식을 돌려주고,
+ *                    고정 요율 전략은 자기 자신이 식이다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+@FunctionalInterface
+public interface FareFormula {
+
+    /**
+     * @param minutes 이용 시간 (분, 버림)
+     * @param distance 누적 주행 거리
+     */
+    Money calculateFee(long minutes, double distance);
+}
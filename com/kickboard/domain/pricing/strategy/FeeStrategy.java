@@ -1,18 +1,41 @@
 /**
  * FeeStrategy.java	: 요금 계산 전략 인터페이스 - 시간 기반, 거리 기반 방식을 정의한다.
+ *                    요금은 이용 시간(분)과 주행 거리로 정해지며, 대여 조건에 따라 식(FareFormula)이 달라질 수 있다.
+ *                    반납 시 계산(calculateFee(rental))과 실시간 요금기(FareMeter)가 같은 식을 쓰게 하기 위함이다.
  * @author	: Mingwan Kim
  * @email	: steven3407115@dankook.ac.kr
- * @version	: 1.0
- * @date	: 2025.10.07
+ * @version	: 1.2
+ * @date	: 2026.10.18
  */
 package com.kickboard.domain.pricing.strategy;
 
+import com.kickboard.domain.pricing.Money;
 import com.kickboard.domain.rental.Rental;
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
-public interface FeeStrategy {
-
-    BigDecimal calculateFee(Rental rental);
+public interface FeeStrategy extends FareFormula {
 
     String name();
-}
\ No newline at end of file
+
+    /**
+     * 대여 조건(킥보드 모델, 위치한 구역, 시작 시간대)에 맞는 요금 식.
+     * 고정 요율 전략은 자기 자신을 돌려준다. 요금표가 바뀌면 다른 식이 나온다.
+     */
+    default FareFormula formulaFor(Rental rental) {
+        return this;
+    }
+
+    default Money calculateFee(Rental rental) {
+        return formulaFor(rental).calculateFee(usedMinutes(rental), rental.getRentalInfo().getTraveledDistance());
+    }
+
+    // 이용 시간 (분). 아직 반납 전이면 현재 시간을 기준으로 계산
+    static long usedMinutes(Rental rental) {
+        LocalDateTime actualEndTime = rental.getEndTime();
+        if (actualEndTime == null) {
+            actualEndTime = LocalDateTime.now();
+        }
+        return Duration.between(rental.getStartTime(), actualEndTime).toMinutes();
+    }
+}
@@ -1,9 +1,6 @@
 package com.kickboard.domain.pricing.strategy;
 
-import com.kickboard.domain.rental.Rental;
-import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import com.kickboard.domain.pricing.Money;
 
 /**
  * TimeFeeStrategy.java : 시간 기반 요금 계산 전략 (분당 ???원)
@@ -15,21 +12,17 @@ import java.time.LocalDateTime;
 public class TimeFeeStrategy implements FeeStrategy {
 
     // 분당 요금 - 200원 가정
-    private static final BigDecimal RATE_PER_MINUTE = new BigDecimal("200");
+    private static final Money RATE_PER_MINUTE = Money.ofWon(200);
 
     /**
      * 시간 기반 요금 계산 (분당 요금 × 이용시간)
-     * @param rental 대여 정보 객체
+     * @param minutes 이용 시간 (분)
+     * @param distance 사용하지 않음
      * @return 총 요금
      */
     @Override
-    public BigDecimal calculateFee(Rental rental) {
-        LocalDateTime actualEndTime = rental.getEndTime();
-        if (actualEndTime == null) {
-            actualEndTime = LocalDateTime.now(); // 아직 반납 전이면 현재 시간을 기준으로 계산
-        }
-        long minutes = Duration.between(rental.getStartTime(), actualEndTime).toMinutes();
-        return RATE_PER_MINUTE.multiply(BigDecimal.valueOf(minutes));
+    public Money calculateFee(long minutes, double distance) {
+        return RATE_PER_MINUTE.times(minutes);
     }
 
     /**
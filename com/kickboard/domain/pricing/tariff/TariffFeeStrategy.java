@@ -0,0 +1,60 @@
+package com.kickboard.domain.pricing.tariff;
+
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.pricing.strategy.FareFormula;
+import com.kickboard.domain.pricing.strategy.FeeStrategy;
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.vehicle.Vehicle;
+
+import java.time.LocalTime;
+
+/**
+ * TariffFeeStrategy.java : 요금표(TariffTable)의 전략 하나. TariffRegistry가 전략 이름마다 하나씩 만든다.
+ *                          - 모델 : 빌린 킥보드의 모델
+ *                          - 구역 : 킥보드가 지금 있는 곳 (반납 후에는 반납한 곳)
+ *                          - 시각 : 대여를 시작한 시각
+ *                          요금표는 부를 때마다 레지스트리에서 새로 읽으므로 다시 읽은 요금표가 바로 적용된다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class TariffFeeStrategy implements FeeStrategy {
+
+    private final TariffRegistry registry;
+    private final String name;
+    private final int index; // 요금표 안에서의 번호 (다시 읽어도 그대로)
+
+    TariffFeeStrategy(TariffRegistry registry, String name, int index) {
+        this.registry = registry;
+        this.name = name;
+        this.index = index;
+    }
+
+    @Override
+    public FareFormula formulaFor(Rental rental) {
+        TariffTable table = registry.getTable();
+        int hour = rental.getStartTime().getHour();
+        Vehicle vehicle = rental.getVehicle();
+        if (vehicle == null) return table.lookupDefault(index, hour);
+        synchronized (vehicle) { // 좌표 두 개를 같은 시점으로 읽는다
+            return table.lookup(index, vehicle.getModelName(), vehicle.getX(), vehicle.getY(), hour);
+        }
+    }
+
+    /**
+     * 대여 정보 없이 계산할 때는 그 밖의 모델, 구역 밖, 지금 시각의 요금을 쓴다.
+     */
+    @Override
+    public Money calculateFee(long minutes, double distance) {
+        return registry.getTable().lookupDefault(index, LocalTime.now().getHour()).calculateFee(minutes, distance);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
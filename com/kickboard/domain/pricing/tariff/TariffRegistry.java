@@ -0,0 +1,158 @@
+package com.kickboard.domain.pricing.tariff;
+
+import com.kickboard.domain.pricing.strategy.FeeStrategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TariffRegistry.java : 요금표 파일을 읽어 요금 전략(FeeStrategy)으로 내어 준다.
+ *                       - 요금 계산은 volatile 참조로 현재 요금표를 한 번 읽을 뿐이라 잠금이 없다.
+ *                       - reload()는 새 요금표를 다 만든 뒤 참조만 바꾸므로, 계산 중인 요금은 바뀌기 전 요금표로 끝난다.
+ *                       - 파일에 오류가 있으면 경고만 남기고 쓰던 요금표를 유지한다. (쓰던 전략을 빼는 것도 오류)
+ *                       - 파일이 없으면 기본 요금표 (시간 요금 분당 200원, 거리 요금 km당 200원)를 쓴다.
+ *                       전략 객체는 이름마다 하나이므로 다시 읽어도 화면/요금기가 들고 있는 전략이 그대로 맞다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class TariffRegistry implements Closeable {
+
+    // 요금표 파일이 없을 때 (예전 TimeFeeStrategy/DistanceFeeStrategy와 같은 요율)
+    static final String DEFAULT_TARIFFS = String.join("\n",
+            "rate,Time-based,*,*,*,0,200,0",
+            "rate,Distance-based,*,*,*,0,0,200");
+
+    private final Path file;
+    private final ScheduledExecutorService watcher; // 파일 변경 확인 (주기가 0이면 null)
+    private volatile TariffTable table;
+    private volatile List<TariffFeeStrategy> strategies;
+    private volatile long version; // 요금표를 바꿀 때마다 1씩 증가
+    private FileTime loadedModified; // reload()에서만 (synchronized)
+    private long loadedSize = -1;
+
+    /**
+     * @param reloadMillis 파일 변경 확인 주기 (0 이하이면 reload()를 직접 부를 때만 다시 읽는다)
+     */
+    public TariffRegistry(Path file, long reloadMillis) {
+        this.file = file;
+        this.strategies = Collections.emptyList();
+        if (!reload()) { // 처음부터 파일이 잘못되었으면 기본 요금표로 시작한다
+            install(TariffTable.parse(DEFAULT_TARIFFS, Collections.emptyList()));
+        }
+        System.out.println("[요금표] " + describeSource() + " (" + table + ")");
+        if (reloadMillis > 0) {
+            this.watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "tariff-reload");
+                t.setDaemon(true);
+                return t;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, reloadMillis, reloadMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.watcher = null;
+        }
+    }
+
+    /**
+     * 요금표 파일을 다시 읽는다.
+     * @return 새 요금표로 바꿨으면 true, 오류로 쓰던 요금표를 유지했으면 false
+     */
+    public synchronized boolean reload() {
+        try {
+            String content;
+            FileTime modified = null;
+            long size = -1;
+            try {
+                modified = Files.getLastModifiedTime(file);
+                size = Files.size(file);
+                content = Files.readString(file, StandardCharsets.UTF_8);
+            } catch (NoSuchFileException e) {
+                content = DEFAULT_TARIFFS;
+            }
+            List<String> known = (table == null) ? Collections.emptyList() : table.strategyNames();
+            TariffTable next = TariffTable.parse(content, known);
+            loadedModified = modified;
+            loadedSize = size;
+            install(next);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[경고] 요금표 읽기 실패 (" + file + "), 기존 요금표를 유지합니다: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // 새 전략이 생겼을 때만 목록을 새로 만든다. 요금표 교체는 참조 하나를 바꾸는 것으로 끝난다.
+    private void install(TariffTable next) {
+        List<String> names = next.strategyNames();
+        if (names.size() > strategies.size()) {
+            List<TariffFeeStrategy> list = new ArrayList<>(strategies);
+            for (int i = strategies.size(); i < names.size(); i++) list.add(new TariffFeeStrategy(this, names.get(i), i));
+            this.strategies = Collections.unmodifiableList(list);
+        }
+        this.table = next;
+        this.version++;
+    }
+
+    private void reloadIfChanged() {
+        try {
+            FileTime modified = Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+            long size = (modified != null) ? Files.size(file) : -1;
+            synchronized (this) {
+                if (Objects.equals(modified, loadedModified) && size == loadedSize) return;
+                if (reload()) {
+                    System.out.println("[요금표] 다시 읽었습니다: " + table + ", 버전 " + version);
+                } else {
+                    loadedModified = modified; // 같은 오류를 주기마다 반복해서 알리지 않는다
+                    loadedSize = size;
+                }
+            }
+        } catch (IOException | RuntimeException e) { // 다음 주기에 다시 확인한다
+            System.err.println("[경고] 요금표 변경 확인 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 요금표에 있는 전략 (처음 나온 순서). 다시 읽어 전략이 늘어나면 뒤에 붙는다.
+     */
+    public List<FeeStrategy> getStrategies() {
+        return new ArrayList<>(strategies);
+    }
+
+    public TariffTable getTable() {
+        return table;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private String describeSource() {
+        return Files.exists(file) ? file.toString() : file + " 없음, 기본 요금표 사용";
+    }
+
+    @Override
+    public void close() {
+        if (watcher == null) return;
+        watcher.shutdownNow();
+        try {
+            watcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
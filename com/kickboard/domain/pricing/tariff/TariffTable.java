@@ -0,0 +1,299 @@
+package com.kickboard.domain.pricing.tariff;
+
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.pricing.strategy.FareFormula;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TariffTable.java : 요금표 파일을 해석해 조회용 배열로 만들어 둔 것. 만든 뒤에는 바뀌지 않는다.
+ *                    - 요금은 [전략][모델][구역][시작 시각(0~23시)] 칸마다 하나의 Rate이며, 칸 위치는 곱셈 몇 번으로 정해진다.
+ *                    - 모델은 이름 → 번호 맵, 구역은 선언 순서대로 사각형 좌표 배열을 훑는다. (먼저 선언한 구역이 우선)
+ *                    - 규칙에 나오지 않은 모델은 "그 밖의 모델" 칸, 어느 구역에도 없는 위치는 "구역 밖" 칸을 쓴다.
+ *
+ * 파일 형식 (한 줄에 하나, '#' 뒤는 주석, 빈 줄 무시)
+ *   zone,<구역 이름>,<x1>,<y1>,<x2>,<y2>
+ *       두 꼭짓점을 포함하는 사각형
+ *   rate,<전략 이름>,<모델|*>,<구역|*>,<시각|*>,<기본 요금>,<분당 요금>,<km당 요금>
+ *       시각은 "7"(7시대), "7-9"(7시~9시대), "22-5"(자정을 넘김) 또는 "*"
+ *       금액은 원 단위 (소수 둘째 자리까지)
+ *   같은 칸에 규칙이 여러 개 걸리면 아래에 적은 규칙이 이긴다. 전략마다 모든 칸이 채워져 있어야 한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class TariffTable {
+
+    static final int HOURS = 24;
+    private static final String ANY = "*";
+
+    /**
+     * 칸 하나의 요금 식 : 기본 요금 + 분당 요금 × 분 + km당 요금 × 거리 (거리 요금은 1/100원 미만 반올림)
+     */
+    public static final class Rate implements FareFormula {
+        private final long baseMinor;
+        private final long perMinuteMinor;
+        private final long perKmMinor;
+
+        Rate(Money base, Money perMinute, Money perKm) {
+            this.baseMinor = base.minorUnits();
+            this.perMinuteMinor = perMinute.minorUnits();
+            this.perKmMinor = perKm.minorUnits();
+        }
+
+        @Override
+        public Money calculateFee(long minutes, double distance) {
+            long fee = Math.addExact(baseMinor, Math.multiplyExact(perMinuteMinor, minutes));
+            if (perKmMinor != 0) {
+                fee = Math.addExact(fee, Money.multiply(perKmMinor, distance, RoundingMode.HALF_UP));
+            }
+            return Money.ofMinor(fee);
+        }
+
+        public Money getBase() { return Money.ofMinor(baseMinor); }
+        public Money getPerMinute() { return Money.ofMinor(perMinuteMinor); }
+        public Money getPerKm() { return Money.ofMinor(perKmMinor); }
+
+        @Override
+        public String toString() {
+            return "기본 " + getBase() + "원 + 분당 " + getPerMinute() + "원 + km당 " + getPerKm() + "원";
+        }
+    }
+
+    private final List<String> strategyNames;
+    private final Map<String, Integer> modelIndex; // 규칙에 나온 모델 (그 밖의 모델은 models)
+    private final int models;                      // 모델 칸 수 - 1 = 그 밖의 모델
+    private final String[] zoneNames;
+    private final int[] zoneX1, zoneY1, zoneX2, zoneY2;
+    private final int zones;                       // 구역 칸 수 - 1 = 구역 밖
+    private final Rate[] rates;                    // [전략][모델][구역][시각]
+    private final int ruleCount;
+
+    private TariffTable(List<String> strategyNames, Map<String, Integer> modelIndex, List<int[]> zoneBoxes,
+                        List<String> zoneNames, Rate[] rates, int ruleCount) {
+        this.strategyNames = Collections.unmodifiableList(strategyNames);
+        this.modelIndex = modelIndex;
+        this.models = modelIndex.size();
+        this.zoneNames = zoneNames.toArray(new String[0]);
+        int n = zoneBoxes.size();
+        this.zoneX1 = new int[n];
+        this.zoneY1 = new int[n];
+        this.zoneX2 = new int[n];
+        this.zoneY2 = new int[n];
+        for (int i = 0; i < n; i++) {
+            int[] box = zoneBoxes.get(i);
+            zoneX1[i] = box[0]; zoneY1[i] = box[1]; zoneX2[i] = box[2]; zoneY2[i] = box[3];
+        }
+        this.zones = n;
+        this.rates = rates;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * @param strategy strategyNames()에서의 순서
+     * @param x,y      킥보드 위치
+     * @param hour     대여 시작 시각 (0~23)
+     */
+    public Rate lookup(int strategy, String modelName, int x, int y, int hour) {
+        return rates[cell(strategy, modelSlot(modelName), zoneSlot(x, y), hour)];
+    }
+
+    // 모델/구역을 모를 때 (그 밖의 모델, 구역 밖)
+    public Rate lookupDefault(int strategy, int hour) {
+        return rates[cell(strategy, models, zones, hour)];
+    }
+
+    public List<String> strategyNames() {
+        return strategyNames;
+    }
+
+    public int indexOf(String strategyName) {
+        return strategyNames.indexOf(strategyName);
+    }
+
+    // 위치가 속한 구역 이름 (없으면 null)
+    public String zoneAt(int x, int y) {
+        int slot = zoneSlot(x, y);
+        return slot < zones ? zoneNames[slot] : null;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    @Override
+    public String toString() {
+        return "전략 " + strategyNames.size() + "개, 모델 " + models + "개, 구역 " + zones + "개, 규칙 " + ruleCount + "개";
+    }
+
+    private int modelSlot(String modelName) {
+        Integer index = (modelName == null) ? null : modelIndex.get(modelName);
+        return index != null ? index : models;
+    }
+
+    private int zoneSlot(int x, int y) {
+        for (int i = 0; i < zones; i++) {
+            if (x >= zoneX1[i] && x <= zoneX2[i] && y >= zoneY1[i] && y <= zoneY2[i]) return i;
+        }
+        return zones;
+    }
+
+    private int cell(int strategy, int model, int zone, int hour) {
+        return ((strategy * (models + 1) + model) * (zones + 1) + zone) * HOURS + hour;
+    }
+
+    // ===== 해석 =====
+
+    /**
+     * 요금표 내용을 해석한다.
+     * @param knownStrategies 이미 쓰고 있는 전략 이름. 번호를 그대로 유지하고, 모두 요금표에 있어야 한다.
+     * @throws IllegalArgumentException 형식 오류, 빠진 칸, 빠진 전략 (메시지에 줄 번호 포함)
+     */
+    public static TariffTable parse(String content, List<String> knownStrategies) {
+        List<String> strategies = new ArrayList<>(knownStrategies);
+        Map<String, Integer> modelIndex = new HashMap<>();
+        Map<String, int[]> zoneBoxes = new LinkedHashMap<>();
+        List<String[]> rules = new ArrayList<>();
+
+        String[] lines = content.split("\r?\n");
+        for (int lineNo = 1; lineNo <= lines.length; lineNo++) {
+            String line = lines[lineNo - 1];
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            String[] f = line.split(",", -1);
+            for (int i = 0; i < f.length; i++) f[i] = f[i].trim();
+            try {
+                switch (f[0]) {
+                    case "zone":
+                        expectFields(f, 6);
+                        if (f[1].isEmpty() || ANY.equals(f[1])) throw new IllegalArgumentException("구역 이름이 없습니다");
+                        if (zoneBoxes.containsKey(f[1])) throw new IllegalArgumentException("구역 이름 중복: " + f[1]);
+                        int x1 = Integer.parseInt(f[2]), y1 = Integer.parseInt(f[3]);
+                        int x2 = Integer.parseInt(f[4]), y2 = Integer.parseInt(f[5]);
+                        zoneBoxes.put(f[1], new int[] { Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2) });
+                        break;
+                    case "rate":
+                        expectFields(f, 8);
+                        if (f[1].isEmpty() || f[2].isEmpty()) throw new IllegalArgumentException("전략/모델 이름이 없습니다");
+                        if (!strategies.contains(f[1])) strategies.add(f[1]);
+                        if (!ANY.equals(f[2])) modelIndex.putIfAbsent(f[2], modelIndex.size());
+                        if (!ANY.equals(f[3]) && !zoneBoxes.containsKey(f[3])) {
+                            throw new IllegalArgumentException("선언되지 않은 구역: " + f[3] + " (zone 줄을 먼저 적어야 합니다)");
+                        }
+                        parseHours(f[4]);
+                        for (int i = 5; i < 8; i++) parseAmount(f[i]);
+                        rules.add(f);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("알 수 없는 줄 종류: " + f[0]);
+                }
+            } catch (IllegalArgumentException e) { // NumberFormatException 포함
+                throw new IllegalArgumentException(lineNo + "번째 줄: " + e.getMessage(), e);
+            }
+        }
+
+        for (String known : knownStrategies) {
+            boolean used = false;
+            for (String[] f : rules) used |= known.equals(f[1]);
+            if (!used) throw new IllegalArgumentException("쓰던 요금 전략은 뺄 수 없습니다: " + known);
+        }
+
+        List<String> zoneNames = new ArrayList<>(zoneBoxes.keySet());
+        TariffTable table = new TariffTable(strategies, modelIndex, new ArrayList<>(zoneBoxes.values()), zoneNames,
+                new Rate[strategies.size() * (modelIndex.size() + 1) * (zoneBoxes.size() + 1) * HOURS], rules.size());
+
+        // 규칙 하나가 Rate 하나. 걸리는 칸에 같은 객체를 넣으므로 같은 조건이면 같은 식이 나온다.
+        for (int r = 0; r < rules.size(); r++) {
+            String[] f = rules.get(r);
+            Rate rate = new Rate(parseAmount(f[5]), parseAmount(f[6]), parseAmount(f[7]));
+            int s = strategies.indexOf(f[1]);
+            boolean[] hours = parseHours(f[4]);
+            for (int m = 0; m <= table.models; m++) {
+                if (!ANY.equals(f[2]) && m != modelIndex.get(f[2])) continue;
+                for (int z = 0; z <= table.zones; z++) {
+                    if (!ANY.equals(f[3]) && z != zoneNames.indexOf(f[3])) continue;
+                    for (int h = 0; h < HOURS; h++) {
+                        if (hours[h]) table.rates[table.cell(s, m, z, h)] = rate;
+                    }
+                }
+            }
+        }
+        table.checkComplete();
+        return table;
+    }
+
+    // 모든 칸에 요금이 있어야 한다. (요금이 없는 조건에서 반납하면 결제할 수 없으므로 요금표 자체를 받지 않는다)
+    private void checkComplete() {
+        for (int s = 0; s < strategyNames.size(); s++) {
+            for (int m = 0; m <= models; m++) {
+                for (int z = 0; z <= zones; z++) {
+                    for (int h = 0; h < HOURS; h++) {
+                        if (rates[cell(s, m, z, h)] == null) {
+                            throw new IllegalArgumentException(strategyNames.get(s) + " 요금이 없는 조건이 있습니다 (모델 "
+                                    + modelName(m) + ", 구역 " + (z < zones ? zoneNames[z] : "밖") + ", " + h + "시)");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private String modelName(int slot) {
+        for (Map.Entry<String, Integer> e : modelIndex.entrySet()) {
+            if (e.getValue() == slot) return e.getKey();
+        }
+        return "그 밖의 모델";
+    }
+
+    private static void expectFields(String[] f, int count) {
+        if (f.length != count) {
+            throw new IllegalArgumentException(f[0] + " 줄은 항목이 " + count + "개여야 합니다 (현재 " + f.length + "개)");
+        }
+    }
+
+    private static boolean[] parseHours(String spec) {
+        boolean[] hours = new boolean[HOURS];
+        if (ANY.equals(spec)) {
+            Arrays.fill(hours, true);
+            return hours;
+        }
+        int dash = spec.indexOf('-');
+        int from = checkHour(Integer.parseInt(dash < 0 ? spec : spec.substring(0, dash).trim()));
+        int to = checkHour(dash < 0 ? from : Integer.parseInt(spec.substring(dash + 1).trim()));
+        for (int h = from; ; h = (h + 1) % HOURS) { // to < from이면 자정을 넘긴다
+            hours[h] = true;
+            if (h == to) break;
+        }
+        return hours;
+    }
+
+    private static int checkHour(int hour) {
+        if (hour < 0 || hour >= HOURS) throw new IllegalArgumentException("시각은 0~23이어야 합니다: " + hour);
+        return hour;
+    }
+
+    private static Money parseAmount(String value) {
+        BigDecimal parsed;
+        try {
+            parsed = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("금액 형식 오류: " + value, e);
+        }
+        try {
+            Money amount = Money.of(parsed, RoundingMode.UNNECESSARY);
+            if (amount.signum() < 0) throw new IllegalArgumentException("금액은 음수일 수 없습니다: " + value);
+            return amount;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("금액은 소수 둘째 자리까지 적을 수 있습니다: " + value, e);
+        }
+    }
+}
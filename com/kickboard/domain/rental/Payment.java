@@ -1,8 +1,8 @@
 package com.kickboard.domain.rental;
 
 import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.pricing.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -19,8 +19,8 @@ public abstract class Payment {
     private final String rentalId;
     private PaymentMethod paymentMethod;
     private LocalDateTime transactionDate;
-    private BigDecimal amount;
-    private PaymentStatus status;
+    private Money amount;
+    private volatile PaymentStatus status; // 보류는 결제사 스레드와 만료 처리에서 함께 본다
 
     public Payment(String paymentId, String rentalId, PaymentMethod method) {
         this.paymentId = Objects.requireNonNull(paymentId, "paymentId");
@@ -34,20 +34,63 @@ public abstract class Payment {
         if (paymentMethod.getIdentifier() == null || paymentMethod.getPassword() == null) throw new IllegalStateException("card info wrong"); // 카드번호 값이 존재하지 않을 경우.
         
 
-        if (paymentMethod.getBalance().compareTo(amount) < 0){ // 결제 실패 
+        if (!paymentMethod.tryDebit(amount, paymentId)){ // 결제 실패 (다른 대여의 보류 금액은 쓸 수 없다)
             this.status = PaymentStatus.FAILED;
             this.transactionDate = LocalDateTime.now();
             return false;
         }
-        // 결제 성공
-        paymentMethod.deductBalance(amount);
+        // 결제 성공 (확인과 차감이 한 번에 일어난다)
         this.transactionDate = LocalDateTime.now();
         this.status = PaymentStatus.SUCCESS;
         return this.status == PaymentStatus.SUCCESS;
     }
 
-    public void setAmount(BigDecimal amount){ // 최종 요금 호출
+    // 결제 대신 amount만큼 보류를 건다. (대여 시작 시 승인 보류)
+    public synchronized boolean authorizeCheck() {
+        if (amount == null) throw new IllegalStateException("amount not set");
+        if (paymentMethod.getIdentifier() == null || paymentMethod.getPassword() == null) throw new IllegalStateException("card info wrong");
+        this.transactionDate = LocalDateTime.now();
+        if (status == PaymentStatus.AUTHORIZED) return true; // 이미 보류됨
+        this.status = paymentMethod.placeHold(amount, paymentId) ? PaymentStatus.AUTHORIZED : PaymentStatus.FAILED;
+        return this.status == PaymentStatus.AUTHORIZED;
+    }
+
+    // 보류(hold)를 이 결제로 바꾼다. 금액이 보류와 다르면 차액만큼 더/덜 낸다. 보류가 없으면 일반 결제와 같다.
+    public boolean captureCheck(Payment hold) {
+        if (amount == null) throw new IllegalStateException("amount not set");
+        synchronized (hold) {
+            if (hold.status != PaymentStatus.AUTHORIZED || hold.paymentMethod != paymentMethod) return processPaymentCheck();
+            synchronized (this) {
+                this.transactionDate = LocalDateTime.now();
+                if (!paymentMethod.captureHold(hold.amount, amount, paymentId)) {
+                    this.status = PaymentStatus.FAILED;
+                    return false;
+                }
+                hold.status = PaymentStatus.RELEASED;
+                this.status = PaymentStatus.SUCCESS;
+                return true;
+            }
+        }
+    }
+
+    // 보류를 푼다. 이미 풀렸거나 결제로 바뀐 보류면 아무것도 하지 않는다.
+    public synchronized void releaseHold() {
+        if (status != PaymentStatus.AUTHORIZED) return;
+        paymentMethod.releaseHold(amount, paymentId);
+        this.status = PaymentStatus.RELEASED;
+        this.transactionDate = LocalDateTime.now();
+    }
+
+    public void setAmount(Money amount){ // 최종 요금 호출
         this.amount = amount;
     }
 
+    // getters (결제 원장 기록용)
+    public String getPaymentId() { return paymentId; }
+    public String getRentalId() { return rentalId; }
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public Money getAmount() { return amount; }
+    public PaymentStatus getStatus() { return status; }
+
 }
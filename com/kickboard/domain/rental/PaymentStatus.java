@@ -8,5 +8,7 @@ package com.kickboard.domain.rental;
  * @date: 2025.10.8
  */
 public enum PaymentStatus {
-  SUCCESS, FAILED
+  SUCCESS, FAILED,
+  AUTHORIZED, // 결제수단에 보류만 걸어 둠 (잔액은 그대로, 사용 가능 금액만 줄어든다)
+  RELEASED    // 보류를 풀었거나 결제로 바꿈
 }
\ No newline at end of file
@@ -3,18 +3,21 @@ package com.kickboard.domain.rental;
 import com.kickboard.domain.payment.PaymentMethod;
 import com.kickboard.domain.user.User;
 import com.kickboard.domain.vehicle.Vehicle;
-import com.kickboard.domain.pricing.BaseFee;
 import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.pricing.discount.DiscountPipeline;
 import com.kickboard.domain.pricing.discount.PromotionDecorator;
 import com.kickboard.domain.pricing.strategy.FeeStrategy;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
 public class Rental implements Serializable{
+    private static final long serialVersionUID = 4995754063492954298L; // 기존 상태 파일 호환을 위해 고정
 
     /**
     * Rental.java	: processPayment 및 CalculateFinalFee 구현 -> 사용자가 적용할 프로모션을 선택한 후 decorator로 적용
@@ -29,9 +32,9 @@ public class Rental implements Serializable{
     private final Vehicle vehicle;
 
     private final LocalDateTime startTime;
-    private LocalDateTime endTime;
-    private RentalInfo rentalInfo;
-    private RentalStatus status;
+    private volatile LocalDateTime endTime;
+    private volatile RentalInfo rentalInfo;
+    private volatile RentalStatus status;
 
     public Rental(String rentalId, User user, Vehicle vehicle, LocalDateTime startTime) {
         this.rentalId = Objects.requireNonNull(rentalId, "rentalId");
@@ -42,17 +45,40 @@ public class Rental implements Serializable{
         this.status = RentalStatus.ACTIVE;
     }
 
-    public void complete(double finalTraveledDistance) {
+    // 상태 복원용 생성자 (저널 재생 시 이미 진행/완료된 대여를 그대로 되살린다)
+    public Rental(String rentalId, User user, Vehicle vehicle, RentalInfo rentalInfo, RentalStatus status) {
+        this.rentalId = Objects.requireNonNull(rentalId, "rentalId");
+        this.user = Objects.requireNonNull(user, "user");
+        this.vehicle = Objects.requireNonNull(vehicle, "vehicle");
+        this.rentalInfo = Objects.requireNonNull(rentalInfo, "rentalInfo");
+        this.startTime = rentalInfo.getStartTime();
+        this.endTime = rentalInfo.getEndTime();
+        this.status = Objects.requireNonNull(status, "status");
+    }
+
+    /**
+     * 반납 요청: 주행을 끝내고 결제를 기다린다. (PAYMENT_PENDING, 사용자의 진행 중 대여로 남는다)
+     * 결제가 승인되면 confirmPayment(), 실패하거나 취소하면 revertComplete()를 호출한다.
+     */
+    public synchronized void complete(double finalTraveledDistance) {
         if (this.status != RentalStatus.ACTIVE) {
             return;
         }
         this.endTime = LocalDateTime.now();
-        this.status = RentalStatus.COMPLETED;
+        this.status = RentalStatus.PAYMENT_PENDING;
         this.rentalInfo = new RentalInfo(this.startTime, this.endTime, finalTraveledDistance);
     }
 
+    // 결제가 승인되어 반납을 확정한다.
+    public synchronized void confirmPayment() {
+        if (this.status != RentalStatus.PAYMENT_PENDING) {
+            return;
+        }
+        this.status = RentalStatus.COMPLETED;
+    }
+
     // 시뮬레이션으로부터 주행 거리를 업데이트하기 위한 메서드
-    public void updateTraveledDistance(double newDistance) {
+    public synchronized void updateTraveledDistance(double newDistance) {
         // RentalInfo는 불변(immutable) 객체이므로 새로 생성하여 교체
         this.rentalInfo = new RentalInfo(this.startTime, this.endTime, newDistance);
     }
@@ -60,8 +86,8 @@ public class Rental implements Serializable{
     /**
      * 결제 실패 등으로 인해 완료 상태를 되돌리는 롤백 메서드.
      */
-    public void revertComplete() {
-        if (this.status != RentalStatus.COMPLETED) {
+    public synchronized void revertComplete() {
+        if (this.status != RentalStatus.PAYMENT_PENDING) {
             return;
         }
         this.status = RentalStatus.ACTIVE;
@@ -74,22 +100,18 @@ public class Rental implements Serializable{
 //    }
     
     public Fee calculateFinalFee(FeeStrategy strategy, List<PromotionDecorator> discounts, List<Integer> selectedIndexes) { // 최종 요금 계산
+        // 선택된 프로모션만 적용
+        return calculateFinalFee(strategy, DiscountPipeline.compile(discounts, selectedIndexes));
+    }
+
+    // 미리 묶어 둔 할인 파이프라인으로 최종 요금 계산 (같은 할인 조합을 여러 번 쓸 때)
+    public Fee calculateFinalFee(FeeStrategy strategy, DiscountPipeline discounts) {
 
-        BigDecimal base = strategy.calculateFee(this);
+        Money base = strategy.calculateFee(this);
         if (base == null || base.signum() < 0) {
             throw new IllegalStateException("Base price must be a non-negative value.");
         }
-
-        Fee fee = new BaseFee(base);
-
-        // 선택된 프로모션만 적용
-        for (int idx : selectedIndexes) {
-            if (idx >= 0 && idx < discounts.size()) {
-                PromotionDecorator d = discounts.get(idx);
-                fee = d.decorate(fee);
-            }
-        }
-        return fee;
+        return discounts.price(base);
     }
 
 
@@ -120,4 +142,9 @@ public class Rental implements Serializable{
     public RentalInfo getRentalInfo() {
         return rentalInfo;
     }
+
+    // 스냅샷 저장 중 상태가 바뀌지 않도록 잠금 안에서 직렬화
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
 }
\ No newline at end of file
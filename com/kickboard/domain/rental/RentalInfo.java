@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 public final class RentalInfo implements Serializable{
+    private static final long serialVersionUID = -7774800873964813157L; // 기존 상태 파일 호환을 위해 고정
 
     /**
     * RentalInfo.java	: RentalInfo 초기 구현
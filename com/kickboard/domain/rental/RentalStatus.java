@@ -8,5 +8,6 @@ package com.kickboard.domain.rental;
  * @date: 2025.10.8
  */
 public enum RentalStatus {
-  ACTIVE, COMPLETED, CANCELED
+  ACTIVE, COMPLETED, CANCELED,
+  PAYMENT_PENDING // 반납 요청 후 결제 대기 (결제가 끝날 때까지 사용자의 진행 중 대여로 남는다)
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import java.io.Serializable;
  * @date: 2025.10.8
  */
 public class DriverLicense implements Serializable {
+    private static final long serialVersionUID = 1545905377366008611L; // 기존 상태 파일 호환을 위해 고정
     private String licenseNumber;
     private boolean valid;
 
@@ -17,6 +18,10 @@ public class DriverLicense implements Serializable {
         this.licenseNumber = licenseNumber;
     }
 
+    public String getLicenseNumber() {
+        return licenseNumber;
+    }
+
     /**
      * 유효성 여부 반환
      * @return valid
@@ -2,6 +2,8 @@ package com.kickboard.domain.user;
 
 import com.kickboard.domain.payment.PaymentMethod;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -16,6 +18,7 @@ import java.util.Map;
  * @date : 2025.10.08
  */
 public class User implements Serializable{
+    private static final long serialVersionUID = -6461536994494998899L; // 기존 상태 파일 호환을 위해 고정
 
     private final String userId;
     private final String password;
@@ -79,11 +82,11 @@ public class User implements Serializable{
         return this.license;
     }
 
-    public Map<String, BigDecimal> getCoupons() {
+    public synchronized Map<String, BigDecimal> getCoupons() {
         return this.coupons;
     }
 
-    public void setCoupons(Map<String, BigDecimal> coupons) {
+    public synchronized void setCoupons(Map<String, BigDecimal> coupons) {
         this.coupons = coupons;
     }
 
@@ -99,7 +102,7 @@ public class User implements Serializable{
      * 사용자에 결제수단을 추가합니다.
      * @param method 추가할 결제수단 (null 허용 안함)
      */
-    public void addPaymentMethod(PaymentMethod method) {
+    public synchronized void addPaymentMethod(PaymentMethod method) {
         if (method == null) throw new IllegalArgumentException("payment method must not be null");
         if (this.paymentMethods == null) this.paymentMethods = new java.util.ArrayList<>();
         this.paymentMethods.add(method);
@@ -112,16 +115,26 @@ public class User implements Serializable{
      *
      * @return 결제수단 리스트 (수정 불가 뷰)
      */
-    public List<PaymentMethod> getPaymentMethods() {
+    public synchronized List<PaymentMethod> getPaymentMethods() {
         if (this.paymentMethods == null) return java.util.Collections.emptyList();
-        return java.util.Collections.unmodifiableList(this.paymentMethods);
+        return java.util.Collections.unmodifiableList(new java.util.ArrayList<>(this.paymentMethods));
     }
 
     // 사용자에 쿠폰을 추가합니다. 
-    public void addCoupon(String couponId, BigDecimal rate) {
+    public synchronized void addCoupon(String couponId, BigDecimal rate) {
         if (this.coupons == null) {
             this.coupons = new HashMap<>();
         }
         this.coupons.put(couponId, rate);
     }
+
+    // 사용한 쿠폰을 제거합니다. 보유하고 있었으면 true
+    public synchronized boolean removeCoupon(String couponId) {
+        return this.coupons != null && this.coupons.remove(couponId) != null;
+    }
+
+    // 스냅샷 저장 중 쿠폰/결제수단 목록이 바뀌지 않도록 잠금 안에서 직렬화
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
 }
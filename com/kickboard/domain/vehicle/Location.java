@@ -0,0 +1,62 @@
+package com.kickboard.domain.vehicle;
+
+/**
+ * Location.java : 킥보드 위치 (x, y 격자 좌표)를 담는 불변 값 객체.
+ *                 Vehicle은 좌표를 int 필드로 직접 가지고, 두 좌표를 한 번에 읽어야 할 때만 이 객체를 만든다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class Location {
+
+    private final int x;
+    private final int y;
+
+    public Location(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * 이전 형식의 "x,y" 문자열을 해석한다.
+     * @throws IllegalArgumentException 형식이 맞지 않을 때
+     */
+    public static Location parse(String text) {
+        int comma = (text == null) ? -1 : text.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("location must be \"x,y\": " + text);
+        }
+        try {
+            return new Location(Integer.parseInt(text.substring(0, comma).trim()),
+                                Integer.parseInt(text.substring(comma + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("location must be \"x,y\": " + text, e);
+        }
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+
+    // (px, py)까지 거리의 제곱
+    public long distanceSq(int px, int py) {
+        long dx = (long) x - px, dy = (long) y - py;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Location)) return false;
+        Location other = (Location) o;
+        return x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
+    @Override
+    public String toString() {
+        return x + "," + y;
+    }
+}
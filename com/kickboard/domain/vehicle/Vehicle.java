@@ -1,9 +1,13 @@
 package com.kickboard.domain.vehicle;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
 public class Vehicle implements Serializable{
+  private static final long serialVersionUID = 748189997214166388L; // 기존 상태 파일 호환을 위해 고정
 
   /**
   * Vehicle.java	: Vehicle 초기 구현
@@ -14,40 +18,45 @@ public class Vehicle implements Serializable{
   */
   private final String vehicleId;
   private final String modelName;
-  private VehicleStatus status;
-  private String currentLocation;
+  private volatile VehicleStatus status; // 상태 전이는 synchronized 메서드로만 (여러 라이더 동시 대여 방지)
+  private int x, y; // 현재 위치 (격자 좌표)
+  private String currentLocation; // 이전 형식("x,y") 상태 파일 호환용. 읽을 때만 사용하고 항상 null로 저장한다.
   private int batteryLevel;
 
-  public Vehicle(String vehicleId, String modelName, String currentLocation, int batteryLevel) {
+  public Vehicle(String vehicleId, String modelName, int x, int y, int batteryLevel) {
       this.vehicleId = Objects.requireNonNull(vehicleId, "vehicleId");
       this.modelName = Objects.requireNonNull(modelName, "modelName");
-      this.currentLocation = Objects.requireNonNull(currentLocation, "currentLocation");
+      this.x = x;
+      this.y = y;
       this.status = VehicleStatus.AVAILABLE; // 사용 가능 상태로 세팅
       setBatteryLevel(batteryLevel); // 배터리 양 -> 범위 검증 위해 함수 이용
   }
 
-  // 잠금 해제(대여 시작 전).
-  public boolean unlock() {
+  // 잠금 해제(대여 시작 전). 동시에 호출되어도 한 명만 성공한다.
+  public synchronized boolean unlock() {
         if (status != VehicleStatus.AVAILABLE) return false; // 이미 inuse 이면 false 리턴
         status = VehicleStatus.IN_USE;
         return true;
   }
 
   // 잠금(반납 완료 시).
-  public boolean lock() {
+  public synchronized boolean lock() {
         if (status != VehicleStatus.IN_USE) return false; // 이미 available 이면 false 리턴
         status = VehicleStatus.AVAILABLE;
         return true;
   }
 
   // 정비 모드 진입
-  public void moveToMaintenance() { this.status = VehicleStatus.MAINTENANCE; }
+  public synchronized void moveToMaintenance() { this.status = VehicleStatus.MAINTENANCE; }
 
   // 정비 해제 → 사용 가능
-  public void backToAvailable() { this.status = VehicleStatus.AVAILABLE; }
+  public synchronized void backToAvailable() { this.status = VehicleStatus.AVAILABLE; }
+
+  // 상태 복원용 (저널 재생 시 기록된 상태를 그대로 반영)
+  public synchronized void restoreStatus(VehicleStatus status) { this.status = Objects.requireNonNull(status, "status"); }
 
   // 배터리 초기 세팅
-  public void setBatteryLevel(int level) {
+  public synchronized void setBatteryLevel(int level) {
       if (level < 0 || level > 100) { // 베터리 양 -> 범위 검증
           throw new IllegalArgumentException("batteryLevel must be 0..100");
       }
@@ -58,12 +67,32 @@ public class Vehicle implements Serializable{
   public String getVehicleId() { return vehicleId; }
   public String getModelName() { return modelName; }
   public VehicleStatus getStatus() { return status; }
-  public String getCurrentLocation() { return currentLocation; }
-  public int getBatteryLevel() { return batteryLevel; }
+  public synchronized int getX() { return x; }
+  public synchronized int getY() { return y; }
+  public synchronized Location getLocation() { return new Location(x, y); } // 두 좌표를 한 번에 읽을 때
+  public synchronized String getCurrentLocation() { return x + "," + y; } // 화면 표시용
+  public synchronized int getBatteryLevel() { return batteryLevel; }
+
+  // 위치 이동 (시뮬레이션 연동)
+  public synchronized void moveTo(int x, int y) {
+      this.x = x;
+      this.y = y;
+  }
 
-  // setters (시뮬레이션 연동을 위해 추가)
-  public void setCurrentLocation(String currentLocation) {
-      this.currentLocation = currentLocation;
+  // 스냅샷 저장 중 상태가 바뀌지 않도록 잠금 안에서 직렬화
+  private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+      out.defaultWriteObject();
+  }
+
+  // 이전 형식은 위치를 "x,y" 문자열로 저장했으므로 좌표로 옮긴다.
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      if (currentLocation != null) {
+          Location legacy = Location.parse(currentLocation);
+          this.x = legacy.getX();
+          this.y = legacy.getY();
+          this.currentLocation = null;
+      }
   }
   
 }
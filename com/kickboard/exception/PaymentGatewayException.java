@@ -0,0 +1,24 @@
+package com.kickboard.exception;
+
+/**
+ * PaymentGatewayException.java : 결제사(게이트웨이)와 통신하지 못해 결제 결과를 받지 못했을 때의 예외.
+ *                                잔액 부족 같은 거절은 예외가 아니라 결과(false)로 돌려준다.
+ *                                retryable이면 같은 멱등 키로 다시 요청해도 된다. (결제사가 중복 청구하지 않는다)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public class PaymentGatewayException extends KickboardException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    public PaymentGatewayException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
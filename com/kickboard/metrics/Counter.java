@@ -0,0 +1,28 @@
+package com.kickboard.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter.java : 증가만 하는 카운터. 여러 스레드가 동시에 올려도 경합이 적도록 LongAdder를 쓴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {}
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        if (amount < 0) throw new IllegalArgumentException("카운터는 줄일 수 없습니다: " + amount);
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
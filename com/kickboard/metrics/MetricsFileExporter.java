@@ -0,0 +1,81 @@
+package com.kickboard.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsFileExporter.java : 지표를 Prometheus 텍스트 형식으로 주기적으로 파일에 쓴다.
+ *                            (node_exporter textfile collector 등이 그대로 읽을 수 있다)
+ *                            임시 파일에 쓴 뒤 교체하므로 읽는 쪽이 쓰다 만 파일을 보지 않는다.
+ *                            close()할 때 마지막 값을 한 번 더 쓴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class MetricsFileExporter implements Closeable {
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param intervalMillis 쓰기 주기 (0 이하이면 주기적으로 쓰지 않고 close()에서만 쓴다)
+     */
+    public MetricsFileExporter(MetricsRegistry registry, Path file, long intervalMillis) {
+        this.registry = registry;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-export");
+            t.setDaemon(true);
+            return t;
+        });
+        if (intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::writeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 지금 값을 파일에 쓴다.
+     */
+    public void write() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null && !Files.exists(dir)) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, registry.toPrometheus(), StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) { // 다음 주기에 다시 시도한다
+            System.err.println("[경고] 지표 파일 쓰기 실패: " + e.getMessage());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeQuietly();
+    }
+}
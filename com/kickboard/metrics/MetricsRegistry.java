@@ -0,0 +1,226 @@
+package com.kickboard.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * MetricsRegistry.java : 외부 라이브러리 없이 쓰는 지표 저장소. (카운터, 게이지, 지연 시간 히스토그램)
+ *                        - 같은 이름 + 라벨로 다시 요청하면 같은 객체를 돌려주므로 호출하는 쪽은 필드에 들고 있으면 된다.
+ *                        - 라벨은 "키", "값" 순서로 번갈아 넘긴다. 예) counter("kickboard_rent_total", "...", "result", "success")
+ *                        - 옵저버 큐처럼 개수가 바뀌는 대상은 Collector로 출력할 때마다 값을 모은다.
+ *                        - toPrometheus()는 Prometheus 텍스트 형식(히스토그램은 summary), toText()는 콘솔용 요약이다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    // 출력할 때마다 값을 모으는 지표 묶음
+    public interface Collector {
+        void collect(Samples out);
+    }
+
+    // Collector가 값을 넘기는 곳
+    public interface Samples {
+        void gauge(String name, String help, double value, String... labels);
+
+        void counter(String name, String help, long value, String... labels);
+    }
+
+    // 이름 하나에 속한 지표들 (라벨 조합마다 하나)
+    private static final class Family {
+        final String help;
+        final Type type;
+        final Map<String, Object> children = new ConcurrentSkipListMap<>(); // 라벨 문자열 -> Counter/DoubleSupplier/LatencyHistogram
+
+        Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final List<Collector> collectors = new CopyOnWriteArrayList<>();
+
+    public MetricsRegistry() {}
+
+    // 서비스 전체가 함께 쓰는 저장소
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).children.computeIfAbsent(labelString(labels), k -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).children.computeIfAbsent(labelString(labels), k -> new LatencyHistogram());
+    }
+
+    /**
+     * 읽을 때마다 value를 호출하는 게이지. 같은 이름 + 라벨로 다시 등록하면 새 value로 바꾼다.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(labelString(labels), value);
+    }
+
+    public void collector(Collector collector) {
+        collectors.add(collector);
+    }
+
+    private Family family(String name, String help, Type type) {
+        if (!NAME.matcher(name).matches()) throw new IllegalArgumentException("잘못된 지표 이름: " + name);
+        Family family = families.computeIfAbsent(name, k -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("지표 " + name + "은(는) 이미 " + family.type.prometheusName + "(으)로 등록되어 있습니다.");
+        }
+        return family;
+    }
+
+    // ===== 출력 =====
+
+    /**
+     * Prometheus 텍스트 형식 (text/plain; version=0.0.4). 시간은 초 단위로 내보낸다.
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        snapshot().forEach((name, family) -> {
+            sb.append("# HELP ").append(name).append(' ').append(escapeHelp(family.help)).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(family.type.prometheusName).append('\n');
+            family.children.forEach((labels, metric) -> {
+                if (metric instanceof LatencyHistogram h) {
+                    for (double q : QUANTILES) {
+                        sb.append(name).append(withLabel(labels, "quantile", String.valueOf(q))).append(' ')
+                                .append(formatValue(h.getValueAtQuantile(q) / 1e9)).append('\n');
+                    }
+                    sb.append(name).append("_sum").append(labels).append(' ').append(formatValue(h.getSumNanos() / 1e9)).append('\n');
+                    sb.append(name).append("_count").append(labels).append(' ').append(h.getCount()).append('\n');
+                } else {
+                    sb.append(name).append(labels).append(' ').append(formatValue(valueOf(metric))).append('\n');
+                }
+            });
+            if (family.type == Type.SUMMARY) { // summary에는 최대값이 없으므로 게이지로 따로 낸다
+                sb.append("# TYPE ").append(name).append("_max gauge\n");
+                family.children.forEach((labels, metric) -> sb.append(name).append("_max").append(labels).append(' ')
+                        .append(formatValue(((LatencyHistogram) metric).getMaxNanos() / 1e9)).append('\n'));
+            }
+        });
+        return sb.toString();
+    }
+
+    /**
+     * 콘솔 출력용 요약. 지연 시간은 ms로 보여 준다.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        snapshot().forEach((name, family) -> family.children.forEach((labels, metric) -> {
+            sb.append(name).append(labels).append(' ');
+            if (metric instanceof LatencyHistogram h) {
+                sb.append(String.format(Locale.ROOT, "count=%d p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                        h.getCount(), h.getValueAtQuantile(0.5) / 1e6, h.getValueAtQuantile(0.9) / 1e6,
+                        h.getValueAtQuantile(0.99) / 1e6, h.getMaxNanos() / 1e6));
+            } else {
+                sb.append(formatValue(valueOf(metric)));
+            }
+            sb.append('\n');
+        }));
+        return sb.toString();
+    }
+
+    // 등록된 지표와 Collector가 모은 값을 이름 순으로 합친다.
+    private Map<String, Family> snapshot() {
+        Map<String, Family> all = new TreeMap<>(families);
+        Samples samples = new Samples() {
+            @Override
+            public void gauge(String name, String help, double value, String... labels) {
+                add(name, help, Type.GAUGE, labels, (DoubleSupplier) () -> value);
+            }
+
+            @Override
+            public void counter(String name, String help, long value, String... labels) {
+                Counter c = new Counter();
+                c.add(value);
+                add(name, help, Type.COUNTER, labels, c);
+            }
+
+            private void add(String name, String help, Type type, String[] labels, Object metric) {
+                if (!NAME.matcher(name).matches()) throw new IllegalArgumentException("잘못된 지표 이름: " + name);
+                Family family = all.get(name);
+                if (family == null || family == families.get(name)) { // 등록된 묶음은 복사해서 덧붙인다
+                    Family copy = new Family(help, type);
+                    if (family != null) copy.children.putAll(family.children);
+                    all.put(name, family = copy);
+                }
+                if (family.type == type) family.children.put(labelString(labels), metric);
+            }
+        };
+        for (Collector c : collectors) {
+            try {
+                c.collect(samples);
+            } catch (RuntimeException e) { // 지표 하나 때문에 출력 전체가 실패하지 않도록
+                System.err.println("[경고] 지표 수집 실패: " + e.getMessage());
+            }
+        }
+        return all;
+    }
+
+    private static double valueOf(Object metric) {
+        if (metric instanceof Counter c) return c.get();
+        return ((DoubleSupplier) metric).getAsDouble();
+    }
+
+    // {k="v",...} (라벨이 없으면 빈 문자열). 라벨 이름 순으로 정렬해 같은 조합이 같은 문자열이 되게 한다.
+    private static String labelString(String[] labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("라벨은 키와 값의 쌍이어야 합니다.");
+        if (labels.length == 0) return "";
+        Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (!NAME.matcher(labels[i]).matches()) throw new IllegalArgumentException("잘못된 라벨 이름: " + labels[i]);
+            sorted.put(labels[i], labels[i + 1]);
+        }
+        List<String> parts = new ArrayList<>();
+        sorted.forEach((k, v) -> parts.add(k + "=\"" + escapeLabel(v) + "\""));
+        return "{" + String.join(",", parts) + "}";
+    }
+
+    private static String withLabel(String labels, String key, String value) {
+        String extra = key + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + extra + "}" : labels.substring(0, labels.length() - 1) + "," + extra + "}";
+    }
+
+    private static String escapeLabel(String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+}
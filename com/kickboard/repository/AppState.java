@@ -10,7 +10,7 @@ import java.util.List;
 
 /**
  * AppState.java		: 애플리케이션 실행 상태(데이터)를 하나의 파일로 저장/복원하기 위한 DTO.
- * 						   users, vehicles, rentals, currentUserId만 포함한다. (런타임 객체 제외)
+ * 						   users, vehicles, rentals만 포함한다. (세션 등 런타임 객체 제외)
  * @author				: Mingwan Kim
  * @email				: steven3407115@dankook.ac.kr
  * @version				: 1.0
@@ -22,15 +22,18 @@ public class AppState implements Serializable {
     private List<User> users = new ArrayList<>();
     private List<Vehicle> vehicles = new ArrayList<>();
     private List<Rental> rentals = new ArrayList<>();
-    private String currentUserId; // 로그인 중인 사용자 (없으면 null)
+    private String currentUserId; // 세션 도입 전 파일 호환용 (로그인 상태는 더 이상 저장하지 않음)
+    private long journalSequence; // 이 상태에 반영된 마지막 저널 순번 (저널 도입 전 파일은 0)
 
     public List<User> getUsers() { return users; }
     public List<Vehicle> getVehicles() { return vehicles; }
     public List<Rental> getRentals() { return rentals; }
     public String getCurrentUserId() { return currentUserId; }
+    public long getJournalSequence() { return journalSequence; }
 
     public void setUsers(List<User> users) { this.users = users; }
     public void setVehicles(List<Vehicle> vehicles) { this.vehicles = vehicles; }
     public void setRentals(List<Rental> rentals) { this.rentals = rentals; }
     public void setCurrentUserId(String currentUserId) { this.currentUserId = currentUserId; }
+    public void setJournalSequence(long journalSequence) { this.journalSequence = journalSequence; }
 }
@@ -0,0 +1,84 @@
+package com.kickboard.repository;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CsvExportWorker.java : CSV 내보내기를 전용 백그라운드 스레드에서 실행한다.
+ *                        요청 스레드(종료 처리)는 상태를 넘기기만 하고 기다리지 않는다.
+ *                        아직 시작하지 않은 요청이 있으면 최신 상태로 교체하므로 내보내기가 밀려 쌓이지 않는다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class CsvExportWorker implements Closeable {
+
+    private final CsvExporter.Options options;
+    private final RentalHistoryStore history; // 끝난 대여 (없으면 null)
+    private final ExecutorService executor;
+    private final AtomicReference<AppState> pending = new AtomicReference<>();
+
+    public CsvExportWorker(CsvExporter.Options options) {
+        this(options, null);
+    }
+
+    public CsvExportWorker(CsvExporter.Options options, RentalHistoryStore history) {
+        this.options = options;
+        this.history = history;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "csv-export");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 상태를 내보내기 대기열에 넣는다. 이미 대기 중인 상태가 있으면 교체한다.
+     */
+    public void submit(AppState state) {
+        if (pending.getAndSet(state) != null) return; // 대기 중인 작업이 새 상태를 가져간다
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            pending.set(null);
+            System.out.println("[경고] 종료 중이라 CSV 내보내기를 건너뜁니다.");
+        }
+    }
+
+    private void drain() {
+        AppState state = pending.getAndSet(null);
+        if (state == null) return;
+        try {
+            CsvExporter.exportToCsv(state, options, history);
+        } catch (RuntimeException e) { // 다음 요청에서 다시 시도한다
+            System.err.println("[경고] " + e.getMessage());
+        }
+    }
+
+    public CsvExporter.Options getOptions() {
+        return options;
+    }
+
+    /**
+     * 새 요청을 막고, 이미 받은 내보내기가 끝날 때까지 최대 timeoutMillis 동안 기다린다.
+     * @return 시간 안에 모두 끝났으면 true
+     */
+    public boolean close(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("[경고] CSV 내보내기가 " + timeoutMillis + "ms 안에 끝나지 않았습니다.");
+        return false;
+    }
+
+    @Override
+    public void close() {
+        close(Long.MAX_VALUE);
+    }
+}
@@ -4,115 +4,372 @@ import com.kickboard.domain.rental.Rental;
 import com.kickboard.domain.user.User;
 import com.kickboard.domain.vehicle.Vehicle;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * CsvExporter.java      : AppState 데이터를 단일 CSV로 내보내는 유틸리티.
- *                         data/kickboard.csv 파일 하나만 생성한다.
+ * CsvExporter.java      : AppState 데이터를 CSV로 내보내는 유틸리티.
+ *                         기본은 data/kickboard.csv 파일 하나에 모든 섹션을 쓰고,
+ *                         섹션별 파일(data/export/*.csv)과 gzip 압축을 선택할 수 있다.
+ *                         행은 버퍼를 거쳐 파일 채널로 바로 흘려 보내므로 파일 전체를 메모리에 만들지 않는다.
+ *                         증분 모드에서는 지난 내보내기 이후 바뀐 대여만 rentals 파일 뒤에 덧붙인다.
+ *                         이력 파일(RentalHistoryStore)을 함께 넘기면 끝난 대여도 이력 파일에서 읽어 내보낸다.
  * @author              : Mingwan Kim
  * @email               : steven3407115@dankook.ac.kr
- * @version             : 1.1
- * @date                : 2025.11.17
+ * @version             : 1.2
+ * @date                : 2026.10.18
  */
 public final class CsvExporter {
 
     private static final Path DATA_DIR = Paths.get("data");
     private static final Path CSV_FILE = DATA_DIR.resolve("kickboard.csv");
+    private static final Path EXPORT_DIR = DATA_DIR.resolve("export"); // 섹션별 파일 위치
+    private static final String WATERMARK_SUFFIX = ".watermark";      // 증분 기준 시각 (rentals 파일 옆에 저장)
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private static final String USERS_HEADER = "userId,registeredAt,status,couponCount";
+    private static final String COUPONS_HEADER = "userId,couponId,rate";
+    private static final String VEHICLES_HEADER = "vehicleId,modelName,status,x,y,battery(%)";
+    private static final String RENTALS_HEADER = "rentalId,userId,vehicleId,startTime,endTime,status";
+    private static final String META_HEADER = "currentUserId";
 
     private CsvExporter() {}
 
+    /**
+     * 내보내기 방식. 불변 객체이며 with...()는 값을 바꾼 새 Options를 돌려준다.
+     */
+    public static final class Options {
+
+        private static final Options DEFAULTS = new Options(false, false, false);
+
+        private final boolean splitSections;
+        private final boolean gzip;
+        private final boolean incremental;
+
+        private Options(boolean splitSections, boolean gzip, boolean incremental) {
+            this.splitSections = splitSections;
+            this.gzip = gzip;
+            this.incremental = incremental;
+        }
+
+        // 단일 파일, 압축 없음, 전체 내보내기 (기존 동작)
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        // -Dkickboard.csv.split / kickboard.csv.gzip / kickboard.csv.incremental
+        public static Options fromSystemProperties() {
+            return new Options(Boolean.getBoolean("kickboard.csv.split"),
+                    Boolean.getBoolean("kickboard.csv.gzip"),
+                    false).withIncremental(Boolean.getBoolean("kickboard.csv.incremental"));
+        }
+
+        public Options withSplitSections(boolean splitSections) {
+            return new Options(splitSections, gzip, incremental && splitSections);
+        }
+
+        public Options withGzip(boolean gzip) {
+            return new Options(splitSections, gzip, incremental);
+        }
+
+        // 덧붙이기는 rentals 파일이 따로 있어야 하므로 증분 모드는 섹션별 파일을 함께 켠다.
+        public Options withIncremental(boolean incremental) {
+            return new Options(splitSections || incremental, gzip, incremental);
+        }
+
+        public boolean isSplitSections() { return splitSections; }
+        public boolean isGzip() { return gzip; }
+        public boolean isIncremental() { return incremental; }
+
+        @Override
+        public String toString() {
+            return "split=" + splitSections + ", gzip=" + gzip + ", incremental=" + incremental;
+        }
+    }
+
     public static Path exportToCsv(AppState state) {
+        return exportToCsv(state, Options.defaults());
+    }
+
+    /**
+     * @return 단일 파일이면 그 파일, 섹션별 파일이면 파일들이 있는 디렉터리
+     */
+    public static Path exportToCsv(AppState state, Options options) {
+        return exportToCsv(state, options, null);
+    }
+
+    /**
+     * @param history 끝난 대여 이력 (null이면 state의 대여만 내보낸다)
+     */
+    public static Path exportToCsv(AppState state, Options options, RentalHistoryStore history) {
         try {
-            if (!Files.exists(DATA_DIR)) Files.createDirectories(DATA_DIR);
-
-            StringBuilder sb = new StringBuilder(8_192);
-
-            // --- Users ---
-            sb.append("[Users]\n");
-            // registeredAt/status 칼럼은 예비 칼럼 유지, couponCount 추가
-            sb.append("userId,registeredAt,status,couponCount\n");
-            for (User u : state.getUsers()) {
-                int couponCount = (u.getCoupons() == null) ? 0 : u.getCoupons().size();
-                sb.append(csv(u.getUserId())).append(',')
-                  .append(csv("")).append(',')
-                  .append(csv("ACTIVE")).append(',')
-                  .append(csv(Integer.toString(couponCount))).append('\n');
-            }
-            sb.append('\n');
+            return options.isSplitSections() ? exportSections(state, options, history) : exportSingleFile(state, options, history);
+        } catch (IOException e) {
+            throw new RuntimeException("CSV 내보내기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // ===== 단일 파일 =====
+
+    private static Path exportSingleFile(AppState state, Options options, RentalHistoryStore history) throws IOException {
+        if (!Files.exists(DATA_DIR)) Files.createDirectories(DATA_DIR);
+        Path file = options.isGzip() ? DATA_DIR.resolve(CSV_FILE.getFileName() + ".gz") : CSV_FILE;
+
+        // 임시 파일에 다 쓴 뒤 교체하므로 내보내기 도중에 종료되어도 이전 파일이 남는다.
+        writeReplacing(file, options.isGzip(), w -> {
+            w.write("[Users]\n");
+            writeUsers(w, state);
+            w.write('\n');
 
-            // --- Coupons ---
             // 각 사용자 보유 쿠폰을 userId,couponId,rate 로 펼쳐 쓴다.
-            sb.append("[Coupons]\n");
-            sb.append("userId,couponId,rate\n");
-            for (User u : state.getUsers()) {
-                Map<String, BigDecimal> coupons = u.getCoupons();
-                if (coupons == null || coupons.isEmpty()) continue;
-
-                // 정렬(선택): couponId 기준 오름차순
-                coupons.entrySet().stream()
-                        .sorted(Map.Entry.comparingByKey())
-                        .forEach(e -> {
-                            sb.append(csv(u.getUserId())).append(',')
-                              .append(csv(e.getKey())).append(',')
-                              .append(csv(toNum(e.getValue()))).append('\n');
-                        });
-            }
-            sb.append('\n');
-
-            // --- Vehicles ---
-            sb.append("[Vehicles]\n");
-            sb.append("vehicleId,modelName,status,location,battery(%)\n");
-            for (Vehicle v : state.getVehicles()) {
-                sb.append(csv(v.getVehicleId())).append(',')
-                  .append(csv(v.getModelName())).append(',')
-                  .append(csv(v.getStatus() == null ? "" : v.getStatus().name())).append(',')
-                  .append(csv(v.getCurrentLocation())).append(',')
-                  .append(csv(Integer.toString(v.getBatteryLevel()))).append('\n');
-            }
-            sb.append('\n');
-
-            // --- Rentals ---
-            sb.append("[Rentals]\n");
-            sb.append("rentalId,userId,vehicleId,startTime,endTime,status\n");
-            for (Rental r : state.getRentals()) {
-                sb.append(csv(r.getRentalId())).append(',')
-                  .append(csv(r.getUser()    != null ? r.getUser().getUserId()          : "")).append(',')
-                  .append(csv(r.getVehicle() != null ? r.getVehicle().getVehicleId()    : "")).append(',')
-                  .append(csv(r.getStartTime()!= null ? r.getStartTime().toString()     : "")).append(',')
-                  .append(csv(r.getEndTime()  != null ? r.getEndTime().toString()       : "")).append(',')
-                  .append(csv(r.getStatus()   != null ? r.getStatus().name()            : "")).append('\n');
-            }
-            sb.append('\n');
+            w.write("[Coupons]\n");
+            writeCoupons(w, state);
+            w.write('\n');
+
+            w.write("[Vehicles]\n");
+            writeVehicles(w, state);
+            w.write('\n');
+
+            w.write("[Rentals]\n");
+            w.write(RENTALS_HEADER);
+            w.write('\n');
+            if (history != null) history.forEachLatest(row -> writeRental(w, row));
+            for (Rental r : state.getRentals()) writeRental(w, r);
+            w.write('\n');
 
             // --- Meta (현재 로그인 사용자) ---
-            sb.append("[Meta]\n");
-            sb.append("currentUserId\n");
-            sb.append(csv(state.getCurrentUserId() == null ? "" : state.getCurrentUserId())).append('\n');
-
-            // 파일로 기록 (덮어쓰기)
-            Files.writeString(
-                CSV_FILE,
-                sb.toString(),
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING,
-                StandardOpenOption.WRITE
-            );
-
-            System.out.println("[CSV 내보내기 완료] " + CSV_FILE.toAbsolutePath());
-            return CSV_FILE;
+            w.write("[Meta]\n");
+            writeMeta(w, state);
+        });
+        return file;
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("CSV 내보내기 실패: " + e.getMessage(), e);
+    // ===== 섹션별 파일 =====
+
+    private static Path exportSections(AppState state, Options options, RentalHistoryStore history) throws IOException {
+        if (!Files.exists(EXPORT_DIR)) Files.createDirectories(EXPORT_DIR);
+        boolean gzip = options.isGzip();
+
+        // 사용자/쿠폰/킥보드/메타는 현재 상태 그대로 다시 쓴다. (대여 이력에 비해 작다)
+        writeReplacing(sectionFile("users", gzip), gzip, w -> writeUsers(w, state));
+        writeReplacing(sectionFile("coupons", gzip), gzip, w -> writeCoupons(w, state));
+        writeReplacing(sectionFile("vehicles", gzip), gzip, w -> writeVehicles(w, state));
+        writeReplacing(sectionFile("meta", gzip), gzip, w -> writeMeta(w, state));
+
+        Path rentalsFile = sectionFile("rentals", gzip);
+        Path watermarkFile = rentalsFile.resolveSibling(rentalsFile.getFileName() + WATERMARK_SUFFIX);
+        LocalDateTime watermark = options.isIncremental() ? readWatermark(rentalsFile, watermarkFile) : null;
+
+        LocalDateTime newest;
+        if (watermark == null) {
+            LocalDateTime[] max = { null };
+            writeReplacing(rentalsFile, gzip, w -> {
+                w.write(RENTALS_HEADER);
+                w.write('\n');
+                if (history != null) {
+                    history.forEachLatest(row -> {
+                        writeRental(w, row);
+                        max[0] = later(max[0], changedAt(row));
+                    });
+                }
+                for (Rental r : state.getRentals()) {
+                    writeRental(w, r);
+                    max[0] = later(max[0], changedAt(r));
+                }
+            });
+            newest = max[0];
+        } else {
+            // 지난 기준 시각 이후 시작/종료된 대여만 덧붙인다. (gzip이면 새 gzip 멤버로 이어 붙음)
+            LocalDateTime[] max = { watermark };
+            try (Writer w = open(rentalsFile, gzip, true)) {
+                if (history != null) {
+                    history.forEachLatest(row -> {
+                        LocalDateTime changed = changedAt(row);
+                        if (changed != null && changed.isAfter(watermark)) {
+                            writeRental(w, row);
+                            max[0] = later(max[0], changed);
+                        }
+                    });
+                }
+                newest = max[0];
+                for (Rental r : state.getRentals()) {
+                    LocalDateTime changed = changedAt(r);
+                    if (changed != null && changed.isAfter(watermark)) {
+                        writeRental(w, r);
+                        newest = later(newest, changed);
+                    }
+                }
+            }
+        }
+        // 대여 행을 다 쓴 뒤에 기준 시각을 옮긴다. (그 사이 종료되면 다음 번에 같은 행이 다시 나올 수 있다)
+        if (newest != null) Files.writeString(watermarkFile, newest.toString(), StandardCharsets.UTF_8);
+        else Files.deleteIfExists(watermarkFile);
+        return EXPORT_DIR;
+    }
+
+    // 증분 기준 시각. 기준 파일이나 rentals 파일이 없으면 null (전체 내보내기)
+    private static LocalDateTime readWatermark(Path rentalsFile, Path watermarkFile) {
+        if (!Files.exists(rentalsFile) || !Files.exists(watermarkFile)) return null;
+        try {
+            return LocalDateTime.parse(Files.readString(watermarkFile, StandardCharsets.UTF_8).trim());
+        } catch (Exception e) {
+            System.out.println("[경고] CSV 증분 기준을 읽지 못해 대여 이력을 전부 다시 씁니다: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Path sectionFile(String section, boolean gzip) {
+        return EXPORT_DIR.resolve(section + (gzip ? ".csv.gz" : ".csv"));
+    }
+
+    // ===== Sections =====
+
+    private static void writeUsers(Writer w, AppState state) throws IOException {
+        // registeredAt/status 칼럼은 예비 칼럼 유지, couponCount 추가
+        w.write(USERS_HEADER);
+        w.write('\n');
+        for (User u : state.getUsers()) {
+            int couponCount = (u.getCoupons() == null) ? 0 : u.getCoupons().size();
+            w.write(csv(u.getUserId()));
+            w.write(',');
+            w.write(csv(""));
+            w.write(',');
+            w.write(csv("ACTIVE"));
+            w.write(',');
+            w.write(Integer.toString(couponCount));
+            w.write('\n');
+        }
+    }
+
+    private static void writeCoupons(Writer w, AppState state) throws IOException {
+        w.write(COUPONS_HEADER);
+        w.write('\n');
+        for (User u : state.getUsers()) {
+            Map<String, BigDecimal> coupons = u.getCoupons();
+            if (coupons == null || coupons.isEmpty()) continue;
+
+            // 정렬(선택): couponId 기준 오름차순
+            for (Map.Entry<String, BigDecimal> e : new TreeMap<>(coupons).entrySet()) {
+                w.write(csv(u.getUserId()));
+                w.write(',');
+                w.write(csv(e.getKey()));
+                w.write(',');
+                w.write(csv(toNum(e.getValue())));
+                w.write('\n');
+            }
         }
     }
 
+    private static void writeVehicles(Writer w, AppState state) throws IOException {
+        w.write(VEHICLES_HEADER);
+        w.write('\n');
+        for (Vehicle v : state.getVehicles()) {
+            w.write(csv(v.getVehicleId()));
+            w.write(',');
+            w.write(csv(v.getModelName()));
+            w.write(',');
+            w.write(csv(v.getStatus() == null ? "" : v.getStatus().name()));
+            w.write(',');
+            w.write(Integer.toString(v.getX()));
+            w.write(',');
+            w.write(Integer.toString(v.getY()));
+            w.write(',');
+            w.write(Integer.toString(v.getBatteryLevel()));
+            w.write('\n');
+        }
+    }
+
+    private static void writeRental(Writer w, Rental r) throws IOException {
+        writeRental(w, r.getRentalId(),
+                r.getUser()    != null ? r.getUser().getUserId()       : "",
+                r.getVehicle() != null ? r.getVehicle().getVehicleId() : "",
+                r.getStartTime(), r.getEndTime(), r.getStatus() != null ? r.getStatus().name() : "");
+    }
+
+    // 이력 파일의 대여
+    private static void writeRental(Writer w, JournalReplay.RentalRow row) throws IOException {
+        writeRental(w, row.rentalId, row.userId, row.vehicleId,
+                row.info.getStartTime(), row.info.getEndTime(), row.status.name());
+    }
+
+    private static void writeRental(Writer w, String rentalId, String userId, String vehicleId,
+                                    LocalDateTime start, LocalDateTime end, String status) throws IOException {
+        w.write(csv(rentalId));
+        w.write(',');
+        w.write(csv(userId));
+        w.write(',');
+        w.write(csv(vehicleId));
+        w.write(',');
+        w.write(csv(start != null ? start.toString() : ""));
+        w.write(',');
+        w.write(csv(end   != null ? end.toString()   : ""));
+        w.write(',');
+        w.write(csv(status));
+        w.write('\n');
+    }
+
+    private static void writeMeta(Writer w, AppState state) throws IOException {
+        w.write(META_HEADER);
+        w.write('\n');
+        w.write(csv(state.getCurrentUserId() == null ? "" : state.getCurrentUserId()));
+        w.write('\n');
+    }
+
     // ===== Helpers =====
 
+    private interface SectionWriter {
+        void write(Writer w) throws IOException;
+    }
+
+    // 같은 디렉터리의 임시 파일에 쓴 뒤 원래 파일과 교체한다.
+    private static void writeReplacing(Path file, boolean gzip, SectionWriter body) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer w = open(tmp, gzip, false)) {
+            body.write(w);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // 파일 채널 위에 (gzip) + UTF-8 인코더 + 문자 버퍼를 얹는다. 버퍼가 찰 때마다 채널로 내려간다.
+    private static Writer open(Path file, boolean gzip, boolean append) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream out = Channels.newOutputStream(channel);
+        if (gzip) out = new GZIPOutputStream(out, BUFFER_CHARS);
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+    }
+
+    // 대여 행이 마지막으로 바뀐 시각 (반납 시각, 진행 중이면 시작 시각)
+    private static LocalDateTime changedAt(Rental r) {
+        return r.getEndTime() != null ? r.getEndTime() : r.getStartTime();
+    }
+
+    private static LocalDateTime changedAt(JournalReplay.RentalRow row) {
+        return row.info.getEndTime() != null ? row.info.getEndTime() : row.info.getStartTime();
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.isAfter(a) ? b : a;
+    }
+
     // CSV 안전 이스케이프: 콤마/따옴표/개행 포함 시 "..." 로 감싸고 내부 " → ""
     private static String csv(String s) {
         if (s == null) return "";
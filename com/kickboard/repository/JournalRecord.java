@@ -0,0 +1,175 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.rental.RentalInfo;
+import com.kickboard.domain.rental.RentalStatus;
+import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Location;
+import com.kickboard.domain.vehicle.Vehicle;
+import com.kickboard.domain.vehicle.VehicleStatus;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * JournalRecord.java    : 저널(segment log)에 한 건씩 추가되는 변경 레코드.
+ *                         변경된 엔티티 하나만 기록하므로 기록 비용이 전체 상태 크기와 무관하다.
+ *                         - USER    : User 객체 하나 (결제수단/쿠폰 포함, 다른 엔티티를 참조하지 않음)
+ *                         - VEHICLE : vehicleId, model, status, x, y, battery
+ *                         - VEHICLE_TEXT_LOCATION : 위치를 "x,y" 문자열로 기록하던 이전 형식 (재생 호환용으로만 읽는다)
+ *                         - RENTAL  : rentalId, userId, vehicleId, 시간/거리/요금/상태 (객체 그래프 대신 ID만 기록)
+ *                         - SESSION : 로그인 중인 사용자 ID (세션 도입 전 기록, 재생 호환용으로만 읽는다)
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+public final class JournalRecord {
+
+    // 순번(ordinal)이 파일에 기록되므로 기존 값의 순서를 바꾸지 않는다.
+    public enum Type { USER, VEHICLE_TEXT_LOCATION, RENTAL, SESSION, VEHICLE }
+
+    private final Type type;
+    private final byte[] payload;
+
+    private JournalRecord(Type type, byte[] payload) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.payload = Objects.requireNonNull(payload, "payload");
+    }
+
+    public Type getType() { return type; }
+    byte[] payload() { return payload; }
+
+    static JournalRecord of(Type type, byte[] payload) {
+        return new JournalRecord(type, payload);
+    }
+
+    // ===== Factory =====
+
+    public static JournalRecord user(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(user);
+        } catch (IOException e) {
+            throw new RuntimeException("저널 레코드 생성 실패: " + e.getMessage(), e);
+        }
+        return new JournalRecord(Type.USER, bytes.toByteArray());
+    }
+
+    public static JournalRecord vehicle(Vehicle v) {
+        Location location = v.getLocation();
+        return encode(Type.VEHICLE, out -> {
+            out.writeUTF(v.getVehicleId());
+            out.writeUTF(v.getModelName());
+            out.writeUTF(v.getStatus().name());
+            out.writeInt(location.getX());
+            out.writeInt(location.getY());
+            out.writeByte(v.getBatteryLevel());
+        });
+    }
+
+    public static JournalRecord rental(Rental r) {
+        RentalInfo info = r.getRentalInfo();
+        return encode(Type.RENTAL, out -> {
+            out.writeUTF(r.getRentalId());
+            out.writeUTF(r.getUser().getUserId());
+            out.writeUTF(r.getVehicle().getVehicleId());
+            out.writeUTF(r.getStartTime().toString());
+            writeNullable(out, r.getEndTime() == null ? null : r.getEndTime().toString());
+            out.writeDouble(info.getTraveledDistance());
+            writeNullable(out, info.getFinalCost() == null ? null : info.getFinalCost().toPlainString());
+            out.writeUTF(r.getStatus().name());
+        });
+    }
+
+    // ===== Replay =====
+
+    /**
+     * 레코드를 재생 중인 상태에 반영한다.
+     * RENTAL은 사용자/킥보드 객체가 모두 확정된 뒤 연결해야 하므로 RentalRow로만 보관한다.
+     */
+    void applyTo(JournalReplay replay) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        switch (type) {
+            case USER:
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+                    replay.putUser((User) ois.readObject());
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("알 수 없는 사용자 레코드", e);
+                }
+                break;
+            case VEHICLE: {
+                String id = in.readUTF();
+                String model = in.readUTF();
+                VehicleStatus status = VehicleStatus.valueOf(in.readUTF());
+                int x = in.readInt();
+                int y = in.readInt();
+                int battery = in.readByte();
+                replay.putVehicle(id, model, status, x, y, battery);
+                break;
+            }
+            case VEHICLE_TEXT_LOCATION: {
+                String id = in.readUTF();
+                String model = in.readUTF();
+                VehicleStatus status = VehicleStatus.valueOf(in.readUTF());
+                Location location;
+                try {
+                    location = Location.parse(in.readUTF());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("잘못된 위치 레코드", e);
+                }
+                int battery = in.readByte();
+                replay.putVehicle(id, model, status, location.getX(), location.getY(), battery);
+                break;
+            }
+            case RENTAL:
+                replay.putRental(readRental(in));
+                break;
+            case SESSION:
+                replay.setCurrentUserId(readNullable(in));
+                break;
+        }
+    }
+
+    /**
+     * RENTAL 레코드의 payload를 읽는다. (완료된 대여 이력 파일도 같은 형식을 사용)
+     */
+    static JournalReplay.RentalRow readRental(DataInputStream in) throws IOException {
+        String rentalId = in.readUTF();
+        String userId = in.readUTF();
+        String vehicleId = in.readUTF();
+        LocalDateTime start = LocalDateTime.parse(in.readUTF());
+        String end = readNullable(in);
+        double distance = in.readDouble();
+        String cost = readNullable(in);
+        RentalStatus status = RentalStatus.valueOf(in.readUTF());
+        RentalInfo info = new RentalInfo(start, end == null ? null : LocalDateTime.parse(end), distance);
+        if (cost != null) info.setFinalCost(new BigDecimal(cost));
+        return new JournalReplay.RentalRow(rentalId, userId, vehicleId, info, status);
+    }
+
+    // ===== Helpers =====
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static JournalRecord encode(Type type, Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException("저널 레코드 생성 실패: " + e.getMessage(), e);
+        }
+        return new JournalRecord(type, bytes.toByteArray());
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.rental.RentalInfo;
+import com.kickboard.domain.rental.RentalStatus;
+import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Vehicle;
+import com.kickboard.domain.vehicle.VehicleStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JournalReplay.java    : 스냅샷(AppState) 위에 저널 레코드를 순서대로 덮어써 최신 상태를 복원한다.
+ *                         사용자 레코드는 객체를 통째로 교체하므로, 마지막에 대여를 ID 기준으로 다시 연결한다.
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+final class JournalReplay {
+
+    static final class RentalRow {
+        final String rentalId;
+        final String userId;
+        final String vehicleId;
+        final RentalInfo info;
+        final RentalStatus status;
+
+        RentalRow(String rentalId, String userId, String vehicleId, RentalInfo info, RentalStatus status) {
+            this.rentalId = rentalId;
+            this.userId = userId;
+            this.vehicleId = vehicleId;
+            this.info = info;
+            this.status = status;
+        }
+    }
+
+    private final Map<String, User> users = new LinkedHashMap<>();
+    private final Map<String, Vehicle> vehicles = new LinkedHashMap<>();
+    private final Map<String, Object> rentals = new LinkedHashMap<>(); // Rental 또는 RentalRow
+    private String currentUserId;
+    private int applied;
+
+    JournalReplay(AppState snapshot) {
+        for (User u : snapshot.getUsers()) users.put(u.getUserId(), u);
+        for (Vehicle v : snapshot.getVehicles()) vehicles.put(v.getVehicleId(), v);
+        for (Rental r : snapshot.getRentals()) rentals.put(r.getRentalId(), r);
+        this.currentUserId = snapshot.getCurrentUserId();
+    }
+
+    void putUser(User user) {
+        users.put(user.getUserId(), user);
+        applied++;
+    }
+
+    // 킥보드는 기존 객체를 제자리에서 갱신해 스냅샷 대여와의 연결을 유지한다.
+    void putVehicle(String id, String model, VehicleStatus status, int x, int y, int battery) {
+        Vehicle v = vehicles.get(id);
+        if (v == null) {
+            v = new Vehicle(id, model, x, y, battery);
+            vehicles.put(id, v);
+        }
+        v.restoreStatus(status);
+        v.moveTo(x, y);
+        v.setBatteryLevel(battery);
+        applied++;
+    }
+
+    void putRental(RentalRow row) {
+        rentals.put(row.rentalId, row);
+        applied++;
+    }
+
+    void setCurrentUserId(String userId) {
+        this.currentUserId = userId;
+        applied++;
+    }
+
+    int appliedCount() {
+        return applied;
+    }
+
+    AppState toAppState() {
+        List<Rental> linked = new ArrayList<>(rentals.size());
+        for (Object o : rentals.values()) {
+            Rental r = (o instanceof RentalRow row) ? link(row) : relink((Rental) o);
+            if (r != null) linked.add(r);
+        }
+
+        AppState state = new AppState();
+        state.setUsers(new ArrayList<>(users.values()));
+        state.setVehicles(new ArrayList<>(vehicles.values()));
+        state.setRentals(linked);
+        state.setCurrentUserId(currentUserId);
+        return state;
+    }
+
+    private Rental link(RentalRow row) {
+        User user = users.get(row.userId);
+        Vehicle vehicle = vehicles.get(row.vehicleId);
+        if (user == null || vehicle == null) {
+            System.out.println("[경고] 저널의 대여 기록을 연결하지 못해 건너뜁니다: " + row.rentalId);
+            return null;
+        }
+        return new Rental(row.rentalId, user, vehicle, row.info, row.status);
+    }
+
+    // 스냅샷 대여가 가리키는 사용자 객체가 저널로 교체된 경우 최신 객체로 다시 연결한다.
+    private Rental relink(Rental r) {
+        User user = users.get(r.getUser().getUserId());
+        Vehicle vehicle = vehicles.get(r.getVehicle().getVehicleId());
+        if (user == r.getUser() && vehicle == r.getVehicle()) return r;
+        if (user == null) user = r.getUser();
+        if (vehicle == null) vehicle = r.getVehicle();
+        return new Rental(r.getRentalId(), user, vehicle, r.getRentalInfo(), r.getStatus());
+    }
+}
@@ -0,0 +1,414 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.domain.rental.PaymentStatus;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * PaymentLedger.java : 결제 시도를 한 건씩 남기는 append-only 결제 원장. (data/payments/ledger.log)
+ *                      스냅샷/저널과 따로 두므로 스냅샷 저장 후 저널 세그먼트를 지워도 결제 기록은 남는다.
+ *
+ * 레코드 형식 : [int 길이][int CRC32][payload]
+ *  - payload : paymentId, 멱등 키, rentalId, userId, 결제수단 종류, 금액(1/100원), 결과, 시각(epoch ms), 결제수단 구분값
+ *              (결제수단 구분값은 나중에 붙였으므로 없는 기록은 빈 문자열로 읽는다)
+ *  - 열 때 파일을 끝까지 읽어 색인을 만들고, 잘리거나 CRC가 맞지 않는 꼬리는 옆 파일로 옮겨 잘라 낸 뒤 이어 쓴다.
+ *
+ * 멱등 키 : 승인된 결제만 키를 차지한다. 같은 키로 다시 기록하면 새로 쓰지 않고 앞서 승인된 기록을 돌려준다.
+ *          (거절된 결제는 기록만 하고 같은 키로 다시 시도할 수 있다)
+ * 색인 : 최근에 기록된 대여 indexedRentals개의 paymentId(마지막 시도)와 승인된 멱등 키만 메모리에 둔다.
+ *        더 오래된 대여의 기록은 색인에서 빠지므로 그 멱등 키로는 중복을 막지 못한다. (대여 한 건의 결제는 반납 전후에 끝난다)
+ *        대여/사용자별 조회와 색인에서 빠진 paymentId 조회는 파일을 읽는다. (조회용)
+ * 그룹 커밋 : StateJournal과 같이 record()는 쓰기 후 fsync를 기다리되,
+ *            먼저 fsync를 시작한 스레드가 그때까지 쓰인 기록을 모두 내리므로 동시에 들어온 결제는 fsync 한 번을 공유한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class PaymentLedger implements Closeable {
+
+    private static final int RECORD_HEADER_BYTES = 8; // [int 길이][int CRC32]
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+    public static final int DEFAULT_INDEXED_RENTALS = 100_000; // 색인에 두는 최근 대여 수
+
+    /**
+     * 원장 기록 한 건 (결제 시도 하나)
+     */
+    public static final class Entry {
+        private final String paymentId;
+        private final String idempotencyKey;
+        private final String rentalId;
+        private final String userId;
+        private final PaymentMethodType methodType;
+        private final long amountMinor;
+        private final PaymentStatus status;
+        private final long recordedAt; // epoch ms
+        private final String methodReference; // PaymentMethod.getReference() (모르면 빈 문자열)
+
+        public Entry(String paymentId, String idempotencyKey, String rentalId, String userId,
+                     PaymentMethodType methodType, Money amount, PaymentStatus status, long recordedAt) {
+            this(paymentId, idempotencyKey, rentalId, userId, methodType, amount, status, recordedAt, "");
+        }
+
+        public Entry(String paymentId, String idempotencyKey, String rentalId, String userId,
+                     PaymentMethodType methodType, Money amount, PaymentStatus status, long recordedAt,
+                     String methodReference) {
+            this.paymentId = Objects.requireNonNull(paymentId, "paymentId");
+            this.idempotencyKey = Objects.requireNonNull(idempotencyKey, "idempotencyKey");
+            this.rentalId = Objects.requireNonNull(rentalId, "rentalId");
+            this.userId = Objects.requireNonNull(userId, "userId");
+            this.methodType = Objects.requireNonNull(methodType, "methodType");
+            this.amountMinor = amount.minorUnits();
+            this.status = Objects.requireNonNull(status, "status");
+            this.recordedAt = recordedAt;
+            this.methodReference = Objects.requireNonNull(methodReference, "methodReference");
+        }
+
+        /**
+         * 처리가 끝난 결제 객체로 기록을 만든다.
+         */
+        public static Entry of(Payment payment, String idempotencyKey, String userId) {
+            return new Entry(payment.getPaymentId(), idempotencyKey, payment.getRentalId(), userId,
+                    payment.getPaymentMethod().getType(), payment.getAmount(), payment.getStatus(),
+                    System.currentTimeMillis(), payment.getPaymentMethod().getReference());
+        }
+
+        public String getPaymentId() { return paymentId; }
+        public String getIdempotencyKey() { return idempotencyKey; }
+        public String getRentalId() { return rentalId; }
+        public String getUserId() { return userId; }
+        public PaymentMethodType getMethodType() { return methodType; }
+        public Money getAmount() { return Money.ofMinor(amountMinor); }
+        public PaymentStatus getStatus() { return status; }
+        public long getRecordedAt() { return recordedAt; }
+        public String getMethodReference() { return methodReference; }
+        public boolean isApproved() { return status == PaymentStatus.SUCCESS; }
+
+        @Override
+        public String toString() {
+            return paymentId + " " + status + " " + getAmount().toPlainString() + "원 (" + methodType + ", " + userId + ")";
+        }
+
+        private byte[] encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeUTF(paymentId);
+                out.writeUTF(idempotencyKey);
+                out.writeUTF(rentalId);
+                out.writeUTF(userId);
+                out.writeUTF(methodType.name());
+                out.writeLong(amountMinor);
+                out.writeUTF(status.name());
+                out.writeLong(recordedAt);
+                out.writeUTF(methodReference);
+            } catch (IOException e) {
+                throw new RuntimeException("결제 원장 레코드 생성 실패: " + e.getMessage(), e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static Entry decode(byte[] payload) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            try {
+                return new Entry(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                        PaymentMethodType.valueOf(in.readUTF()), Money.ofMinor(in.readLong()),
+                        PaymentStatus.valueOf(in.readUTF()), in.readLong(), in.available() > 0 ? in.readUTF() : "");
+            } catch (IllegalArgumentException e) {
+                throw new IOException("알 수 없는 결제 원장 값: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private final Path file;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final FileChannel channel;
+    private final int indexedRentals;
+    private long lastSeq;                                   // 마지막으로 쓴 기록 번호 (writeLock)
+    private long end;                                       // 마지막으로 쓴 기록의 끝 위치 (writeLock)
+    private final AtomicLong durableSeq = new AtomicLong(); // fsync가 끝난 마지막 기록 번호
+
+    // 색인 (쓰기는 writeLock 안에서 이 잠금의 쓰기 잠금을 함께 잡는다)
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> byPaymentId = new HashMap<>();
+    private final Map<String, Entry> approvedByKey = new HashMap<>();
+    private final LinkedHashMap<String, List<Entry>> byRental = new LinkedHashMap<>(); // 마지막 기록 순서 (오래된 대여부터 뺀다)
+    private long approvedTotalMinor;
+
+    private PaymentLedger(Path file, FileChannel channel, int indexedRentals) {
+        this.file = file;
+        this.channel = channel;
+        this.indexedRentals = indexedRentals;
+    }
+
+    /**
+     * 원장 파일을 열고 기존 기록으로 색인을 만든다. (없으면 새로 만든다)
+     */
+    public static PaymentLedger open(Path file) {
+        return open(file, DEFAULT_INDEXED_RENTALS);
+    }
+
+    /**
+     * @param indexedRentals 색인에 두는 최근 대여 수
+     */
+    public static PaymentLedger open(Path file, int indexedRentals) {
+        if (indexedRentals < 1) throw new IllegalArgumentException("잘못된 결제 원장 색인 크기: " + indexedRentals);
+        FileChannel channel = null;
+        try {
+            if (file.getParent() != null && !Files.exists(file.getParent())) Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            PaymentLedger ledger = new PaymentLedger(file, channel, indexedRentals);
+            long end = ledger.load();
+            if (end < channel.size()) { // 잘라 낸 부분은 옆 파일로 남겨 둔다 (확인용)
+                Path kept = file.resolveSibling(file.getFileName() + ".damaged-" + System.currentTimeMillis());
+                try (FileChannel out = FileChannel.open(kept, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    channel.transferTo(end, channel.size() - end, out);
+                }
+                System.out.println("[경고] 결제 원장 끝의 손상된 기록 " + (channel.size() - end) + "바이트를 잘라 냅니다. (원본: " + kept + ")");
+                channel.truncate(end);
+                channel.force(false);
+            }
+            channel.position(end);
+            ledger.end = end;
+            return ledger;
+        } catch (IOException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new RuntimeException("결제 원장 열기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 결제 시도를 기록하고 디스크에 내려갈 때까지 기다린다.
+     * @return 기록된 항목. 같은 멱등 키의 승인 기록이 이미 있으면 새로 쓰지 않고 그 기록
+     */
+    public Entry record(Entry entry) {
+        long seq;
+        synchronized (writeLock) {
+            Entry approved = findApproved(entry.getIdempotencyKey());
+            if (approved != null) {
+                seq = lastSeq; // 앞선 기록이 아직 fsync 전일 수 있으므로 함께 기다린다
+                entry = approved;
+            } else {
+                byte[] payload = entry.encode();
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+                buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                try {
+                    while (buf.hasRemaining()) channel.write(buf);
+                } catch (IOException e) {
+                    throw new RuntimeException("결제 원장 기록 실패: " + e.getMessage(), e);
+                }
+                seq = ++lastSeq;
+                end += buf.limit();
+                index(entry);
+            }
+        }
+        commit(seq);
+        return entry;
+    }
+
+    // seq까지의 기록이 디스크에 내려갈 때까지 기다린다. (그룹 커밋)
+    private void commit(long seq) {
+        if (durableSeq.get() >= seq) return;
+        synchronized (syncLock) {
+            if (durableSeq.get() >= seq) return; // 앞선 스레드의 fsync에 함께 포함됨
+            long upTo;
+            synchronized (writeLock) {
+                upTo = lastSeq;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new RuntimeException("결제 원장 동기화 실패: " + e.getMessage(), e);
+            }
+            durableSeq.accumulateAndGet(upTo, Math::max);
+        }
+    }
+
+    /**
+     * 멱등 키로 승인된 결제를 찾는다. (없거나 색인에서 빠진 대여의 키면 null)
+     */
+    public Entry findApproved(String idempotencyKey) {
+        indexLock.readLock().lock();
+        try {
+            return approvedByKey.get(idempotencyKey);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // paymentId의 마지막 시도 (없으면 null). 색인에서 빠졌으면 파일을 읽는다.
+    public Entry findByPaymentId(String paymentId) {
+        indexLock.readLock().lock();
+        try {
+            Entry entry = byPaymentId.get(paymentId);
+            if (entry != null) return entry;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        List<Entry> attempts = scan(e -> e.getPaymentId().equals(paymentId));
+        return attempts.isEmpty() ? null : attempts.get(attempts.size() - 1);
+    }
+
+    // 멱등 키마다 마지막 기록 (파일을 한 번 읽는다, 기록이 없는 키는 빠진다)
+    public Map<String, Entry> findLastByKey(Set<String> idempotencyKeys) {
+        Map<String, Entry> last = new HashMap<>();
+        for (Entry e : scan(e -> idempotencyKeys.contains(e.getIdempotencyKey()))) last.put(e.getIdempotencyKey(), e);
+        return last;
+    }
+
+    // 대여의 결제 시도 (기록 순서, 파일을 읽는다)
+    public List<Entry> findByRental(String rentalId) {
+        return scan(e -> e.getRentalId().equals(rentalId));
+    }
+
+    // 사용자의 결제 시도 (기록 순서, 파일을 읽는다)
+    public List<Entry> findByUser(String userId) {
+        return scan(e -> e.getUserId().equals(userId));
+    }
+
+    // 승인된 결제 금액 합계 (정산 확인용)
+    public Money getApprovedTotal() {
+        indexLock.readLock().lock();
+        try {
+            return Money.ofMinor(approvedTotalMinor);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        synchronized (writeLock) {
+            return (int) lastSeq;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                if (channel.isOpen()) {
+                    channel.force(false);
+                    channel.close();
+                }
+                durableSeq.accumulateAndGet(lastSeq, Math::max);
+            } catch (IOException e) {
+                System.err.println("[경고] 결제 원장 닫기 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    // ===== Helpers =====
+
+    private void index(Entry entry) {
+        indexLock.writeLock().lock();
+        try {
+            List<Entry> attempts = byRental.remove(entry.getRentalId()); // 방금 기록된 대여를 맨 뒤로
+            if (attempts == null) attempts = new ArrayList<>(2);
+            attempts.add(entry);
+            byRental.put(entry.getRentalId(), attempts);
+            byPaymentId.put(entry.getPaymentId(), entry);
+            if (entry.isApproved() && approvedByKey.putIfAbsent(entry.getIdempotencyKey(), entry) == null) {
+                approvedTotalMinor = Math.addExact(approvedTotalMinor, entry.amountMinor);
+            }
+            if (byRental.size() > indexedRentals) evictOldestRental();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // 가장 오래전에 기록된 대여의 기록을 색인에서 뺀다. (파일에는 남는다)
+    private void evictOldestRental() {
+        Iterator<List<Entry>> oldest = byRental.values().iterator();
+        for (Entry e : oldest.next()) {
+            byPaymentId.remove(e.getPaymentId(), e);
+            approvedByKey.remove(e.getIdempotencyKey(), e);
+        }
+        oldest.remove();
+    }
+
+    // 지금까지 쓴 기록 중 filter에 맞는 것 (기록 순서). 열 때 CRC를 확인한 뒤에 쓴 부분만 읽는다.
+    private List<Entry> scan(Predicate<Entry> filter) {
+        long limit;
+        synchronized (writeLock) {
+            limit = end;
+        }
+        List<Entry> found = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            for (long pos = 0; pos < limit; ) {
+                int length = in.readInt();
+                in.readInt(); // CRC
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                Entry entry = Entry.decode(payload);
+                if (filter.test(entry)) found.add(entry);
+                pos += RECORD_HEADER_BYTES + length;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("결제 원장 읽기 실패: " + e.getMessage(), e);
+        }
+        return found;
+    }
+
+    // 파일을 처음부터 읽어 색인을 만든다. @return 마지막으로 온전한 기록의 끝 위치
+    private long load() throws IOException {
+        long pos = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                try {
+                    int crcValue = in.readInt();
+                    if (length <= 0 || length > MAX_PAYLOAD_BYTES) throw new IOException("손상된 레코드 길이: " + length);
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != crcValue) throw new IOException("CRC 불일치");
+                    index(Entry.decode(payload));
+                } catch (IOException e) {
+                    String reason = (e instanceof EOFException) ? "기록 중 잘린 레코드" : e.getMessage();
+                    System.out.println("[경고] 결제 원장을 " + pos + "바이트까지만 읽었습니다: " + reason);
+                    break;
+                }
+                pos += RECORD_HEADER_BYTES + length;
+                lastSeq++;
+            }
+        }
+        durableSeq.set(lastSeq);
+        return pos;
+    }
+}
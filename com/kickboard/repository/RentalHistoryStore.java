@@ -0,0 +1,382 @@
+package com.kickboard.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+import com.kickboard.domain.rental.Rental;
+
+/**
+ * RentalHistoryStore.java : 끝난(반납/결제 완료) 대여를 보관하는 append-only 이력 파일.
+ *                           진행 중 대여만 메모리(RentalRepository)와 스냅샷에 남기고,
+ *                           끝난 대여는 이 파일로 옮겨 필요할 때(이용 내역 조회, CSV 내보내기)만 읽는다.
+ *
+ * 파일 형식 : [int MAGIC "KBHT"][int 버전][long 끝 위치] 뒤에 레코드가 이어진다.
+ *  - 레코드 : [int 길이][int CRC32][payload]  payload는 저널의 RENTAL 레코드와 같은 형식
+ *  - 파일은 REGION_BYTES 크기의 구역 단위로 메모리 매핑한다. 레코드는 구역 경계를 넘지 않으며,
+ *    남은 자리가 모자라면 SKIP 표시(-1)를 쓰고 다음 구역에서 시작한다.
+ *  - 같은 대여가 두 번 기록될 수 있다. (스냅샷 전에 종료된 경우 다음 시작 때 다시 옮김) 읽을 때는 마지막 기록만 사용한다.
+ *
+ * 색인 : userId -> 위치 목록(long[])만 둔다. 처음 조회할 때 파일을 한 번 훑어 만들고 이후 추가분만 반영한다.
+ *        시작할 때는 파일을 읽지 않으므로 시작 시간이 이력 크기와 무관하고,
+ *        대여 객체나 rentalId 문자열을 메모리에 들고 있지 않는다. (중복 기록은 읽을 때 걸러 낸다)
+ * 내구성 : append()는 매핑된 메모리에 쓰기만 하고, force()에서 디스크에 내린다. (스냅샷 저장 직전에 호출)
+ *         헤더의 끝 위치는 force()에서 레코드를 내린 뒤에만 바꾸므로, 디스크의 끝 위치 앞은 항상 온전하다.
+ *         열 때는 끝 위치부터 CRC가 맞는 레코드까지 앞으로 훑어 끝을 정한다. (force 전에 종료되었어도 디스크에
+ *         남은 레코드는 살리고, 기록 중 잘린 꼬리는 버린다. 버린 대여는 저널 재생 후 다시 옮겨진다)
+ *         버전 1 파일은 끝 위치가 레코드보다 앞서 있을 수 있으므로 처음 레코드부터 훑은 뒤 버전 2로 바꾼다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class RentalHistoryStore implements Closeable {
+
+    private static final int MAGIC = 0x4B424854; // "KBHT"
+    private static final int VERSION = 2; // 2: 헤더의 끝 위치는 force()에서만 바뀐다
+    private static final int HEADER_BYTES = 16;
+    private static final int END_POSITION = 8;        // 헤더 안의 '끝 위치' 필드 (force()까지 디스크에 내린 위치)
+    private static final int RECORD_HEADER_BYTES = 8; // [int 길이][int CRC32]
+    private static final int SKIP = -1;               // 이 구역의 나머지는 비어 있음
+    static final int REGION_BYTES = 8 * 1024 * 1024;
+
+    // 이력 레코드 하나를 받는 콜백 (CSV 내보내기용)
+    interface RowVisitor {
+        void visit(JournalReplay.RentalRow row) throws IOException;
+    }
+
+    // 박싱 없이 위치를 모으는 목록
+    private static final class Offsets {
+        long[] values = new long[4];
+        int size;
+
+        void add(long offset) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = offset;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> regions = new CopyOnWriteArrayList<>(); // 읽기는 잠금 없이
+    private volatile long end; // 여기까지 쓴 레코드는 다른 스레드가 읽어도 된다
+    private int firstDirtyRegion = -1;
+    private boolean closed;
+
+    // 지연 색인 (this 잠금, null이면 아직 만들지 않음. 처음 만들 때만 잠금 밖에서 훑는다)
+    private Map<String, Offsets> byUser;
+
+    private RentalHistoryStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * 이력 파일을 연다. (없으면 새로 만든다) 레코드는 읽지 않는다.
+     */
+    public static RentalHistoryStore open(Path file) {
+        FileChannel channel = null;
+        try {
+            if (file.getParent() != null && !Files.exists(file.getParent())) Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            RentalHistoryStore store = new RentalHistoryStore(file, channel);
+            boolean fresh = channel.size() == 0;
+            MappedByteBuffer header = store.region(0);
+            if (fresh) {
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putLong(END_POSITION, HEADER_BYTES);
+                header.force();
+            } else if (header.getInt(0) != MAGIC) {
+                throw new IOException("대여 이력 파일이 아닙니다: " + file);
+            } else if (header.getInt(4) > VERSION) {
+                throw new IOException("지원하지 않는 대여 이력 버전: " + header.getInt(4));
+            }
+            long durable = header.getLong(END_POSITION);
+            long size = channel.size();
+            if (durable < HEADER_BYTES || durable > size) throw new IOException("대여 이력 파일의 끝 위치가 잘못되었습니다: " + durable);
+            for (int i = 1; i <= regionOf(size - 1); i++) store.region(i);
+            boolean legacy = header.getInt(4) < VERSION;
+            store.end = store.recoverEnd(legacy ? HEADER_BYTES : durable, size);
+            if (store.end > durable) {
+                System.out.println("[안내] 대여 이력 파일의 마지막 동기화 이후 기록 " + (store.end - durable) + "바이트를 살렸습니다.");
+            } else if (store.end < durable) {
+                System.err.println("[경고] 대여 이력 파일 끝의 손상된 기록 " + (durable - store.end) + "바이트를 버립니다. (" + file + ")");
+            }
+            if (legacy || store.end != durable) {
+                header.putInt(4, VERSION);
+                header.putLong(END_POSITION, store.end);
+                header.force();
+            }
+            return store;
+        } catch (IOException | UncheckedIOException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new RuntimeException("대여 이력 열기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 끝난 대여를 이력 끝에 추가한다.
+     * @return 기록된 위치
+     */
+    synchronized long append(Rental rental) {
+        if (closed) throw new IllegalStateException("대여 이력 파일이 닫혔습니다.");
+        byte[] payload = JournalRecord.rental(rental).payload();
+        int need = RECORD_HEADER_BYTES + payload.length;
+        if (need > REGION_BYTES) throw new IllegalArgumentException("대여 이력 레코드가 너무 큽니다: " + need);
+
+        long pos = end;
+        int inRegion = (int) (pos % REGION_BYTES);
+        if (REGION_BYTES - inRegion < need) {
+            if (REGION_BYTES - inRegion >= 4) region(regionOf(pos)).putInt(inRegion, SKIP);
+            pos += REGION_BYTES - inRegion;
+            inRegion = 0;
+        }
+        int index = regionOf(pos);
+        MappedByteBuffer buf = region(index);
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        buf.putInt(inRegion, payload.length);
+        buf.putInt(inRegion + 4, (int) crc.getValue());
+        buf.put(inRegion + RECORD_HEADER_BYTES, payload);
+        markDirty(index);
+
+        end = pos + need; // 헤더의 끝 위치는 force()에서 바꾼다
+
+        if (byUser != null) addTo(byUser, pos);
+        return pos;
+    }
+
+    /**
+     * 사용자의 끝난 대여 (같은 대여는 마지막 기록만)
+     */
+    List<JournalReplay.RentalRow> findByUser(String userId) {
+        long[] offsets;
+        Map<String, Offsets> index = index();
+        synchronized (this) {
+            Offsets list = index.get(userId);
+            if (list == null) return new ArrayList<>();
+            offsets = Arrays.copyOf(list.values, list.size);
+        }
+        // 같은 대여의 기록은 같은 사용자 목록 안에 있으므로 여기서 걸러 내면 된다.
+        Map<String, JournalReplay.RentalRow> latest = new LinkedHashMap<>();
+        for (long offset : offsets) {
+            JournalReplay.RentalRow row = decode(read(offset));
+            latest.put(row.rentalId, row);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * 모든 끝난 대여를 기록 순서로 방문한다. (같은 대여는 마지막 기록만)
+     * 파일을 두 번 훑는다. 처음에는 대여마다 마지막 위치를 찾고, 다음에 그 위치의 레코드만 넘긴다.
+     */
+    void forEachLatest(RowVisitor visitor) throws IOException {
+        long limit = end;
+        Map<String, Long> latest = new HashMap<>();
+        for (long pos = HEADER_BYTES; pos < limit; pos = next(pos)) {
+            if (!isSkip(pos)) latest.put(idsAt(pos)[0], pos);
+        }
+        for (long pos = HEADER_BYTES; pos < limit; pos = next(pos)) {
+            if (isSkip(pos)) continue;
+            JournalReplay.RentalRow row = decode(read(pos));
+            if (latest.get(row.rentalId) == pos) visitor.visit(row);
+        }
+    }
+
+    /**
+     * 조회 색인을 미리 만든다. (시작 후 백그라운드에서 불러 두면 첫 이용 내역 조회가 파일을 훑지 않는다)
+     */
+    public void preload() {
+        synchronized (this) {
+            if (closed) return;
+        }
+        index();
+    }
+
+    /**
+     * 추가한 레코드를 디스크에 내린다.
+     */
+    public synchronized void force() {
+        if (closed || firstDirtyRegion < 0) return;
+        for (int i = firstDirtyRegion; i < regions.size(); i++) regions.get(i).force();
+        regions.get(0).putLong(END_POSITION, end); // 레코드가 디스크에 있은 뒤에 끝 위치를 옮긴다
+        regions.get(0).force();
+        firstDirtyRegion = -1;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        force();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[경고] 대여 이력 파일을 닫지 못했습니다: " + e.getMessage());
+        }
+    }
+
+    // ===== Helpers =====
+
+    private static int regionOf(long pos) {
+        return (int) (pos / REGION_BYTES);
+    }
+
+    // 필요하면 구역을 새로 매핑한다. (파일 크기도 함께 늘어난다)
+    private MappedByteBuffer region(int index) {
+        while (regions.size() <= index) {
+            try {
+                regions.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * REGION_BYTES, REGION_BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException("대여 이력 파일 매핑 실패: " + e.getMessage(), e);
+            }
+        }
+        return regions.get(index);
+    }
+
+    /**
+     * from부터 온전한 레코드를 따라가 실제 끝을 찾는다. 손상되거나 비어 있는 곳에서 멈춘다.
+     */
+    private long recoverEnd(long from, long size) {
+        long good = from;
+        long pos = from;
+        while (pos + RECORD_HEADER_BYTES <= size) {
+            if (isSkip(pos)) {
+                pos += REGION_BYTES - pos % REGION_BYTES;
+                continue;
+            }
+            int length = validLength(pos);
+            if (length < 0) break;
+            pos += RECORD_HEADER_BYTES + length;
+            good = pos;
+        }
+        return good;
+    }
+
+    private void markDirty(int index) {
+        if (firstDirtyRegion < 0 || index < firstDirtyRegion) firstDirtyRegion = index;
+    }
+
+    private byte[] read(long pos) {
+        int length = checkedLength(pos);
+        byte[] payload = new byte[length];
+        regions.get(regionOf(pos)).get((int) (pos % REGION_BYTES) + RECORD_HEADER_BYTES, payload);
+        return payload;
+    }
+
+    // 레코드의 길이와 CRC를 확인한다. (매핑된 메모리에서 바로 계산하므로 복사하지 않는다)
+    private int checkedLength(long pos) {
+        int length = validLength(pos);
+        if (length < 0) throw new IllegalStateException("대여 이력 레코드가 손상되었습니다. (위치 " + pos + ", " + file + ")");
+        return length;
+    }
+
+    // 길이와 CRC가 맞으면 payload 길이, 아니면 -1
+    private int validLength(long pos) {
+        MappedByteBuffer buf = regions.get(regionOf(pos));
+        int inRegion = (int) (pos % REGION_BYTES);
+        int length = buf.getInt(inRegion);
+        if (length <= 0 || inRegion + RECORD_HEADER_BYTES + length > REGION_BYTES) return -1;
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(inRegion + RECORD_HEADER_BYTES, length));
+        return (int) crc.getValue() == buf.getInt(inRegion + 4) ? length : -1;
+    }
+
+    private static JournalReplay.RentalRow decode(byte[] payload) {
+        try {
+            return JournalRecord.readRental(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            throw new IllegalStateException("대여 이력 레코드를 해석하지 못했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // payload 앞의 rentalId, userId만 읽는다. (writeUTF 형식: [unsigned short 길이][바이트])
+    // ASCII면 매핑된 메모리에서 바로 만들고, 그 밖의 문자가 있으면 DataInputStream으로 해석한다.
+    private String[] idsAt(long pos) {
+        MappedByteBuffer buf = regions.get(regionOf(pos));
+        int at = (int) (pos % REGION_BYTES) + RECORD_HEADER_BYTES;
+        String[] ids = new String[2];
+        for (int i = 0; i < ids.length; i++) {
+            int length = Short.toUnsignedInt(buf.getShort(at));
+            byte[] bytes = new byte[length];
+            buf.get(at + 2, bytes);
+            for (byte b : bytes) {
+                if (b <= 0) return decodeIds(read(pos));
+            }
+            ids[i] = new String(bytes, StandardCharsets.ISO_8859_1);
+            at += 2 + length;
+        }
+        return ids;
+    }
+
+    // payload 앞의 rentalId, userId
+    private static String[] decodeIds(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            return new String[] { in.readUTF(), in.readUTF() };
+        } catch (IOException e) {
+            throw new IllegalStateException("대여 이력 레코드를 해석하지 못했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // 구역의 나머지가 비어 있으면 true
+    private boolean isSkip(long pos) {
+        int inRegion = (int) (pos % REGION_BYTES);
+        return REGION_BYTES - inRegion < RECORD_HEADER_BYTES || regions.get(regionOf(pos)).getInt(inRegion) == SKIP;
+    }
+
+    // 다음 레코드 위치 (길이와 CRC를 확인한다)
+    private long next(long pos) {
+        if (isSkip(pos)) return pos + REGION_BYTES - pos % REGION_BYTES;
+        return pos + RECORD_HEADER_BYTES + checkedLength(pos);
+    }
+
+    private void addTo(Map<String, Offsets> index, long pos) {
+        index.computeIfAbsent(idsAt(pos)[1], k -> new Offsets()).add(pos);
+    }
+
+    /**
+     * 색인 (처음 한 번만 파일 전체를 훑는다). 훑는 동안에는 잠그지 않으므로 반납의 append()가 기다리지 않는다.
+     * end 앞의 레코드는 다 쓰인 뒤에 end가 바뀌므로 잠금 없이 읽어도 된다. 반환한 맵은 this 잠금 안에서 읽는다.
+     */
+    private Map<String, Offsets> index() {
+        long limit;
+        synchronized (this) {
+            if (byUser != null) return byUser;
+            limit = end;
+        }
+        Map<String, Offsets> built = new HashMap<>();
+        for (long pos = HEADER_BYTES; pos < limit; pos = next(pos)) {
+            if (!isSkip(pos)) addTo(built, pos);
+        }
+        synchronized (this) {
+            if (byUser == null) {
+                for (long pos = limit; pos < end; pos = next(pos)) { // 훑는 동안 추가된 레코드
+                    if (!isSkip(pos)) addTo(built, pos);
+                }
+                byUser = built;
+            }
+            return byUser;
+        }
+    }
+}
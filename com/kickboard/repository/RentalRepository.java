@@ -0,0 +1,300 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.rental.RentalStatus;
+import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * RentalRepository.java : 대여 저장소.
+ *                         - rentalId 해시 인덱스
+ *                         - userId -> 진행 중(ACTIVE) 대여 인덱스 (사용자당 최대 1건)
+ *                         - userId -> 이용 내역 인덱스 (대여 시작 순)
+ *                         대여 상태가 바뀌면 refresh()로 진행 중 인덱스를 갱신한다.
+ *                         이력 저장소(RentalHistoryStore)가 있으면 끝난 대여는 archive()로 파일에 옮기고
+ *                         메모리에서는 뺀다. (findById/findAll은 메모리에 남은 대여만 본다)
+ *                         이력 파일 읽기/쓰기는 저장소 잠금 밖에서 한다. 옮기는 도중에는 같은 대여가 메모리와
+ *                         파일에 모두 있을 수 있으므로 이용 내역은 rentalId로 한 번만 넣는다. (메모리 쪽 우선)
+ *                         읽기/쓰기 잠금으로 여러 스레드에서 동시에 사용할 수 있다.
+ * @version              : 1.2
+ * @date                 : 2026.10.18
+ */
+public class RentalRepository {
+
+    private final Map<String, Rental> byId = new LinkedHashMap<>();
+    private final Map<String, Rental> activeByUser = new HashMap<>();
+    private final Map<String, List<Rental>> historyByUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RentalHistoryStore history;                // null이면 모든 대여를 메모리에 둔다
+    private final Function<String, Vehicle> vehicleLookup;   // 이력 레코드를 킥보드 객체에 연결할 때 사용
+
+    public RentalRepository() {
+        this(null, id -> null);
+    }
+
+    public RentalRepository(RentalHistoryStore history, Function<String, Vehicle> vehicleLookup) {
+        this.history = history;
+        this.vehicleLookup = Objects.requireNonNull(vehicleLookup, "vehicleLookup");
+    }
+
+    public void save(Rental rental) {
+        Objects.requireNonNull(rental, "rental");
+        lock.writeLock().lock();
+        try {
+            put(rental);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 새 대여를 저장하되, 해당 사용자에게 진행 중인 대여가 이미 있으면 저장하지 않는다.
+     * (이미 대여 중인지 검사와 저장을 한 번에 수행)
+     * @return true: 저장됨, false: 이미 진행 중인 대여가 있음
+     */
+    public boolean saveIfNoActive(Rental rental) {
+        Objects.requireNonNull(rental, "rental");
+        lock.writeLock().lock();
+        try {
+            if (activeOf(rental.getUser().getUserId()) != null) return false;
+            put(rental);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 대여 상태 변경(반납 완료/되돌림)을 진행 중 인덱스에 반영한다.
+     */
+    public void refresh(Rental rental) {
+        lock.writeLock().lock();
+        try {
+            reindex(rental);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 시작에 실패한 대여를 되돌릴 때 사용
+    public void remove(Rental rental) {
+        if (rental == null) return;
+        lock.writeLock().lock();
+        try {
+            if (byId.get(rental.getRentalId()) != rental) return;
+            unindex(rental);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Rental findById(String rentalId) {
+        if (rentalId == null) return null;
+        lock.readLock().lock();
+        try {
+            return byId.get(rentalId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 진행 중 대여 (없으면 null)
+    public Rental findActiveByUser(String userId) {
+        if (userId == null) return null;
+        lock.readLock().lock();
+        try {
+            return activeOf(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자의 이용 내역 (대여 시작 순). 이력 파일로 옮긴 대여는 이때 읽어 온다.
+     */
+    public List<Rental> findHistoryByUser(User user) {
+        if (user == null) return Collections.emptyList();
+        String userId = user.getUserId();
+        List<Rental> result;
+        lock.readLock().lock();
+        try {
+            List<Rental> inMemory = historyByUser.get(userId);
+            result = (inMemory == null) ? new ArrayList<>() : new ArrayList<>(inMemory);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // 메모리를 먼저 본 뒤 파일을 읽으므로, 그 사이 옮겨진 대여도 둘 중 한 곳에는 있다.
+        List<JournalReplay.RentalRow> archived = (history == null) ? Collections.emptyList() : history.findByUser(userId);
+        if (archived.isEmpty()) return result;
+
+        Set<String> seen = new HashSet<>();
+        for (Rental r : result) seen.add(r.getRentalId());
+        for (JournalReplay.RentalRow row : archived) {
+            if (!seen.add(row.rentalId)) continue; // 옮기는 중이라 메모리에도 있는 대여
+            Vehicle vehicle = vehicleLookup.apply(row.vehicleId);
+            if (vehicle == null) {
+                System.out.println("[경고] 이력의 킥보드를 찾지 못해 건너뜁니다: " + row.rentalId);
+                continue;
+            }
+            result.add(new Rental(row.rentalId, user, vehicle, row.info, row.status));
+        }
+        result.sort(Comparator.comparing(Rental::getStartTime));
+        return result;
+    }
+
+    /**
+     * 끝난 대여를 이력 파일로 옮기고 메모리에서 뺀다. (진행 중이거나 이력 저장소가 없으면 그대로 둔다)
+     * @return 옮겼으면 true
+     */
+    public boolean archive(Rental rental) {
+        if (history == null || rental == null) return false;
+        lock.readLock().lock();
+        try {
+            if (isOpen(rental) || byId.get(rental.getRentalId()) != rental) return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+        history.append(rental); // 파일에 먼저 쓴 뒤 메모리에서 뺀다 (조회가 놓치지 않도록)
+        lock.writeLock().lock();
+        try {
+            if (byId.get(rental.getRentalId()) == rental) unindex(rental);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 메모리에 남아 있는 끝난 대여를 모두 이력 파일로 옮긴다. (시작 시: 이전 스냅샷/저널에서 복원된 대여)
+     * @return 옮긴 건수
+     */
+    public int archiveCompleted() {
+        if (history == null) return 0;
+        List<Rental> finished = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Rental r : byId.values()) {
+                if (!isOpen(r)) finished.add(r);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Rental r : finished) history.append(r);
+        lock.writeLock().lock();
+        try {
+            for (Rental r : finished) {
+                if (byId.get(r.getRentalId()) == r) unindex(r);
+            }
+            return finished.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 진행 중인 대여에 묶여 있는 킥보드 ID들
+     */
+    public Set<String> findActiveVehicleIds() {
+        lock.readLock().lock();
+        try {
+            Set<String> ids = new HashSet<>();
+            for (Rental r : activeByUser.values()) {
+                if (isOpen(r)) ids.add(r.getVehicle().getVehicleId());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Rental> findAll() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byId.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadAll(List<Rental> rentals) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            activeByUser.clear();
+            historyByUser.clear();
+            if (rentals == null) return;
+            for (Rental r : rentals) put(r);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Helpers (잠금 안에서 호출) =====
+
+    private void put(Rental rental) {
+        String userId = rental.getUser().getUserId();
+        Rental old = byId.put(rental.getRentalId(), rental);
+        List<Rental> history = historyByUser.computeIfAbsent(userId, k -> new ArrayList<>());
+        if (old == null) {
+            history.add(rental);
+        } else if (old != rental) {
+            history.replaceAll(r -> r == old ? rental : r);
+            activeByUser.remove(userId, old);
+        }
+        reindex(rental);
+    }
+
+    private void unindex(Rental rental) {
+        String userId = rental.getUser().getUserId();
+        byId.remove(rental.getRentalId(), rental);
+        activeByUser.remove(userId, rental);
+        List<Rental> list = historyByUser.get(userId);
+        if (list != null) {
+            list.remove(rental);
+            if (list.isEmpty()) historyByUser.remove(userId);
+        }
+    }
+
+    private void reindex(Rental rental) {
+        String userId = rental.getUser().getUserId();
+        if (isOpen(rental)) {
+            activeByUser.put(userId, rental);
+        } else {
+            activeByUser.remove(userId, rental);
+        }
+    }
+
+    private Rental activeOf(String userId) {
+        Rental r = activeByUser.get(userId);
+        return (r != null && isOpen(r)) ? r : null;
+    }
+
+    // 주행 중이거나 반납 후 결제를 기다리는 대여 (결제가 끝나기 전에는 사용자가 새로 대여할 수 없다)
+    private static boolean isOpen(Rental rental) {
+        RentalStatus status = rental.getStatus();
+        return status == RentalStatus.ACTIVE || status == RentalStatus.PAYMENT_PENDING;
+    }
+}
@@ -0,0 +1,609 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.payment.CreditCardMethod;
+import com.kickboard.domain.payment.KakaoPayMethod;
+import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.domain.rental.RentalInfo;
+import com.kickboard.domain.rental.RentalStatus;
+import com.kickboard.domain.user.DriverLicense;
+import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Location;
+import com.kickboard.domain.vehicle.Vehicle;
+import com.kickboard.domain.vehicle.VehicleStatus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotCodec.java    : AppState를 버전이 붙은 이진 스냅샷으로 쓰고 읽는다. (Java 직렬화 대체)
+ *
+ * 파일 형식 : [int MAGIC "KBSN"][short 버전] 뒤에 섹션이 이어지고 END 섹션으로 끝난다.
+ *  - 섹션   : [byte 섹션 ID][int 레코드 수][int 바이트 수][int CRC32][레코드...]
+ *  - 레코드 : [varint 길이][필드...]  읽는 쪽은 모르는 뒤쪽 필드를 길이만큼 건너뛴다.
+ *  - 문자열 : ID, 모델명, 상태 이름 등은 STRINGS 섹션에 한 번만 쓰고 레코드에는 번호(0 = null)만 쓴다.
+ *            읽을 때도 같은 문자열 객체를 공유하므로 대여가 가리키는 사용자/킥보드 ID가 중복되지 않는다.
+ *  - 대여는 사용자/킥보드 객체 대신 ID로 기록하고, 읽을 때 같은 스냅샷의 객체에 연결한다.
+ *
+ * 섹션 순서 : STRINGS, USERS, COUPONS, VEHICLES, RENTALS, META, END
+ *            (모르는 섹션 ID는 건너뛴다)
+ * 읽기 : 섹션을 모두 읽어 들인 뒤 사용자/킥보드/대여 섹션을 나눠서 동시에 해석할 수 있다. (read(in, executor))
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+final class SnapshotCodec {
+
+    static final int MAGIC = 0x4B42534E; // "KBSN"
+    static final short VERSION = 1;
+
+    // 섹션 ID는 파일에 기록되므로 기존 값을 바꾸지 않는다.
+    private static final byte END = 0;
+    private static final byte STRINGS = 1;
+    private static final byte USERS = 2;
+    private static final byte COUPONS = 3;
+    private static final byte VEHICLES = 4;
+    private static final byte RENTALS = 5;
+    private static final byte META = 6;
+
+    private SnapshotCodec() {}
+
+    // ===== Write =====
+
+    static void write(AppState state, OutputStream os) throws IOException {
+        StringTable strings = new StringTable();
+        Section users = new Section(USERS);
+        Section coupons = new Section(COUPONS);
+        Section vehicles = new Section(VEHICLES);
+        Section rentals = new Section(RENTALS);
+        Section meta = new Section(META);
+
+        for (User u : state.getUsers()) {
+            Map<String, BigDecimal> userCoupons;
+            synchronized (u) { // 쿠폰 목록이 바뀌는 중에 읽지 않도록 (User의 쿠폰 메서드와 같은 잠금)
+                userCoupons = (u.getCoupons() == null) ? Map.of() : new TreeMap<>(u.getCoupons());
+            }
+            List<PaymentMethod> methods = u.getPaymentMethods();
+            DriverLicense license = u.getDriverLicense();
+
+            Encoder r = users.begin();
+            r.writeRef(strings, u.getUserId());
+            r.writeRef(strings, u.getPassword());
+            r.writeRef(strings, u.getEmail());
+            r.writeRef(strings, license == null ? null : license.getLicenseNumber());
+            r.writeVarInt(methods.size());
+            for (PaymentMethod m : methods) {
+                r.writeRef(strings, m.getType().name());
+                r.writeRef(strings, m.getIdentifier());
+                r.writeRef(strings, m.getPassword());
+                r.writeRef(strings, m.getAlias());
+                r.writeRef(strings, m.getCompanyName());
+                r.writeDecimal(m.getBalance().toBigDecimal());
+            }
+            users.end();
+
+            for (Map.Entry<String, BigDecimal> e : userCoupons.entrySet()) {
+                Encoder c = coupons.begin();
+                c.writeRef(strings, u.getUserId());
+                c.writeRef(strings, e.getKey());
+                c.writeDecimal(e.getValue());
+                coupons.end();
+            }
+        }
+
+        for (Vehicle v : state.getVehicles()) {
+            Location location;
+            int battery;
+            synchronized (v) { // 위치/배터리를 한 시점 기준으로
+                location = v.getLocation();
+                battery = v.getBatteryLevel();
+            }
+            Encoder r = vehicles.begin();
+            r.writeRef(strings, v.getVehicleId());
+            r.writeRef(strings, v.getModelName());
+            r.writeRef(strings, v.getStatus().name());
+            r.writeSignedVarInt(location.getX());
+            r.writeSignedVarInt(location.getY());
+            r.writeVarInt(battery);
+            vehicles.end();
+        }
+
+        for (Rental rental : state.getRentals()) {
+            LocalDateTime end;
+            RentalInfo info;
+            RentalStatus status;
+            synchronized (rental) { // 반납 처리 중이면 끝난 뒤의 값으로
+                end = rental.getEndTime();
+                info = rental.getRentalInfo();
+                status = rental.getStatus();
+            }
+            Encoder r = rentals.begin();
+            r.writeRef(strings, rental.getRentalId());
+            r.writeRef(strings, rental.getUser().getUserId());
+            r.writeRef(strings, rental.getVehicle().getVehicleId());
+            r.writeTime(rental.getStartTime());
+            r.writeTime(end);
+            r.writeDouble(info.getTraveledDistance());
+            r.writeDecimal(info.getFinalCost());
+            r.writeRef(strings, status.name());
+            rentals.end();
+        }
+
+        Encoder m = meta.begin();
+        m.writeVarLong(state.getJournalSequence());
+        m.writeRef(strings, state.getCurrentUserId());
+        meta.end();
+
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        strings.toSection().writeTo(out);
+        users.writeTo(out);
+        coupons.writeTo(out);
+        vehicles.writeTo(out);
+        rentals.writeTo(out);
+        meta.writeTo(out);
+        out.writeByte(END);
+        out.flush();
+    }
+
+    // ===== Read =====
+
+    /**
+     * 이진 스냅샷을 읽는다. 형식이 다르거나 CRC가 맞지 않으면 IOException (빈 상태로 대신하지 않는다)
+     */
+    static AppState read(InputStream is) throws IOException {
+        return read(is, Runnable::run);
+    }
+
+    /**
+     * 섹션을 모두 읽어 들인 뒤 사용자/킥보드/대여 섹션은 executor에서 동시에 해석한다.
+     * (CRC 확인도 각 섹션을 해석하는 쪽에서) 쿠폰은 사용자가, 대여 연결은 사용자와 킥보드가 다 만들어진 뒤에 한다.
+     */
+    static AppState read(InputStream is, Executor executor) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) throw new IOException("이진 스냅샷 파일이 아닙니다.");
+        int version = in.readUnsignedShort();
+        if (version > VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version + " (최대 " + VERSION + ")");
+
+        Map<Byte, RawSection> sections = new HashMap<>();
+        while (true) {
+            byte id = in.readByte();
+            if (id == END) break;
+            sections.put(id, RawSection.readFrom(in, id)); // 모르는 섹션(이후 버전에서 추가)은 담아 두기만 한다
+        }
+
+        String[] strings = readStrings(sections.get(STRINGS));
+        CompletableFuture<List<User>> users = async(executor, () -> readUsers(sections.get(USERS), strings));
+        CompletableFuture<List<Vehicle>> vehicles = async(executor, () -> readVehicles(sections.get(VEHICLES), strings));
+        CompletableFuture<List<JournalReplay.RentalRow>> rentals = async(executor, () -> readRentals(sections.get(RENTALS), strings));
+        CompletableFuture<Map<String, User>> usersById = users.thenCompose(list ->
+                async(executor, () -> addCoupons(sections.get(COUPONS), strings, list)));
+
+        AppState state = new AppState();
+        Decoder meta = decoderOf(sections.get(META));
+        if (meta != null) {
+            Decoder r = meta.next();
+            state.setJournalSequence(r.readVarLong());
+            state.setCurrentUserId(r.readRef(strings));
+        }
+
+        List<Vehicle> vehicleList = join(vehicles);
+        Map<String, Vehicle> vehiclesById = new HashMap<>();
+        for (Vehicle v : vehicleList) vehiclesById.put(v.getVehicleId(), v);
+        Map<String, User> userMap = join(usersById);
+        List<Rental> rentalList = new ArrayList<>();
+        for (JournalReplay.RentalRow row : join(rentals)) {
+            User user = userMap.get(row.userId);
+            Vehicle vehicle = vehiclesById.get(row.vehicleId);
+            if (user == null || vehicle == null) {
+                System.out.println("[경고] 스냅샷의 대여 기록을 연결하지 못해 건너뜁니다: " + row.rentalId);
+                continue;
+            }
+            rentalList.add(new Rental(row.rentalId, user, vehicle, row.info, row.status));
+        }
+
+        state.setUsers(join(users));
+        state.setVehicles(vehicleList);
+        state.setRentals(rentalList);
+        return state;
+    }
+
+    private static String[] readStrings(RawSection section) throws IOException {
+        Decoder d = decoderOf(section);
+        if (d == null) return new String[0];
+        String[] strings = new String[section.count];
+        for (int i = 0; i < strings.length; i++) strings[i] = d.next().readUtf8();
+        return strings;
+    }
+
+    private static List<User> readUsers(RawSection section, String[] strings) throws IOException {
+        Decoder d = decoderOf(section);
+        if (d == null) return new ArrayList<>();
+        List<User> users = new ArrayList<>(section.count);
+        for (int i = 0; i < section.count; i++) {
+            Decoder r = d.next();
+            User u = new User(r.readRef(strings), r.readRef(strings));
+            u.setEmail(r.readRef(strings));
+            String license = r.readRef(strings);
+            if (license != null) u.setDriverLicense(new DriverLicense(license));
+            int methods = r.readVarInt();
+            for (int j = 0; j < methods; j++) u.addPaymentMethod(readPaymentMethod(r, strings));
+            users.add(u);
+        }
+        return users;
+    }
+
+    // 쿠폰을 사용자에게 붙이고, 대여 연결에 쓸 userId 표를 돌려준다.
+    private static Map<String, User> addCoupons(RawSection section, String[] strings, List<User> users) throws IOException {
+        Map<String, User> byId = new HashMap<>();
+        for (User u : users) byId.put(u.getUserId(), u);
+        Decoder d = decoderOf(section);
+        if (d == null) return byId;
+        for (int i = 0; i < section.count; i++) {
+            Decoder r = d.next();
+            User u = byId.get(r.readRef(strings));
+            String couponId = r.readRef(strings);
+            BigDecimal rate = r.readDecimal();
+            if (u != null) u.addCoupon(couponId, rate);
+        }
+        return byId;
+    }
+
+    private static List<Vehicle> readVehicles(RawSection section, String[] strings) throws IOException {
+        Decoder d = decoderOf(section);
+        if (d == null) return new ArrayList<>();
+        List<Vehicle> vehicles = new ArrayList<>(section.count);
+        for (int i = 0; i < section.count; i++) {
+            Decoder r = d.next();
+            String vehicleId = r.readRef(strings);
+            String model = r.readRef(strings);
+            VehicleStatus status = VehicleStatus.valueOf(r.readRef(strings));
+            Vehicle v = new Vehicle(vehicleId, model, r.readSignedVarInt(), r.readSignedVarInt(), r.readVarInt());
+            v.restoreStatus(status);
+            vehicles.add(v);
+        }
+        return vehicles;
+    }
+
+    // 사용자/킥보드 객체는 아직 없을 수 있으므로 ID만 담아 둔다.
+    private static List<JournalReplay.RentalRow> readRentals(RawSection section, String[] strings) throws IOException {
+        Decoder d = decoderOf(section);
+        if (d == null) return new ArrayList<>();
+        List<JournalReplay.RentalRow> rows = new ArrayList<>(section.count);
+        for (int i = 0; i < section.count; i++) {
+            Decoder r = d.next();
+            String rentalId = r.readRef(strings);
+            String userId = r.readRef(strings);
+            String vehicleId = r.readRef(strings);
+            LocalDateTime start = r.readTime();
+            LocalDateTime end = r.readTime();
+            RentalInfo info = new RentalInfo(start, end, r.readDouble());
+            info.setFinalCost(r.readDecimal());
+            RentalStatus status = RentalStatus.valueOf(r.readRef(strings));
+            rows.add(new JournalReplay.RentalRow(rentalId, userId, vehicleId, info, status));
+        }
+        return rows;
+    }
+
+    private static PaymentMethod readPaymentMethod(Decoder r, String[] strings) throws IOException {
+        PaymentMethodType type = PaymentMethodType.valueOf(r.readRef(strings));
+        String identifier = r.readRef(strings);
+        String password = r.readRef(strings);
+        String alias = r.readRef(strings);
+        String company = r.readRef(strings);
+        PaymentMethod method = switch (type) {
+            case CREDIT_CARD -> new CreditCardMethod(identifier, password, alias, company);
+            case KAKAO_PAY -> new KakaoPayMethod(identifier, password, alias, company);
+        };
+        method.restoreBalance(Money.of(r.readDecimal(), RoundingMode.HALF_UP)); // 이전 스냅샷은 소수 자릿수 제한이 없었다
+        return method;
+    }
+
+    // 섹션 하나를 해석하는 작업 (IOException은 CompletionException으로 감싸 전달)
+    private interface SectionTask<T> {
+        T run() throws IOException;
+    }
+
+    private static <T> CompletableFuture<T> async(Executor executor, SectionTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    // CRC를 확인한 뒤 섹션의 레코드를 읽는 Decoder (섹션이 없으면 null)
+    private static Decoder decoderOf(RawSection section) throws IOException {
+        if (section == null) return null;
+        CRC32 check = new CRC32();
+        check.update(section.bytes, 0, section.bytes.length);
+        if ((int) check.getValue() != section.crc) throw new IOException("스냅샷 섹션 " + section.id + "의 CRC가 맞지 않습니다.");
+        return new Decoder(section.bytes, 0, section.bytes.length);
+    }
+
+    // 파일에서 읽기만 하고 아직 해석하지 않은 섹션
+    private static final class RawSection {
+        final byte id;
+        final int count;
+        final int crc;
+        final byte[] bytes;
+
+        private RawSection(byte id, int count, int crc, byte[] bytes) {
+            this.id = id;
+            this.count = count;
+            this.crc = crc;
+            this.bytes = bytes;
+        }
+
+        static RawSection readFrom(DataInputStream in, byte id) throws IOException {
+            int count = in.readInt();
+            int length = in.readInt();
+            int crc = in.readInt();
+            if (length < 0 || count < 0) throw new IOException("잘못된 스냅샷 섹션 길이: " + length);
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new RawSection(id, count, crc, bytes);
+        }
+    }
+
+    // ===== Encoding =====
+
+    // 처음 나온 순서대로 번호를 매기는 문자열 표
+    private static final class StringTable {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String s) {
+            if (s == null) return 0;
+            Integer i = index.get(s);
+            if (i == null) {
+                values.add(s);
+                i = values.size();
+                index.put(s, i);
+            }
+            return i;
+        }
+
+        Section toSection() {
+            Section section = new Section(STRINGS);
+            for (String s : values) {
+                section.begin().writeUtf8(s);
+                section.end();
+            }
+            return section;
+        }
+    }
+
+    // 길이 접두어가 붙은 레코드를 모으는 섹션 버퍼
+    private static final class Section {
+        private final byte id;
+        private final Encoder body = new Encoder(1 << 12);
+        private final Encoder record = new Encoder(256);
+        private int count;
+
+        Section(byte id) {
+            this.id = id;
+        }
+
+        Encoder begin() {
+            record.reset();
+            return record;
+        }
+
+        void end() {
+            body.writeVarInt(record.size);
+            body.write(record.buf, 0, record.size);
+            count++;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            CRC32 crc = new CRC32();
+            crc.update(body.buf, 0, body.size);
+            out.writeByte(id);
+            out.writeInt(count);
+            out.writeInt(body.size);
+            out.writeInt((int) crc.getValue());
+            out.write(body.buf, 0, body.size);
+        }
+    }
+
+    private static final class Encoder {
+        private byte[] buf;
+        private int size;
+
+        Encoder(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeVarInt(int v) {
+            writeVarLong(v & 0xFFFFFFFFL);
+        }
+
+        void writeSignedVarInt(int v) {
+            writeVarInt((v << 1) ^ (v >> 31)); // zigzag
+        }
+
+        void writeRef(StringTable strings, String s) {
+            writeVarInt(strings.ref(s));
+        }
+
+        void writeUtf8(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeDouble(double d) {
+            long bits = Double.doubleToRawLongBits(d);
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buf[size++] = (byte) (bits >>> shift);
+        }
+
+        // [0] = null, [1][scale][길이][unscaled 2의 보수]
+        void writeDecimal(BigDecimal d) {
+            ensure(1);
+            if (d == null) {
+                buf[size++] = 0;
+                return;
+            }
+            buf[size++] = 1;
+            writeSignedVarInt(d.scale());
+            byte[] unscaled = d.unscaledValue().toByteArray();
+            writeVarInt(unscaled.length);
+            write(unscaled, 0, unscaled.length);
+        }
+
+        // [0] = null, [1][epoch 초 (UTC로 간주)][나노초]
+        void writeTime(LocalDateTime t) {
+            ensure(1);
+            if (t == null) {
+                buf[size++] = 0;
+                return;
+            }
+            buf[size++] = 1;
+            long seconds = t.toEpochSecond(ZoneOffset.UTC);
+            writeVarLong((seconds << 1) ^ (seconds >> 63));
+            writeVarInt(t.getNano());
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] buf;
+        private int pos;
+        private final int limit;
+
+        Decoder(byte[] buf, int pos, int limit) {
+            this.buf = buf;
+            this.pos = pos;
+            this.limit = limit;
+        }
+
+        // 다음 레코드. 읽지 않은 뒤쪽 필드는 자연히 건너뛴다.
+        Decoder next() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || pos + length > limit) throw new EOFException("스냅샷 레코드가 섹션 밖으로 넘칩니다.");
+            Decoder record = new Decoder(buf, pos, pos + length);
+            pos += length;
+            return record;
+        }
+
+        private byte readByte() throws IOException {
+            if (pos >= limit) throw new EOFException("스냅샷 레코드가 예상보다 짧습니다.");
+            return buf[pos++];
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("잘못된 varint");
+        }
+
+        int readVarInt() throws IOException {
+            return (int) readVarLong();
+        }
+
+        int readSignedVarInt() throws IOException {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readRef(String[] strings) throws IOException {
+            int ref = readVarInt();
+            if (ref == 0) return null;
+            if (ref > strings.length) throw new IOException("문자열 번호가 표 범위를 벗어났습니다: " + ref);
+            return strings[ref - 1];
+        }
+
+        String readUtf8() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || pos + length > limit) throw new EOFException("문자열이 레코드 밖으로 넘칩니다.");
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        double readDouble() throws IOException {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) bits = (bits << 8) | (readByte() & 0xFF);
+            return Double.longBitsToDouble(bits);
+        }
+
+        BigDecimal readDecimal() throws IOException {
+            if (readByte() == 0) return null;
+            int scale = readSignedVarInt();
+            int length = readVarInt();
+            if (length <= 0 || pos + length > limit) throw new EOFException("금액이 레코드 밖으로 넘칩니다.");
+            BigInteger unscaled = new BigInteger(buf, pos, length);
+            pos += length;
+            return new BigDecimal(unscaled, scale);
+        }
+
+        LocalDateTime readTime() throws IOException {
+            if (readByte() == 0) return null;
+            long zigzag = readVarLong();
+            long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+            return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+        }
+    }
+}
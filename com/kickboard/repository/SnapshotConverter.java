@@ -0,0 +1,79 @@
+package com.kickboard.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+
+/**
+ * SnapshotConverter.java : Java 직렬화로 저장된 kickboard.state를 이진 스냅샷 형식으로 바꾼다.
+ *                          서비스는 이전 파일도 읽을 수 있으므로 필수는 아니지만,
+ *                          서비스를 띄우지 않고 미리 변환하거나 결과를 확인할 때 사용한다.
+ *                          입력과 출력이 같은 파일이면 원본을 <파일>.javaser 로 남긴다.
+ *
+ * 실행 : java -cp <classes> com.kickboard.repository.SnapshotConverter [입력=data/kickboard.state] [출력=입력]
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class SnapshotConverter {
+
+    private SnapshotConverter() {}
+
+    public static void main(String[] args) {
+        Path input = Paths.get(args.length > 0 ? args[0] : StateStore.stateFilePath().toString());
+        Path output = args.length > 1 ? Paths.get(args[1]) : input;
+        try {
+            convert(input, output);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("오류: 변환 실패: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return 변환했으면 true, 이미 이진 형식이라 할 일이 없으면 false
+     */
+    public static boolean convert(Path input, Path output) throws IOException {
+        if (!Files.exists(input)) throw new NoSuchFileException(input.toString());
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input))) {
+            if (!StateStore.isJavaSerialized(in)) {
+                System.out.println("[안내] 이미 이진 스냅샷 형식입니다: " + input.toAbsolutePath());
+                return false;
+            }
+        }
+
+        long start = System.nanoTime();
+        AppState state = StateStore.read(input);
+        long readNanos = System.nanoTime() - start;
+
+        Path tmp = output.resolveSibling(output.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), 1 << 16)) {
+            SnapshotCodec.write(state, out);
+        }
+
+        // 바꾼 파일을 다시 읽어 건수가 같은지 확인한 뒤에 교체한다.
+        AppState check = StateStore.read(tmp);
+        if (check.getUsers().size() != state.getUsers().size()
+                || check.getVehicles().size() != state.getVehicles().size()
+                || check.getRentals().size() != state.getRentals().size()
+                || check.getJournalSequence() != state.getJournalSequence()) {
+            Files.deleteIfExists(tmp);
+            throw new IOException("변환 결과의 건수가 원본과 다릅니다.");
+        }
+
+        long before = Files.size(input);
+        if (input.toAbsolutePath().normalize().equals(output.toAbsolutePath().normalize())) {
+            Files.copy(input, input.resolveSibling(input.getFileName() + ".javaser"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING);
+
+        System.out.printf("[변환 완료] %s -> %s%n", input.toAbsolutePath(), output.toAbsolutePath());
+        System.out.printf("  사용자 %d, 킥보드 %d, 대여 %d, 저널 순번 %d%n", state.getUsers().size(),
+                state.getVehicles().size(), state.getRentals().size(), state.getJournalSequence());
+        System.out.printf("  크기 %,d -> %,d bytes, 이전 형식 읽기 %d ms%n", before, Files.size(output), readNanos / 1_000_000);
+        return true;
+    }
+}
@@ -0,0 +1,206 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.vehicle.Location;
+import com.kickboard.domain.vehicle.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * SpatialGrid.java : 킥보드 위치를 고정 크기 격자 칸(bucket)으로 나눈 공간 인덱스.
+ *                    k-최근접 검색은 질의 지점의 칸부터 바깥 고리(ring) 방향으로 넓혀 가며,
+ *                    아직 보지 않은 칸이 현재 k번째 후보보다 가까울 수 없으면 멈춘다.
+ *                    고리는 사용된 칸 범위와 겹치는 부분만 훑으며, 범위 밖 질의는 범위에서 가장 가까운 칸부터 넓힌다.
+ *                    반경 검색은 반경을 덮는 칸만 확인한다.
+ *                    어느 검색이든 훑을 칸이 킥보드 수보다 많아지면 (넓게 흩어진 소수의 킥보드) 전체를 훑는다.
+ *                    동기화는 하지 않으므로 VehicleRepository의 잠금 안에서만 사용한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+final class SpatialGrid {
+
+    static final int CELL_SIZE = 8; // 한 칸의 한 변 길이 (좌표 단위)
+
+    private final Map<Long, Set<Vehicle>> cells = new HashMap<>();
+    private final Map<String, Location> positions = new HashMap<>();
+    // 한 번이라도 사용된 칸 범위 (검색 종료 조건에만 사용하므로 줄이지 않는다)
+    private int minCx = Integer.MAX_VALUE, maxCx = Integer.MIN_VALUE;
+    private int minCy = Integer.MAX_VALUE, maxCy = Integer.MIN_VALUE;
+
+    void put(Vehicle vehicle, int x, int y) {
+        remove(vehicle);
+        int cx = cellOf(x), cy = cellOf(y);
+        cells.computeIfAbsent(key(cx, cy), k -> new LinkedHashSet<>()).add(vehicle);
+        positions.put(vehicle.getVehicleId(), new Location(x, y));
+        minCx = Math.min(minCx, cx); maxCx = Math.max(maxCx, cx);
+        minCy = Math.min(minCy, cy); maxCy = Math.max(maxCy, cy);
+    }
+
+    void remove(Vehicle vehicle) {
+        Location p = positions.remove(vehicle.getVehicleId());
+        if (p == null) return;
+        long key = key(cellOf(p.getX()), cellOf(p.getY()));
+        Set<Vehicle> bucket = cells.get(key);
+        if (bucket != null) {
+            bucket.remove(vehicle);
+            if (bucket.isEmpty()) cells.remove(key);
+        }
+    }
+
+    void clear() {
+        cells.clear();
+        positions.clear();
+        minCx = minCy = Integer.MAX_VALUE;
+        maxCx = maxCy = Integer.MIN_VALUE;
+    }
+
+    /**
+     * (x, y)에서 가까운 순서로 filter를 통과하는 킥보드를 최대 k대 반환한다.
+     */
+    List<Vehicle> nearest(int x, int y, int k, Predicate<Vehicle> filter) {
+        List<Vehicle> result = new ArrayList<>();
+        if (k <= 0 || positions.isEmpty()) return result;
+
+        // 가장 먼 후보가 맨 앞에 오는 크기 k의 힙
+        Comparator<Vehicle> byDistance = Comparator.comparingLong(v -> distanceSq(v, x, y));
+        PriorityQueue<Vehicle> best = new PriorityQueue<>(k, byDistance.reversed());
+
+        // 고리는 사용된 칸 범위에서 질의 지점과 가장 가까운 점(범위 안이면 질의 지점이 있는 칸)을 중심으로 넓힌다.
+        int cx = Math.min(Math.max(cellOf(x), minCx), maxCx);
+        int cy = Math.min(Math.max(cellOf(y), minCy), maxCy);
+        int maxRing = Math.max(Math.max(cx - minCx, maxCx - cx), Math.max(cy - minCy, maxCy - cy));
+        long budget = positions.size(); // 이보다 많은 칸을 훑게 되면 전체를 훑는 편이 싸다
+        for (int r = 0; r <= maxRing; r++) {
+            budget -= ring(cx, cy, r, x, y, k, filter, best);
+            // 아직 보지 않은 칸이 모두 k번째 후보보다 멀면 멈춘다.
+            if (best.size() == k && distanceSq(best.peek(), x, y) <= unvisitedDistanceSq(cx, cy, r, x, y)) break;
+            if (budget < 0) {
+                best.clear();
+                for (Set<Vehicle> bucket : cells.values()) collect(bucket, x, y, k, filter, best);
+                break;
+            }
+        }
+        result.addAll(best);
+        result.sort(byDistance);
+        return result;
+    }
+
+    /**
+     * (x, y)에서 radius 이내이며 filter를 통과하는 킥보드를 가까운 순서로 반환한다.
+     */
+    List<Vehicle> within(int x, int y, double radius, Predicate<Vehicle> filter) {
+        List<Vehicle> result = new ArrayList<>();
+        if (radius < 0 || positions.isEmpty()) return result;
+        double limit = radius * radius;
+        int r = (int) Math.ceil(radius);
+        int fromCx = Math.max(cellOf(x - r), minCx), toCx = Math.min(cellOf(x + r), maxCx);
+        int fromCy = Math.max(cellOf(y - r), minCy), toCy = Math.min(cellOf(y + r), maxCy);
+        if (fromCx > toCx || fromCy > toCy) return result;
+        if ((long) (toCx - fromCx + 1) * (toCy - fromCy + 1) > cells.size()) { // 반경이 대부분의 칸을 덮는다
+            for (Set<Vehicle> bucket : cells.values()) {
+                for (Vehicle v : bucket) {
+                    if (distanceSq(v, x, y) <= limit && filter.test(v)) result.add(v);
+                }
+            }
+        } else {
+            for (int cx = fromCx; cx <= toCx; cx++) {
+                for (int cy = fromCy; cy <= toCy; cy++) {
+                    Set<Vehicle> bucket = cells.get(key(cx, cy));
+                    if (bucket == null) continue;
+                    for (Vehicle v : bucket) {
+                        if (distanceSq(v, x, y) <= limit && filter.test(v)) result.add(v);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(v -> distanceSq(v, x, y)));
+        return result;
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * (cx, cy)를 중심으로 한 r번째 고리 중 사용된 칸 범위 안의 칸을 훑는다.
+     * @return 확인한 칸 수
+     */
+    private long ring(int cx, int cy, int r, int x, int y, int k, Predicate<Vehicle> filter, PriorityQueue<Vehicle> best) {
+        if (r == 0) {
+            collect(cx, cy, x, y, k, filter, best);
+            return 1;
+        }
+        long visited = 0;
+        int fromX = Math.max(cx - r, minCx), toX = Math.min(cx + r, maxCx);
+        for (int cyEdge : new int[] { cy - r, cy + r }) { // 위/아래 변
+            if (cyEdge < minCy || cyEdge > maxCy) continue;
+            for (int gx = fromX; gx <= toX; gx++) collect(gx, cyEdge, x, y, k, filter, best);
+            visited += Math.max(0, toX - fromX + 1);
+        }
+        int fromY = Math.max(cy - r + 1, minCy), toY = Math.min(cy + r - 1, maxCy);
+        for (int cxEdge : new int[] { cx - r, cx + r }) { // 왼쪽/오른쪽 변 (모서리 제외)
+            if (cxEdge < minCx || cxEdge > maxCx) continue;
+            for (int gy = fromY; gy <= toY; gy++) collect(cxEdge, gy, x, y, k, filter, best);
+            visited += Math.max(0, toY - fromY + 1);
+        }
+        return visited;
+    }
+
+    /**
+     * (cx, cy) 중심 r번째 고리까지 본 뒤, 사용된 칸 범위 중 남은 칸(고리 밖의 최대 네 직사각형)까지의 최소 거리 제곱.
+     * 남은 칸이 없으면 Long.MAX_VALUE
+     */
+    private long unvisitedDistanceSq(int cx, int cy, int r, int x, int y) {
+        long min = Long.MAX_VALUE;
+        if (cx - r - 1 >= minCx) min = Math.min(min, distanceSqToCells(x, y, minCx, cx - r - 1, minCy, maxCy));
+        if (cx + r + 1 <= maxCx) min = Math.min(min, distanceSqToCells(x, y, cx + r + 1, maxCx, minCy, maxCy));
+        if (cy - r - 1 >= minCy) min = Math.min(min, distanceSqToCells(x, y, minCx, maxCx, minCy, cy - r - 1));
+        if (cy + r + 1 <= maxCy) min = Math.min(min, distanceSqToCells(x, y, minCx, maxCx, cy + r + 1, maxCy));
+        return min;
+    }
+
+    // (x, y)에서 칸 직사각형 [fromCx..toCx] x [fromCy..toCy]까지의 거리 제곱
+    private static long distanceSqToCells(int x, int y, int fromCx, int toCx, int fromCy, int toCy) {
+        long dx = gap(x, (long) fromCx * CELL_SIZE, (long) toCx * CELL_SIZE + CELL_SIZE - 1);
+        long dy = gap(y, (long) fromCy * CELL_SIZE, (long) toCy * CELL_SIZE + CELL_SIZE - 1);
+        return dx * dx + dy * dy;
+    }
+
+    private static long gap(long v, long lo, long hi) {
+        return v < lo ? lo - v : (v > hi ? v - hi : 0);
+    }
+
+    private void collect(int cx, int cy, int x, int y, int k, Predicate<Vehicle> filter, PriorityQueue<Vehicle> best) {
+        Set<Vehicle> bucket = cells.get(key(cx, cy));
+        if (bucket != null) collect(bucket, x, y, k, filter, best);
+    }
+
+    private void collect(Set<Vehicle> bucket, int x, int y, int k, Predicate<Vehicle> filter, PriorityQueue<Vehicle> best) {
+        for (Vehicle v : bucket) {
+            if (best.size() < k) {
+                if (filter.test(v)) best.add(v);
+            } else if (distanceSq(v, x, y) < distanceSq(best.peek(), x, y) && filter.test(v)) {
+                best.poll();
+                best.add(v);
+            }
+        }
+    }
+
+    // 인덱스에 기록된 위치 기준 거리의 제곱
+    private long distanceSq(Vehicle v, int x, int y) {
+        return positions.get(v.getVehicleId()).distanceSq(x, y);
+    }
+
+    private static int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,291 @@
+package com.kickboard.repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * StateJournal.java     : 상태 변경을 append-only segment log로 기록하는 저널(write-ahead log).
+ *                         data/journal/segment-XXXXXXXX.log 파일에 레코드를 이어 쓰며,
+ *                         스냅샷(kickboard.state) 이후의 레코드만 시작 시 재생한다.
+ *
+ * 레코드 형식 : [int 길이][int CRC32][byte 타입][long 순번][payload]
+ *  - CRC가 맞지 않거나 잘린 레코드를 만나면 해당 세그먼트의 재생을 멈춘다. (기록 중 종료된 꼬리)
+ *
+ * 그룹 커밋 : append()는 파일에 쓰기만 하고, commit()에서 fsync 한다.
+ *            먼저 도착한 스레드가 그때까지 쓰인 모든 레코드를 한 번에 fsync 하므로
+ *            동시에 커밋하는 스레드들은 fsync 한 번을 공유한다.
+ *  - 결제 스레드처럼 인터럽트될 수 있는 스레드도 기록하므로 FileChannel 대신 RandomAccessFile을 쓴다.
+ *    (FileChannel은 인터럽트되면 닫혀 이후의 모든 기록이 실패한다)
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+public final class StateJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 4 + 4 + 1 + 8;
+    private static final long SEGMENT_MAX_BYTES = 4L * 1024 * 1024; // 세그먼트 최대 크기 (4MB)
+    private static final int SNAPSHOT_INTERVAL = 1_000;             // 스냅샷 주기 (레코드 수)
+
+    private final Path dir;
+    private final TreeMap<Long, Long> segmentLastSeq = new TreeMap<>(); // 세그먼트 번호 -> 마지막 순번
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    private RandomAccessFile file; // 현재 세그먼트 (끝에 이어 쓴다)
+    private long segmentIndex;
+    private long segmentBytes;
+    private long lastSeq;          // 마지막으로 쓰인 순번
+    private long recordsSinceSnapshot;
+    private final AtomicLong durableSeq = new AtomicLong(); // fsync가 끝난 마지막 순번
+
+    private StateJournal(Path dir, long lastSeq) {
+        this.dir = dir;
+        this.lastSeq = lastSeq;
+        this.durableSeq.set(lastSeq);
+    }
+
+    /**
+     * 저널을 열고 새 세그먼트에 이어 쓸 준비를 한다.
+     * 기존 세그먼트는 모두 재생이 끝난 상태(lastSeq 이하)로 간주한다.
+     * @param dir 저널 디렉터리
+     * @param lastSeq 복원된 상태에 반영된 마지막 순번
+     */
+    public static StateJournal open(Path dir, long lastSeq) {
+        try {
+            if (!Files.exists(dir)) Files.createDirectories(dir);
+            StateJournal journal = new StateJournal(dir, lastSeq);
+            for (Path p : listSegments(dir)) {
+                journal.segmentLastSeq.put(segmentIndexOf(p), lastSeq);
+            }
+            long next = journal.segmentLastSeq.isEmpty() ? 1 : journal.segmentLastSeq.lastKey() + 1;
+            journal.openSegment(next);
+            return journal;
+        } catch (IOException e) {
+            throw new RuntimeException("저널 열기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 스냅샷 위에 저널 레코드를 재생해 최신 상태를 만든다.
+     * @param dir 저널 디렉터리
+     * @param snapshot 마지막 스냅샷 (journalSequence 이후의 레코드만 반영)
+     * @return 재생이 끝난 상태 (journalSequence = 마지막으로 반영된 순번)
+     */
+    public static AppState replay(Path dir, AppState snapshot) {
+        long seq = snapshot.getJournalSequence();
+        if (!Files.exists(dir)) return snapshot;
+
+        JournalReplay replay = new JournalReplay(snapshot);
+        try {
+            for (Path segment : listSegments(dir)) {
+                seq = replaySegment(segment, seq, replay);
+            }
+        } catch (IOException e) {
+            System.out.println("[경고] 저널을 끝까지 읽지 못했습니다: " + e.getMessage());
+        }
+        if (replay.appliedCount() == 0) return snapshot;
+
+        AppState state = replay.toAppState();
+        state.setJournalSequence(seq);
+        System.out.println("[안내] 저널 레코드 " + replay.appliedCount() + "건을 재생했습니다.");
+        return state;
+    }
+
+    /**
+     * 레코드를 순서대로 기록한다. (fsync는 commit에서 수행)
+     * @return 마지막 레코드의 순번
+     */
+    public long append(JournalRecord... records) {
+        synchronized (writeLock) {
+            try {
+                for (JournalRecord r : records) {
+                    if (segmentBytes >= SEGMENT_MAX_BYTES) rollSegment();
+                    long seq = lastSeq + 1;
+                    ByteBuffer buf = encode(r, seq);
+                    int size = buf.remaining();
+                    file.write(buf.array(), 0, size);
+                    lastSeq = seq;
+                    segmentBytes += size;
+                    recordsSinceSnapshot++;
+                }
+                segmentLastSeq.put(segmentIndex, lastSeq);
+                return lastSeq;
+            } catch (IOException e) {
+                throw new RuntimeException("저널 기록 실패: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * seq까지의 레코드가 디스크에 기록될 때까지 기다린다. (그룹 커밋)
+     */
+    public void commit(long seq) {
+        if (durableSeq.get() >= seq) return;
+        synchronized (syncLock) {
+            if (durableSeq.get() >= seq) return; // 앞선 스레드의 fsync에 함께 포함됨
+            RandomAccessFile target;
+            long upTo;
+            synchronized (writeLock) {
+                target = file;
+                upTo = lastSeq;
+            }
+            try {
+                target.getFD().sync();
+            } catch (IOException e) {
+                // 그 사이 세그먼트가 교체되어 닫혔다면 교체할 때 fsync가 끝난 경우에만 완료다
+                if (durableSeq.get() < upTo) throw new RuntimeException("저널 동기화 실패: " + e.getMessage(), e);
+            }
+            durableSeq.accumulateAndGet(upTo, Math::max);
+        }
+    }
+
+    public long lastSequence() {
+        synchronized (writeLock) {
+            return lastSeq;
+        }
+    }
+
+    // 마지막 스냅샷 이후 쌓인 레코드가 주기를 넘었는지 여부
+    public boolean snapshotDue() {
+        synchronized (writeLock) {
+            return recordsSinceSnapshot >= SNAPSHOT_INTERVAL;
+        }
+    }
+
+    /**
+     * seq까지 반영된 스냅샷이 저장되었음을 알린다.
+     * 새 세그먼트로 넘어간 뒤, seq 이하의 레코드만 가진 세그먼트를 삭제한다.
+     */
+    public void markSnapshot(long seq) {
+        synchronized (writeLock) {
+            try {
+                rollSegment();
+                List<Long> obsolete = new ArrayList<>();
+                for (var e : segmentLastSeq.headMap(segmentIndex).entrySet()) {
+                    if (e.getValue() <= seq) obsolete.add(e.getKey());
+                }
+                for (Long idx : obsolete) {
+                    Files.deleteIfExists(segmentPath(dir, idx));
+                    segmentLastSeq.remove(idx);
+                }
+                recordsSinceSnapshot = lastSeq - seq;
+            } catch (IOException e) {
+                throw new RuntimeException("저널 정리 실패: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                if (file != null && file.getFD().valid()) {
+                    file.getFD().sync();
+                    file.close();
+                    durableSeq.accumulateAndGet(lastSeq, Math::max);
+                }
+            } catch (IOException e) {
+                System.err.println("[경고] 저널 닫기 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    // ===== Helpers =====
+
+    private void openSegment(long index) throws IOException {
+        this.file = new RandomAccessFile(segmentPath(dir, index).toFile(), "rw");
+        file.seek(file.length());
+        this.segmentIndex = index;
+        this.segmentBytes = file.length();
+        segmentLastSeq.put(index, lastSeq);
+    }
+
+    // 현재 세그먼트를 닫기 전에 fsync 해서 commit 대기 중인 레코드가 유실되지 않게 한다.
+    private void rollSegment() throws IOException {
+        file.getFD().sync();
+        file.close();
+        durableSeq.accumulateAndGet(lastSeq, Math::max);
+        openSegment(segmentIndex + 1);
+    }
+
+    private static ByteBuffer encode(JournalRecord r, long seq) {
+        byte[] payload = r.payload();
+        CRC32 crc = new CRC32();
+        crc.update((byte) r.getType().ordinal());
+        crc.update(payload);
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buf.putInt(payload.length);
+        buf.putInt((int) crc.getValue());
+        buf.put((byte) r.getType().ordinal());
+        buf.putLong(seq);
+        buf.put(payload);
+        buf.flip();
+        return buf;
+    }
+
+    private static long replaySegment(Path segment, long seq, JournalReplay replay) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    return seq;
+                }
+                try {
+                    int crcValue = in.readInt();
+                    int typeOrdinal = in.readUnsignedByte();
+                    long recordSeq = in.readLong();
+                    if (length < 0 || typeOrdinal >= JournalRecord.Type.values().length) {
+                        throw new IOException("손상된 레코드 헤더");
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+
+                    CRC32 crc = new CRC32();
+                    crc.update((byte) typeOrdinal);
+                    crc.update(payload);
+                    if ((int) crc.getValue() != crcValue) throw new IOException("CRC 불일치");
+
+                    if (recordSeq <= seq) continue; // 이미 스냅샷에 반영된 레코드
+                    JournalRecord.of(JournalRecord.Type.values()[typeOrdinal], payload).applyTo(replay);
+                    seq = recordSeq;
+                } catch (IOException e) {
+                    System.out.println("[경고] 저널 세그먼트 끝의 손상된 레코드를 무시합니다 ("
+                            + segment.getFileName() + "): " + e.getMessage());
+                    return seq;
+                }
+            }
+        }
+    }
+
+    private static List<Path> listSegments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(segmentIndexOf(a), segmentIndexOf(b)))
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(Path dir, long index) {
+        return dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentIndexOf(Path p) {
+        String name = p.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -1,50 +1,173 @@
 package com.kickboard.repository;
 
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.LatencyHistogram;
+import com.kickboard.metrics.MetricsRegistry;
 import com.kickboard.repository.AppState;
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.util.concurrent.Executor;
 
 /**
  * StateStore.java       : AppState를 단일 파일로 저장/복원하는 유틸리티
- * 						   data/kickboard.state 파일 사용
+ * 						   data/kickboard.state 파일(스냅샷)과 data/journal 저널을 사용
+ * 						   - 평소의 변경은 StateJournal에 레코드로 추가되고,
+ * 						     save()는 주기적인 스냅샷 저장에만 사용한다.
+ * 						   - 스냅샷은 SnapshotCodec의 이진 형식으로 쓴다. Java 직렬화로 저장된
+ * 						     이전 파일도 첫 바이트로 구분해 읽으며, 다음 저장 때 이진 형식으로 바뀐다.
+ * 						   - 시작 단계별 시간을 재려면 loadSnapshot(executor)와 replayJournal()을 따로 호출한다.
  * @author				: Mingwan Kim
  * @email				: steven3407115@dankook.ac.kr
- * @version				: 1.0
- * @date				: 2025.10.07
+ * @version				: 1.2
+ * @date				: 2026.10.18
  */
 public final class StateStore {
 
     private static final Path DATA_DIR = Paths.get("data");
     private static final Path STATE_FILE = DATA_DIR.resolve("kickboard.state");
+    private static final Path STATE_TMP_FILE = DATA_DIR.resolve("kickboard.state.tmp");
+    private static final Path JOURNAL_DIR = DATA_DIR.resolve("journal");
+    private static final Path HISTORY_FILE = DATA_DIR.resolve("history").resolve("rentals.hist");
+    private static final Path PAYMENT_LEDGER_FILE = DATA_DIR.resolve("payments").resolve("ledger.log");
+
+    private static final LatencyHistogram SAVE_LATENCY =
+            MetricsRegistry.global().histogram("kickboard_state_save_seconds", "스냅샷 저장 시간 (StateStore.save)");
+    private static final Counter SAVE_FAILURES =
+            MetricsRegistry.global().counter("kickboard_state_save_failures_total", "스냅샷 저장 실패 수");
 
     private StateStore() {}
 
+    /**
+     * 스냅샷을 읽은 뒤, 스냅샷 이후의 저널 레코드를 재생해 최신 상태를 반환한다.
+     */
     public static AppState loadOrCreate() {
+        return replayJournal(loadSnapshot(Runnable::run));
+    }
+
+    /**
+     * 스냅샷만 읽는다. 이진 스냅샷의 섹션은 executor에서 나눠 해석한다.
+     * 파일이 없으면 빈 상태, 읽지 못하면 원본을 옆으로 옮기고 빈 상태를 반환한다.
+     */
+    public static AppState loadSnapshot(Executor executor) {
         try {
             if (!Files.exists(DATA_DIR)) Files.createDirectories(DATA_DIR);
             if (!Files.exists(STATE_FILE)) {
                 return new AppState(); // 빈 상태
             }
-            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(STATE_FILE))) {
-                Object obj = ois.readObject();
-                return (AppState) obj;
-            }
+            return read(STATE_FILE, executor);
         } catch (Exception e) {
-            // 손상/버전 불일치 등 문제 시 새 상태로 시작
-            System.out.println("[경고] 상태 파일을 읽지 못해 새 상태로 시작합니다: " + e.getMessage());
+            // 손상/버전 불일치 등 문제 시 새 상태로 시작하되, 다음 저장이 덮어쓰지 않도록 원본은 옆으로 옮겨 둔다.
+            Path kept = STATE_FILE.resolveSibling(STATE_FILE.getFileName() + ".unreadable-" + System.currentTimeMillis());
+            try {
+                Files.move(STATE_FILE, kept);
+            } catch (IOException moveError) {
+                kept = STATE_FILE;
+            }
+            System.out.println("[경고] 상태 파일을 읽지 못해 새 상태로 시작합니다: " + e.getMessage()
+                    + " (원본: " + kept.toAbsolutePath() + ")");
             return new AppState();
         }
     }
 
+    /**
+     * 스냅샷 이후의 저널 레코드를 재생한다.
+     * @param snapshot loadSnapshot()으로 읽은 상태
+     */
+    public static AppState replayJournal(AppState snapshot) {
+        return StateJournal.replay(JOURNAL_DIR, snapshot);
+    }
+
+    /**
+     * 복원된 상태 이후부터 이어 쓰는 저널을 연다.
+     * @param restored loadOrCreate()로 복원한 상태
+     */
+    public static StateJournal openJournal(AppState restored) {
+        return StateJournal.open(JOURNAL_DIR, restored.getJournalSequence());
+    }
+
+    /**
+     * 끝난 대여를 보관하는 이력 파일을 연다. (레코드는 조회할 때 읽는다)
+     */
+    public static RentalHistoryStore openHistory() {
+        return RentalHistoryStore.open(HISTORY_FILE);
+    }
+
+    /**
+     * 결제 원장을 연다. (기존 기록을 읽어 최근 대여의 색인을 만든다, -Dkickboard.payment.ledgerIndexRentals)
+     */
+    public static PaymentLedger openPaymentLedger() {
+        return PaymentLedger.open(PAYMENT_LEDGER_FILE,
+                Integer.getInteger("kickboard.payment.ledgerIndexRentals", PaymentLedger.DEFAULT_INDEXED_RENTALS));
+    }
+
+    /**
+     * 스냅샷 파일 하나를 읽는다. 이진 형식과 이전 Java 직렬화 형식을 모두 읽는다.
+     */
+    static AppState read(Path file) throws IOException {
+        return read(file, Runnable::run);
+    }
+
+    static AppState read(Path file, Executor executor) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            if (isJavaSerialized(in)) {
+                try (ObjectInputStream ois = new ObjectInputStream(in)) {
+                    return (AppState) ois.readObject();
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("이전 형식 상태 파일을 해석하지 못했습니다: " + e.getMessage(), e);
+                }
+            }
+            return SnapshotCodec.read(in, executor);
+        }
+    }
+
+    // Java 직렬화 스트림은 0xACED로 시작한다.
+    static boolean isJavaSerialized(InputStream in) throws IOException {
+        in.mark(2);
+        int b0 = in.read(), b1 = in.read();
+        in.reset();
+        return b0 == 0xAC && b1 == 0xED;
+    }
+
+    /**
+     * 스냅샷 저장. 임시 파일에 쓰고 fsync 한 뒤 교체하고, 교체가 디스크에 남도록 디렉터리도 fsync 한다.
+     * 저장 중 종료되어도 이전 스냅샷이 남으며, 돌아온 뒤에는 저널 세그먼트를 지워도 된다.
+     */
     public static void save(AppState state) {
+        long start = System.nanoTime();
         try {
             if (!Files.exists(DATA_DIR)) Files.createDirectories(DATA_DIR);
-            try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(STATE_FILE,
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
-                oos.writeObject(state);
+            // FileChannel은 호출 스레드가 인터럽트되면 닫히므로 파일 스트림의 FD로 동기화한다 (결제 스레드에서도 불린다)
+            try (FileOutputStream file = new FileOutputStream(STATE_TMP_FILE.toFile());
+                 OutputStream out = new BufferedOutputStream(file, 1 << 16)) {
+                SnapshotCodec.write(state, out);
+                out.flush();
+                file.getFD().sync();
+            }
+            try {
+                Files.move(STATE_TMP_FILE, STATE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(STATE_TMP_FILE, STATE_FILE, StandardCopyOption.REPLACE_EXISTING);
             }
+            syncDirectory(DATA_DIR);
         } catch (IOException e) {
+            SAVE_FAILURES.inc();
             throw new RuntimeException("상태 저장 실패: " + e.getMessage(), e);
+        } finally {
+            SAVE_LATENCY.recordSince(start);
+        }
+    }
+
+    // 파일 이름 변경을 디스크에 남긴다. 디렉터리를 열 수 없는 플랫폼(Windows)에서는 건너뛴다.
+    // 디렉터리는 FileChannel로만 동기화할 수 있으므로, 남아 있는 인터럽트 표시를 잠시 내려 채널이 닫히지 않게 한다.
+    static void syncDirectory(Path dir) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException unsupported) {
+            // 디렉터리 fsync를 지원하지 않음
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
         }
     }
 
@@ -52,4 +175,3 @@ public final class StateStore {
         return STATE_FILE;
     }
 }
-
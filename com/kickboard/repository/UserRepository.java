@@ -0,0 +1,102 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.user.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * UserRepository.java   : 사용자 저장소. userId 해시 인덱스로 O(1) 조회를 제공한다.
+ *                         등록 순서를 유지하므로 스냅샷/CSV 출력 순서는 기존과 같다.
+ *                         읽기/쓰기 잠금으로 여러 스레드에서 동시에 사용할 수 있다.
+ * @version              : 1.1
+ * @date                 : 2026.10.18
+ */
+public class UserRepository {
+
+    private final Map<String, User> byId = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void save(User user) {
+        Objects.requireNonNull(user, "user");
+        lock.writeLock().lock();
+        try {
+            byId.put(user.getUserId(), user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 같은 ID가 없을 때만 저장한다. (중복 가입 검사와 저장을 한 번에 수행)
+     * @return true: 저장됨, false: 이미 존재하는 ID
+     */
+    public boolean saveIfAbsent(User user) {
+        Objects.requireNonNull(user, "user");
+        lock.writeLock().lock();
+        try {
+            return byId.putIfAbsent(user.getUserId(), user) == null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(User user) {
+        if (user == null) return;
+        lock.writeLock().lock();
+        try {
+            byId.remove(user.getUserId(), user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public User findById(String userId) {
+        if (userId == null) return null;
+        lock.readLock().lock();
+        try {
+            return byId.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean exists(String userId) {
+        return findById(userId) != null;
+    }
+
+    public List<User> findAll() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byId.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 상태 파일에서 읽은 목록으로 저장소를 다시 채운다.
+    public void loadAll(List<User> users) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            if (users == null) return;
+            for (User u : users) byId.put(u.getUserId(), u);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
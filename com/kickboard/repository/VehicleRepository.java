@@ -0,0 +1,215 @@
+package com.kickboard.repository;
+
+import com.kickboard.domain.vehicle.Location;
+import com.kickboard.domain.vehicle.Vehicle;
+import com.kickboard.domain.vehicle.VehicleStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * VehicleRepository.java : 킥보드 저장소. vehicleId 해시 인덱스와 상태별(VehicleStatus) 보조 인덱스,
+ *                          상태별 위치 격자(SpatialGrid) 인덱스를 유지한다.
+ *                          Vehicle의 상태/위치는 도메인 메서드(unlock/lock/moveTo)로 바뀌므로,
+ *                          바꾼 쪽에서 refresh()를 호출해 인덱스를 맞춰야 한다.
+ *                          읽기/쓰기 잠금으로 여러 스레드에서 동시에 사용할 수 있다.
+ * @version               : 1.2
+ * @date                  : 2026.10.18
+ */
+public class VehicleRepository {
+
+    private final Map<String, Vehicle> byId = new LinkedHashMap<>();
+    private final Map<VehicleStatus, Set<Vehicle>> byStatus = new EnumMap<>(VehicleStatus.class);
+    private final Map<VehicleStatus, SpatialGrid> byArea = new EnumMap<>(VehicleStatus.class);
+    private final Map<String, VehicleStatus> indexedStatus = new HashMap<>(); // 인덱스에 반영된 마지막 상태
+    private final Map<String, Location> indexedLocation = new HashMap<>();    // 인덱스에 반영된 마지막 위치
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public VehicleRepository() {
+        for (VehicleStatus s : VehicleStatus.values()) {
+            byStatus.put(s, new LinkedHashSet<>());
+            byArea.put(s, new SpatialGrid());
+        }
+    }
+
+    public void save(Vehicle vehicle) {
+        Objects.requireNonNull(vehicle, "vehicle");
+        lock.writeLock().lock();
+        try {
+            Vehicle old = byId.put(vehicle.getVehicleId(), vehicle);
+            if (old != null && old != vehicle) unindex(old);
+            reindex(vehicle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 같은 ID가 없을 때만 저장한다.
+     * @return 저장했으면 true
+     */
+    public boolean saveIfAbsent(Vehicle vehicle) {
+        Objects.requireNonNull(vehicle, "vehicle");
+        lock.writeLock().lock();
+        try {
+            if (byId.putIfAbsent(vehicle.getVehicleId(), vehicle) != null) return false;
+            reindex(vehicle);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상태나 위치가 바뀐 킥보드를 인덱스에서 옮긴다.
+     */
+    public void refresh(Vehicle vehicle) {
+        lock.writeLock().lock();
+        try {
+            reindex(vehicle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 여러 대를 한 번의 쓰기 잠금으로 옮긴다. (운영 일괄 작업용)
+     */
+    public void refreshAll(Collection<Vehicle> vehicles) {
+        lock.writeLock().lock();
+        try {
+            for (Vehicle v : vehicles) reindex(v);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Vehicle findById(String vehicleId) {
+        if (vehicleId == null) return null;
+        lock.readLock().lock();
+        try {
+            return byId.get(vehicleId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Vehicle> findAll() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byId.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Vehicle> findByStatus(VehicleStatus status) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byStatus.get(status));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * (x, y)에서 가까운 순서로 해당 상태이면서 배터리가 minBattery% 이상인 킥보드를 최대 k대 찾는다.
+     */
+    public List<Vehicle> findNearest(VehicleStatus status, int x, int y, int k, int minBattery) {
+        lock.readLock().lock();
+        try {
+            return byArea.get(status).nearest(x, y, k, v -> v.getBatteryLevel() >= minBattery);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * (x, y)에서 radius 이내이며 해당 상태이고 배터리가 minBattery% 이상인 킥보드를 가까운 순서로 찾는다.
+     */
+    public List<Vehicle> findWithin(VehicleStatus status, int x, int y, double radius, int minBattery) {
+        lock.readLock().lock();
+        try {
+            return byArea.get(status).within(x, y, radius, v -> v.getBatteryLevel() >= minBattery);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByStatus(VehicleStatus status) {
+        lock.readLock().lock();
+        try {
+            return byStatus.get(status).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadAll(List<Vehicle> vehicles) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            indexedStatus.clear();
+            indexedLocation.clear();
+            for (Set<Vehicle> bucket : byStatus.values()) bucket.clear();
+            for (SpatialGrid grid : byArea.values()) grid.clear();
+            if (vehicles == null) return;
+            for (Vehicle v : vehicles) {
+                byId.put(v.getVehicleId(), v);
+                reindex(v);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Helpers (쓰기 잠금 안에서 호출) =====
+
+    private void reindex(Vehicle vehicle) {
+        String id = vehicle.getVehicleId();
+        VehicleStatus before = indexedStatus.get(id);
+        VehicleStatus now = vehicle.getStatus();
+        Location location = vehicle.getLocation();
+        if (before == now && location.equals(indexedLocation.get(id))) return;
+        if (before != null) {
+            byStatus.get(before).remove(vehicle);
+            byArea.get(before).remove(vehicle);
+        }
+        byStatus.get(now).add(vehicle);
+        indexedStatus.put(id, now);
+        indexedLocation.put(id, location);
+        byArea.get(now).put(vehicle, location.getX(), location.getY());
+    }
+
+    private void unindex(Vehicle vehicle) {
+        VehicleStatus before = indexedStatus.remove(vehicle.getVehicleId());
+        indexedLocation.remove(vehicle.getVehicleId());
+        if (before != null) {
+            byStatus.get(before).remove(vehicle);
+            byArea.get(before).remove(vehicle);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.vehicle.Location;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * FleetBatch.java : 운영자가 킥보드 여러 대에 한 번에 적용할 작업 목록. (재배치/정비용)
+ *                   - reserve   : 사용 가능 → 운영 보류(IN_USE, 대여 없음). 보류 중에는 라이더가 빌릴 수 없다.
+ *                   - maintain  : 사용 가능/운영 보류 → 정비
+ *                   - release   : 운영 보류/정비 → 사용 가능
+ *                   - relocate  : 위치 이동 (라이더가 타고 있는 킥보드는 제외)
+ *                   작업은 넣은 순서대로 적용하므로 같은 킥보드에 reserve → relocate → release를 이어 걸 수 있다.
+ *                   KickboardRentalService.applyFleetBatch()가 성공한 변경을 저널 커밋 한 번으로 남긴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class FleetBatch {
+
+    public enum Operation {
+        RESERVE("보류"), MAINTAIN("정비 전환"), RELEASE("운영 복귀"), RELOCATE("위치 이동");
+
+        private final String displayName;
+
+        Operation(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // 작업 한 건
+    public static final class Item {
+        private final Operation operation;
+        private final String vehicleId;
+        private final Location target; // RELOCATE일 때만
+
+        private Item(Operation operation, String vehicleId, Location target) {
+            this.operation = operation;
+            this.vehicleId = Objects.requireNonNull(vehicleId, "vehicleId");
+            this.target = target;
+        }
+
+        public Operation getOperation() { return operation; }
+        public String getVehicleId() { return vehicleId; }
+        public Location getTarget() { return target; }
+    }
+
+    // 적용하지 못한 작업과 이유
+    public static final class Failure {
+        private final Item item;
+        private final String reason;
+
+        Failure(Item item, String reason) {
+            this.item = item;
+            this.reason = reason;
+        }
+
+        public Item getItem() { return item; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return item.getVehicleId() + " " + item.getOperation().getDisplayName() + ": " + reason;
+        }
+    }
+
+    /**
+     * 적용 결과. 작업마다 따로 검사하므로 일부만 실패할 수 있다. (실패한 작업은 아무것도 바꾸지 않는다)
+     */
+    public static final class Result {
+        private final int applied;
+        private final List<String> changedVehicleIds;
+        private final List<Failure> failures;
+
+        Result(int applied, List<String> changedVehicleIds, List<Failure> failures) {
+            this.applied = applied;
+            this.changedVehicleIds = Collections.unmodifiableList(changedVehicleIds);
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        public int getAppliedCount() { return applied; }
+        public List<String> getChangedVehicleIds() { return changedVehicleIds; }
+        public List<Failure> getFailures() { return failures; }
+        public boolean isAllApplied() { return failures.isEmpty(); }
+
+        @Override
+        public String toString() {
+            return "적용 " + applied + "건, 변경된 킥보드 " + changedVehicleIds.size() + "대, 실패 " + failures.size() + "건";
+        }
+    }
+
+    private final List<Item> items = new ArrayList<>();
+
+    public FleetBatch reserve(Collection<String> vehicleIds) {
+        for (String id : vehicleIds) items.add(new Item(Operation.RESERVE, id, null));
+        return this;
+    }
+
+    public FleetBatch maintain(Collection<String> vehicleIds) {
+        for (String id : vehicleIds) items.add(new Item(Operation.MAINTAIN, id, null));
+        return this;
+    }
+
+    public FleetBatch release(Collection<String> vehicleIds) {
+        for (String id : vehicleIds) items.add(new Item(Operation.RELEASE, id, null));
+        return this;
+    }
+
+    public FleetBatch relocate(String vehicleId, int x, int y) {
+        items.add(new Item(Operation.RELOCATE, vehicleId, new Location(x, y)));
+        return this;
+    }
+
+    public FleetBatch relocate(Map<String, Location> targets) {
+        targets.forEach((id, target) -> items.add(new Item(Operation.RELOCATE, id, Objects.requireNonNull(target, "target"))));
+        return this;
+    }
+
+    public List<Item> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
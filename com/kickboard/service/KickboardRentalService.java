@@ -2,180 +2,439 @@ package com.kickboard.service;
 
 import com.kickboard.domain.factory.CreditCardFactory;
 import com.kickboard.domain.factory.KakaoPayFactory;
-import com.kickboard.domain.factory.PaymentFactory;
 import com.kickboard.domain.payment.PaymentFactoryManager;
+import com.kickboard.domain.payment.PaymentGateway;
 import com.kickboard.domain.rental.Payment;
 import com.kickboard.domain.rental.Rental;
 import com.kickboard.domain.rental.RentalStatus;
 import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.payment.PaymentMethodType;
 import com.kickboard.domain.user.User;
+import com.kickboard.domain.vehicle.Location;
 import com.kickboard.domain.vehicle.Vehicle;
 import com.kickboard.domain.vehicle.VehicleStatus;
 import com.kickboard.domain.notification.StatusEvent;
+import com.kickboard.domain.notification.StatusEventBus;
 import com.kickboard.domain.notification.StatusObserver;
+import com.kickboard.domain.pricing.FareMeter;
 import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
 import com.kickboard.domain.pricing.discount.CardDiscountDecorator;
 import com.kickboard.domain.pricing.discount.CouponDiscountDecorator;
+import com.kickboard.domain.pricing.discount.DiscountPipeline;
 import com.kickboard.domain.pricing.discount.DistanceDiscountDecorator; 
 import com.kickboard.domain.pricing.discount.PromotionDecorator;
-import com.kickboard.domain.pricing.strategy.DistanceFeeStrategy;
 import com.kickboard.domain.pricing.strategy.FeeStrategy;
-import com.kickboard.domain.pricing.strategy.TimeFeeStrategy;
+import com.kickboard.domain.pricing.tariff.TariffRegistry;
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.LatencyHistogram;
+import com.kickboard.metrics.MetricsFileExporter;
+import com.kickboard.metrics.MetricsRegistry;
+import com.kickboard.repository.CsvExportWorker;
 import com.kickboard.repository.CsvExporter;
+import com.kickboard.repository.JournalRecord;
+import com.kickboard.repository.PaymentLedger;
+import com.kickboard.repository.RentalRepository;
+import com.kickboard.repository.RentalHistoryStore;
+import com.kickboard.repository.StateJournal;
 import com.kickboard.repository.StateStore;
+import com.kickboard.repository.VehicleRepository;
+import com.kickboard.simulator.FleetSimulator;
+import com.kickboard.simulator.InProcessTelemetryTransport;
+import com.kickboard.simulator.PaymentGatewaySimulator;
+import com.kickboard.simulator.SocketTelemetryTransport;
+import com.kickboard.simulator.TelemetryCommand;
+import com.kickboard.simulator.TelemetryTransport;
+import com.kickboard.simulator.TelemetryUpdate;
 
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap; // 추가
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map; // 추가
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * KickboardRentalService.java : 대여/반납/결제 흐름을 담당하는 서비스 (싱글톤)
+ *                               여러 스레드(라이더)가 동시에 호출할 수 있다.
+ *                               - 킥보드 선점은 Vehicle.unlock()의 원자적 상태 전이로,
+ *                               - 사용자당 진행 중 대여 1건은 RentalRepository.saveIfNoActive()로 보장한다.
+ *                               운영자의 일괄 작업(보류/정비/복귀/이동)은 applyFleetBatch()로 한 번의 저널 커밋에 남긴다.
+ *                               로그인 상태는 전역 필드 대신 login()이 발급하는 Session으로 전달받는다.
+ */
 public class KickboardRentalService {
 
-    private static KickboardRentalService instance;
+    // 최초 getInstance() 호출 시 한 번만 생성 (클래스 초기화가 스레드 안전성을 보장)
+    private static final class Holder {
+        private static final KickboardRentalService INSTANCE = new KickboardRentalService();
+    }
 
-    private User currentUser;
-    private final List<Vehicle> kickboards;
-    private final List<Rental> rentals;
-    private final List<StatusObserver> observers;
-    private final List<FeeStrategy> feeStrategies;
+    private final SessionManager sessions;
+    private final VehicleRepository kickboards;
+    private final RentalRepository rentals;
+    private final RentalHistoryStore history; // 끝난 대여 보관 (메모리에는 진행 중인 대여만 둔다)
+    private final PaymentLedger payments; // 결제 시도 기록 (승인된 결제는 대여마다 한 번만)
+    private final PaymentPipeline paymentPipeline; // 결제사 승인 요청 (결제사별 실행기, 시간 제한, 재시도, 회로 차단)
+    private final PaymentHolds paymentHolds; // 대여 시작 시 결제 보류, 반납 시 확정
+    private final PaymentVelocity paymentVelocity; // 카드/사용자별 최근 결제 건수와 금액 한도
+    private final Map<String, CompletableFuture<Boolean>> paymentsInFlight = new ConcurrentHashMap<>(); // rentalId -> 진행 중인 결제
+    private final ExecutorService finalizer; // 결제가 끝난 반납의 확정 (저널/이력 파일 쓰기가 결제사 실행기를 잡지 않도록)
+    private final StatusEventBus eventBus; // 옵저버 호출은 구독별 전달 스레드에서 (요청 스레드는 큐에 넣기만 한다)
+    private final TariffRegistry tariffs; // 요금 전략 (요금표 파일, 바뀌면 다시 읽는다)
     private final UserService userService;
     private final Map<String, BigDecimal> cardDiscountTable; // 추가
-    private PaymentFactory paymentFactory; // 추가 1120
+    private final StateJournal journal; // 변경 기록용 저널 (스냅샷 이후 변경분)
+    private final CsvExportWorker csvExport; // 종료할 때 마지막 스냅샷을 백그라운드에서 CSV로 내보낸다
+    private final StartupTimings startup; // 시작 단계별 소요 시간과 첫 대여까지 걸린 시간
+    private final CompletableFuture<Void> backgroundStartup; // 준비 완료 뒤에 이어서 하는 시작 작업
+    private final Map<String, FareMeter> fareMeters = new ConcurrentHashMap<>(); // rentalId -> 진행 중 대여의 실시간 요금기
+    private final Set<String> fleetHeld = ConcurrentHashMap.newKeySet(); // 운영 보류 중인 킥보드 (IN_USE지만 대여 없음)
+    private static final int STARTUP_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long CSV_EXPORT_WAIT_MILLIS = 30_000; // 종료 시 진행 중인 CSV 내보내기를 기다리는 최대 시간
+    private static final int FINALIZE_THREADS = 4; // 반납 확정 스레드 (저널 묶음 커밋에 함께 실리도록 여럿)
+    private static final long FINALIZE_WAIT_MILLIS = 30_000; // 종료 시 진행 중인 반납 확정을 기다리는 최대 시간
+    private static final int MIN_RENT_BATTERY = 15; // 대여 가능한 최소 배터리 (%)
+
+    // 지표 (metrics 명령과 지표 파일로 확인). 저장소는 StateStore, UserService와 함께 쓴다.
+    private final MetricsRegistry metrics = MetricsRegistry.global();
+    private final LatencyHistogram rentLatency = metrics.histogram("kickboard_rent_seconds", "대여 처리 시간 (rentKickboard)");
+    private final Counter rentSucceeded = metrics.counter("kickboard_rent_total", "대여 요청 수", "result", "success");
+    private final Counter rentFailed = metrics.counter("kickboard_rent_total", "대여 요청 수", "result", "failure");
+    private final LatencyHistogram returnRoundTrip = metrics.histogram("kickboard_simulator_return_seconds",
+            "반납 요청부터 시뮬레이터 LOCKED 응답까지 걸린 시간 (stopSimulatorAndUpdateRental)");
+    private final Counter returnTimeouts = metrics.counter("kickboard_simulator_return_timeouts_total",
+            "시뮬레이터가 제한 시간 안에 응답하지 않은 반납 수");
+    private final LatencyHistogram paymentLatency = metrics.histogram("kickboard_payment_seconds",
+            "결제 및 반납 확정 처리 시간 (processPaymentAndFinalize)");
+    private final Counter paymentApproved = metrics.counter("kickboard_payment_total", "결제 시도 수", "result", "approved");
+    private final Counter paymentDeclined = metrics.counter("kickboard_payment_total", "결제 시도 수", "result", "declined");
+    private final LatencyHistogram fleetBatchLatency = metrics.histogram("kickboard_fleet_batch_seconds",
+            "운영 일괄 작업 처리 시간 (applyFleetBatch, 저널 커밋 포함)");
+    private final Counter fleetItemsApplied = metrics.counter("kickboard_fleet_batch_items_total", "운영 일괄 작업 건수", "result", "applied");
+    private final Counter fleetItemsFailed = metrics.counter("kickboard_fleet_batch_items_total", "운영 일괄 작업 건수", "result", "failed");
+    private final MetricsFileExporter metricsExport; // 주기적으로 지표 파일을 쓴다
+    private static final Path METRICS_FILE = Paths.get(System.getProperty("kickboard.metrics.file", "data/metrics.prom"));
+    private static final long METRICS_EXPORT_MILLIS = Long.getLong("kickboard.metrics.intervalSeconds", 15) * 1_000;
+    private static final Path TARIFF_FILE = Paths.get(System.getProperty("kickboard.tariff.file", "data/tariffs.csv"));
+    private static final long TARIFF_RELOAD_MILLIS = Long.getLong("kickboard.tariff.reloadSeconds", 10) * 1_000;
+    private static final Money PAYMENT_HOLD_AMOUNT = Money.ofWon(Long.getLong("kickboard.payment.holdWon", 5_000));
+    private static final long PAYMENT_HOLD_MILLIS = Long.getLong("kickboard.payment.holdMinutes", 120) * 60_000;
 
     // 시뮬레이션 연동을 위한 변수 추가
     private static final Path SIMULATION_DIR = Paths.get("simulation");
-    private static final Path DRIVING_STATUS_FILE = SIMULATION_DIR.resolve("driving_status.txt");
+    private static final Path TELEMETRY_SOCKET = SIMULATION_DIR.resolve("telemetry.sock");
+    private static final long RETURN_TIMEOUT_MILLIS = 5_000; // 반납 요청 후 LOCKED 응답 대기 시간
+    private static final long FLEET_TICK_MILLIS = Long.getLong("kickboard.fleet.tickMillis", 200); // 프로세스 내 주행 간격
+    private final TelemetryTransport telemetry; // 시뮬레이터와 주행 정보를 주고받는 채널
+    private final FleetSimulator fleet; // 프로세스 내 전송일 때만 사용 (아니면 null)
 
     private KickboardRentalService() {
-        this.kickboards = new ArrayList<>();
-        this.rentals = new ArrayList<>();
-        this.observers = new ArrayList<>();
-        this.feeStrategies = new ArrayList<>();
-        this.currentUser = null;
+        this.startup = new StartupTimings();
+        ExecutorService startupPool = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
+        // 시뮬레이터 채널과 이력 파일은 상태 복원과 동시에 연다.
+        CompletableFuture<TelemetryTransport> telemetryOpen =
+                CompletableFuture.supplyAsync(KickboardRentalService::openTelemetry, startupPool);
+        CompletableFuture<RentalHistoryStore> historyOpen =
+                CompletableFuture.supplyAsync(StateStore::openHistory, startupPool);
+        CompletableFuture<PaymentLedger> ledgerOpen =
+                CompletableFuture.supplyAsync(StateStore::openPaymentLedger, startupPool);
+
+        this.kickboards = new VehicleRepository();
+        this.eventBus = new StatusEventBus();
+        this.sessions = new SessionManager();
         this.userService = new UserService();
         this.cardDiscountTable = new HashMap<>(); // 초기화
 
         System.out.println("KickboardRentalService가 생성되었습니다.");
 
-        // Factory로 전환 예정.
-        this.feeStrategies.add(new TimeFeeStrategy());
-        this.feeStrategies.add(new DistanceFeeStrategy());
+        // 요금 전략은 요금표 파일에서 (모델/구역/시간대별 요율, 파일이 없으면 분당 200원, km당 200원)
+        this.tariffs = new TariffRegistry(TARIFF_FILE, TARIFF_RELOAD_MILLIS);
+        this.paymentPipeline = new PaymentPipeline(openPaymentGateways(), PaymentPipeline.Options.fromSystemProperties(), metrics);
+        this.paymentVelocity = new PaymentVelocity(PaymentVelocity.Options.fromSystemProperties(), metrics);
+        this.finalizer = Executors.newFixedThreadPool(FINALIZE_THREADS, r -> {
+            Thread t = new Thread(r, "rental-finalize");
+            t.setDaemon(true);
+            return t;
+        });
         
         // 카드 할인 정보 추가(key는 CARD_BIN_MAP의 key와 동일)
         this.cardDiscountTable.put("Hyundai", new BigDecimal("0.10"));
         this.cardDiscountTable.put("Samsung", new BigDecimal("0.05"));
         
-        com.kickboard.repository.AppState state = com.kickboard.repository.StateStore.loadOrCreate();
-        // UserService에 사용자 데이터 로드 위임
-        userService.loadUsers(state.getUsers());
-        
-        if (state.getVehicles() != null) this.kickboards.addAll(state.getVehicles());
-        if (state.getRentals() != null) this.rentals.addAll(state.getRentals());
-        
-        // UserService에 인증 위임
-        if (state.getCurrentUserId() != null) {
-            userService.authenticateWithId(state.getCurrentUserId());
-            this.currentUser = userService.getCurrentUser();
+        long begin = System.nanoTime();
+        com.kickboard.repository.AppState snapshot = StateStore.loadSnapshot(startupPool); // 섹션별로 동시에 해석
+        startup.record("스냅샷 복원", begin);
+        begin = System.nanoTime();
+        com.kickboard.repository.AppState state = StateStore.replayJournal(snapshot);
+        this.journal = StateStore.openJournal(state);
+        startup.record("저널 재생", begin);
+
+        begin = System.nanoTime();
+        this.history = historyOpen.join();
+        this.payments = ledgerOpen.join();
+        this.paymentHolds = new PaymentHolds(paymentPipeline, payments, PAYMENT_HOLD_AMOUNT, PAYMENT_HOLD_MILLIS, metrics);
+        this.rentals = new RentalRepository(history, kickboards::findById);
+        this.csvExport = new CsvExportWorker(CsvExporter.Options.fromSystemProperties(), history);
+        this.telemetry = telemetryOpen.join();
+        this.fleet = (telemetry instanceof InProcessTelemetryTransport inProcess)
+                ? new FleetSimulator(inProcess, FLEET_TICK_MILLIS) : null;
+        startup.record("이력/시뮬레이터 연결 대기", begin);
+
+        // 저장소마다 잠금이 따로 있으므로 동시에 채운다. (UserService에 사용자 데이터 로드 위임)
+        begin = System.nanoTime();
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> userService.loadUsers(state.getUsers()), startupPool),
+                CompletableFuture.runAsync(() -> kickboards.loadAll(state.getVehicles()), startupPool),
+                CompletableFuture.runAsync(() -> rentals.loadAll(state.getRentals()), startupPool)).join();
+        startup.record("저장소 적재", begin);
+
+        // 운영 보류는 따로 저장하지 않는다. 대여 없이 IN_USE인 킥보드가 보류 중인 킥보드이다.
+        Set<String> rented = rentals.findActiveVehicleIds();
+        for (Vehicle v : kickboards.findByStatus(VehicleStatus.IN_USE)) {
+            if (!rented.contains(v.getVehicleId())) fleetHeld.add(v.getVehicleId());
+        }
+
+        // 재시작 전에 걸어 둔 결제 보류 (원장의 마지막 보류 기록이 승인인 진행 중 대여)
+        begin = System.nanoTime();
+        List<Rental> open = new ArrayList<>();
+        for (Rental r : rentals.findAll()) {
+            if (r.getStatus() == RentalStatus.ACTIVE || r.getStatus() == RentalStatus.PAYMENT_PENDING) open.add(r);
+        }
+        int restoredHolds = paymentHolds.restore(open);
+        if (restoredHolds > 0) {
+            startup.record("결제 보류 복원", begin);
+            System.out.println("[안내] 진행 중인 대여의 결제 보류 " + restoredHolds + "건을 다시 걸었습니다.");
         }
 
         if (this.kickboards.isEmpty()) {
-            Vehicle kickboard1 = new Vehicle("KB001", "Model S", "5,5", 85);
-            Vehicle kickboard2 = new Vehicle("KB002", "Model A", "10,10", 100);
-            Vehicle kickboard3 = new Vehicle("KB003", "Model T", "0,0", 14); // 배터리 테스트용
-            this.kickboards.add(kickboard1);
-            this.kickboards.add(kickboard2);
-            this.kickboards.add(kickboard3);
+            Vehicle kickboard1 = new Vehicle("KB001", "Model S", 5, 5, 85);
+            Vehicle kickboard2 = new Vehicle("KB002", "Model A", 10, 10, 100);
+            Vehicle kickboard3 = new Vehicle("KB003", "Model T", 0, 0, 14); // 배터리 테스트용
+            this.kickboards.save(kickboard1);
+            this.kickboards.save(kickboard2);
+            this.kickboards.save(kickboard3);
             System.out.println("[안내] 테스트용 킥보드 데이터 " + this.kickboards.size() + "개를 생성했습니다.");
+            saveState(); // 초기 데이터는 스냅샷으로 남긴다
         }
+        startup.markReady();
+        System.out.println("[시작] " + startup);
+        registerGauges();
+        this.metricsExport = new MetricsFileExporter(metrics, METRICS_FILE, METRICS_EXPORT_MILLIS);
+
+        // 이전 스냅샷/저널에 남아 있던 끝난 대여 정리와 이력 색인은 요청을 받으면서 뒤에서 한다.
+        this.backgroundStartup = CompletableFuture.runAsync(this::finishStartup, startupPool)
+                .whenComplete((ignored, e) -> startupPool.shutdown());
     }
 
-    public static KickboardRentalService getInstance() {
-        if (instance == null) {
-            instance = new KickboardRentalService();
+    // 읽을 때 값을 가져오는 지표 (옵저버 큐는 구독이 바뀔 수 있으므로 출력할 때마다 모은다)
+    private void registerGauges() {
+        metrics.gauge("kickboard_sessions", "로그인 세션 수", sessions::size);
+        metrics.gauge("kickboard_payment_ledger_entries", "결제 원장에 기록된 결제 시도 수", payments::size);
+        metrics.gauge("kickboard_tariff_version", "적용 중인 요금표 버전 (다시 읽을 때마다 1씩 증가)", () -> tariffs.getVersion());
+        metrics.gauge("kickboard_rentals_in_memory", "메모리에 있는 대여 수 (진행 중 + 이력 이동 전)", rentals::size);
+        metrics.gauge("kickboard_startup_ready_seconds", "서비스 생성부터 요청을 받을 수 있을 때까지 걸린 시간",
+                () -> startup.getReadyMillis() / 1e3);
+        metrics.gauge("kickboard_startup_first_rent_seconds", "서비스 생성부터 첫 대여까지 걸린 시간 (아직 없으면 -1)",
+                () -> startup.getFirstRentMillis() < 0 ? -1 : startup.getFirstRentMillis() / 1e3);
+        metrics.collector(out -> {
+            startup.getPhaseMillis().forEach((phase, millis) ->
+                    out.gauge("kickboard_startup_phase_seconds", "시작 단계별 소요 시간", millis / 1e3, "phase", phase));
+            for (StatusEventBus.Subscription sub : eventBus.getSubscriptions()) {
+                String observer = sub.getObserver().getClass().getSimpleName();
+                out.gauge("kickboard_observer_queue_depth", "옵저버 큐에 쌓인 이벤트 수", sub.getQueueDepth(), "observer", observer);
+                out.gauge("kickboard_observer_lag_seconds", "마지막 이벤트가 큐에서 기다린 시간", sub.getLastLagMillis() / 1e3, "observer", observer);
+                out.gauge("kickboard_observer_lag_max_seconds", "이벤트가 큐에서 기다린 최대 시간", sub.getMaxLagMillis() / 1e3, "observer", observer);
+                out.counter("kickboard_observer_delivered_total", "옵저버에 전달한 이벤트 수", sub.getDeliveredCount(), "observer", observer);
+                out.counter("kickboard_observer_dropped_total", "큐가 가득 차 버린 이벤트 수", sub.getDroppedCount(), "observer", observer);
+                out.counter("kickboard_observer_failed_total", "옵저버가 예외를 던진 이벤트 수", sub.getFailedCount(), "observer", observer);
+            }
+        });
+    }
+
+    private void finishStartup() {
+        try {
+            long begin = System.nanoTime();
+            int archived = this.rentals.archiveCompleted();
+            if (archived > 0) {
+                saveState(); // 옮긴 대여가 빠진 스냅샷
+                startup.record("끝난 대여 이력 이동", begin);
+                System.out.println("[안내] 끝난 대여 " + archived + "건을 이력 파일로 옮겼습니다.");
+            }
+            begin = System.nanoTime();
+            history.preload();
+            startup.record("이력 색인", begin);
+        } catch (RuntimeException e) {
+            System.err.println("[경고] 시작 후 정리 작업 실패: " + e.getMessage());
         }
-        return instance;
+    }
+
+    public static KickboardRentalService getInstance() {
+        return Holder.INSTANCE;
     }
 
     // =================== Public API for UI Layer ===================
 
-    public User login(String userId, String password) {
-        if (userService.authenticate(userId, password)) {
-            this.currentUser = userService.getCurrentUser();
-            saveState();
-            return this.currentUser;
-        }
-        return null;
+    /**
+     * 로그인에 성공하면 새 세션을 발급한다.
+     * @return 발급된 세션 (실패 시 null)
+     */
+    public Session login(String userId, String password) {
+        User user = userService.authenticate(userId, password);
+        if (user == null) return null;
+        return sessions.open(user);
     }
 
-    public void logout() {
-        if (this.currentUser == null) {
-            return; // Or throw exception
-        }
-        userService.logout();
-        this.currentUser = null;
-        saveState();
+    public void logout(Session session) {
+        sessions.close(session);
+    }
+
+    /**
+     * 토큰으로 유효한 세션을 찾는다. (만료되었거나 없으면 null)
+     */
+    public Session findSession(String token) {
+        return sessions.find(token);
+    }
+
+    /**
+     * 세션의 사용자를 반환한다. (세션이 만료되었거나 로그아웃되었으면 null)
+     */
+    public User getSessionUser(Session session) {
+        Session valid = (session == null) ? null : sessions.find(session.getToken());
+        return (valid == null) ? null : valid.getUser();
     }
 
     public boolean register(String userId, String password, String licenseNumber) {
         boolean success = userService.register(userId, password, licenseNumber);
         if (success) {
-            saveState();
+            persist(JournalRecord.user(userService.findUserById(userId)));
         }
         return success;
     }
 
-    public User getCurrentUser() {
-        return this.currentUser;
+    // 결제수단을 User에 추가하는 래퍼 메서드 (변경된 사용자를 저널에 기록)
+    public boolean addPaymentMethod(Session session, PaymentMethodType type, String identifier, String password, String alias, String companyName)
+            throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        boolean ok = userService.addPaymentMethod(type, user.getUserId(), identifier, password, alias, companyName);
+        if (ok) persist(JournalRecord.user(user));
+        return ok;
+    }
+
+    // 결제수단 잔액을 충전한다. (변경된 사용자를 저널에 기록)
+    public void topUpPaymentMethod(Session session, PaymentMethod method, Money amount)
+            throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        if (user.getPaymentMethods().stream().noneMatch(m -> m == method)) {
+            throw new com.kickboard.exception.KickboardException("오류: 등록된 결제수단이 아닙니다.");
+        }
+        if (amount.signum() <= 0) {
+            throw new com.kickboard.exception.KickboardException("오류: 충전 금액은 0원보다 커야 합니다.");
+        }
+        method.topUp(amount);
+        persist(JournalRecord.user(user));
+    }
+
+    /**
+     * 킥보드를 새로 등록한다. (운영/부하 테스트용 대량 등록)
+     * @return 같은 ID의 킥보드가 이미 있으면 false
+     */
+    public boolean addKickboard(Vehicle vehicle) {
+        if (!this.kickboards.saveIfAbsent(vehicle)) return false;
+        persist(JournalRecord.vehicle(vehicle));
+        return true;
     }
 
     public List<Vehicle> getKickboards() {
-        return new ArrayList<>(this.kickboards); // Return a copy
+        return this.kickboards.findAll(); // Return a copy
     }
 
     public UserService getUserService() {
         return this.userService;
     }
 
-    public void shutdown() {
-        saveState();
-        CsvExporter.exportToCsv(StateStore.loadOrCreate());
+    public StartupTimings getStartupTimings() {
+        return this.startup;
     }
 
-    public Rental findActiveRentalForUser(User user) {
-        if (user == null) return null;
-        for (Rental rental : this.rentals) {
-            if (rental.getUser().getUserId().equals(user.getUserId()) && rental.getStatus() == RentalStatus.ACTIVE) {
-                return rental;
+    public MetricsRegistry getMetrics() {
+        return this.metrics;
+    }
+
+    public void shutdown() {
+        backgroundStartup.join(); // 이력 이동 중에 닫지 않도록
+        csvExport.submit(saveState()); // 운영 중의 주기적 스냅샷은 내보내지 않는다 (이력 전체를 다시 쓰므로)
+        paymentHolds.close();
+        paymentVelocity.close();
+        paymentPipeline.close(); // 진행 중인 결제를 마친 뒤 원장을 닫는다
+        finalizer.shutdown(); // 결제가 끝난 반납을 확정한 뒤 저널을 닫는다
+        try {
+            if (!finalizer.awaitTermination(FINALIZE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                System.err.println("[경고] 반납 확정이 " + FINALIZE_WAIT_MILLIS + "ms 안에 끝나지 않았습니다.");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return null;
+        journal.close();
+        payments.close();
+        sessions.shutdown();
+        eventBus.close(); // 남은 이벤트 전달 후 종료
+        if (fleet != null) fleet.close();
+        telemetry.close();
+        tariffs.close();
+        csvExport.close(CSV_EXPORT_WAIT_MILLIS); // 마지막 스냅샷의 내보내기는 위의 정리와 동시에 진행된다
+        history.close(); // 내보내기가 이력 파일을 읽으므로 그 뒤에 닫는다
+        metricsExport.close(); // 종료 시점의 지표를 마지막으로 쓴다
+    }
+
+    public Rental findActiveRentalForUser(Session session) throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        return this.rentals.findActiveByUser(user.getUserId());
     }
 
-    public List<Rental> getRentalHistoryForUser(User user) {
-        List<Rental> result = new ArrayList<>();
-        if (user == null) return result;
+    public List<Rental> getRentalHistoryForUser(Session session) throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        return this.rentals.findHistoryByUser(user);
+    }
 
-        for (Rental r : this.rentals) {
-            if (r.getUser() != null &&
-                r.getUser().getUserId().equals(user.getUserId())) {
-                result.add(r);
-            }
-        }
-        return result;
+    // 상태별 킥보드 목록 (상태 인덱스 사용)
+    public List<Vehicle> getKickboardsByStatus(VehicleStatus status) {
+        return this.kickboards.findByStatus(status);
     }
     
+    /**
+     * (x, y)에서 가까운 순서로 지금 대여할 수 있는 킥보드(AVAILABLE, 배터리 충분)를 최대 count대 찾는다.
+     */
+    public List<Vehicle> findNearbyKickboards(int x, int y, int count) {
+        return this.kickboards.findNearest(VehicleStatus.AVAILABLE, x, y, count, MIN_RENT_BATTERY);
+    }
+
+    /**
+     * (x, y)에서 radius 이내의 대여 가능한 킥보드를 가까운 순서로 찾는다.
+     */
+    public List<Vehicle> findKickboardsWithin(int x, int y, double radius) {
+        return this.kickboards.findWithin(VehicleStatus.AVAILABLE, x, y, radius, MIN_RENT_BATTERY);
+    }
+
     public List<FeeStrategy> getFeeStrategies() {
-        return new ArrayList<>(this.feeStrategies);
+        return this.tariffs.getStrategies();
     }
 
     //getAvailablePromitions 수정
@@ -220,157 +479,305 @@ public class KickboardRentalService {
 
 
     // 쿠폰을 User에 추가하는 래퍼 메서드
-    public boolean addCouponForUser(String userId, String couponId, BigDecimal rate) {
-        boolean ok = userService.addCouponToUser(userId, couponId, rate);
-        if (ok) saveState();   
+    public boolean addCouponForUser(Session session, String couponId, BigDecimal rate) throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        boolean ok = userService.addCouponToUser(user.getUserId(), couponId, rate);
+        if (ok) persist(JournalRecord.user(user));
         return ok;
     }
 
-    // 사용된 쿠폰을 제거하는 메소드
-    public void removeUsedCoupons(Rental rental, List<PromotionDecorator> promotions, List<Integer> selectedIndexes) {
-        User user = rental.getUser();
-        if (user == null) return;
-
-        for (Integer idx : selectedIndexes) {
-            if (idx < 0 || idx >= promotions.size()) continue;
-
-            PromotionDecorator promo = promotions.get(idx);
-
-            if (promo instanceof CouponDiscountDecorator c) {
-                if (user.getCoupons().containsKey(c.getCouponId())) {
-                    user.getCoupons().remove(c.getCouponId());
-                    System.out.println("[안내] 쿠폰 '" + c.getCouponId() + "'은 사용되어 삭제되었습니다.");
-                }
+    // 결제된 요금에 쓰인 쿠폰을 제거하는 메소드 (반납 확정과 같은 저널 기록에 남긴다)
+    private void removeUsedCoupons(User user, Fee finalFee) {
+        for (PromotionDecorator promo : DiscountPipeline.rulesOf(finalFee)) {
+            if (promo instanceof CouponDiscountDecorator c && user.removeCoupon(c.getCouponId())) {
+                System.out.println("[안내] 쿠폰 '" + c.getCouponId() + "'은 사용되어 삭제되었습니다.");
             }
         }
-        saveState();
     }
 
-    public Rental stopSimulatorAndUpdateRental(Rental rental) throws com.kickboard.exception.KickboardException {
+    public Rental stopSimulatorAndUpdateRental(Session session, Rental rental) throws com.kickboard.exception.KickboardException {
+        requireOwnRental(session, rental);
+        String vehicleId = rental.getVehicle().getVehicleId();
+        long start = System.nanoTime();
         try {
             // 1. 반납 요청 명령 전송
-            Files.writeString(DRIVING_STATUS_FILE, "RETURN_REQUESTED", StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-
-            // 2. 시뮬레이터가 응답(LOCKED)할 때까지 최대 5초간 폴링
-            String finalStatusLine = null;
-            for (int i = 0; i < 50; i++) { // 50 * 100ms = 5 seconds
-                String currentStatusLine = Files.readString(DRIVING_STATUS_FILE);
-                if (currentStatusLine.startsWith("LOCKED")) {
-                    finalStatusLine = currentStatusLine;
-                    break; // 시뮬레이터의 응답 확인, 루프 탈출
-                }
-                TimeUnit.MILLISECONDS.sleep(100);
-            }
+            telemetry.send(vehicleId, TelemetryCommand.RETURN_REQUESTED);
 
-            if (finalStatusLine == null) {
+            // 2. 시뮬레이터가 응답(LOCKED)할 때까지 최대 5초간 대기 (도착 즉시 깨어난다)
+            TelemetryUpdate finalStatus = telemetry.awaitStatus(vehicleId, TelemetryUpdate.Status.LOCKED, RETURN_TIMEOUT_MILLIS);
+            returnRoundTrip.recordSince(start);
+
+            if (finalStatus == null) {
+                returnTimeouts.inc();
                 // 시뮬레이터가 응답하지 않으면, 현재 rental 객체의 마지막 정보를 사용합니다.
                 System.err.println("[경고] 시뮬레이터가 최종 상태를 응답하지 않았습니다. 마지막으로 알려진 주행 정보를 사용합니다.");
                 return rental; // 현재 rental 객체를 그대로 반환
             }
 
-            // 3. 최종 상태 파싱 및 업데이트
-            String[] parts = finalStatusLine.split(",");
-            if (parts.length < 6) {
-                throw new com.kickboard.exception.KickboardException("오류: 시뮬레이터로부터 잘못된 최종 상태를 받았습니다.");
-            }
-            
-            String newLocation = String.format("%s,%s", parts[2], parts[3]);
-            double newDistance = Double.parseDouble(parts[4]);
-            int newBattery = Integer.parseInt(parts[5]);
-
-            rental.getVehicle().setCurrentLocation(newLocation);
-            rental.getVehicle().setBatteryLevel(newBattery);
-            rental.updateTraveledDistance(newDistance);
+            // 3. 최종 상태 반영
+            applyTelemetry(rental, finalStatus);
             return rental;
 
-        } catch (IOException | InterruptedException e) {
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new com.kickboard.exception.KickboardException("오류: 시뮬레이터와 통신 중 문제가 발생했습니다: " + e.getMessage());
         }
     }
 
-    public boolean processPaymentAndFinalize(Rental rental, Fee finalFee, PaymentMethod paymentMethod) {
-        BigDecimal cost = finalFee.getFinalCost();
-        
-        boolean paymentSuccess = processPayment(rental, paymentMethod, cost);
+    /**
+     * 결제 후 반납을 확정한다. 결제사 응답을 기다리는 동안 이 스레드가 막힌다. (콘솔 화면용)
+     * @throws com.kickboard.exception.KickboardException 결제사 응답을 받지 못함 (반납은 취소된다)
+     */
+    public boolean processPaymentAndFinalize(Session session, Rental rental, Fee finalFee, PaymentMethod paymentMethod)
+            throws com.kickboard.exception.KickboardException {
+        try {
+            return processPaymentAndFinalizeAsync(session, rental, finalFee, paymentMethod).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof com.kickboard.exception.KickboardException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause; // 저장 실패 등은 그대로
+            throw e;
+        }
+    }
 
-        if (paymentSuccess) {
+    /**
+     * 결제를 결제 파이프라인에 맡기고 바로 돌아온다. 승인되면 반납 확정 스레드(finalizer)에서 반납을 확정한다.
+     * 거절되거나 결제사 응답을 받지 못하면 반납을 취소한다. (다시 결제할 수 있다)
+     * 대여는 complete()로 결제 대기(PAYMENT_PENDING) 상태이며, 결제가 끝날 때까지 사용자의 진행 중 대여로 남는다.
+     */
+    public CompletableFuture<Boolean> processPaymentAndFinalizeAsync(Session session, Rental rental, Fee finalFee,
+                                                                     PaymentMethod paymentMethod)
+            throws com.kickboard.exception.KickboardException {
+        requireOwnRental(session, rental);
+        Money cost = finalFee.getFinalCost();
+        long start = System.nanoTime();
+        return processPaymentAsync(rental, paymentMethod, cost).handleAsync((paymentSuccess, error) -> {
+            paymentLatency.recordSince(start);
+            boolean success = error == null && paymentSuccess;
+            (success ? paymentApproved : paymentDeclined).inc();
+            if (!success) {
+                rental.revertComplete();
+                if (error != null) throw (error instanceof CompletionException c) ? c : new CompletionException(error);
+                return false;
+            }
+            rental.confirmPayment(); // 결제가 끝난 뒤에야 진행 중 대여에서 빠진다
             rental.getVehicle().lock();
+            kickboards.refresh(rental.getVehicle());
+            rentals.refresh(rental);
+            rental.getRentalInfo().setFinalCost(cost.toBigDecimal());
             notifyObservers(new StatusEvent(StatusEvent.EventType.RENTAL_ENDED, rental));
-            writeShutdownCommand(); // 시뮬레이터에 최종 종료 명령
-            saveState();
+            writeShutdownCommand(rental.getVehicle().getVehicleId()); // 시뮬레이터에 최종 종료 명령
+            removeUsedCoupons(rental.getUser(), finalFee);
+            persist(JournalRecord.vehicle(rental.getVehicle()),
+                    JournalRecord.rental(rental),
+                    JournalRecord.user(rental.getUser())); // 결제수단 잔액 변경과 사용한 쿠폰 포함
+            rentals.archive(rental); // 저널에 남긴 뒤 이력 파일로 옮긴다
+            fareMeters.remove(rental.getRentalId());
             return true;
-        } else {
-            rental.revertComplete();
+        }, finalizer);
+    }
+
+    /**
+     * 결제를 진행하고 결과를 결제 원장에 남긴다. (원장이 디스크에 내려간 뒤 반환)
+     * 이미 승인된 결제가 원장에 있는 대여면 다시 청구하지 않고 성공으로 처리한다.
+     * (결제 후 상태 저장 전에 종료되어 같은 대여를 다시 결제하는 경우)
+     * 결제사 응답을 받지 못하면 경고를 남기고 false를 돌려준다.
+     */
+    public boolean processPayment(Rental rental, PaymentMethod method, Money cost) { // 결제 진행
+        try {
+            return processPaymentAsync(rental, method, cost).join();
+        } catch (CompletionException e) {
+            System.err.println("[경고] 결제 실패: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
             return false;
         }
     }
 
-    public boolean processPayment(Rental rental, PaymentMethod method, BigDecimal cost) { // 결제 진행
+    /**
+     * 결제 파이프라인으로 결제사 승인을 요청한다. 같은 대여의 결제가 진행 중이면 그 결제의 결과를 같이 기다린다.
+     * 대여 시작 때 같은 결제수단에 승인된 보류가 있으면 보류를 확정하며, 확정이 끝난 뒤에 결과가 나온다.
+     * 반납 결제는 결제 한도(PaymentVelocity)로 막지 않는다. 한도는 대여를 시작할 때 검사한다.
+     */
+    public CompletableFuture<Boolean> processPaymentAsync(Rental rental, PaymentMethod method, Money cost) {
         String rentalId = rental.getRentalId();
+        String idempotencyKey = "charge:" + rentalId; // 대여 한 건에 승인은 한 번 (원장)
+        String gatewayKey = idempotencyKey + ":" + method.getReference(); // 결제사에는 결제수단마다 따로
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = paymentsInFlight.putIfAbsent(rentalId, result);
+        if (inFlight != null) return inFlight;
+
+        PaymentLedger.Entry paid = payments.findApproved(idempotencyKey); // 자리를 잡은 뒤에 확인해야 두 번 청구하지 않는다
+        if (paid != null) {
+            System.out.println("[안내] 이미 결제된 대여입니다: " + paid);
+            paymentsInFlight.remove(rentalId, result);
+            result.complete(true);
+            return result;
+        }
+        Payment payment = PaymentFactoryManager.getFactory(method.getType()).createPayment(method, cost, rentalId);
+        payment.setAmount(cost);
+        PaymentHolds.Hold hold = paymentHolds.find(rentalId);
+        CompletableFuture<Boolean> captured = (hold == null) ? null : paymentHolds.capture(hold, payment, gatewayKey);
+        String userId = rental.getUser().getUserId();
+        // 반납 결제는 한도로 막지 않는다. (막으면 반납할 수 없다) 보류가 있으면 대여 시작 때 이미 셌다.
+        PaymentVelocity.Check velocity = (captured != null) ? null : paymentVelocity.record(userId, method, cost);
+        CompletableFuture<Boolean> charged = (captured != null) ? captured : paymentPipeline.charge(payment, gatewayKey);
+        charged.whenComplete((approved, error) -> {
+            if (error != null || !approved) paymentVelocity.revert(velocity); // 거절된 결제는 세지 않는다
+            try {
+                if (error == null) payments.record(PaymentLedger.Entry.of(payment, idempotencyKey, userId));
+                if (error == null && approved && captured == null) paymentHolds.release(rentalId); // 다른 결제수단으로 냈으므로
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                paymentsInFlight.remove(rentalId, result);
+            }
+            if (error == null) result.complete(approved);
+            else result.completeExceptionally(error instanceof CompletionException c && c.getCause() != null ? c.getCause() : error);
+        });
+        return result;
+    }
 
-        paymentFactory = PaymentFactoryManager.getFactory(method.getType());
+    // 진행 중인 대여의 결제 보류 (없거나 승인되지 않았으면 null)
+    public PaymentHolds.Hold getPaymentHold(Session session, Rental rental) throws com.kickboard.exception.KickboardException {
+        requireOwnRental(session, rental);
+        return paymentHolds.find(rental.getRentalId());
+    }
 
-        Payment payment = paymentFactory.createPayment(method, cost, rentalId);
-        payment.setAmount(cost);
-        return payment.processPaymentCheck(); // 결제 성공 시 true 반환
+    // 결제 원장 (대여/사용자별 결제 내역, 승인 합계)
+    public PaymentLedger getPaymentLedger() {
+        return this.payments;
     }
 
-    private void writeShutdownCommand() {
-        try {
-            Files.writeString(DRIVING_STATUS_FILE, "SHUTDOWN", StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            System.err.println("[경고] 시뮬레이터 종료 명령 전송 실패: " + e.getMessage());
-        }
+    private void writeShutdownCommand(String vehicleId) {
+        telemetry.send(vehicleId, TelemetryCommand.SHUTDOWN);
+        telemetry.release(vehicleId);
     }
 
-    public Rental updateDrivingStatus(Rental rental) throws com.kickboard.exception.KickboardException {
+    public Rental updateDrivingStatus(Session session, Rental rental) throws com.kickboard.exception.KickboardException {
         if (rental == null) {
             throw new com.kickboard.exception.KickboardException("오류: 대여 정보가 없습니다.");
         }
-        try {
-            if (!Files.exists(DRIVING_STATUS_FILE)) {
-                throw new com.kickboard.exception.KickboardException("주행 정보 파일을 찾을 수 없습니다.");
-            }
-            String statusLine = Files.readString(DRIVING_STATUS_FILE);
-            String[] parts = statusLine.split(",");
-            if (parts.length < 6) {
-                 throw new com.kickboard.exception.KickboardException("오류: 시뮬레이터로부터 상태를 읽어오는 데 실패했습니다.");
-            }
-            String newLocation = String.format("%s,%s", parts[2], parts[3]);
-            double newDistance = Double.parseDouble(parts[4]);
-            int newBattery = Integer.parseInt(parts[5]);
+        requireOwnRental(session, rental);
+        TelemetryUpdate status = telemetry.latest(rental.getVehicle().getVehicleId());
+        if (status == null) {
+            throw new com.kickboard.exception.KickboardException("오류: 시뮬레이터로부터 받은 주행 정보가 없습니다.");
+        }
+        applyTelemetry(rental, status);
+        return rental;
+    }
 
-            rental.getVehicle().setCurrentLocation(newLocation);
-            rental.getVehicle().setBatteryLevel(newBattery);
-            rental.updateTraveledDistance(newDistance);
-            return rental;
-        } catch (IOException e) {
-            throw new com.kickboard.exception.KickboardException("오류: 주행 정보를 읽어오지 못했습니다: " + e.getMessage());
+    /**
+     * 대여의 실시간 요금기. 주행 정보가 들어올 때마다 갱신되므로 조회는 미리 계산된 값을 읽기만 한다.
+     * 반납(complete) 후에는 반납 시각 기준 요금으로 고정되며 calculateFinalFee의 기본 요금과 같다.
+     */
+    public FareMeter getFareMeter(Session session, Rental rental) throws com.kickboard.exception.KickboardException {
+        if (rental == null) {
+            throw new com.kickboard.exception.KickboardException("오류: 대여 정보가 없습니다.");
         }
+        requireOwnRental(session, rental);
+        return fareMeterOf(rental);
     }
 
     // =================== Private Helper Methods ===================
 
-    private Vehicle findVehicleById(String kickboardId) {
-        for (Vehicle vehicle : this.kickboards) {
-            if (vehicle.getVehicleId().equals(kickboardId)) {
-                return vehicle;
-            }
+    // 재시작 전부터 진행 중이던 대여는 처음 찾을 때 만든다.
+    private FareMeter fareMeterOf(Rental rental) {
+        return fareMeters.computeIfAbsent(rental.getRentalId(), id -> new FareMeter(rental, tariffs.getStrategies()));
+    }
+
+    // 유효한 세션의 사용자 (만료/로그아웃된 세션이면 예외)
+    private User requireUser(Session session) throws com.kickboard.exception.KickboardException {
+        User user = getSessionUser(session);
+        if (user == null) {
+            throw new com.kickboard.exception.KickboardException("오류: 로그인이 필요합니다. (세션이 없거나 만료되었습니다)");
         }
-        return null;
+        return user;
     }
 
-    public void notifyObservers(StatusEvent e) {
-        for (StatusObserver observer : this.observers) {
-            observer.onEvent(e);
+    // 세션 사용자 본인의 대여인지 확인
+    private void requireOwnRental(Session session, Rental rental) throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
+        if (rental == null || !rental.getUser().getUserId().equals(user.getUserId())) {
+            throw new com.kickboard.exception.KickboardException("오류: 본인의 대여 정보가 아닙니다.");
         }
     }
 
+    // 시뮬레이터가 보낸 주행 상태를 킥보드/대여에 반영
+    private void applyTelemetry(Rental rental, TelemetryUpdate status) {
+        rental.getVehicle().moveTo(status.getX(), status.getY());
+        rental.getVehicle().setBatteryLevel(status.getBatteryLevel());
+        rental.updateTraveledDistance(status.getTraveledDistance());
+        kickboards.refresh(rental.getVehicle()); // 위치 인덱스 갱신
+        FareMeter meter = fareMeters.get(rental.getRentalId());
+        if (meter != null) meter.refresh(); // 바뀐 거리로 요금을 미리 계산해 둔다
+    }
 
+    // 전송 방식 선택 (-Dkickboard.telemetry=inprocess 이면 메모리 전송). 소켓을 열지 못하면 메모리 전송으로 대신한다.
+    // -Dkickboard.payment.gateway=simulated 이면 결제사 시뮬레이터, 아니면 프로세스 안에서 바로 처리
+    private static Map<PaymentMethodType, PaymentGateway> openPaymentGateways() {
+        boolean simulated = "simulated".equalsIgnoreCase(System.getProperty("kickboard.payment.gateway"));
+        Map<PaymentMethodType, PaymentGateway> gateways = new EnumMap<>(PaymentMethodType.class);
+        for (PaymentMethodType type : PaymentMethodType.values()) {
+            gateways.put(type, simulated
+                    ? new PaymentGatewaySimulator(type.name(), PaymentGatewaySimulator.Options.fromSystemProperties(type))
+                    : PaymentGateway.local());
+        }
+        return gateways;
+    }
 
+    private static TelemetryTransport openTelemetry() {
+        if ("inprocess".equalsIgnoreCase(System.getProperty("kickboard.telemetry"))) {
+            return new InProcessTelemetryTransport();
+        }
+        try {
+            return SocketTelemetryTransport.start(TELEMETRY_SOCKET);
+        } catch (IOException e) {
+            System.err.println("[경고] 시뮬레이터 소켓을 열지 못해 프로세스 내 전송을 사용합니다: " + e.getMessage());
+            return new InProcessTelemetryTransport();
+        }
+    }
+
+    private Vehicle findVehicleById(String kickboardId) {
+        return this.kickboards.findById(kickboardId);
+    }
+
+    public void notifyObservers(StatusEvent e) {
+        this.eventBus.publish(e);
+    }
 
-    public Rental rentKickboard(User user, String kickboardId) throws com.kickboard.exception.KickboardException {
+    /**
+     * 대여/반납 이벤트를 받을 옵저버를 등록한다. (기본 크기 큐, 가득 차면 버림)
+     */
+    public StatusEventBus.Subscription addObserver(StatusObserver observer) {
+        return this.eventBus.subscribe(observer);
+    }
+
+    public StatusEventBus.Subscription addObserver(StatusObserver observer, int capacity, StatusEventBus.Backpressure backpressure) {
+        return this.eventBus.subscribe(observer, capacity, backpressure);
+    }
+
+    // 구독별 큐 깊이/전달 지연 등 지표 확인용
+    public List<StatusEventBus.Subscription> getObserverSubscriptions() {
+        return this.eventBus.getSubscriptions();
+    }
+
+
+
+
+    public Rental rentKickboard(Session session, String kickboardId) throws com.kickboard.exception.KickboardException {
+        long start = System.nanoTime();
+        boolean rented = false;
+        try {
+            Rental rental = rent(session, kickboardId);
+            rented = true;
+            return rental;
+        } finally {
+            rentLatency.recordSince(start);
+            (rented ? rentSucceeded : rentFailed).inc();
+        }
+    }
+
+    private Rental rent(Session session, String kickboardId) throws com.kickboard.exception.KickboardException {
+        User user = requireUser(session);
         Vehicle vehicle = findVehicleById(kickboardId);
         if (vehicle == null) {
             throw new com.kickboard.exception.KickboardException("오류: 존재하지 않는 킥보드 ID입니다.");
@@ -378,27 +785,76 @@ public class KickboardRentalService {
         if (vehicle.getStatus() != VehicleStatus.AVAILABLE) {
             throw new com.kickboard.exception.KickboardException("오류: 해당 킥보드는 현재 대여할 수 없는 상태입니다. (상태: " + vehicle.getStatus() + ")");
         }
-        if (vehicle.getBatteryLevel() < 15) {
+        if (vehicle.getBatteryLevel() < MIN_RENT_BATTERY) {
             throw new com.kickboard.exception.KickboardException("오류: 킥보드 배터리가 부족하여 대여할 수 없습니다. (현재: " + vehicle.getBatteryLevel() + "%)");
         }
-        for (Rental rental : this.rentals) {
-            if (rental.getUser().equals(user) && rental.getStatus() == RentalStatus.ACTIVE) {
-                throw new com.kickboard.exception.KickboardException("오류: 이미 대여한 킥보드가 있습니다. 먼저 반납해주세요.");
-            }
+        if (this.rentals.findActiveByUser(user.getUserId()) != null) {
+            throw new com.kickboard.exception.KickboardException("오류: 이미 대여한 킥보드가 있습니다. 먼저 반납해주세요.");
+        }
+
+        // 0. 결제 한도 - 보류를 걸 결제수단으로 보류 금액만큼 센다. (반납 결제는 막지 않는다)
+        List<PaymentMethod> methods = user.getPaymentMethods();
+        PaymentMethod holdMethod = methods.isEmpty() ? null : methods.get(0);
+        PaymentVelocity.Check velocity = (holdMethod == null) ? null
+                : paymentVelocity.tryRecord(user.getUserId(), holdMethod, PAYMENT_HOLD_AMOUNT);
+        if (velocity != null && !velocity.isAllowed()) {
+            throw new com.kickboard.exception.KickboardException("오류: " + velocity.getBlockedReason());
+        }
+
+        // 1. 킥보드 선점 - unlock()은 동시에 호출되어도 한 스레드만 성공한다.
+        if (!vehicle.unlock()) {
+            paymentVelocity.revert(velocity);
+            throw new com.kickboard.exception.KickboardException("오류: 해당 킥보드는 현재 대여할 수 없는 상태입니다. (상태: " + vehicle.getStatus() + ")");
+        }
+
+        // 2. 사용자당 진행 중 대여 1건 - 검사와 저장을 한 번에 수행
+        String rentalId = "RNT-" + UUID.randomUUID().toString().substring(0, 8);
+        Rental newRental = new Rental(rentalId, user, vehicle, LocalDateTime.now());
+        if (!this.rentals.saveIfNoActive(newRental)) {
+            vehicle.lock(); // 선점 취소
+            paymentVelocity.revert(velocity);
+            throw new com.kickboard.exception.KickboardException("오류: 이미 대여한 킥보드가 있습니다. 먼저 반납해주세요.");
+        }
+        this.kickboards.refresh(vehicle);
+
+        // 3. 시뮬레이터 실행 - 실패하면 선점과 대여를 되돌린다.
+        try {
+            launchSimulator(vehicle);
+        } catch (com.kickboard.exception.KickboardException e) {
+            this.rentals.remove(newRental);
+            vehicle.lock();
+            this.kickboards.refresh(vehicle);
+            paymentVelocity.revert(velocity);
+            throw e;
         }
+        
+        fareMeterOf(newRental);
+        notifyObservers(new StatusEvent(StatusEvent.EventType.RENTAL_STARTED, newRental));
+        persist(JournalRecord.vehicle(vehicle), JournalRecord.rental(newRental));
+        if (holdMethod != null) { // 첫 번째 결제수단에 보류 (결과를 기다리지 않는다, 거절되면 센 것을 되돌린다)
+            paymentHolds.place(newRental, holdMethod, () -> paymentVelocity.revert(velocity));
+        }
+        if (startup.markFirstRent()) {
+            System.out.println("[시작] 첫 대여까지 " + startup.getFirstRentMillis() + "ms (서비스 생성부터)");
+        }
+        
+        return newRental;
+    }
 
+    private void launchSimulator(Vehicle vehicle) throws com.kickboard.exception.KickboardException {
         try {
-            String[] parts = vehicle.getCurrentLocation().split(",");
-            int startX = Integer.parseInt(parts[0]);
-            int startY = Integer.parseInt(parts[1]);
-            String initialState = String.format("DRIVING,%s,%d,%d,0.0,%d", 
-                vehicle.getVehicleId(), startX, startY, vehicle.getBatteryLevel());
-            
-            if (!Files.exists(SIMULATION_DIR)) Files.createDirectories(SIMULATION_DIR);
-            Files.writeString(DRIVING_STATUS_FILE, initialState, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-
-            String command = String.format("java -cp bin com.kickboard.simulator.KickboardSimulator %s %d %d %d",
-                vehicle.getVehicleId(), startX, startY, vehicle.getBatteryLevel());
+            Location start = vehicle.getLocation();
+            int startX = start.getX();
+            int startY = start.getY();
+            telemetry.register(new TelemetryUpdate(TelemetryUpdate.Status.DRIVING,
+                vehicle.getVehicleId(), startX, startY, 0.0, vehicle.getBatteryLevel()));
+            if (fleet != null) { // 새 프로세스 대신 프로세스 내 주행 엔진에서 무작위 주행
+                fleet.start(vehicle.getVehicleId(), startX, startY, vehicle.getBatteryLevel(), FleetSimulator.randomWalk());
+                return;
+            }
+
+            String command = String.format("java -cp bin com.kickboard.simulator.KickboardSimulator %s %d %d %d \"%s\"",
+                vehicle.getVehicleId(), startX, startY, vehicle.getBatteryLevel(), telemetry.endpoint());
             String os = System.getProperty("os.name").toLowerCase();
             if (os.contains("win")) {
                 new ProcessBuilder("cmd", "/c", "start", "cmd", "/k", command).start();
@@ -418,29 +874,127 @@ public class KickboardRentalService {
                     new ProcessBuilder("bash", "-lc", command + " &").start();
                 }
             }
-        } catch (IOException | NumberFormatException e) { // 이외의 OS의 경우 혹은 오류 발생 시
+        } catch (IOException | IllegalStateException e) { // 이외의 OS의 경우 혹은 오류 발생 시
+            telemetry.release(vehicle.getVehicleId());
             throw new com.kickboard.exception.KickboardException("오류: 시뮬레이터를 시작하지 못했습니다: " + e.getMessage());
         }
 
-        vehicle.unlock();
-        String rentalId = "RNT-" + UUID.randomUUID().toString().substring(0, 8);
-        Rental newRental = new Rental(rentalId, user, vehicle, LocalDateTime.now());
-        this.rentals.add(newRental);
-        
-        notifyObservers(new StatusEvent(StatusEvent.EventType.RENTAL_STARTED, newRental));
-        saveState();
-        
-        return newRental;
     }
 
-    private void saveState() {
+    // =================== 운영 일괄 작업 ===================
+
+    public FleetBatch.Result reserveKickboards(List<String> vehicleIds) {
+        return applyFleetBatch(new FleetBatch().reserve(vehicleIds));
+    }
+
+    public FleetBatch.Result moveKickboardsToMaintenance(List<String> vehicleIds) {
+        return applyFleetBatch(new FleetBatch().maintain(vehicleIds));
+    }
+
+    public FleetBatch.Result returnKickboards(List<String> vehicleIds) {
+        return applyFleetBatch(new FleetBatch().release(vehicleIds));
+    }
+
+    public FleetBatch.Result relocateKickboards(Map<String, Location> targets) {
+        return applyFleetBatch(new FleetBatch().relocate(targets));
+    }
+
+    /**
+     * 운영 작업 여러 건을 넣은 순서대로 적용한다.
+     * 바뀐 킥보드는 인덱스를 한 번에 갱신하고, 저널 커밋(fsync) 한 번과 FLEET_UPDATED 이벤트 하나로 남긴다.
+     * 라이더가 타고 있는 킥보드는 건드리지 않으며, 실패한 작업은 결과의 실패 목록으로 돌려준다.
+     */
+    public FleetBatch.Result applyFleetBatch(FleetBatch batch) {
+        long start = System.nanoTime();
+        Set<Vehicle> changed = new LinkedHashSet<>();
+        List<FleetBatch.Failure> failures = new ArrayList<>();
+        int applied = 0;
+        for (FleetBatch.Item item : batch.getItems()) {
+            Vehicle vehicle = findVehicleById(item.getVehicleId());
+            String reason = (vehicle == null) ? "존재하지 않는 킥보드 ID입니다." : applyFleetItem(item, vehicle);
+            if (reason != null) {
+                failures.add(new FleetBatch.Failure(item, reason));
+                continue;
+            }
+            applied++;
+            changed.add(vehicle);
+        }
+
+        List<String> changedIds = new ArrayList<>(changed.size());
+        if (!changed.isEmpty()) {
+            this.kickboards.refreshAll(changed);
+            JournalRecord[] records = new JournalRecord[changed.size()];
+            int i = 0;
+            for (Vehicle v : changed) {
+                records[i++] = JournalRecord.vehicle(v);
+                changedIds.add(v.getVehicleId());
+            }
+            persist(records);
+            notifyObservers(StatusEvent.fleetUpdated(new ArrayList<>(changed)));
+        }
+        fleetBatchLatency.recordSince(start);
+        fleetItemsApplied.add(applied);
+        fleetItemsFailed.add(failures.size());
+        return new FleetBatch.Result(applied, changedIds, failures);
+    }
+
+    // 작업 한 건 적용. 검사와 상태 전이를 킥보드 잠금 안에서 하므로 동시에 들어온 대여(unlock)와 섞이지 않는다.
+    // @return 실패 이유 (성공하면 null)
+    private String applyFleetItem(FleetBatch.Item item, Vehicle vehicle) {
+        String id = vehicle.getVehicleId();
+        synchronized (vehicle) {
+            VehicleStatus status = vehicle.getStatus();
+            boolean held = fleetHeld.contains(id);
+            if (status == VehicleStatus.IN_USE && !held) return "라이더가 대여 중인 킥보드입니다.";
+            switch (item.getOperation()) {
+                case RESERVE:
+                    if (!vehicle.unlock()) return "사용 가능 상태가 아닙니다. (상태: " + status + ")";
+                    fleetHeld.add(id);
+                    return null;
+                case MAINTAIN:
+                    if (status == VehicleStatus.MAINTENANCE) return "이미 정비 중입니다.";
+                    vehicle.moveToMaintenance();
+                    fleetHeld.remove(id);
+                    return null;
+                case RELEASE:
+                    if (status == VehicleStatus.AVAILABLE) return "이미 사용 가능 상태입니다.";
+                    if (held) {
+                        vehicle.lock();
+                        fleetHeld.remove(id);
+                    } else {
+                        vehicle.backToAvailable();
+                    }
+                    return null;
+                case RELOCATE:
+                    vehicle.moveTo(item.getTarget().getX(), item.getTarget().getY());
+                    return null;
+                default:
+                    return "알 수 없는 작업입니다.";
+            }
+        }
+    }
+
+    // 변경된 엔티티만 저널에 기록하고 디스크 동기화를 기다린다. 주기가 되면 스냅샷을 남긴다.
+    private void persist(JournalRecord... records) {
+        long seq = journal.append(records);
+        journal.commit(seq);
+        if (journal.snapshotDue()) saveState();
+    }
+
+    // 전체 상태 스냅샷 저장 (주기적 스냅샷 / 종료 시). 스냅샷은 한 번에 하나만 만든다.
+    private synchronized com.kickboard.repository.AppState saveState() {
+        // 복사하기 전에 순번을 읽는다. 레코드는 변경이 반영된 뒤에 쓰이므로 seq까지는 모두 복사본에 들어 있고,
+        // 복사 중에 쓰인 레코드는 다음 시작 때 다시 재생된다. (재생은 ID 기준 덮어쓰기라 겹쳐도 된다)
+        long seq = journal.lastSequence();
         com.kickboard.repository.AppState state = new com.kickboard.repository.AppState();
         state.setUsers(userService.getAllUsers());
-        state.setVehicles(this.kickboards);
-        state.setRentals(this.rentals);
-        User user = userService.getCurrentUser();
-        state.setCurrentUserId(user == null ? null : user.getUserId());
+        state.setVehicles(this.kickboards.findAll());
+        state.setRentals(this.rentals.findAll());
+        state.setJournalSequence(seq);
+        history.force(); // 스냅샷에서 빠진 끝난 대여가 먼저 디스크에 있어야 한다
         com.kickboard.repository.StateStore.save(state);
+        journal.markSnapshot(seq);
+        return state;
     }
 
     // 사용 가능한 할인 목록을 제공하는 메소드
@@ -0,0 +1,328 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.payment.PaymentFactoryManager;
+import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.domain.rental.PaymentStatus;
+import com.kickboard.domain.rental.Rental;
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.MetricsRegistry;
+import com.kickboard.repository.PaymentLedger;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PaymentHolds.java : 대여마다 결제수단에 걸어 둔 승인 보류(hold)를 관리한다.
+ *                     - 대여가 시작되면 보류 요청을 결제 파이프라인에 맡기고 바로 돌아온다. (대여는 결제사를 기다리지 않는다)
+ *                       사용 가능 금액이 모자라면 주행 중에 미리 알 수 있다. 승인되지 않은 보류는 바로 목록에서 빠진다.
+ *                     - 반납하면 보류를 요금으로 확정(capture)한다. 요금이 보류보다 크면 차액까지 승인되어야 한다.
+ *                       확정이 끝나야 반납이 끝나며, 거절되거나 결제사 응답을 받지 못하면 보류는 그대로 남는다.
+ *                     - 확정 중인 보류는 만료되어도 풀지 않는다. (확정 결과를 받은 뒤에 다시 본다)
+ *                     - lifetime이 지난 보류와 다른 결제수단으로 결제한 대여의 보류는 풀린다.
+ *                     보류 승인/거절/해제(확정 포함)는 결제 원장에 "hold:<대여ID>" 키, "HOLD-<paymentId>-<결과>" ID로 남는다.
+ *                     재시작하면 restore()가 원장의 마지막 기록이 승인인 진행 중 대여의 보류를 다시 건다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class PaymentHolds implements Closeable {
+
+    public enum State { PENDING, AUTHORIZED, DECLINED, FAILED, CAPTURING, CAPTURED, RELEASING, RELEASED }
+
+    /**
+     * 대여 한 건의 보류. 상태 변경은 this로 동기화한다.
+     */
+    public static final class Hold {
+        private final String rentalId;
+        private final String userId;
+        private final Payment payment; // 보류 금액과 결제수단
+        private final long placedAt;   // System.nanoTime()
+        private State state = State.PENDING;
+        private volatile boolean releaseRequested; // 대여가 다른 결제수단으로 끝남 (승인 결과를 기다리는 중일 수 있다)
+
+        private Hold(String rentalId, String userId, Payment payment, long placedAt) {
+            this.rentalId = rentalId;
+            this.userId = userId;
+            this.payment = payment;
+            this.placedAt = placedAt;
+        }
+
+        public String getRentalId() { return rentalId; }
+        public Payment getPayment() { return payment; }
+        public Money getAmount() { return payment.getAmount(); }
+        public PaymentMethod getPaymentMethod() { return payment.getPaymentMethod(); }
+        public synchronized State getState() { return state; }
+
+        private synchronized void setState(State state) {
+            this.state = state;
+        }
+
+        private synchronized boolean transition(State from, State to) {
+            if (state != from) return false;
+            state = to;
+            return true;
+        }
+
+        @Override
+        public synchronized String toString() {
+            String status = switch (state) {
+                case PENDING -> "승인 확인 중";
+                case AUTHORIZED, CAPTURING -> "승인됨";
+                case DECLINED -> "거절 (사용 가능 금액 부족)";
+                case FAILED -> "결제사 응답 없음";
+                case CAPTURED -> "결제 완료";
+                case RELEASING, RELEASED -> "해제됨";
+            };
+            return getAmount().toPlainString() + "원 보류 (" + getPaymentMethod().getAlias() + ", " + status + ")";
+        }
+    }
+
+    private final PaymentPipeline pipeline;
+    private final PaymentLedger ledger;
+    private final Money amount;
+    private final long lifetimeNanos;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>(); // rentalId -> 보류
+    private final ScheduledExecutorService sweeper; // 만료/해제 요청 처리, 확정 재시도
+    private final Counter authorized, declined, failed, captured, released, expired;
+
+    /**
+     * @param amount 대여마다 거는 보류 금액
+     * @param lifetimeMillis 보류 유지 시간 (지나면 풀고, 반납 때 바로 결제한다)
+     */
+    public PaymentHolds(PaymentPipeline pipeline, PaymentLedger ledger, Money amount, long lifetimeMillis,
+                        MetricsRegistry metrics) {
+        if (amount.signum() <= 0 || lifetimeMillis < 1) throw new IllegalArgumentException("잘못된 결제 보류 설정입니다.");
+        this.pipeline = pipeline;
+        this.ledger = ledger;
+        this.amount = amount;
+        this.lifetimeNanos = TimeUnit.MILLISECONDS.toNanos(lifetimeMillis);
+        String help = "대여 결제 보류 처리 수";
+        this.authorized = metrics.counter("kickboard_payment_holds_total", help, "result", "authorized");
+        this.declined = metrics.counter("kickboard_payment_holds_total", help, "result", "declined");
+        this.failed = metrics.counter("kickboard_payment_holds_total", help, "result", "error");
+        this.captured = metrics.counter("kickboard_payment_holds_total", help, "result", "captured");
+        this.released = metrics.counter("kickboard_payment_holds_total", help, "result", "released");
+        this.expired = metrics.counter("kickboard_payment_holds_total", help, "result", "expired");
+        metrics.gauge("kickboard_payment_holds_active", "진행 중인 대여의 결제 보류 수", holds::size);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-holds");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepMillis = Math.max(1_000, Math.min(30_000, lifetimeMillis / 4));
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대여에 보류를 건다. 결과를 기다리지 않는다. (이미 보류가 있으면 그 보류)
+     */
+    public Hold place(Rental rental, PaymentMethod method) {
+        return place(rental, method, () -> {});
+    }
+
+    /**
+     * place와 같고, 보류가 승인되지 않으면 (거절, 결제사 응답 없음) onNotAuthorized를 부른다.
+     * 결과는 돌려준 Hold의 상태(AUTHORIZED/DECLINED/FAILED)로 알린다. 승인되지 않은 보류는 해제 요청이 없으면 바로 목록에서 뺀다.
+     */
+    public Hold place(Rental rental, PaymentMethod method, Runnable onNotAuthorized) {
+        String rentalId = rental.getRentalId();
+        Payment payment = PaymentFactoryManager.getFactory(method.getType()).createPayment(method, amount, rentalId);
+        payment.setAmount(amount);
+        Hold hold = new Hold(rentalId, rental.getUser().getUserId(), payment, System.nanoTime());
+        Hold previous = holds.putIfAbsent(rentalId, hold);
+        if (previous != null) return previous;
+
+        pipeline.authorize(payment, holdKey(rentalId)).whenComplete((ok, error) -> {
+            boolean approved = error == null && ok;
+            hold.setState(approved ? State.AUTHORIZED : (error == null ? State.DECLINED : State.FAILED));
+            (approved ? authorized : (error == null ? declined : failed)).inc();
+            record(hold, approved ? PaymentStatus.AUTHORIZED : PaymentStatus.FAILED);
+            if (!approved) {
+                onNotAuthorized.run();
+                if (!hold.releaseRequested) holds.remove(rentalId, hold); // 반납 때 바로 결제한다
+            }
+            if (hold.releaseRequested) settle(hold);
+        });
+        return hold;
+    }
+
+    public Hold find(String rentalId) {
+        return holds.get(rentalId);
+    }
+
+    /**
+     * 재시작 전에 걸어 둔 보류를 되살린다. 결제 원장에서 마지막 보류 기록이 승인(AUTHORIZED)인 진행 중 대여마다
+     * 같은 결제수단에 같은 금액의 보류를 다시 건다. (저장된 잔액에는 보류 금액이 들어 있다)
+     * 결제수단을 찾지 못하거나 사용 가능 금액이 모자라면 보류 없이 두며, 반납 때 바로 결제한다.
+     * @return 되살린 보류 수
+     */
+    public int restore(List<Rental> openRentals) {
+        Map<String, Rental> byKey = new HashMap<>();
+        for (Rental rental : openRentals) byKey.put(holdKey(rental.getRentalId()), rental);
+        if (byKey.isEmpty()) return 0;
+        int restored = 0;
+        long now = System.currentTimeMillis();
+        for (PaymentLedger.Entry last : ledger.findLastByKey(byKey.keySet()).values()) {
+            if (last.getStatus() != PaymentStatus.AUTHORIZED) continue;
+            Rental rental = byKey.get(last.getIdempotencyKey());
+            PaymentMethod method = rental.getUser().getPaymentMethods().stream()
+                    .filter(m -> m.getReference().equals(last.getMethodReference()))
+                    .findFirst().orElse(null);
+            if (method == null) {
+                System.err.println("[경고] 결제 보류의 결제수단을 찾지 못해 반납 때 바로 결제합니다. (" + rental.getRentalId() + ")");
+                continue;
+            }
+            Payment payment = PaymentFactoryManager.getFactory(method.getType()).createPayment(method, last.getAmount(), rental.getRentalId());
+            payment.setAmount(last.getAmount());
+            long ageNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - last.getRecordedAt()));
+            Hold hold = new Hold(rental.getRentalId(), rental.getUser().getUserId(), payment, System.nanoTime() - ageNanos);
+            if (!payment.authorizeCheck()) { // 저장 뒤에 잔액이 바뀜
+                System.err.println("[경고] 결제 보류를 다시 걸지 못해 반납 때 바로 결제합니다. (" + rental.getRentalId() + ")");
+                record(hold, PaymentStatus.RELEASED);
+                continue;
+            }
+            hold.setState(State.AUTHORIZED);
+            if (holds.putIfAbsent(hold.rentalId, hold) == null) restored++;
+            else payment.releaseHold();
+        }
+        return restored;
+    }
+
+    /**
+     * 보류를 payment의 결제로 바꾼다. 확정하는 동안에는 만료되어도 보류를 풀지 않는다.
+     * @return 확정 결과 (거절이면 false, 결제사 응답을 받지 못하면 예외. 두 경우 모두 보류는 남는다).
+     *         승인된 보류가 없거나 결제수단이 다르면 null (바로 결제해야 한다)
+     */
+    public CompletableFuture<Boolean> capture(Hold hold, Payment payment, String idempotencyKey) {
+        synchronized (hold) {
+            if (hold.releaseRequested || hold.getPaymentMethod() != payment.getPaymentMethod()) return null;
+            if (!hold.transition(State.AUTHORIZED, State.CAPTURING)) return null;
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        pipeline.capture(hold.payment, payment, idempotencyKey).whenComplete((ok, error) -> {
+            if (error == null && ok) {
+                hold.setState(State.CAPTURED);
+                holds.remove(hold.rentalId, hold);
+                captured.inc();
+                record(hold, PaymentStatus.RELEASED); // 결제로 바뀜 (재시작 후 되살리지 않는다)
+                result.complete(true);
+                return;
+            }
+            hold.setState(State.AUTHORIZED); // 차액을 낼 수 없거나 결제사 오류 (다시 확정할 수 있고, 만료되면 풀린다)
+            if (error == null) result.complete(false);
+            else result.completeExceptionally(unwrap(error));
+        });
+        return result;
+    }
+
+    /**
+     * 보류를 푼다. (대여를 다른 결제수단으로 결제함) 승인 결과를 기다리는 중이면 결과가 온 뒤에 푼다.
+     */
+    public void release(String rentalId) {
+        Hold hold = holds.get(rentalId);
+        if (hold == null) return;
+        hold.releaseRequested = true;
+        settle(hold);
+    }
+
+    // 승인된 보류는 풀고, 끝난 보류(거절/오류/확정/해제)는 목록에서 뺀다. 진행 중인 요청이 있으면 그 결과를 처리할 때 다시 본다.
+    private void settle(Hold hold) {
+        boolean expiring;
+        synchronized (hold) {
+            switch (hold.state) {
+                case PENDING, CAPTURING, RELEASING:
+                    return;
+                case AUTHORIZED:
+                    hold.state = State.RELEASING;
+                    expiring = !hold.releaseRequested;
+                    break;
+                default:
+                    holds.remove(hold.rentalId, hold);
+                    return;
+            }
+        }
+        pipeline.release(hold.payment, "release:" + hold.rentalId).whenComplete((ok, error) -> {
+            if (error != null) { // 다음 정리 주기에 다시 푼다
+                hold.setState(State.AUTHORIZED);
+                System.err.println("[경고] 결제 보류 해제 실패 (" + hold.rentalId + "), 다시 시도합니다: " + unwrap(error).getMessage());
+                return;
+            }
+            hold.setState(State.RELEASED);
+            holds.remove(hold.rentalId, hold);
+            (expiring ? expired : released).inc();
+            record(hold, PaymentStatus.RELEASED);
+        });
+    }
+
+    private void sweep() {
+        try {
+            for (Hold hold : holds.values()) {
+                if (hold.releaseRequested || isExpired(hold)) settle(hold);
+            }
+        } catch (RuntimeException e) { // 다음 주기에 다시 본다
+            System.err.println("[경고] 결제 보류 정리 실패: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Hold hold) {
+        return System.nanoTime() - hold.placedAt > lifetimeNanos;
+    }
+
+    private void record(Hold hold, PaymentStatus status) {
+        try {
+            Payment p = hold.payment;
+            ledger.record(new PaymentLedger.Entry(holdEventId(p, status), holdKey(hold.rentalId), hold.rentalId,
+                    hold.userId, p.getPaymentMethod().getType(), p.getAmount(), status, System.currentTimeMillis(),
+                    p.getPaymentMethod().getReference()));
+        } catch (RuntimeException e) {
+            System.err.println("[경고] 결제 보류 기록 실패 (" + hold.rentalId + "): " + e.getMessage());
+        }
+    }
+
+    // 보류의 승인/거절/해제는 각각 다른 기록이다. (paymentId가 같으면 앞선 기록이 색인에서 가려진다)
+    private static String holdEventId(Payment payment, PaymentStatus status) {
+        return "HOLD-" + payment.getPaymentId() + "-" + status.name();
+    }
+
+    private static String holdKey(String rentalId) {
+        return "hold:" + rentalId;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    /**
+     * 정리와 확정 재시도를 멈춘다. 결제사에 이미 보낸 요청은 PaymentPipeline.close()가 기다린다.
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        try {
+            sweeper.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long capturing = holds.values().stream().filter(h -> h.getState() == State.CAPTURING).count();
+        if (capturing > 0) {
+            System.err.println("[경고] 확정 중인 결제 보류 " + capturing + "건을 두고 종료합니다. (결제 원장에 승인 기록이 없는 대여는 따로 정산해야 합니다)");
+        }
+    }
+}
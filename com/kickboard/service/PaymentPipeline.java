@@ -0,0 +1,360 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.payment.PaymentGateway;
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.exception.PaymentGatewayException;
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.LatencyHistogram;
+import com.kickboard.metrics.MetricsRegistry;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PaymentPipeline.java : 결제사 승인 요청을 호출한 스레드 밖에서 처리한다. (charge()는 바로 CompletableFuture를 돌려준다)
+ *                        - 결제사마다 스레드 수와 대기열 크기가 정해진 실행기를 따로 둔다.
+ *                          한 결제사가 느려져도 다른 결제사의 결제와 요청 스레드는 막히지 않고, 대기열이 차면 바로 거절한다.
+ *                        - 시도마다 시간 제한을 두고, 넘으면 결제사 호출 스레드를 중단시킨다.
+ *                        - 일시 오류/시간 초과는 지수 백오프 + 지터를 두고 같은 멱등 키로 다시 시도한다.
+ *                        - 연속 실패가 기준을 넘으면 회로 차단기가 열려 openMillis 동안 바로 실패시키고,
+ *                          그 뒤 한 건을 시험 삼아 보내 성공하면 다시 닫는다.
+ *                        - 결제(charge)와 보류(authorize)/확정(capture)/해제(release)가 같은 실행기와 차단기를 쓴다.
+ *                        거절(잔액 부족)은 결제사가 정상 응답한 것이므로 재시도하지 않고 실패로 세지도 않는다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class PaymentPipeline implements Closeable {
+
+    /**
+     * 실행기/재시도/차단 설정. 불변 객체이며 with...()는 값을 바꾼 새 Options를 돌려준다.
+     */
+    public static final class Options {
+
+        private static final Options DEFAULTS = new Options(16, 256, 3_000, 3, 100, 1_000, 5, 10_000);
+
+        private final int threads;           // 결제사마다
+        private final int queueCapacity;     // 결제사마다
+        private final long timeoutMillis;    // 시도 한 번
+        private final int maxAttempts;
+        private final long backoffMillis;    // 첫 재시도 전 대기 (시도마다 두 배)
+        private final long maxBackoffMillis;
+        private final int failureThreshold;  // 이만큼 연속 실패하면 차단
+        private final long openMillis;       // 차단 유지 시간
+
+        private Options(int threads, int queueCapacity, long timeoutMillis, int maxAttempts, long backoffMillis,
+                        long maxBackoffMillis, int failureThreshold, long openMillis) {
+            if (threads < 1 || queueCapacity < 1 || timeoutMillis < 1 || maxAttempts < 1 || backoffMillis < 0
+                    || maxBackoffMillis < backoffMillis || failureThreshold < 1 || openMillis < 0) {
+                throw new IllegalArgumentException("잘못된 결제 파이프라인 설정입니다.");
+            }
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.timeoutMillis = timeoutMillis;
+            this.maxAttempts = maxAttempts;
+            this.backoffMillis = backoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+            this.failureThreshold = failureThreshold;
+            this.openMillis = openMillis;
+        }
+
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        // -Dkickboard.payment.threads / queue / timeoutMillis / attempts / backoffMillis / breakerFailures / breakerOpenMillis
+        public static Options fromSystemProperties() {
+            return new Options(Integer.getInteger("kickboard.payment.threads", DEFAULTS.threads),
+                    Integer.getInteger("kickboard.payment.queue", DEFAULTS.queueCapacity),
+                    Long.getLong("kickboard.payment.timeoutMillis", DEFAULTS.timeoutMillis),
+                    Integer.getInteger("kickboard.payment.attempts", DEFAULTS.maxAttempts),
+                    Long.getLong("kickboard.payment.backoffMillis", DEFAULTS.backoffMillis),
+                    Math.max(DEFAULTS.maxBackoffMillis, Long.getLong("kickboard.payment.backoffMillis", DEFAULTS.backoffMillis)),
+                    Integer.getInteger("kickboard.payment.breakerFailures", DEFAULTS.failureThreshold),
+                    Long.getLong("kickboard.payment.breakerOpenMillis", DEFAULTS.openMillis));
+        }
+
+        public Options withExecutor(int threads, int queueCapacity) {
+            return new Options(threads, queueCapacity, timeoutMillis, maxAttempts, backoffMillis, maxBackoffMillis,
+                    failureThreshold, openMillis);
+        }
+
+        public Options withTimeout(long timeoutMillis) {
+            return new Options(threads, queueCapacity, timeoutMillis, maxAttempts, backoffMillis, maxBackoffMillis,
+                    failureThreshold, openMillis);
+        }
+
+        public Options withRetries(int maxAttempts, long backoffMillis, long maxBackoffMillis) {
+            return new Options(threads, queueCapacity, timeoutMillis, maxAttempts, backoffMillis, maxBackoffMillis,
+                    failureThreshold, openMillis);
+        }
+
+        public Options withCircuitBreaker(int failureThreshold, long openMillis) {
+            return new Options(threads, queueCapacity, timeoutMillis, maxAttempts, backoffMillis, maxBackoffMillis,
+                    failureThreshold, openMillis);
+        }
+
+        public int getThreads() { return threads; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getTimeoutMillis() { return timeoutMillis; }
+        public int getMaxAttempts() { return maxAttempts; }
+
+        @Override
+        public String toString() {
+            return "threads=" + threads + ", queue=" + queueCapacity + ", timeout=" + timeoutMillis + "ms, attempts="
+                    + maxAttempts + ", backoff=" + backoffMillis + "~" + maxBackoffMillis + "ms, breaker="
+                    + failureThreshold + "회/" + openMillis + "ms";
+        }
+    }
+
+    /**
+     * 결제사 하나의 회로 차단기. CLOSED → (연속 실패) → OPEN → (openMillis 경과) → HALF_OPEN(시험 요청 한 건) → CLOSED/OPEN
+     */
+    static final class CircuitBreaker {
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final int failureThreshold;
+        private final long openNanos;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong openedAt = new AtomicLong(-1); // -1이면 닫혀 있음
+        private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+        CircuitBreaker(int failureThreshold, long openMillis) {
+            this.failureThreshold = failureThreshold;
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        }
+
+        // 요청을 보내도 되는지 (HALF_OPEN이면 한 건만 통과)
+        boolean tryAcquire() {
+            long opened = openedAt.get();
+            if (opened < 0) return true;
+            if (System.nanoTime() - opened < openNanos) return false;
+            return trialInFlight.compareAndSet(false, true);
+        }
+
+        void onSuccess() {
+            consecutiveFailures.set(0);
+            openedAt.set(-1);
+            trialInFlight.set(false);
+        }
+
+        void onFailure() {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (trialInFlight.getAndSet(false) || failures >= failureThreshold) {
+                openedAt.set(System.nanoTime()); // 시험 요청이 실패하면 다시 openMillis 동안 차단
+            }
+        }
+
+        // 결제사에 닿지 않은 요청 (대기열 거절 등). 시험 기회만 돌려준다.
+        void onAbandoned() {
+            trialInFlight.set(false);
+        }
+
+        State getState() {
+            long opened = openedAt.get();
+            if (opened < 0) return State.CLOSED;
+            return System.nanoTime() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+        }
+    }
+
+    // 결제사 하나 (실행기, 차단기, 지표)
+    private static final class Provider {
+        final String name;
+        final PaymentGateway gateway;
+        final ThreadPoolExecutor executor;
+        final CircuitBreaker breaker;
+        final LatencyHistogram latency;
+        final Counter approved, declined, failed, timedOut, rejected, shortCircuited, retried;
+
+        Provider(PaymentMethodType type, PaymentGateway gateway, Options options, MetricsRegistry metrics) {
+            this.name = type.name().toLowerCase();
+            this.gateway = gateway;
+            this.executor = new ThreadPoolExecutor(options.threads, options.threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(options.queueCapacity), r -> {
+                        Thread t = new Thread(r, "payment-" + name);
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+            this.breaker = new CircuitBreaker(options.failureThreshold, options.openMillis);
+            String help = "결제사 승인 요청 수 (재시도 포함)";
+            this.latency = metrics.histogram("kickboard_payment_gateway_seconds", "결제사 승인 요청 한 번의 응답 시간", "provider", name);
+            this.approved = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "approved");
+            this.declined = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "declined");
+            this.failed = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "error");
+            this.timedOut = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "timeout");
+            this.rejected = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "queue_full");
+            this.shortCircuited = metrics.counter("kickboard_payment_gateway_requests_total", help, "provider", name, "result", "circuit_open");
+            this.retried = metrics.counter("kickboard_payment_gateway_retries_total", "결제사 재시도 수", "provider", name);
+            metrics.gauge("kickboard_payment_gateway_circuit_open", "회로 차단기 상태 (0 닫힘, 1 열림, 0.5 시험 중)",
+                    () -> switch (breaker.getState()) { case CLOSED -> 0; case OPEN -> 1; case HALF_OPEN -> 0.5; },
+                    "provider", name);
+            metrics.gauge("kickboard_payment_gateway_queue_depth", "결제사 요청 대기열 길이",
+                    () -> executor.getQueue().size(), "provider", name);
+        }
+    }
+
+    private final Options options;
+    private final Map<PaymentMethodType, Provider> providers = new EnumMap<>(PaymentMethodType.class);
+    private final ScheduledExecutorService timer; // 시간 제한과 재시도 대기
+
+    public PaymentPipeline(Map<PaymentMethodType, PaymentGateway> gateways, Options options, MetricsRegistry metrics) {
+        this.options = options;
+        gateways.forEach((type, gateway) -> providers.put(type, new Provider(type, gateway, options, metrics)));
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // 결제사 호출 한 번 (시도마다 다시 부른다)
+    @FunctionalInterface
+    private interface GatewayCall {
+        boolean call(PaymentGateway gateway) throws PaymentGatewayException;
+    }
+
+    /**
+     * 결제사에 승인을 요청한다. 기다리지 않고 바로 돌아온다.
+     * @return 승인이면 true, 거절이면 false. 결과를 받지 못하면 PaymentGatewayException으로 끝난다.
+     */
+    public CompletableFuture<Boolean> charge(Payment payment, String idempotencyKey) {
+        return submit(payment, gateway -> gateway.charge(payment, idempotencyKey));
+    }
+
+    // 보류를 건다. (PaymentGateway.authorize)
+    public CompletableFuture<Boolean> authorize(Payment hold, String idempotencyKey) {
+        return submit(hold, gateway -> gateway.authorize(hold, idempotencyKey));
+    }
+
+    // 보류를 결제로 바꾼다. (PaymentGateway.capture)
+    public CompletableFuture<Boolean> capture(Payment hold, Payment payment, String idempotencyKey) {
+        return submit(payment, gateway -> gateway.capture(hold, payment, idempotencyKey));
+    }
+
+    // 보류를 푼다. (PaymentGateway.release)
+    public CompletableFuture<Boolean> release(Payment hold, String idempotencyKey) {
+        return submit(hold, gateway -> gateway.release(hold, idempotencyKey));
+    }
+
+    private CompletableFuture<Boolean> submit(Payment payment, GatewayCall call) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Provider provider = providers.get(payment.getPaymentMethod().getType());
+        if (provider == null) {
+            result.completeExceptionally(new PaymentGatewayException(
+                    "오류: 연결된 결제사가 없습니다: " + payment.getPaymentMethod().getType(), false));
+            return result;
+        }
+        attempt(provider, call, 1, result);
+        return result;
+    }
+
+    private void attempt(Provider provider, GatewayCall gatewayCall, int attempt, CompletableFuture<Boolean> result) {
+        if (!provider.breaker.tryAcquire()) {
+            provider.shortCircuited.inc();
+            result.completeExceptionally(new PaymentGatewayException(
+                    "오류: " + provider.name + " 결제사 응답이 없어 잠시 결제를 받지 않습니다. 잠시 후 다시 시도해 주세요.", false));
+            return;
+        }
+        CompletableFuture<Boolean> call = new CompletableFuture<>();
+        long start = System.nanoTime();
+        Future<?> task;
+        try {
+            task = provider.executor.submit(() -> {
+                try {
+                    call.complete(gatewayCall.call(provider.gateway));
+                } catch (Throwable e) {
+                    call.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) { // 대기열이 가득 참 (과부하이므로 재시도하지 않는다)
+            provider.breaker.onAbandoned();
+            provider.rejected.inc();
+            result.completeExceptionally(new PaymentGatewayException(
+                    "오류: " + provider.name + " 결제 요청이 밀려 있습니다. 잠시 후 다시 시도해 주세요.", false));
+            return;
+        }
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (call.completeExceptionally(new TimeoutException())) task.cancel(true); // 결제사 호출 스레드를 돌려받는다
+        }, options.timeoutMillis, TimeUnit.MILLISECONDS);
+
+        call.whenComplete((approved, error) -> {
+            timeout.cancel(false);
+            provider.latency.recordSince(start);
+            if (error == null) {
+                provider.breaker.onSuccess();
+                (approved ? provider.approved : provider.declined).inc();
+                result.complete(approved);
+                return;
+            }
+            Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+            boolean timedOut = cause instanceof TimeoutException;
+            if (!timedOut && !(cause instanceof PaymentGatewayException)) { // 결제 자체의 오류 (결제수단 정보 누락 등)
+                provider.breaker.onAbandoned();
+                result.completeExceptionally(cause);
+                return;
+            }
+            provider.breaker.onFailure();
+            (timedOut ? provider.timedOut : provider.failed).inc();
+            boolean retryable = timedOut || ((PaymentGatewayException) cause).isRetryable();
+            if (retryable && attempt < options.maxAttempts) {
+                provider.retried.inc();
+                try {
+                    timer.schedule(() -> attempt(provider, gatewayCall, attempt + 1, result),
+                            backoffMillis(attempt), TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException closed) { // 종료 중
+                }
+            }
+            result.completeExceptionally(timedOut
+                    ? new PaymentGatewayException("오류: " + provider.name + " 결제사 응답 시간 초과 ("
+                            + options.timeoutMillis + "ms, " + attempt + "회 시도)", true)
+                    : cause);
+        });
+    }
+
+    // 지수 백오프 + 지터: 상한의 절반은 고정, 나머지 절반은 무작위 (동시에 실패한 요청이 한꺼번에 다시 몰리지 않도록)
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(options.maxBackoffMillis, options.backoffMillis << Math.min(attempt - 1, 30));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    /**
+     * 새 요청을 받지 않고, 이미 받은 요청이 끝날 때까지 기다린다. (최대 시간 제한 × 시도 횟수)
+     */
+    @Override
+    public void close() {
+        long waitMillis = options.timeoutMillis * options.maxAttempts + options.maxBackoffMillis * options.maxAttempts;
+        for (Provider provider : providers.values()) provider.executor.shutdown();
+        try {
+            for (Provider provider : providers.values()) {
+                if (!provider.executor.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+                    System.err.println("[경고] " + provider.name + " 결제 요청이 끝나지 않아 중단합니다.");
+                    provider.executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timer.shutdown();
+    }
+}
@@ -0,0 +1,346 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.payment.PaymentMethod;
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.pricing.Money;
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.MetricsRegistry;
+
+import java.io.Closeable;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * PaymentVelocity.java : 짧은 시간에 같은 카드/사용자로 결제가 몰리는 것을 막는 한도 검사.
+ *                        - 카드(결제수단 종류 + 번호)와 사용자마다 최근 window 동안의 결제 건수와 금액을 센다.
+ *                        - 창은 buckets개의 칸으로 나눈 고리 버퍼이다. 칸마다 [담당 시간(stamp), 건수, 금액]을 불변 객체 하나로
+ *                          두고 CAS로 통째로 바꾸므로, 지난 시간 칸을 다시 쓰면서 비우는 순간에 더한 결제도 빠지지 않는다.
+ *                          결제 한 건의 검사는 칸 수에만 비례한다. (결제가 많아져도 일정)
+ *                        - 먼저 더한 뒤 한도를 넘으면 되돌리므로 동시에 결제해도 한도를 넘겨 승인되지 않는다.
+ *                        - 막힌 결제는 세지 않는다. 센 결제가 거절되면 revert()로 더했던 칸에서 뺀다. (칸이 이미 지났으면 그대로)
+ *                        - 맵은 창을 만들 때만 잠근다. 오래 쓰지 않은 창은 더하는 스레드가 없을 때 정리 표시(retire)를 한 뒤 빼며,
+ *                          정리 표시된 창을 만난 결제는 새 창에 다시 더하므로 정리와 겹친 결제도 남는다.
+ *                        서비스는 대여를 시작할 때 보류 금액으로 검사하고, 반납 결제는 막지 않고 세기만 한다.
+ *                        한도는 -Dkickboard.payment.velocity.* 로 정한다. (enabled=false면 검사하지 않는다)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class PaymentVelocity implements Closeable {
+
+    /**
+     * 창 크기와 한도. 불변 객체이며 with...()는 값을 바꾼 새 Options를 돌려준다.
+     */
+    public static final class Options {
+
+        private static final Options DEFAULTS = new Options(true, 600, 10, 5, Money.ofWon(100_000), 10, Money.ofWon(200_000));
+
+        private final boolean enabled;
+        private final long windowSeconds;
+        private final int buckets;
+        private final long cardMaxCount;
+        private final Money cardMaxAmount;
+        private final long userMaxCount;
+        private final Money userMaxAmount;
+
+        private Options(boolean enabled, long windowSeconds, int buckets, long cardMaxCount, Money cardMaxAmount,
+                        long userMaxCount, Money userMaxAmount) {
+            if (windowSeconds < 1 || buckets < 1 || buckets > windowSeconds * 1_000 || cardMaxCount < 1 || userMaxCount < 1
+                    || cardMaxAmount.signum() <= 0 || userMaxAmount.signum() <= 0) {
+                throw new IllegalArgumentException("잘못된 결제 한도 설정입니다.");
+            }
+            this.enabled = enabled;
+            this.windowSeconds = windowSeconds;
+            this.buckets = buckets;
+            this.cardMaxCount = cardMaxCount;
+            this.cardMaxAmount = cardMaxAmount;
+            this.userMaxCount = userMaxCount;
+            this.userMaxAmount = userMaxAmount;
+        }
+
+        // 10분 창 (1분 칸 10개), 카드당 5건/10만원, 사용자당 10건/20만원
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        // -Dkickboard.payment.velocity.enabled / windowSeconds / buckets / cardMaxCount / cardMaxWon / userMaxCount / userMaxWon
+        public static Options fromSystemProperties() {
+            String p = "kickboard.payment.velocity.";
+            return new Options(Boolean.parseBoolean(System.getProperty(p + "enabled", String.valueOf(DEFAULTS.enabled))),
+                    Long.getLong(p + "windowSeconds", DEFAULTS.windowSeconds),
+                    Integer.getInteger(p + "buckets", DEFAULTS.buckets),
+                    Long.getLong(p + "cardMaxCount", DEFAULTS.cardMaxCount),
+                    Money.ofWon(Long.getLong(p + "cardMaxWon", DEFAULTS.cardMaxAmount.toWon(RoundingMode.DOWN))),
+                    Long.getLong(p + "userMaxCount", DEFAULTS.userMaxCount),
+                    Money.ofWon(Long.getLong(p + "userMaxWon", DEFAULTS.userMaxAmount.toWon(RoundingMode.DOWN))));
+        }
+
+        public Options withEnabled(boolean enabled) {
+            return new Options(enabled, windowSeconds, buckets, cardMaxCount, cardMaxAmount, userMaxCount, userMaxAmount);
+        }
+
+        public Options withWindow(long windowSeconds, int buckets) {
+            return new Options(enabled, windowSeconds, buckets, cardMaxCount, cardMaxAmount, userMaxCount, userMaxAmount);
+        }
+
+        public Options withCardLimit(long maxCount, Money maxAmount) {
+            return new Options(enabled, windowSeconds, buckets, maxCount, maxAmount, userMaxCount, userMaxAmount);
+        }
+
+        public Options withUserLimit(long maxCount, Money maxAmount) {
+            return new Options(enabled, windowSeconds, buckets, cardMaxCount, cardMaxAmount, maxCount, maxAmount);
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public long getWindowSeconds() { return windowSeconds; }
+
+        @Override
+        public String toString() {
+            return (enabled ? "" : "(꺼짐) ") + windowSeconds + "초 창/" + buckets + "칸, 카드당 " + cardMaxCount + "건/"
+                    + cardMaxAmount.toPlainString() + "원, 사용자당 " + userMaxCount + "건/" + userMaxAmount.toPlainString() + "원";
+        }
+    }
+
+    /**
+     * 검사 결과. 센 결제는 revert()로 되돌릴 수 있다.
+     */
+    public static final class Check {
+        private static final Check NOT_COUNTED = new Check(null, null, 0, 0, null); // 검사가 꺼져 있음
+
+        private final String userId;
+        private final PaymentMethod method;
+        private final long tick;   // 더한 칸의 시간 칸 번호
+        private final long amountMinor;
+        private final String blockedReason; // 막혔으면 사유 (세지 않음)
+
+        private Check(String userId, PaymentMethod method, long tick, long amountMinor, String blockedReason) {
+            this.userId = userId;
+            this.method = method;
+            this.tick = tick;
+            this.amountMinor = amountMinor;
+            this.blockedReason = blockedReason;
+        }
+
+        public boolean isAllowed() { return blockedReason == null; }
+        public String getBlockedReason() { return blockedReason; }
+
+        private boolean isCounted() { return blockedReason == null && userId != null; }
+    }
+
+    /**
+     * 칸으로 나눈 미끄러지는 창 하나 (건수, 금액). 칸의 세 값은 불변 Slot 하나이다.
+     */
+    static final class Window {
+
+        private static final class Slot {
+            private final long stamp; // 담당 시간 칸 번호
+            private final long count;
+            private final long amount; // 최소 단위
+
+            private Slot(long stamp, long count, long amount) {
+                this.stamp = stamp;
+                this.count = count;
+                this.amount = amount;
+            }
+        }
+
+        private static final Slot EMPTY = new Slot(Long.MIN_VALUE, 0, 0);
+        private static final int RETIRED = -1;
+
+        private final int buckets;
+        private final AtomicReferenceArray<Slot> slots;
+        private final AtomicInteger writers = new AtomicInteger(); // 더하는 중인 스레드 수 (RETIRED면 정리되어 더할 수 없다)
+
+        Window(int buckets) {
+            this.buckets = buckets;
+            this.slots = new AtomicReferenceArray<>(buckets);
+            for (int i = 0; i < buckets; i++) slots.set(i, EMPTY);
+        }
+
+        /**
+         * tick 칸에 더한다. 지난 시간 칸이면 비우고 더하며, 이미 더 새 시간 칸이 되었으면 (창을 벗어난 결제) 더하지 않는다.
+         * @return 정리된 창이라 더하지 못했으면 false (새 창에 다시 더해야 한다)
+         */
+        boolean add(long tick, long count, long amountMinor) {
+            int n;
+            do {
+                n = writers.get();
+                if (n == RETIRED) return false;
+            } while (!writers.compareAndSet(n, n + 1));
+            try {
+                int i = (int) Math.floorMod(tick, (long) buckets);
+                Slot current, next;
+                do {
+                    current = slots.get(i);
+                    if (current.stamp > tick) return true;
+                    next = (current.stamp == tick)
+                            ? new Slot(tick, current.count + count, current.amount + amountMinor)
+                            : new Slot(tick, count, amountMinor);
+                } while (!slots.compareAndSet(i, current, next));
+                return true;
+            } finally {
+                writers.decrementAndGet();
+            }
+        }
+
+        // 쓰지 않는 창이면 정리 표시를 한다. 표시한 뒤로는 더할 수 없다. (더하는 중이거나 표시 직전에 더해졌으면 false)
+        boolean retire(long tick) {
+            if (!isIdle(tick) || !writers.compareAndSet(0, RETIRED)) return false;
+            if (isIdle(tick)) return true;
+            writers.set(0);
+            return false;
+        }
+
+        // tick 칸에 더했던 값을 뺀다. 칸이 이미 다른 시간 칸이 되었으면 (창을 벗어남) 아무것도 하지 않는다.
+        void subtract(long tick, long count, long amountMinor) {
+            int i = (int) Math.floorMod(tick, (long) buckets);
+            Slot current;
+            do {
+                current = slots.get(i);
+                if (current.stamp != tick) return;
+            } while (!slots.compareAndSet(i, current, new Slot(tick, current.count - count, current.amount - amountMinor)));
+        }
+
+        // 창 안의 건수나 금액이 한도를 넘는지 (칸을 한 번만 훑는다)
+        boolean exceeds(long tick, long maxCount, long maxAmountMinor) {
+            long count = 0, amount = 0;
+            for (int i = 0; i < buckets; i++) {
+                Slot slot = slots.get(i);
+                if (slot.stamp > tick - buckets && slot.stamp <= tick) {
+                    count += slot.count;
+                    amount += slot.amount;
+                }
+            }
+            return count > maxCount || amount > maxAmountMinor;
+        }
+
+        boolean isIdle(long tick) {
+            for (int i = 0; i < buckets; i++) {
+                if (slots.get(i).stamp > tick - buckets) return false;
+            }
+            return true;
+        }
+    }
+
+    private final Options options;
+    private final long bucketNanos;
+    private final Map<PaymentMethodType, Map<String, Window>> cards = new EnumMap<>(PaymentMethodType.class); // 종류 -> 번호 -> 창
+    private final Map<String, Window> users = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper; // 오래 쓰지 않은 창 정리 (꺼져 있으면 null)
+    private final Counter blockedByCard, blockedByUser;
+
+    public PaymentVelocity(Options options, MetricsRegistry metrics) {
+        this.options = options;
+        this.bucketNanos = TimeUnit.SECONDS.toNanos(options.windowSeconds) / options.buckets;
+        for (PaymentMethodType type : PaymentMethodType.values()) cards.put(type, new ConcurrentHashMap<>()); // 이후로는 읽기만 한다
+        String help = "결제 한도 검사에서 막힌 결제 수";
+        this.blockedByCard = metrics.counter("kickboard_payment_velocity_blocked_total", help, "scope", "card");
+        this.blockedByUser = metrics.counter("kickboard_payment_velocity_blocked_total", help, "scope", "user");
+        metrics.gauge("kickboard_payment_velocity_windows", "결제 한도 검사 중인 카드와 사용자 수", () -> cardWindowCount() + users.size());
+        if (options.enabled) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "payment-velocity");
+                t.setDaemon(true);
+                return t;
+            });
+            sweeper.scheduleWithFixedDelay(this::evictIdle, options.windowSeconds, options.windowSeconds, TimeUnit.SECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * 한도 안이면 결제를 센다. 넘으면 세지 않고 막힌 결과(getBlockedReason())를 돌려준다.
+     */
+    public Check tryRecord(String userId, PaymentMethod method, Money amount) {
+        if (!options.enabled) return Check.NOT_COUNTED;
+        long tick = System.nanoTime() / bucketNanos;
+        long minor = amount.minorUnits();
+        Window card = add(cardWindows(method), method.getIdentifier(), tick, 1, minor);
+        Window user = add(users, userId, tick, 1, minor);
+        boolean cardExceeded = card.exceeds(tick, options.cardMaxCount, options.cardMaxAmount.minorUnits());
+        boolean userExceeded = !cardExceeded && user.exceeds(tick, options.userMaxCount, options.userMaxAmount.minorUnits());
+        if (!cardExceeded && !userExceeded) return new Check(userId, method, tick, minor, null);
+
+        subtract(cardWindows(method), method.getIdentifier(), tick, minor); // 막힌 결제는 세지 않는다
+        subtract(users, userId, tick, minor);
+        (cardExceeded ? blockedByCard : blockedByUser).inc();
+        String period = options.windowSeconds % 60 == 0 ? (options.windowSeconds / 60) + "분" : options.windowSeconds + "초";
+        return new Check(userId, method, tick, minor, cardExceeded
+                ? "이 결제수단으로 최근 " + period + " 동안 결제가 너무 많습니다. (최대 " + options.cardMaxCount + "건, "
+                        + options.cardMaxAmount.toWon(RoundingMode.DOWN) + "원)"
+                : "최근 " + period + " 동안 결제가 너무 많습니다. (최대 " + options.userMaxCount + "건, "
+                        + options.userMaxAmount.toWon(RoundingMode.DOWN) + "원)");
+    }
+
+    // 한도와 관계없이 센다. (막으면 안 되는 반납 결제)
+    public Check record(String userId, PaymentMethod method, Money amount) {
+        if (!options.enabled) return Check.NOT_COUNTED;
+        long tick = System.nanoTime() / bucketNanos;
+        long minor = amount.minorUnits();
+        add(cardWindows(method), method.getIdentifier(), tick, 1, minor);
+        add(users, userId, tick, 1, minor);
+        return new Check(userId, method, tick, minor, null);
+    }
+
+    // 센 결제가 거절되었을 때 되돌린다. (막혔거나 세지 않은 결과, null이면 아무것도 하지 않는다)
+    public void revert(Check check) {
+        if (check == null || !check.isCounted()) return;
+        subtract(cardWindows(check.method), check.method.getIdentifier(), check.tick, check.amountMinor);
+        subtract(users, check.userId, check.tick, check.amountMinor);
+    }
+
+    // 결제마다 키 문자열을 만들지 않도록 종류별 맵에서 번호로 찾는다
+    private Map<String, Window> cardWindows(PaymentMethod method) {
+        return cards.get(method.getType());
+    }
+
+    // 맵은 창을 처음 만들 때만 잠근다. 정리된 창을 만나면 맵에서 빼고 새 창에 다시 더한다.
+    private Window add(Map<String, Window> windows, String key, long tick, long count, long minor) {
+        while (true) {
+            Window window = windows.get(key);
+            if (window == null) window = windows.computeIfAbsent(key, k -> new Window(options.buckets));
+            if (window.add(tick, count, minor)) return window;
+            windows.remove(key, window);
+        }
+    }
+
+    // 정리된 창이면 그 칸들은 이미 창을 벗어났으므로 뺄 것이 없다
+    private void subtract(Map<String, Window> windows, String key, long tick, long minor) {
+        Window window = windows.get(key);
+        if (window != null) window.subtract(tick, 1, minor);
+    }
+
+    private int cardWindowCount() {
+        int count = 0;
+        for (Map<String, Window> byNumber : cards.values()) count += byNumber.size();
+        return count;
+    }
+
+    private void evictIdle() {
+        long tick = System.nanoTime() / bucketNanos;
+        for (Map<String, Window> byNumber : cards.values()) evictIdle(byNumber, tick);
+        evictIdle(users, tick);
+    }
+
+    private static void evictIdle(Map<String, Window> windows, long tick) {
+        for (Map.Entry<String, Window> e : windows.entrySet()) {
+            if (e.getValue().retire(tick)) windows.remove(e.getKey(), e.getValue());
+        }
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+}
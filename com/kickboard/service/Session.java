@@ -0,0 +1,40 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.user.User;
+
+import java.util.Objects;
+
+/**
+ * Session.java          : 로그인으로 발급되는 세션. 토큰과 로그인한 사용자, 마지막 사용 시각을 가진다.
+ *                         마지막 사용 시각만 바뀌며 volatile 쓰기로 갱신하므로 조회 경로에 잠금이 없다.
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+public final class Session {
+
+    private final String token;
+    private final User user;
+    private final long createdAtMillis;
+    private volatile long lastAccessMillis;
+
+    Session(String token, User user, long nowMillis) {
+        this.token = Objects.requireNonNull(token, "token");
+        this.user = Objects.requireNonNull(user, "user");
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    public String getToken() { return token; }
+    public User getUser() { return user; }
+    public String getUserId() { return user.getUserId(); }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public long getLastAccessMillis() { return lastAccessMillis; }
+
+    void touch(long nowMillis) {
+        this.lastAccessMillis = nowMillis;
+    }
+
+    boolean isExpired(long nowMillis, long idleTimeoutMillis) {
+        return nowMillis - lastAccessMillis > idleTimeoutMillis;
+    }
+}
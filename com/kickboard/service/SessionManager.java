@@ -0,0 +1,94 @@
+package com.kickboard.service;
+
+import com.kickboard.domain.user.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionManager.java   : 세션 테이블. 토큰 -> Session 을 ConcurrentHashMap에 보관한다.
+ *                         - 조회(find)는 해시 조회 + volatile 쓰기뿐이라 O(1)이며 잠금이 없다.
+ *                         - 마지막 사용 후 idleTimeout이 지나면 만료: 조회 시 바로 제거하고,
+ *                           백그라운드 정리 작업이 주기적으로 남은 만료 세션을 지운다.
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+public class SessionManager {
+
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int TOKEN_BYTES = 24;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService reaper;
+
+    public SessionManager() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public SessionManager(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, idleTimeoutMillis / 2);
+        reaper.scheduleAtFixedRate(this::purgeExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 세션을 발급한다. (한 사용자가 여러 세션을 가질 수 있다)
+     */
+    public Session open(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, System.currentTimeMillis());
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * 토큰으로 유효한 세션을 찾고 마지막 사용 시각을 갱신한다.
+     * @return 세션 (없거나 만료되었으면 null)
+     */
+    public Session find(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now, idleTimeoutMillis)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public void close(Session session) {
+        if (session == null) return;
+        sessions.remove(session.getToken(), session);
+    }
+
+    // 만료된 세션 일괄 정리
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(s -> s.isExpired(now, idleTimeoutMillis));
+    }
+
+    // 만료 정리 전의 세션도 포함한 수
+    public int size() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        reaper.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package com.kickboard.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StartupTimings.java   : 서비스 시작 단계별 소요 시간.
+ *                         - 단계(스냅샷 복원, 저널 재생, 저장소 적재 ...)는 끝난 순서대로 기록한다.
+ *                           백그라운드에서 끝나는 단계도 같은 표에 나중에 추가된다.
+ *                         - 준비 완료(요청을 받을 수 있는 시점)와 첫 대여 완료 시점은
+ *                           서비스 생성을 시작한 때부터 잰다. (time-to-first-rent 추적용)
+ * @version              : 1.0
+ * @date                 : 2026.10.18
+ */
+public final class StartupTimings {
+
+    private final long originNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>(); // 단계 이름 -> 소요 시간(ns)
+    private volatile long readyNanos = -1;
+    private final AtomicLong firstRentNanos = new AtomicLong(-1);
+
+    /**
+     * 단계 하나가 끝났음을 기록한다.
+     * @param startNanos 단계를 시작할 때의 System.nanoTime()
+     */
+    public void record(String phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        synchronized (phases) {
+            phases.merge(phase, elapsed, Long::sum);
+        }
+    }
+
+    // 서비스가 요청을 받을 수 있게 된 시점
+    void markReady() {
+        readyNanos = System.nanoTime() - originNanos;
+    }
+
+    /**
+     * 첫 대여가 끝난 시점을 기록한다. (두 번째부터는 무시)
+     * @return 이번 호출이 첫 대여였으면 true
+     */
+    boolean markFirstRent() {
+        return firstRentNanos.get() < 0 && firstRentNanos.compareAndSet(-1, System.nanoTime() - originNanos);
+    }
+
+    public Map<String, Long> getPhaseMillis() {
+        Map<String, Long> copy = new LinkedHashMap<>();
+        synchronized (phases) {
+            phases.forEach((name, nanos) -> copy.put(name, nanos / 1_000_000));
+        }
+        return copy;
+    }
+
+    // 준비 전이면 -1
+    public long getReadyMillis() {
+        return readyNanos < 0 ? -1 : readyNanos / 1_000_000;
+    }
+
+    // 아직 대여가 없으면 -1
+    public long getFirstRentMillis() {
+        long nanos = firstRentNanos.get();
+        return nanos < 0 ? -1 : nanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        getPhaseMillis().forEach((name, millis) -> sb.append(name).append(' ').append(millis).append("ms, "));
+        sb.append("준비 완료 ").append(getReadyMillis()).append("ms");
+        long firstRent = getFirstRentMillis();
+        if (firstRent >= 0) sb.append(", 첫 대여 ").append(firstRent).append("ms");
+        return sb.toString();
+    }
+}
@@ -6,9 +6,12 @@ import com.kickboard.domain.payment.PaymentMethodType;
 import com.kickboard.domain.user.DriverLicense;
 import com.kickboard.domain.payment.PaymentMethod;
 import com.kickboard.domain.user.User;
+import com.kickboard.metrics.Counter;
+import com.kickboard.metrics.LatencyHistogram;
+import com.kickboard.metrics.MetricsRegistry;
+import com.kickboard.repository.UserRepository;
 
 import java.math.BigDecimal; 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,7 +24,6 @@ import java.util.Objects;
  * <=== 메서드 ===>
  * - 회원가입(register)
  * - 로그인(authenticate)
- * - 로그아웃(logout)
  * - 운전면허 등록(registerDriverLicense)
  * - 결제수단 추가(addPaymentMethod)
  *
@@ -30,20 +32,22 @@ import java.util.Objects;
  *
  * 설계 :
  * - register: 중복 ID 검사 -> 새 User 생성 및 목록에 추가
- * - authenticate: 아이디로 사용자 조회 -> 비밀번호 확인(true/false)
- * - logout: 현재 로그인된 사용자를 null 처리 (세션 관리는 상위 레이어에서 담당 가능)
+ * - authenticate: 아이디로 사용자 조회 -> 비밀번호 확인(일치하면 User 반환)
+ *   (로그인 상태/세션은 KickboardRentalService의 SessionManager가 관리)
  * - registerDriverLicense: 면허번호를 받아 DriverLicense 객체를 생성/검증 후 사용자에 등록
  * - addPaymentMethod: 간단한 결제수단(카드) 정보를 받아 User에 추가
  * 
  * 유의사항
- * - 이 서비스는 메모리 내 사용자 목록을 관리하므로, 실제 애플리케이션에서는 영속성 계층과 연동 필요.
- * - 동시성 제어나 보안 강화는 별도 고려 필요.
+ * - 사용자 목록은 UserRepository(userId 해시 인덱스)에 보관하며, 영속화는 상위 서비스의 저널이 담당.
+ * - 사용자 저장소는 스레드 안전하며, 중복 ID 검사와 저장은 saveIfAbsent로 한 번에 수행. 보안 강화는 별도 고려 필요.
  * - null 입력 방지를 위해 Objects.requireNonNull 사용.
  */
 public class UserService {
 
-    private final List<User> users = new ArrayList<>();
-    private User currentUser = null; // 간단한 세션 시뮬레이션
+    private final UserRepository users = new UserRepository();
+    private final LatencyHistogram authLatency = MetricsRegistry.global().histogram("kickboard_authenticate_seconds", "로그인 확인 시간 (authenticate)");
+    private final Counter loginSucceeded = MetricsRegistry.global().counter("kickboard_login_total", "로그인 시도 수", "result", "success");
+    private final Counter loginFailed = MetricsRegistry.global().counter("kickboard_login_total", "로그인 시도 수", "result", "failure");
     private PaymentFactory paymentFactory;
 
     // --------------------------- 회원 관리 ---------------------------
@@ -59,7 +63,7 @@ public class UserService {
         Objects.requireNonNull(userId, "userId");
         Objects.requireNonNull(password, "password");
 
-        if (findUserById(userId) != null) {
+        if (users.exists(userId)) {
             return false; // 중복 ID
         }
         if (userId.isEmpty() || password.isEmpty()) {
@@ -72,7 +76,9 @@ public class UserService {
             return false; // 면허 등록 실패 시 회원가입 실패
         }
 
-        users.add(user);
+        if (!users.saveIfAbsent(user)) {
+            return false; // 동시에 같은 ID로 가입한 경우
+        }
         boolean valid = registerDriverLicense(user.getUserId(), driverLicense); // 면허 등록 시도
         if (!valid) {
             users.remove(user); // 면허 등록 실패 시 사용자 제거
@@ -84,36 +90,21 @@ public class UserService {
 
     /**
      * 로그인 시도 함수
-     * feat : 아이디와 비밀번호로 로그인 시도. 메모리에 현재 로그인 한 유저 Service 객체의 필드로 저장 (세션 시뮬레이션)
+     * feat : 아이디와 비밀번호로 로그인 시도. 세션 발급은 호출한 서비스가 담당한다.
      * @param userId 아이디
      * @param password 비밀번호
-     * @return true: 로그인 성공(내부 currentUser에 저장), false: 실패
+     * @return 로그인 성공 시 해당 User, 실패 시 null
      */
-    public boolean authenticate(String userId, String password) {
+    public User authenticate(String userId, String password) {
         Objects.requireNonNull(userId, "userId");
         Objects.requireNonNull(password, "password");
 
+        long start = System.nanoTime();
         User user = findUserById(userId);
-        if (user == null) return false;
-        if (user.checkPassword(password)) {
-            this.currentUser = user;
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * 로그아웃 : 현재 로그인된 사용자 null 초기화
-     */
-    public void logout() {
-        this.currentUser = null;
-    }
-
-    /**
-     * 현재 로그인된 사용자 반환 (없으면 null)
-     */
-    public User getCurrentUser() {
-        return this.currentUser;
+        User result = (user != null && user.checkPassword(password)) ? user : null;
+        authLatency.recordSince(start);
+        (result != null ? loginSucceeded : loginFailed).inc();
+        return result;
     }
 
     /**
@@ -122,23 +113,7 @@ public class UserService {
      */
     public void loadUsers(List<User> users) {
         if (users == null) return;
-        this.users.clear();
-        this.users.addAll(users);
-    }
-
-    /**
-     * ID만으로 사용자를 인증합니다. (상태 복원용)
-     * @param userId 사용자 ID
-     * @return 인증 성공 시 true
-     */
-    public boolean authenticateWithId(String userId) {
-        if (userId == null) return false;
-        User user = findUserById(userId);
-        if (user != null) {
-            this.currentUser = user;
-            return true;
-        }
-        return false;
+        this.users.loadAll(users);
     }
 
     // --------------------------- 운전면허 관리 ---------------------------
@@ -205,17 +180,14 @@ public class UserService {
     // --------------------------- 헬퍼 ---------------------------
 
     public User findUserById(String userId) {
-        for (User u : this.users) {
-            if (u.getUserId().equals(userId)) return u;
-        }
-        return null;
+        return this.users.findById(userId);
     }
 
     /**
      * 내부에 보관된 (registered) 모든 사용자(읽기용) 반환
      */
     public List<User> getAllUsers() {
-        return new ArrayList<>(this.users);
+        return this.users.findAll();
     }
 
 }
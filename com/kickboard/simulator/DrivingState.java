@@ -0,0 +1,65 @@
+package com.kickboard.simulator;
+
+import java.util.Objects;
+
+/**
+ * DrivingState.java : 주행 중인 킥보드 한 대의 위치/주행 거리/배터리와 이동 규칙.
+ *                     한 칸 이동마다 주행 거리 3.0m 증가, 배터리 1% 감소 (0%면 이동 불가)
+ *                     KickboardSimulator(단독 실행)와 FleetSimulator(프로세스 내 다수 주행)가 함께 사용한다.
+ *                     동기화는 사용하는 쪽에서 한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+final class DrivingState {
+
+    static final double STEP_DISTANCE = 3.0;
+
+    private final String vehicleId;
+    private int x, y;
+    private double traveledDistance;
+    private int batteryLevel;
+    private TelemetryUpdate.Status status = TelemetryUpdate.Status.DRIVING;
+
+    DrivingState(String vehicleId, int startX, int startY, int initialBattery) {
+        this.vehicleId = Objects.requireNonNull(vehicleId, "vehicleId");
+        this.x = startX;
+        this.y = startY;
+        this.batteryLevel = initialBattery;
+    }
+
+    /**
+     * w/a/s/d 방향으로 한 칸 이동한다.
+     * @return 이동했으면 true (잘못된 방향, 배터리 없음, 반납 요청 후에는 false)
+     */
+    boolean move(String direction) {
+        if (status != TelemetryUpdate.Status.DRIVING || batteryLevel == 0) return false;
+        switch (direction) {
+            case "w": y++; break;
+            case "s": y--; break;
+            case "a": x--; break;
+            case "d": x++; break;
+            default: return false;
+        }
+        traveledDistance += STEP_DISTANCE;
+        batteryLevel = Math.max(0, batteryLevel - 1);
+        return true;
+    }
+
+    // 반납 요청으로 주행 종료. 이미 잠겨 있었으면 false
+    boolean lock() {
+        if (status != TelemetryUpdate.Status.DRIVING) return false;
+        status = TelemetryUpdate.Status.LOCKED;
+        return true;
+    }
+
+    TelemetryUpdate snapshot() {
+        return new TelemetryUpdate(status, vehicleId, x, y, traveledDistance, batteryLevel);
+    }
+
+    String getVehicleId() { return vehicleId; }
+    int getX() { return x; }
+    int getY() { return y; }
+    double getTraveledDistance() { return traveledDistance; }
+    int getBatteryLevel() { return batteryLevel; }
+    boolean isDriving() { return status == TelemetryUpdate.Status.DRIVING; }
+}
@@ -0,0 +1,148 @@
+package com.kickboard.simulator;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FleetSimulator.java : 서비스 프로세스 안에서 여러 킥보드의 주행을 동시에 시뮬레이션하는 엔진.
+ *                       대여마다 터미널/JVM을 띄우는 대신, 공용 스케줄러가 tick마다 주행 중인 모든 킥보드를
+ *                       한 칸씩 움직이고 InProcessTelemetryTransport로 상태를 보낸다.
+ *                       (대여 한 건의 비용은 스레드가 아닌 작은 객체 하나)
+ *                       이동 규칙은 KickboardSimulator와 같은 DrivingState를 사용한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public class FleetSimulator implements Closeable {
+
+    /**
+     * 다음 tick에 이동할 방향(w/a/s/d)을 정한다. null이면 이번 tick은 제자리.
+     */
+    public interface Route {
+        String next();
+    }
+
+    private static final List<String> DIRECTIONS = List.of("w", "a", "s", "d");
+
+    // 무작위 방향으로 한 칸씩 이동
+    public static Route randomWalk() {
+        return () -> DIRECTIONS.get(ThreadLocalRandom.current().nextInt(DIRECTIONS.size()));
+    }
+
+    /**
+     * 주어진 방향 문자열을 반복해서 따라간다. (예: "wwdd", '.'은 제자리)
+     */
+    public static Route scripted(String directions) {
+        if (directions == null || directions.isEmpty()) {
+            throw new IllegalArgumentException("directions must not be empty");
+        }
+        return new Route() {
+            private int index;
+
+            @Override
+            public String next() {
+                char c = directions.charAt(index);
+                index = (index + 1) % directions.length();
+                return c == '.' ? null : String.valueOf(c);
+            }
+        };
+    }
+
+    // 주행 중인 킥보드 한 대
+    private final class Ride {
+        private final DrivingState state;
+        private final Route route;
+        private final TelemetryLink link;
+
+        Ride(DrivingState state, Route route, TelemetryLink link) {
+            this.state = state;
+            this.route = route;
+            this.link = link;
+        }
+
+        synchronized void tick() {
+            String direction = route.next();
+            if (direction != null && state.move(direction)) {
+                link.publish(state.snapshot());
+            }
+        }
+
+        void onCommand(TelemetryCommand command) {
+            switch (command) {
+                case RETURN_REQUESTED:
+                    synchronized (this) {
+                        if (state.lock()) link.publish(state.snapshot()); // 잠금 즉시 최종 상태 응답
+                    }
+                    break;
+                case SHUTDOWN:
+                    stop(state.getVehicleId());
+                    break;
+            }
+        }
+    }
+
+    private final InProcessTelemetryTransport transport;
+    private final Map<String, Ride> rides = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * @param transport 서비스와 공유하는 프로세스 내 전송 계층
+     * @param tickMillis 한 칸 이동 간격
+     */
+    public FleetSimulator(InProcessTelemetryTransport transport, long tickMillis) {
+        this.transport = Objects.requireNonNull(transport, "transport");
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fleet-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 킥보드 한 대의 주행을 시작한다.
+     * @throws IllegalStateException 이미 주행 중인 킥보드일 때
+     */
+    public void start(String vehicleId, int startX, int startY, int battery, Route route) {
+        Objects.requireNonNull(route, "route");
+        TelemetryLink link = transport.connect(vehicleId);
+        Ride ride = new Ride(new DrivingState(vehicleId, startX, startY, battery), route, link);
+        if (rides.putIfAbsent(vehicleId, ride) != null) {
+            throw new IllegalStateException("이미 주행 중인 킥보드입니다: " + vehicleId);
+        }
+        link.publish(ride.state.snapshot());
+        link.onCommand(ride::onCommand);
+    }
+
+    // 주행을 끝내고 연결을 정리한다.
+    public void stop(String vehicleId) {
+        Ride ride = rides.remove(vehicleId);
+        if (ride != null) ride.link.close();
+    }
+
+    public int activeCount() {
+        return rides.size();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        for (String vehicleId : rides.keySet()) stop(vehicleId);
+    }
+
+    private void tick() {
+        for (Ride ride : rides.values()) {
+            try {
+                ride.tick();
+            } catch (RuntimeException e) { // 한 대의 오류로 전체 tick이 멈추지 않도록
+                System.err.println("[경고] 주행 시뮬레이션 오류 (" + ride.state.getVehicleId() + "): " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kickboard.simulator;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * InProcessTelemetryTransport.java : 같은 프로세스 안의 시뮬레이터와 메모리로 직접 주고받는 전송 계층.
+ *                                    상태/명령이 복사나 직렬화 없이 바로 전달된다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public class InProcessTelemetryTransport implements TelemetryTransport {
+
+    private final TelemetryBoard board = new TelemetryBoard();
+
+    /**
+     * 시뮬레이터 쪽 연결을 만든다.
+     */
+    public TelemetryLink connect(String vehicleId) {
+        Objects.requireNonNull(vehicleId, "vehicleId");
+        return new TelemetryLink() {
+            private Consumer<TelemetryCommand> listener;
+
+            @Override
+            public void publish(TelemetryUpdate update) {
+                board.publish(update);
+            }
+
+            @Override
+            public void onCommand(Consumer<TelemetryCommand> listener) {
+                this.listener = listener;
+                board.attach(vehicleId, listener);
+            }
+
+            @Override
+            public void close() {
+                if (listener != null) board.detach(vehicleId, listener);
+            }
+        };
+    }
+
+    @Override
+    public void register(TelemetryUpdate initial) {
+        board.publish(initial);
+    }
+
+    @Override
+    public TelemetryUpdate latest(String vehicleId) {
+        return board.latest(vehicleId);
+    }
+
+    @Override
+    public TelemetryUpdate awaitStatus(String vehicleId, TelemetryUpdate.Status status, long timeoutMillis) throws InterruptedException {
+        return board.awaitStatus(vehicleId, status, timeoutMillis);
+    }
+
+    @Override
+    public void send(String vehicleId, TelemetryCommand command) {
+        board.send(vehicleId, command);
+    }
+
+    @Override
+    public void release(String vehicleId) {
+        board.release(vehicleId);
+    }
+
+    @Override
+    public String endpoint() {
+        return "inprocess";
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -1,10 +1,6 @@
 package com.kickboard.simulator;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Objects;
@@ -13,36 +9,32 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * KickboardSimulator.java : 킥보드 주행 시뮬레이션을 담당하는 독립적인 프로그램.
- *                           driving_status.txt 파일을 통해 메인 서비스와 통신한다.
+ *                           TelemetryLink를 통해 메인 서비스와 통신한다.
+ *                           (주행 상태는 이동할 때마다 보내고, 반납/종료 명령은 도착하는 즉시 처리)
  * @author : ASDRAs
- * @version : 1.0
- * @date : 2025.10.11
+ * @version : 1.1
+ * @date : 2026.10.18
  */
 public class KickboardSimulator {
 
-    private static final Path SIMULATION_DIR = Paths.get("simulation");
-    private static final Path DRIVING_STATUS_FILE = SIMULATION_DIR.resolve("driving_status.txt");
-
     private String vehicleId;
-    private int currentX, currentY;
-    private double traveledDistance;
-    private int batteryLevel;
+    private final DrivingState state; // 위치/주행 거리/배터리 (이동 규칙은 FleetSimulator와 공유)
     private LocalDateTime simulationStartTime;
     private Scanner simulatorScanner; // 시뮬레이터 전용 스캐너
+    private final TelemetryLink link;
+    private volatile boolean shutdownRequested;
 
-    public KickboardSimulator(String vehicleId, int startX, int startY, int initialBattery) {
+    public KickboardSimulator(String vehicleId, int startX, int startY, int initialBattery, TelemetryLink link) {
         this.vehicleId = Objects.requireNonNull(vehicleId);
-        this.currentX = startX;
-        this.currentY = startY;
-        this.traveledDistance = 0.0;
-        this.batteryLevel = initialBattery;
+        this.state = new DrivingState(vehicleId, startX, startY, initialBattery);
         this.simulationStartTime = LocalDateTime.now();
         this.simulatorScanner = new Scanner(System.in);
+        this.link = Objects.requireNonNull(link, "link");
     }
 
     public static void main(String[] args) {
-        if (args.length < 4) {
-            System.err.println("사용법: java KickboardSimulator <vehicleId> <startX> <startY> <initialBattery>");
+        if (args.length < 5) {
+            System.err.println("사용법: java KickboardSimulator <vehicleId> <startX> <startY> <initialBattery> <endpoint>");
             return;
         }
 
@@ -51,100 +43,96 @@ public class KickboardSimulator {
         int startY = Integer.parseInt(args[2]);
         int initialBattery = Integer.parseInt(args[3]);
 
-        KickboardSimulator simulator = new KickboardSimulator(vehicleId, startX, startY, initialBattery);
+        TelemetryLink link;
+        try {
+            link = SocketTelemetryTransport.connect(args[4], vehicleId);
+        } catch (IOException e) {
+            System.err.println("메인 서비스 연결 실패: " + e.getMessage());
+            return;
+        }
+        KickboardSimulator simulator = new KickboardSimulator(vehicleId, startX, startY, initialBattery, link);
         simulator.run();
     }
 
-    private enum State { DRIVING, LOCKED }
-    private State currentState = State.DRIVING;
-
     public void run() {
-        System.out.println("시뮬레이터 시작: " + vehicleId + " (초기 위치: " + currentX + "," + currentY + ")");
+        System.out.println("시뮬레이터 시작: " + vehicleId + " (초기 위치: " + state.getX() + "," + state.getY() + ")");
         printStatus();
 
         try {
-            writeDrivingStatus("DRIVING");
-
-            while (true) {
-                // 1. 메인 앱의 명령 확인
-                String command = readDrivingStatusFile().split(",")[0];
-                if ("RETURN_REQUESTED".equals(command) && currentState == State.DRIVING) {
-                    currentState = State.LOCKED;
-                    System.out.println("\n[알림] 반납이 요청되었습니다. 메인 앱에서 결제를 완료해주세요.");
-                    System.out.println("더 이상 주행할 수 없습니다.");
-                    // 최종 상태를 한 번 더 기록
-                    writeDrivingStatus("LOCKED");
-                } else if ("SHUTDOWN".equals(command)) {
-                    System.out.println("\n[알림] 결제가 완료되어 시뮬레이터를 종료합니다.");
-                    break;
-                }
+            publish();
+            link.onCommand(this::handleCommand);
 
-                // 2. 사용자 입력 확인 (논블로킹)
+            while (!shutdownRequested) {
+                // 사용자 입력 확인 (논블로킹)
                 if (System.in.available() > 0) {
                     String input = simulatorScanner.nextLine().trim().toLowerCase();
-                    if (batteryLevel == 0) {
+                    if (state.getBatteryLevel() == 0) {
                     	System.out.println("========== No Battery ==========");
                     	continue;
                     }
-                    if (currentState == State.DRIVING) {
-                        if (java.util.Arrays.asList("w", "a", "s", "d").contains(input)) {
-                            moveKickboard(input);
-                            writeDrivingStatus("DRIVING");
-                            printStatus(); // 이동 시에만 상태 출력
-                        } else {
-                            System.out.print("잘못된 입력입니다. (w/a/s/d): ");
+                    synchronized (this) {
+                        if (state.isDriving()) {
+                            if (Arrays.asList("w", "a", "s", "d").contains(input)) {
+                                moveKickboard(input);
+                                publish();
+                                printStatus(); // 이동 시에만 상태 출력
+                            } else {
+                                System.out.print("잘못된 입력입니다. (w/a/s/d): ");
+                            }
+                        } else { // LOCKED 상태일 때
+                            System.out.println("\n[알림] 반납이 요청되어 주행할 수 없습니다. 메인 앱에서 결제를 완료해주세요.");
                         }
-                    } else { // LOCKED 상태일 때
-                        System.out.println("\n[알림] 반납이 요청되어 주행할 수 없습니다. 메인 앱에서 결제를 완료해주세요.");
                     }
                 }
 
-                TimeUnit.MILLISECONDS.sleep(200); // CPU 사용량 감소를 위한 짧은 대기
+                TimeUnit.MILLISECONDS.sleep(50); // 입력 확인 간격 (명령은 리스너가 즉시 처리)
             }
+            System.out.println("\n[알림] 결제가 완료되어 시뮬레이터를 종료합니다.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("시뮬레이터 스레드 중단됨: " + e.getMessage());
         } catch (IOException e) {
-            System.err.println("파일 통신 오류: " + e.getMessage());
+            System.err.println("입력 처리 오류: " + e.getMessage());
         } finally {
+            link.close();
             simulatorScanner.close();
             System.out.println("시뮬레이터가 안전하게 종료되었습니다.");
         }
     }
 
-    private void moveKickboard(String direction) {
-        int oldX = currentX, oldY = currentY;
-        switch (direction) {
-            case "w": currentY++; break;
-            case "s": currentY--; break;
-            case "a": currentX--; break;
-            case "d": currentX++; break;
+    // 서비스가 보낸 명령 처리 (전송 계층의 스레드에서 호출된다)
+    private void handleCommand(TelemetryCommand command) {
+        switch (command) {
+            case RETURN_REQUESTED:
+                synchronized (this) {
+                    if (!state.lock()) return;
+                    // 최종 상태를 한 번 더 기록
+                    publish();
+                }
+                System.out.println("\n[알림] 반납이 요청되었습니다. 메인 앱에서 결제를 완료해주세요.");
+                System.out.println("더 이상 주행할 수 없습니다.");
+                break;
+            case SHUTDOWN:
+                shutdownRequested = true;
+                break;
         }
-        traveledDistance += 3.0;
-        batteryLevel = Math.max(0, batteryLevel - 1);
-        System.out.printf("\n[%s] 이동: (%d,%d) -> (%d,%d)\n", vehicleId, oldX, oldY, currentX, currentY);
+    }
+
+    private void moveKickboard(String direction) {
+        int oldX = state.getX(), oldY = state.getY();
+        state.move(direction);
+        System.out.printf("\n[%s] 이동: (%d,%d) -> (%d,%d)\n", vehicleId, oldX, oldY, state.getX(), state.getY());
     }
 
     private void printStatus() {
         System.out.println("========== 킥보드 주행 정보 ==========");
         System.out.printf("ID: %s | 위치: (%d, %d) | 주행 거리: %.1fm | 배터리: %d%%\n",
-            vehicleId, currentX, currentY, traveledDistance, batteryLevel);
+            vehicleId, state.getX(), state.getY(), state.getTraveledDistance(), state.getBatteryLevel());
         System.out.println("=========================================");
         System.out.print("방향 입력 (w/a/s/d): ");
     }
 
-    private String readDrivingStatusFile() throws IOException {
-        if (!Files.exists(DRIVING_STATUS_FILE)) {
-            // 파일이 없으면 초기 상태 반환 (메인 프로그램이 아직 쓰지 않았을 경우)
-            return "INITIAL," + vehicleId + ",0,0,0.0,0";
-        }
-        return Files.readString(DRIVING_STATUS_FILE);
-    }
-
-    private void writeDrivingStatus(String status) throws IOException {
-        String content = String.format("%s,%s,%d,%d,%.1f,%d",
-            status, vehicleId, currentX, currentY, traveledDistance, batteryLevel);
-        Files.writeString(DRIVING_STATUS_FILE, content,
-            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    private synchronized void publish() {
+        link.publish(state.snapshot());
     }
 }
@@ -0,0 +1,64 @@
+package com.kickboard.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LineChannel.java : 소켓 채널 위에서 한 줄('\n' 구분) 단위로 읽고 쓰는 도우미.
+ *                    읽기 스레드와 쓰기 스레드가 서로를 막지 않도록 채널을 직접 읽고 쓴다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+final class LineChannel implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer readBuf = ByteBuffer.allocate(512);
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+    private final Object writeLock = new Object();
+
+    LineChannel(SocketChannel channel) {
+        this.channel = channel;
+        readBuf.flip(); // 비어 있는 상태로 시작
+    }
+
+    /**
+     * 다음 한 줄을 읽는다.
+     * @return 읽은 줄 (연결이 끊겼으면 null)
+     */
+    String readLine() throws IOException {
+        while (true) {
+            while (readBuf.hasRemaining()) {
+                byte b = readBuf.get();
+                if (b == '\n') {
+                    String s = line.toString(StandardCharsets.UTF_8);
+                    line.reset();
+                    return s;
+                }
+                line.write(b);
+            }
+            readBuf.clear();
+            int n = channel.read(readBuf);
+            readBuf.flip();
+            if (n < 0) return null;
+        }
+    }
+
+    void writeLine(String s) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap((s + "\n").getBytes(StandardCharsets.UTF_8));
+        synchronized (writeLock) {
+            while (buf.hasRemaining()) channel.write(buf);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.kickboard.simulator;
+
+import com.kickboard.domain.payment.IdempotentApprovals;
+import com.kickboard.domain.payment.PaymentGateway;
+import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.rental.Payment;
+import com.kickboard.exception.PaymentGatewayException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * PaymentGatewaySimulator.java : 실제 결제사 대신 쓰는 프로세스 내 게이트웨이.
+ *                                - 응답 시간은 로그정규 분포 (중앙값과 퍼짐 정도로 지정, 꼬리가 긴 실제 결제사와 비슷하다)
+ *                                - failureRate 비율로 처리 전에 일시 오류를 낸다. (재시도하면 성공할 수 있다)
+ *                                - stallRate 비율로 stallMillis 동안 응답하지 않는다. (호출하는 쪽의 시간 제한 확인용)
+ *                                - 승인 판단은 기존처럼 결제수단 잔액으로 하며, 승인된 멱등 키는 다시 처리하지 않는다.
+ *                                  (시간 초과로 포기한 요청이 뒤늦게 처리되어도 재시도가 다시 청구하지 않는다)
+ *                                  거절은 기억하지 않으므로 잔액을 채운 뒤 같은 키로 다시 시도할 수 있다. (IdempotentApprovals)
+ *                                - 보류(authorize)/확정(capture)/해제(release)도 결제와 같은 지연과 오류를 겪는다.
+ *                                -Dkickboard.payment.gateway=simulated 로 켠다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class PaymentGatewaySimulator implements PaymentGateway {
+
+    /**
+     * 응답 시간/오류 분포. 불변 객체이며 with...()는 값을 바꾼 새 Options를 돌려준다.
+     */
+    public static final class Options {
+
+        private static final Options DEFAULTS = new Options(80, 0.5, 0.0, 0.0, 10_000);
+
+        private final double medianMillis;
+        private final double spread;      // 로그정규 분포의 시그마 (0이면 항상 중앙값)
+        private final double failureRate;
+        private final double stallRate;
+        private final long stallMillis;
+
+        private Options(double medianMillis, double spread, double failureRate, double stallRate, long stallMillis) {
+            if (medianMillis < 0 || spread < 0 || stallMillis < 0) throw new IllegalArgumentException("음수 값은 쓸 수 없습니다.");
+            if (failureRate < 0 || failureRate > 1 || stallRate < 0 || stallRate > 1) {
+                throw new IllegalArgumentException("비율은 0~1이어야 합니다.");
+            }
+            this.medianMillis = medianMillis;
+            this.spread = spread;
+            this.failureRate = failureRate;
+            this.stallRate = stallRate;
+            this.stallMillis = stallMillis;
+        }
+
+        // 중앙값 80ms, 오류 없음
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * -Dkickboard.payment.sim.medianMillis / spread / failureRate / stallRate / stallMillis
+         * 결제사별로 다르게 하려면 kickboard.payment.sim.kakao_pay.medianMillis 처럼 결제수단 종류를 넣는다.
+         */
+        public static Options fromSystemProperties(PaymentMethodType provider) {
+            String specific = "kickboard.payment.sim." + provider.name().toLowerCase() + ".";
+            return new Options(
+                    property(specific, "medianMillis", DEFAULTS.medianMillis),
+                    property(specific, "spread", DEFAULTS.spread),
+                    property(specific, "failureRate", DEFAULTS.failureRate),
+                    property(specific, "stallRate", DEFAULTS.stallRate),
+                    (long) property(specific, "stallMillis", DEFAULTS.stallMillis));
+        }
+
+        private static double property(String specific, String name, double fallback) {
+            String value = System.getProperty(specific + name, System.getProperty("kickboard.payment.sim." + name));
+            return value == null ? fallback : Double.parseDouble(value);
+        }
+
+        public Options withLatency(double medianMillis, double spread) {
+            return new Options(medianMillis, spread, failureRate, stallRate, stallMillis);
+        }
+
+        public Options withFailureRate(double failureRate) {
+            return new Options(medianMillis, spread, failureRate, stallRate, stallMillis);
+        }
+
+        public Options withStalls(double stallRate, long stallMillis) {
+            return new Options(medianMillis, spread, failureRate, stallRate, stallMillis);
+        }
+
+        public double getMedianMillis() { return medianMillis; }
+        public double getSpread() { return spread; }
+        public double getFailureRate() { return failureRate; }
+        public double getStallRate() { return stallRate; }
+        public long getStallMillis() { return stallMillis; }
+
+        @Override
+        public String toString() {
+            return "median=" + medianMillis + "ms, spread=" + spread + ", failureRate=" + failureRate
+                    + ", stallRate=" + stallRate + ", stallMillis=" + stallMillis;
+        }
+    }
+
+    private final String name;
+    private volatile Options options; // 측정 중에 바꿀 수 있다 (결제사 장애 재현)
+    private final IdempotentApprovals approvals = new IdempotentApprovals(IdempotentApprovals.DEFAULT_CAPACITY);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public PaymentGatewaySimulator(String name, Options options) {
+        this.name = name;
+        this.options = options;
+    }
+
+    @Override
+    public boolean charge(Payment payment, String idempotencyKey) throws PaymentGatewayException {
+        return call("charge", idempotencyKey, payment::processPaymentCheck);
+    }
+
+    @Override
+    public boolean authorize(Payment hold, String idempotencyKey) throws PaymentGatewayException {
+        return call("authorize", idempotencyKey, hold::authorizeCheck);
+    }
+
+    @Override
+    public boolean capture(Payment hold, Payment payment, String idempotencyKey) throws PaymentGatewayException {
+        return call("capture", idempotencyKey, () -> payment.captureCheck(hold));
+    }
+
+    @Override
+    public boolean release(Payment hold, String idempotencyKey) throws PaymentGatewayException {
+        return call("release", idempotencyKey, () -> {
+            hold.releaseHold();
+            return true;
+        });
+    }
+
+    // 응답 지연/오류를 흉내 낸 뒤 처리한다. 이미 승인된 멱등 키면 다시 처리하지 않고 승인을 돌려준다.
+    private boolean call(String operation, String idempotencyKey, BooleanSupplier request) throws PaymentGatewayException {
+        requests.increment();
+        Options o = options;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean stall = random.nextDouble() < o.stallRate;
+        long delayNanos = stall ? o.stallMillis * 1_000_000L
+                : (long) (o.medianMillis * Math.exp(o.spread * random.nextGaussian()) * 1_000_000L);
+        try {
+            Thread.sleep(delayNanos / 1_000_000L, (int) (delayNanos % 1_000_000L));
+        } catch (InterruptedException e) { // 호출하는 쪽이 시간 초과로 취소함
+            Thread.currentThread().interrupt();
+            failures.increment();
+            throw new PaymentGatewayException("오류: " + name + " 요청이 중단되었습니다.", true);
+        }
+        if (random.nextDouble() < o.failureRate) {
+            failures.increment();
+            throw new PaymentGatewayException("오류: " + name + " 일시 장애 (시뮬레이션)", true);
+        }
+        return approvals.apply(operation, idempotencyKey, request);
+    }
+
+    public void setOptions(Options options) {
+        this.options = options;
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    // 기억하고 있는 승인 수 (오래된 승인은 잊는다)
+    public int getSettledCount() {
+        return approvals.size();
+    }
+
+    @Override
+    public String toString() {
+        return name + " 시뮬레이터 (" + options + ")";
+    }
+}
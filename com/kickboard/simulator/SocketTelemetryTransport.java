@@ -0,0 +1,212 @@
+package com.kickboard.simulator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * SocketTelemetryTransport.java : 별도 프로세스의 시뮬레이터와 로컬 소켓으로 주고받는 전송 계층.
+ *                                 Unix domain socket을 우선 사용하고, 지원되지 않으면 loopback TCP를 연다.
+ *                                 시뮬레이터는 접속 후 주행 상태를 한 줄씩 보내고, 같은 연결로 명령을 받는다.
+ *                                 연결마다 읽기 스레드 하나가 상태가 도착하는 즉시 반영한다. (폴링 없음)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public class SocketTelemetryTransport implements TelemetryTransport {
+
+    private final TelemetryBoard board = new TelemetryBoard();
+    private final ServerSocketChannel server;
+    private final String endpoint;
+    private final Path socketFile; // Unix domain socket 파일 (TCP면 null)
+    private volatile boolean closed;
+
+    private SocketTelemetryTransport(ServerSocketChannel server, String endpoint, Path socketFile) {
+        this.server = server;
+        this.endpoint = endpoint;
+        this.socketFile = socketFile;
+        Thread acceptor = new Thread(this::acceptLoop, "telemetry-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 소켓을 열고 시뮬레이터 접속을 받기 시작한다.
+     * @param socketFile Unix domain socket 경로
+     */
+    public static SocketTelemetryTransport start(Path socketFile) throws IOException {
+        try {
+            if (socketFile.getParent() != null) Files.createDirectories(socketFile.getParent());
+            Files.deleteIfExists(socketFile); // 이전 실행에서 남은 소켓 파일
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+            return new SocketTelemetryTransport(server, "unix:" + socketFile.toAbsolutePath(), socketFile);
+        } catch (UnsupportedOperationException | IOException e) {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            return new SocketTelemetryTransport(server, "tcp:" + port, null);
+        }
+    }
+
+    /**
+     * 시뮬레이터 쪽에서 endpoint로 접속한다.
+     * @param endpoint "unix:경로" 또는 "tcp:포트"
+     */
+    public static TelemetryLink connect(String endpoint, String vehicleId) throws IOException {
+        SocketChannel channel;
+        if (endpoint.startsWith("unix:")) {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(endpoint.substring("unix:".length())));
+        } else if (endpoint.startsWith("tcp:")) {
+            int port = Integer.parseInt(endpoint.substring("tcp:".length()));
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } else {
+            throw new IOException("지원하지 않는 주소: " + endpoint);
+        }
+        return new ClientLink(new LineChannel(channel), vehicleId);
+    }
+
+    @Override
+    public void register(TelemetryUpdate initial) {
+        board.publish(initial);
+    }
+
+    @Override
+    public TelemetryUpdate latest(String vehicleId) {
+        return board.latest(vehicleId);
+    }
+
+    @Override
+    public TelemetryUpdate awaitStatus(String vehicleId, TelemetryUpdate.Status status, long timeoutMillis) throws InterruptedException {
+        return board.awaitStatus(vehicleId, status, timeoutMillis);
+    }
+
+    @Override
+    public void send(String vehicleId, TelemetryCommand command) {
+        board.send(vehicleId, command);
+    }
+
+    @Override
+    public void release(String vehicleId) {
+        board.release(vehicleId);
+    }
+
+    @Override
+    public String endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+            if (socketFile != null) Files.deleteIfExists(socketFile);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ===== 서버 쪽 =====
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                Thread reader = new Thread(() -> serve(new LineChannel(channel)), "telemetry-reader");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) System.err.println("[경고] 시뮬레이터 접속 처리 실패: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // 한 시뮬레이터 연결: 첫 상태의 vehicleId로 명령 경로를 연결하고, 이후 상태를 계속 반영한다.
+    private void serve(LineChannel line) {
+        String vehicleId = null;
+        Consumer<TelemetryCommand> listener = command -> {
+            try {
+                line.writeLine(command.name());
+            } catch (IOException e) {
+                System.err.println("[경고] 시뮬레이터 명령 전송 실패: " + e.getMessage());
+            }
+        };
+        try {
+            String s;
+            while ((s = line.readLine()) != null) {
+                if (s.isBlank()) continue;
+                TelemetryUpdate update;
+                try {
+                    update = TelemetryUpdate.parse(s);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("[경고] " + e.getMessage());
+                    continue;
+                }
+                board.publish(update);
+                if (vehicleId == null) {
+                    vehicleId = update.getVehicleId();
+                    board.attach(vehicleId, listener);
+                }
+            }
+        } catch (IOException e) {
+            // 시뮬레이터 종료로 연결이 끊김
+        } finally {
+            if (vehicleId != null) board.detach(vehicleId, listener);
+            line.close();
+        }
+    }
+
+    // ===== 시뮬레이터(클라이언트) 쪽 =====
+
+    private static final class ClientLink implements TelemetryLink {
+        private final LineChannel line;
+        private final String vehicleId;
+
+        ClientLink(LineChannel line, String vehicleId) {
+            this.line = line;
+            this.vehicleId = vehicleId;
+        }
+
+        @Override
+        public void publish(TelemetryUpdate update) {
+            try {
+                line.writeLine(update.toLine());
+            } catch (IOException e) {
+                System.err.println("[경고] 주행 상태 전송 실패 (" + vehicleId + "): " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void onCommand(Consumer<TelemetryCommand> listener) {
+            Thread reader = new Thread(() -> {
+                try {
+                    String s;
+                    while ((s = line.readLine()) != null) {
+                        try {
+                            listener.accept(TelemetryCommand.valueOf(s.trim()));
+                        } catch (IllegalArgumentException ignored) {
+                            // 알 수 없는 명령은 무시
+                        }
+                    }
+                } catch (IOException e) {
+                    // 서비스 종료로 연결이 끊김
+                }
+                listener.accept(TelemetryCommand.SHUTDOWN);
+            }, "telemetry-commands");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        @Override
+        public void close() {
+            line.close();
+        }
+    }
+}
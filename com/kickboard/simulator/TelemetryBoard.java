@@ -0,0 +1,97 @@
+package com.kickboard.simulator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * TelemetryBoard.java : vehicleId별 마지막 상태와 명령 전달 경로를 보관하는 공용 저장소.
+ *                       두 전송 구현체가 함께 사용한다.
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+final class TelemetryBoard {
+
+    private static final class Slot {
+        private TelemetryUpdate latest;
+        private Consumer<TelemetryCommand> listener;
+        private final Queue<TelemetryCommand> pending = new ArrayDeque<>();
+    }
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private Slot slot(String vehicleId) {
+        return slots.computeIfAbsent(vehicleId, k -> new Slot());
+    }
+
+    void publish(TelemetryUpdate update) {
+        Slot slot = slot(update.getVehicleId());
+        synchronized (slot) {
+            slot.latest = update;
+            slot.notifyAll();
+        }
+    }
+
+    TelemetryUpdate latest(String vehicleId) {
+        Slot slot = slots.get(vehicleId);
+        if (slot == null) return null;
+        synchronized (slot) {
+            return slot.latest;
+        }
+    }
+
+    TelemetryUpdate awaitStatus(String vehicleId, TelemetryUpdate.Status status, long timeoutMillis) throws InterruptedException {
+        Slot slot = slot(vehicleId);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (slot) {
+            while (slot.latest == null || slot.latest.getStatus() != status) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) return null;
+                slot.wait(remaining);
+            }
+            return slot.latest;
+        }
+    }
+
+    // 리스너는 잠금 밖에서 호출한다. (리스너가 다시 publish 해도 잠금 순서가 꼬이지 않도록)
+    void send(String vehicleId, TelemetryCommand command) {
+        Slot slot = slot(vehicleId);
+        Consumer<TelemetryCommand> listener;
+        synchronized (slot) {
+            listener = slot.listener;
+            if (listener == null) {
+                slot.pending.add(command); // 아직 연결 전 - 연결되면 전달
+                return;
+            }
+        }
+        listener.accept(command);
+    }
+
+    void attach(String vehicleId, Consumer<TelemetryCommand> listener) {
+        Slot slot = slot(vehicleId);
+        List<TelemetryCommand> drained = new ArrayList<>();
+        synchronized (slot) {
+            slot.listener = listener;
+            TelemetryCommand c;
+            while ((c = slot.pending.poll()) != null) drained.add(c);
+        }
+        drained.forEach(listener);
+    }
+
+    void detach(String vehicleId, Consumer<TelemetryCommand> listener) {
+        Slot slot = slots.get(vehicleId);
+        if (slot == null) return;
+        synchronized (slot) {
+            if (slot.listener == listener) slot.listener = null;
+        }
+    }
+
+    void release(String vehicleId) {
+        slots.remove(vehicleId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.kickboard.simulator;
+
+/**
+ * TelemetryCommand.java : 서비스가 시뮬레이터에 보내는 명령
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public enum TelemetryCommand {
+    RETURN_REQUESTED, // 반납 요청 -> 시뮬레이터는 주행을 멈추고 LOCKED 상태를 보낸다
+    SHUTDOWN          // 결제 완료 -> 시뮬레이터 종료
+}
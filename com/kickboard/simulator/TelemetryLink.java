@@ -0,0 +1,21 @@
+package com.kickboard.simulator;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * TelemetryLink.java : 시뮬레이터 쪽에서 본 전송 계층 (킥보드 한 대당 하나)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public interface TelemetryLink extends Closeable {
+
+    // 현재 주행 상태를 서비스로 보낸다.
+    void publish(TelemetryUpdate update);
+
+    // 서비스가 보낸 명령을 받을 리스너를 등록한다. (명령이 도착하는 즉시 호출)
+    void onCommand(Consumer<TelemetryCommand> listener);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,47 @@
+package com.kickboard.simulator;
+
+import java.io.Closeable;
+
+/**
+ * TelemetryTransport.java : 서비스 쪽에서 본 주행 정보 전송 계층.
+ *                           시뮬레이터가 보낸 상태를 vehicleId별로 보관하고, 시뮬레이터에 명령을 보낸다.
+ *                           구현체: InProcessTelemetryTransport(같은 프로세스), SocketTelemetryTransport(로컬 소켓)
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public interface TelemetryTransport extends Closeable {
+
+    /**
+     * 주행을 시작하는 킥보드의 초기 상태를 등록한다.
+     */
+    void register(TelemetryUpdate initial);
+
+    /**
+     * 마지막으로 받은 상태 (없으면 null)
+     */
+    TelemetryUpdate latest(String vehicleId);
+
+    /**
+     * 해당 상태가 도착할 때까지 최대 timeoutMillis 동안 기다린다.
+     * @return 도착한 상태 (시간 초과 시 null)
+     */
+    TelemetryUpdate awaitStatus(String vehicleId, TelemetryUpdate.Status status, long timeoutMillis) throws InterruptedException;
+
+    /**
+     * 시뮬레이터에 명령을 보낸다. 아직 연결되지 않았으면 연결될 때 전달한다.
+     */
+    void send(String vehicleId, TelemetryCommand command);
+
+    /**
+     * 주행이 끝난 킥보드의 상태를 정리한다.
+     */
+    void release(String vehicleId);
+
+    /**
+     * 시뮬레이터가 접속할 주소 (같은 프로세스 전송은 "inprocess")
+     */
+    String endpoint();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,60 @@
+package com.kickboard.simulator;
+
+import java.util.Objects;
+
+/**
+ * TelemetryUpdate.java : 시뮬레이터가 보내는 주행 상태 한 건 (불변 객체).
+ *                        줄 단위 전송 형식은 기존 driving_status.txt와 같다.
+ *                        STATUS,vehicleId,x,y,traveledDistance,battery
+ * @version : 1.0
+ * @date : 2026.10.18
+ */
+public final class TelemetryUpdate {
+
+    public enum Status { DRIVING, LOCKED }
+
+    private final Status status;
+    private final String vehicleId;
+    private final int x;
+    private final int y;
+    private final double traveledDistance;
+    private final int batteryLevel;
+
+    public TelemetryUpdate(Status status, String vehicleId, int x, int y, double traveledDistance, int batteryLevel) {
+        this.status = Objects.requireNonNull(status, "status");
+        this.vehicleId = Objects.requireNonNull(vehicleId, "vehicleId");
+        this.x = x;
+        this.y = y;
+        this.traveledDistance = traveledDistance;
+        this.batteryLevel = batteryLevel;
+    }
+
+    public Status getStatus() { return status; }
+    public String getVehicleId() { return vehicleId; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public double getTraveledDistance() { return traveledDistance; }
+    public int getBatteryLevel() { return batteryLevel; }
+
+    public String toLine() {
+        return status.name() + "," + vehicleId + "," + x + "," + y + "," + traveledDistance + "," + batteryLevel;
+    }
+
+    /**
+     * 전송된 한 줄을 해석한다.
+     * @throws IllegalArgumentException 형식이 맞지 않을 때
+     */
+    public static TelemetryUpdate parse(String line) {
+        String[] parts = line.trim().split(",");
+        if (parts.length < 6) {
+            throw new IllegalArgumentException("잘못된 주행 상태: " + line);
+        }
+        return new TelemetryUpdate(
+                Status.valueOf(parts[0]),
+                parts[1],
+                Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]),
+                Double.parseDouble(parts[4]),
+                Integer.parseInt(parts[5]));
+    }
+}
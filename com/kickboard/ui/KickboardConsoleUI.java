@@ -1,17 +1,23 @@
 package com.kickboard.ui;
 
 import com.kickboard.domain.payment.PaymentMethodType;
+import com.kickboard.domain.payment.Wallet;
 import com.kickboard.domain.rental.Rental;
 import com.kickboard.domain.rental.RentalInfo;
 import com.kickboard.domain.payment.PaymentMethod;
 import com.kickboard.domain.user.User;
 import com.kickboard.domain.vehicle.Vehicle;
 import com.kickboard.exception.KickboardException;
+import com.kickboard.domain.pricing.FareMeter;
 import com.kickboard.domain.pricing.Fee;
+import com.kickboard.domain.pricing.Money;
 import com.kickboard.domain.pricing.discount.CardDiscountDecorator;
 import com.kickboard.domain.pricing.discount.PromotionDecorator;
 import com.kickboard.domain.pricing.strategy.FeeStrategy;
+import com.kickboard.metrics.MetricsRegistry;
 import com.kickboard.service.KickboardRentalService;
+import com.kickboard.service.PaymentHolds;
+import com.kickboard.service.Session;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -30,6 +36,7 @@ public class KickboardConsoleUI {
     private final Scanner scanner;
     private final KickboardRentalService kickboardService;
     private final Map<String, Command> commands; // 추가
+    private Session session; // 이 콘솔의 로그인 세션 (없으면 null)
     private static final Map<String, String> CARD_BIN_MAP = Map.of( // 카드번호 4자리 - 카드회사
         "9400", "Samsung",
         "9430", "Hyundai",
@@ -47,6 +54,8 @@ public class KickboardConsoleUI {
         commands.put("login", new LoginCommand(this));
         commands.put("register", new RegisterCommand(this));
         commands.put("status", new StatusCommand(this));
+        commands.put("nearby", new NearbyCommand(this));
+        commands.put("metrics", new MetricsCommand(this));
         commands.put("exit", new ExitCommand(this));
 
         // 로그인 후 명령어 등록
@@ -83,14 +92,21 @@ public class KickboardConsoleUI {
         }
     }
 
+    // 현재 세션의 사용자 (로그인 전이거나 세션이 만료되었으면 null)
+    private User currentUser() {
+        User user = kickboardService.getSessionUser(session);
+        if (user == null) session = null;
+        return user;
+    }
+
     public void start() {
         System.out.println("== 킥보드 대여 서비스 ==");
 
         while (true) {
-            User currentUser = kickboardService.getCurrentUser();
+            User currentUser = currentUser();
             String prompt = (currentUser == null)
-                ? "\n명령어를 입력하세요 (login, register, status, exit):"
-                : String.format("\n[%s님] 명령어를 입력하세요 (logout, user, status, rent, return, driving_status, exit):", currentUser.getUserId());
+                ? "\n명령어를 입력하세요 (login, register, status, nearby, metrics, exit):"
+                : String.format("\n[%s님] 명령어를 입력하세요 (logout, user, status, nearby, rent, return, driving_status, metrics, exit):", currentUser.getUserId());
             System.out.println(prompt);
 
             String commandKey = scanner.nextLine();
@@ -105,7 +121,7 @@ public class KickboardConsoleUI {
     }
 
     public void loginUser() {
-        if (kickboardService.getCurrentUser() != null) {
+        if (currentUser() != null) {
             System.out.println("오류: 이미 로그인되어 있습니다.");
             return;
         }
@@ -115,26 +131,28 @@ public class KickboardConsoleUI {
         System.out.print("비밀번호: ");
         String password = scanner.nextLine();
 
-        User user = kickboardService.login(userId, password);
-        if (user != null) {
-            System.out.println("로그인 성공! " + user.getUserId() + "님, 환영합니다.");
+        Session newSession = kickboardService.login(userId, password);
+        if (newSession != null) {
+            this.session = newSession;
+            System.out.println("로그인 성공! " + newSession.getUserId() + "님, 환영합니다.");
         } else {
             System.out.println("오류: ID 또는 비밀번호가 일치하지 않습니다.");
         }
     }
 
     public void logoutUser() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인 상태가 아닙니다.");
             return;
         }
-        kickboardService.logout();
+        kickboardService.logout(session);
+        session = null;
         System.out.println(currentUser.getUserId() + "님이 로그아웃하셨습니다.");
     }
 
     public void showCurrentUser() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser != null) {
             System.out.println("현재 로그인된 사용자: " + currentUser.getUserId());
         } else {
@@ -174,8 +192,33 @@ public class KickboardConsoleUI {
         System.out.println("----------------------");
     }
 
+    public void displayNearbyKickboards() {
+        System.out.print("현재 위치 (x,y): ");
+        String[] parts = scanner.nextLine().split(",");
+        int x, y;
+        try {
+            x = Integer.parseInt(parts[0].trim());
+            y = Integer.parseInt(parts[1].trim());
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("오류: 위치는 x,y 형식의 정수로 입력해주세요.");
+            return;
+        }
+        System.out.println("--- 가까운 대여 가능 킥보드 ---");
+        List<Vehicle> nearby = kickboardService.findNearbyKickboards(x, y, 5);
+        if (nearby.isEmpty()) {
+            System.out.println("근처에 대여 가능한 킥보드가 없습니다.");
+        } else {
+            for (Vehicle kickboard : nearby) {
+                System.out.printf("ID: %s | 모델: %s | 위치: %s | 배터리: %d%%\n",
+                    kickboard.getVehicleId(), kickboard.getModelName(),
+                    kickboard.getCurrentLocation(), kickboard.getBatteryLevel());
+            }
+        }
+        System.out.println("----------------------");
+    }
+
     public void rentKickboard() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
@@ -185,7 +228,7 @@ public class KickboardConsoleUI {
         String kickboardId = scanner.nextLine();
 
         try {
-            Rental rental = kickboardService.rentKickboard(currentUser, kickboardId);
+            Rental rental = kickboardService.rentKickboard(session, kickboardId);
             System.out.println("[알림] 주행 시뮬레이터가 별도의 창에서 실행됩니다.");
             System.out.printf("대여 완료! [사용자: %s, 킥보드: %s, 대여 ID: %s]\n",
                 rental.getUser().getUserId(), rental.getVehicle().getVehicleId(), rental.getRentalId());
@@ -195,27 +238,29 @@ public class KickboardConsoleUI {
     }
 
     public void showDrivingStatus() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
         }
-        Rental rental = kickboardService.findActiveRentalForUser(currentUser);
-        if (rental == null) {
-            System.out.println("오류: 현재 대여 중인 킥보드가 없습니다.");
-            return;
-        }
         try {
-            rental = kickboardService.updateDrivingStatus(rental);
+            Rental rental = kickboardService.findActiveRentalForUser(session);
+            if (rental == null) {
+                System.out.println("오류: 현재 대여 중인 킥보드가 없습니다.");
+                return;
+            }
+            rental = kickboardService.updateDrivingStatus(session, rental);
+            FareMeter meter = kickboardService.getFareMeter(session, rental);
             System.out.println("--- 실시간 주행 정보 ---");
             System.out.println("킥보드 위치: " + rental.getVehicle().getCurrentLocation());
             System.out.println("누적 주행 거리: " + rental.getRentalInfo().getTraveledDistance() + "m");
             System.out.println("남은 배터리: " + rental.getVehicle().getBatteryLevel() + "%");
             System.out.println("--- 예상 요금 ---");
-            for (FeeStrategy strategy : kickboardService.getFeeStrategies()) {
-                BigDecimal estimatedCost = strategy.calculateFee(rental);
-                System.out.printf("- %s: %s원\n", strategy.name(), estimatedCost.toPlainString());
+            for (int i = 0; i < meter.size(); i++) {
+                System.out.printf("- %s: %s원\n", meter.getStrategy(i).name(), meter.quote(i).toPlainString());
             }
+            PaymentHolds.Hold hold = kickboardService.getPaymentHold(session, rental);
+            System.out.println("결제 보류: " + (hold != null ? hold : "없음 (반납 때 바로 결제합니다)"));
             System.out.println("---------------------");
         } catch (KickboardException e) {
             System.err.println(e.getMessage());
@@ -223,7 +268,7 @@ public class KickboardConsoleUI {
     }
 
     public void managePayment() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
@@ -235,11 +280,22 @@ public class KickboardConsoleUI {
             System.out.println("등록된 결제수단이 없습니다.");
         } else {
             for (PaymentMethod method : paymentMethods) {
-                System.out.println("|"+ method.getCompanyName() + "| 별명: " + method.getAlias() + ", 카드번호: " + method.getIdentifier() + ", 잔액: " + method.getBalance().intValue());
+                System.out.println("|"+ method.getCompanyName() + "| 별명: " + method.getAlias() + ", 카드번호: " + method.getIdentifier() + ", 잔액: " + method.getBalance().toWon(RoundingMode.DOWN));
+                List<Wallet.Transaction> recent = method.getTransactions(); // 최근 거래 3건
+                for (Wallet.Transaction t : recent.subList(Math.max(0, recent.size() - 3), recent.size())) {
+                    System.out.println("    - " + t);
+                }
             }
         }
         System.out.println("--------------------------");
 
+        if (!paymentMethods.isEmpty()) {
+            System.out.print("결제수단 잔액을 충전하시겠습니까? (y/n): ");
+            if (scanner.nextLine().equalsIgnoreCase("y")) {
+                topUpPaymentMethod(paymentMethods);
+            }
+        }
+
         System.out.print("새 결제수단을 추가하시겠습니까? (y/n): ");
         String input = scanner.nextLine();
         if (input.equalsIgnoreCase("y")) {
@@ -291,23 +347,33 @@ public class KickboardConsoleUI {
             String alias = scanner.nextLine();
 
             
-            boolean added = kickboardService.getUserService().addPaymentMethod(methodType, currentUser.getUserId(), cardNumber, cvc, alias, companyName); 
-            if (added) {
-                System.out.println("결제수단이 성공적으로 추가되었습니다.");
-            } else {
-                System.out.println("오류: 결제수단 추가에 실패했습니다.");
+            try {
+                boolean added = kickboardService.addPaymentMethod(session, methodType, cardNumber, cvc, alias, companyName); 
+                if (added) {
+                    System.out.println("결제수단이 성공적으로 추가되었습니다.");
+                } else {
+                    System.out.println("오류: 결제수단 추가에 실패했습니다.");
+                }
+            } catch (KickboardException e) {
+                System.err.println(e.getMessage());
             }
         }
     }
 
     public void returnKickboard() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
         }
 
-        Rental rental = kickboardService.findActiveRentalForUser(currentUser);
+        Rental rental;
+        try {
+            rental = kickboardService.findActiveRentalForUser(session);
+        } catch (KickboardException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
         if (rental == null) {
             System.out.println("오류: 현재 대여 중인 킥보드가 없습니다.");
             return;
@@ -321,10 +387,12 @@ public class KickboardConsoleUI {
             return;
         }
 
+        FareMeter meter;
         try {
             System.out.println("[알림] 시뮬레이터에 종료를 요청했습니다. 최종 데이터를 동기화합니다...");
-            rental = kickboardService.stopSimulatorAndUpdateRental(rental);
+            rental = kickboardService.stopSimulatorAndUpdateRental(session, rental);
             rental.complete(rental.getRentalInfo().getTraveledDistance());
+            meter = kickboardService.getFareMeter(session, rental); // 반납 시각 기준으로 고정된 요금
         } catch (KickboardException e) {
             System.err.println(e.getMessage());
             return;
@@ -334,7 +402,7 @@ public class KickboardConsoleUI {
         List<FeeStrategy> strategies = kickboardService.getFeeStrategies();
         System.out.println("\n적용할 요금제를 선택해주세요.");
         for (int i = 0; i < strategies.size(); i++) {
-            System.out.printf("%d. %s [%s원]\n", i + 1, strategies.get(i).name(), strategies.get(i).calculateFee(rental).toPlainString());
+            System.out.printf("%d. %s [%s원]\n", i + 1, strategies.get(i).name(), meter.quote(strategies.get(i)).toPlainString());
         }
         int choice = -1;
         try {
@@ -410,8 +478,8 @@ public class KickboardConsoleUI {
 
         // 3. 최종 요금 계산
         Fee finalFee = rental.calculateFinalFee(chosenStrategy, promotions, selectedIndexes);
-        BigDecimal cost = finalFee.getFinalCost();
-        System.out.printf("최종 결제금액: %s원\n", cost.setScale(0, RoundingMode.HALF_UP).toPlainString());
+        Money cost = finalFee.getFinalCost();
+        System.out.printf("최종 결제금액: %d원\n", cost.toWon(RoundingMode.HALF_UP));
 
         // 4. 결제 수단 선택
         List<PaymentMethod> methods = currentUser.getPaymentMethods();
@@ -442,7 +510,7 @@ public class KickboardConsoleUI {
         }
        
         for (int i = 0; i < methods.size(); i++) // 결제수단 표시
-            System.out.printf("%d. | %s | %s | 잔액: %s\n", i + 1, methods.get(i).getCompanyName() , methods.get(i).getAlias(), methods.get(i).getBalance().intValue());
+            System.out.printf("%d. | %s | %s | 잔액: %s\n", i + 1, methods.get(i).getCompanyName() , methods.get(i).getAlias(), methods.get(i).getBalance().toWon(RoundingMode.DOWN));
 
         PaymentMethod selectedMethod = null; 
         while (true) { // 선택 입력
@@ -470,26 +538,74 @@ public class KickboardConsoleUI {
         }
 
         // 5. 결제 및 반납 완료
-        boolean success = kickboardService.processPaymentAndFinalize(rental, finalFee, selectedMethod);
-        if (success) {
-            rental.getRentalInfo().setFinalCost(finalFee.getFinalCost());//최종 결제 금액 저장 
-            kickboardService.removeUsedCoupons(rental, promotions, selectedIndexes); //사용된 쿠폰 삭제 
-            System.out.printf("반납 완료! [대여 ID: %s, 사용자: %s, 킥보드: %s]\n",
-                rental.getRentalId(), rental.getUser().getUserId(), rental.getVehicle().getVehicleId());
-        } else {
-            System.out.println("잔액 부족으로 결제에 실패했습니다. 다른 결제수단으로 다시 시도해주세요. 반납 처리가 취소됩니다.");
+        try {
+            boolean success = kickboardService.processPaymentAndFinalize(session, rental, finalFee, selectedMethod);
+            if (success) {
+                rental.getRentalInfo().setFinalCost(finalFee.getFinalCost().toBigDecimal());//최종 결제 금액 저장 
+                System.out.printf("반납 완료! [대여 ID: %s, 사용자: %s, 킥보드: %s]\n",
+                    rental.getRentalId(), rental.getUser().getUserId(), rental.getVehicle().getVehicleId());
+            } else {
+                System.out.println("잔액 부족으로 결제에 실패했습니다. 다른 결제수단으로 다시 시도해주세요. 반납 처리가 취소됩니다.");
+            }
+        } catch (KickboardException e) {
+            rental.revertComplete();
+            System.err.println(e.getMessage());
         }
     }
 
+    private void topUpPaymentMethod(List<PaymentMethod> paymentMethods) {
+        for (int i = 0; i < paymentMethods.size(); i++) {
+            System.out.printf("%d. | %s | %s | 잔액: %s\n", i + 1, paymentMethods.get(i).getCompanyName(),
+                    paymentMethods.get(i).getAlias(), paymentMethods.get(i).getBalance().toWon(RoundingMode.DOWN));
+        }
+        try {
+            System.out.print("충전할 결제수단 번호: ");
+            int n = Integer.parseInt(scanner.nextLine().trim());
+            if (n < 1 || n > paymentMethods.size()) {
+                System.out.println("오류: 1 ~ " + paymentMethods.size() + " 사이의 숫자를 입력하세요.");
+                return;
+            }
+            System.out.print("충전 금액 (원): ");
+            long won = Long.parseLong(scanner.nextLine().trim());
+            PaymentMethod method = paymentMethods.get(n - 1);
+            kickboardService.topUpPaymentMethod(session, method, Money.ofWon(won));
+            System.out.println("충전 완료! 잔액: " + method.getBalance().toWon(RoundingMode.DOWN) + "원");
+        } catch (NumberFormatException e) {
+            System.out.println("오류: 숫자만 입력해주세요.");
+        } catch (KickboardException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // 서비스 지표(대여/반납/결제 지연 시간, 저장 시간, 옵저버 지연 등)를 보여주는 method
+    public void showMetrics() {
+        System.out.print("출력 형식을 선택하세요 (text, prometheus) [text]: ");
+        String format = scanner.nextLine().trim();
+        MetricsRegistry metrics = kickboardService.getMetrics();
+        if (format.equalsIgnoreCase("prometheus") || format.equalsIgnoreCase("prom")) {
+            System.out.print(metrics.toPrometheus());
+            return;
+        }
+        System.out.println("=== 서비스 지표 ===");
+        System.out.print(metrics.toText());
+        System.out.println("-------------------");
+    }
+
     //사용자의 rental history를 보여주는 method
     public void showRentalHistory() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
         }
 
-        List<Rental> history = kickboardService.getRentalHistoryForUser(currentUser);
+        List<Rental> history;
+        try {
+            history = kickboardService.getRentalHistoryForUser(session);
+        } catch (KickboardException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
         if (history.isEmpty()) {
             System.out.println("이용 내역이 없습니다.");
             return;
@@ -515,7 +631,7 @@ public class KickboardConsoleUI {
 
     // 사용자가 쿠폰을 추가하는 메소드
     public void manageCoupons() {
-        User currentUser = kickboardService.getCurrentUser();
+        User currentUser = currentUser();
         if (currentUser == null) {
             System.out.println("오류: 로그인이 필요합니다.");
             return;
@@ -549,16 +665,20 @@ public class KickboardConsoleUI {
             System.out.print("할인율을 입력하세요 (예: 0.10): ");
             BigDecimal rate = new BigDecimal(scanner.nextLine());
 
-            boolean added = kickboardService.addCouponForUser(
-                    currentUser.getUserId(),
-                    couponId,
-                    rate
-            );
+            try {
+                boolean added = kickboardService.addCouponForUser(
+                        session,
+                        couponId,
+                        rate
+                );
 
-            if (added) {
-                System.out.println("쿠폰이 성공적으로 추가되었습니다.");
-            } else {
-                System.out.println("오류: 쿠폰 추가에 실패했습니다.");
+                if (added) {
+                    System.out.println("쿠폰이 성공적으로 추가되었습니다.");
+                } else {
+                    System.out.println("오류: 쿠폰 추가에 실패했습니다.");
+                }
+            } catch (KickboardException e) {
+                System.err.println(e.getMessage());
             }
         }
     }
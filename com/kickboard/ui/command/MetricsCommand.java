@@ -0,0 +1,16 @@
+package com.kickboard.ui.command;
+
+import com.kickboard.ui.KickboardConsoleUI;
+
+public class MetricsCommand implements Command {
+    private final KickboardConsoleUI consoleUI;
+
+    public MetricsCommand(KickboardConsoleUI consoleUI) {
+        this.consoleUI = consoleUI;
+    }
+
+    @Override
+    public void execute() {
+        consoleUI.showMetrics();
+    }
+}
@@ -0,0 +1,16 @@
+package com.kickboard.ui.command;
+
+import com.kickboard.ui.KickboardConsoleUI;
+
+public class NearbyCommand implements Command {
+    private final KickboardConsoleUI consoleUI;
+
+    public NearbyCommand(KickboardConsoleUI consoleUI) {
+        this.consoleUI = consoleUI;
+    }
+
+    @Override
+    public void execute() {
+        consoleUI.displayNearbyKickboards();
+    }
+}